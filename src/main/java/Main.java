@@ -20,7 +20,7 @@ import Utils.Parser.ConfigParser;
 public class Main {
 
     //serverLoadTracker
-    private static ServerLoadTracker serverLoadTracker;
+    private static LoadTracker serverLoadTracker;
 
     //main window panel
     private static MainForm mainForm;
@@ -37,9 +37,9 @@ public class Main {
     public static void main(String[] args) throws IOException {
 
         Config config = ConfigParser.getInstance().parseFromIniToConfig("config.ini");
-        intitializeServerLoadTracker();
-        ServersHandler serversHandler = new ServersHandler(config,serverLoadTracker);
-        ClientsHandler clientsHandler = new ClientsHandler(config,serverLoadTracker);
+        intitializeServerLoadTracker(config);
+        ServersHandler serversHandler = new ServersHandler(config,serverLoadTracker,serverLoadTracker);
+        ClientsHandler clientsHandler = new ClientsHandler(config,initializeHealthMonitor(config));
 
         createAndShowGUI(serversHandler,clientsHandler,config);
 
@@ -51,6 +51,22 @@ public class Main {
 
     }
 
+    /**
+     * Starts the health monitor the clients choose the servers through, when it is enabled.
+     *
+     * @param config the loaded config
+     * @return the health monitor, or the load tracker itself if the monitor is disabled
+     */
+    private static LoadTrackerReader initializeHealthMonitor(Config config)
+    {
+        if ( config.getHealthProbeInterval() <= 0 )
+            return serverLoadTracker;
+
+        HealthMonitor healthMonitor = new HealthMonitor(serverLoadTracker, config);
+        healthMonitor.start();
+        return healthMonitor;
+    }
+
     /**
      * Creates and prepares to show the UI
      *
@@ -80,9 +96,11 @@ public class Main {
             public void windowClosing(WindowEvent e) {
                 serversHandler.closeAllServers();
                 System.out.println("Closing Servers ... ");
+                if ( serverLoadTracker instanceof InMemoryLoadTracker )
+                    ((InMemoryLoadTracker) serverLoadTracker).stopSnapshots();
                 System.out.println("Shutting Down ... ");
                 try {
-                    Files.delete( Paths.get("./load_info.temp") );
+                    Files.deleteIfExists( Paths.get( config.getLoadInfoPath() ) );
                 } catch (IOException ex) {
                     throw new RuntimeException(ex);
                 }
@@ -93,11 +111,28 @@ public class Main {
     }
 
     /**
-     *  Initializes Server load Tracker instance with the path
+     *  Initializes the Server load Tracker of the configured type with the path
+     *
+     * @param config the loaded config
+     * @throws IOException if the mapped load table cannot be opened
      */
-    private static void intitializeServerLoadTracker()
+    private static void intitializeServerLoadTracker(Config config) throws IOException
     {
-        serverLoadTracker = ServerLoadTracker.getInstance();
-        ServerLoadTracker.getInstance().setFilePath("load_info.temp");
+        if ( config.getLoadTrackerType().equals("file") )
+        {
+            serverLoadTracker = ServerLoadTracker.getInstance();
+            ServerLoadTracker.getInstance().setFilePath( config.getLoadInfoPath() );
+        }
+        else if ( config.getLoadTrackerType().equals("mapped") )
+        {
+            serverLoadTracker = new MappedLoadTracker( config.getMappedPath(), config.getMappedRecords() );
+        }
+        else
+        {
+            InMemoryLoadTracker inMemoryLoadTracker = new InMemoryLoadTracker();
+            inMemoryLoadTracker.startSnapshots( config.getLoadInfoPath(), config.getSnapshotInterval() );
+            serverLoadTracker = inMemoryLoadTracker;
+        }
+        serverLoadTracker.setSelectionStrategy( ServerSelectionStrategy.forConfig( config ) );
     }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package Network.Client;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Computes jittered exponential backoff delays for client retries.
+ * <p>
+ * The delay of a retry round doubles with each attempt, starting at the base delay and limited by the maximum delay.
+ * Half of the delay is fixed and the other half is random, so clients refused at the same moment do not all retry at
+ * the same moment.
+ * </p>
+ */
+public class Backoff {
+
+    private final long BASE;
+    private final long MAX;
+
+    /**
+     * Creates a new Backoff.
+     *
+     * @param base The delay in milliseconds of the first attempt.
+     * @param max  The upper limit in milliseconds of any delay.
+     * @throws IllegalArgumentException If base is negative or max is lower than base.
+     */
+    public Backoff(long base, long max)
+    {
+        if ( base < 0 || max < base )
+            throw new IllegalArgumentException("Backoff needs 0 <= base <= max");
+
+        this.BASE = base;
+        this.MAX = max;
+    }
+
+    /**
+     * Computes the delay of an attempt.
+     *
+     * @param attempt The number of the attempt, starting at 0.
+     * @return A delay in milliseconds between half and the whole of {@code min(max, base * 2^attempt)}.
+     */
+    public long getDelay(int attempt)
+    {
+        long delay = this.MAX;
+        if ( attempt < Long.numberOfLeadingZeros( Math.max( 1, this.BASE ) ) - 1 )
+            delay = Math.min( this.MAX, this.BASE << attempt );
+
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong( delay - half + 1 );
+    }
+}
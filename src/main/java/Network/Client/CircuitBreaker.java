@@ -0,0 +1,112 @@
+package Network.Client;
+
+/**
+ * The circuit breaker of one server, it stops the clients from sending requests to a server that keeps failing them.
+ * <p>
+ * A closed breaker lets requests through and counts the consecutive failures. When they reach the threshold the
+ * breaker opens, the server is no longer offered to the clients. Once the open timeout passed the breaker becomes half
+ * open and allows a single trial, a successful trial closes the breaker, a failed one opens it again for another
+ * timeout.
+ * </p>
+ */
+public class CircuitBreaker {
+
+    /**
+     * The states of a circuit breaker.
+     */
+    public enum State {
+        /**
+         * Requests go through, failures are counted.
+         */
+        CLOSED,
+
+        /**
+         * Requests are rejected until the open timeout passes.
+         */
+        OPEN,
+
+        /**
+         * A single trial request is allowed to decide whether the breaker closes.
+         */
+        HALF_OPEN
+    }
+
+    private final int FAILURE_THRESHOLD;
+    private final long OPEN_TIMEOUT;
+
+    private State state;
+    private int failures;
+    private long openedAt;
+
+    /**
+     * Creates a closed circuit breaker.
+     *
+     * @param failureThreshold The number of consecutive failures that open the breaker.
+     * @param openTimeout      The time in milliseconds the breaker stays open before a trial.
+     */
+    public CircuitBreaker(int failureThreshold, long openTimeout)
+    {
+        if ( failureThreshold < 1 )
+            throw new IllegalArgumentException( "The failure threshold must be positive" );
+
+        this.FAILURE_THRESHOLD = failureThreshold;
+        this.OPEN_TIMEOUT = openTimeout;
+        this.state = State.CLOSED;
+    }
+
+    /**
+     * Asks for a trial of an open breaker whose timeout passed, the breaker becomes half open and refuses any other
+     * trial until the result of this one is recorded.
+     *
+     * @param now The current time in milliseconds.
+     * @return <b>True</b> if the caller may send the trial request.
+     */
+    public synchronized boolean tryTrial(long now)
+    {
+        if ( this.state != State.OPEN || now - this.openedAt < this.OPEN_TIMEOUT )
+            return false;
+
+        this.state = State.HALF_OPEN;
+        return true;
+    }
+
+    /**
+     * Records a request that got an answer, the breaker closes.
+     */
+    public synchronized void recordSuccess()
+    {
+        this.state = State.CLOSED;
+        this.failures = 0;
+    }
+
+    /**
+     * Records a request that failed. The breaker opens if the failures reached the threshold or if it was a trial.
+     *
+     * @param now The current time in milliseconds.
+     */
+    public synchronized void recordFailure(long now)
+    {
+        this.failures++;
+        if ( this.state == State.HALF_OPEN || ( this.state == State.CLOSED && this.failures >= this.FAILURE_THRESHOLD ) )
+        {
+            this.state = State.OPEN;
+            this.openedAt = now;
+        }
+    }
+
+    /**
+     * @return <b>True</b> if the breaker lets requests through.
+     */
+    public synchronized boolean isClosed()
+    {
+        return this.state == State.CLOSED;
+    }
+
+    /**
+     * @return The current state.
+     */
+    public synchronized State getState()
+    {
+        return this.state;
+    }
+}
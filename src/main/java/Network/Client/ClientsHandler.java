@@ -43,6 +43,8 @@ public class ClientsHandler implements Observer {
 
     private final LoadTrackerReader loadTrackerReader;
 
+    private final HedgePolicy hedgePolicy;
+
     /**
      * Constructs a ClientHandler object with the specified configuration and load tracker reader.
      *
@@ -54,6 +56,7 @@ public class ClientsHandler implements Observer {
         this.clients = new VarSync< ArrayList<MasterClient> >( new ArrayList<MasterClient>(1) );
         this.config = config;
         this.loadTrackerReader = loadTrackerReader;
+        this.hedgePolicy = new HedgePolicy( config );
     }
 
     /**
@@ -66,7 +69,7 @@ public class ClientsHandler implements Observer {
     public void createNewClient(ClientTab tab, String clientName , BufferedImage image )
     {
         this.clients.lock();
-        MasterClient masterClient = new MasterClient( clientName, image, this.config.getRows(), this.config.getColumns(), this.loadTrackerReader, config.getSavePath());
+        MasterClient masterClient = new MasterClient( clientName, image, this.config.getRows(), this.config.getColumns(), this.loadTrackerReader, config.getSavePath(), this.config, this.hedgePolicy);
 
         // establish event communication
         masterClient.addObserver(tab);
@@ -256,4 +259,12 @@ public class ClientsHandler implements Observer {
     {
         return this.clients.syncGet().size();
     }
+
+    /**
+     * @return The hedging policy shared by the clients, with the hedging metrics.
+     */
+    public HedgePolicy getHedgePolicy()
+    {
+        return this.hedgePolicy;
+    }
 }
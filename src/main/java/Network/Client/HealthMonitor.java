@@ -0,0 +1,242 @@
+package Network.Client;
+
+import Network.Server.LoadTrackerReader;
+import Network.Server.Request;
+import Network.Server.Response;
+import Network.Server.ServerLoad;
+import Network.Server.ServerSelectionStrategy;
+import Network.Server.SocketSettings;
+import Utils.Parser.Config;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Watches the health of the tracked servers and keeps the clients away from the ones that fail.
+ * <p>
+ * The monitor reads the load tracker for the clients and adds the servers whose {@link CircuitBreaker} is not closed
+ * to the servers every selection excludes, so a request to a failing server costs nothing instead of a connect
+ * timeout. The breakers are fed by the failures and answers the clients report and by the monitor itself, which probes
+ * every server with a {@link Request#PING} request at a fixed interval. A probe that is not answered within the probe
+ * timeout counts as a failure, and the probe of an open breaker whose timeout passed is its half open trial.
+ * </p>
+ */
+public class HealthMonitor extends Thread implements LoadTrackerReader {
+
+    private static final String HOST = "localhost";
+
+    private final LoadTrackerReader TRACKER;
+    private final Map<Integer, CircuitBreaker> BREAKERS;
+    private final SocketSettings SOCKET_SETTINGS;
+    private final long PROBE_INTERVAL;
+    private final int PROBE_TIMEOUT;
+    private final int FAILURE_THRESHOLD;
+    private final long OPEN_TIMEOUT;
+
+    /**
+     * Creates a health monitor, the servers are only probed once it is started.
+     *
+     * @param tracker The tracker the clients choose the servers from.
+     * @param config  The configuration with the probe and circuit breaker settings and the socket settings.
+     */
+    public HealthMonitor(LoadTrackerReader tracker, Config config)
+    {
+        super( "Health monitor" );
+        this.setDaemon( true );
+        this.TRACKER = tracker;
+        this.BREAKERS = new ConcurrentHashMap<>();
+        this.SOCKET_SETTINGS = new SocketSettings( config );
+        this.PROBE_INTERVAL = Math.max( 1, config.getHealthProbeInterval() );
+        this.PROBE_TIMEOUT = config.getHealthProbeTimeout();
+        this.FAILURE_THRESHOLD = config.getBreakerFailureThreshold();
+        this.OPEN_TIMEOUT = config.getBreakerOpenTimeout();
+    }
+
+    @Override
+    public void run()
+    {
+        try
+        {
+            while ( !this.isInterrupted() )
+            {
+                this.probeServers( System.currentTimeMillis() );
+                Thread.sleep( this.PROBE_INTERVAL );
+            }
+        }
+        catch (InterruptedException ignored) {}
+    }
+
+    /**
+     * Probes the tracked servers whose breaker is closed, or open with its timeout passed, and forgets the breakers of
+     * the servers that are no longer tracked.
+     *
+     * @param now The current time in milliseconds.
+     */
+    public void probeServers(long now)
+    {
+        List<Integer> ports = new ArrayList<>();
+        for ( ServerLoad server : this.TRACKER.getServerLoads() )
+            ports.add( server.getPort() );
+        this.BREAKERS.keySet().retainAll( ports );
+
+        for ( int port : ports )
+        {
+            CircuitBreaker breaker = this.getBreaker( port );
+            if ( !breaker.isClosed() && !breaker.tryTrial( now ) )
+                continue;
+
+            if ( this.ping( port ) )
+                breaker.recordSuccess();
+            else
+                breaker.recordFailure( now );
+        }
+    }
+
+    /**
+     * Sends a ping request to a server.
+     *
+     * @param port The port of the server.
+     * @return <b>True</b> if the server answered within the probe timeout.
+     */
+    private boolean ping(int port)
+    {
+        try ( Socket socket = this.SOCKET_SETTINGS.connect( HOST, port, this.PROBE_TIMEOUT ) )
+        {
+            socket.setSoTimeout( this.PROBE_TIMEOUT );
+            ObjectOutputStream out = new ObjectOutputStream( socket.getOutputStream() );
+            ObjectInputStream in = new ObjectInputStream( socket.getInputStream() );
+            out.writeObject( new Request( Request.PING, "health probe" ) );
+            return Response.OK.equals( ((Response) in.readObject()).getStatus() );
+        }
+        catch ( IOException | ClassNotFoundException e )
+        {
+            return false;
+        }
+    }
+
+    /**
+     * @param port The port of the server.
+     * @return The state of the breaker of the server, closed for a server never seen failing.
+     */
+    public CircuitBreaker.State getState(int port)
+    {
+        CircuitBreaker breaker = this.BREAKERS.get( port );
+        return breaker == null ? CircuitBreaker.State.CLOSED : breaker.getState();
+    }
+
+    /**
+     * @return The ports of the servers whose breaker is not closed.
+     */
+    public Collection<Integer> getUnavailableServers()
+    {
+        Collection<Integer> unavailable = new HashSet<>();
+        this.BREAKERS.forEach( (port, breaker) -> {
+            if ( !breaker.isClosed() )
+                unavailable.add( port );
+        } );
+        return unavailable;
+    }
+
+    @Override
+    public void recordSuccess(int serverIdentifier)
+    {
+        this.getBreaker( serverIdentifier ).recordSuccess();
+    }
+
+    @Override
+    public void recordFailure(int serverIdentifier)
+    {
+        this.getBreaker( serverIdentifier ).recordFailure( System.currentTimeMillis() );
+    }
+
+    @Override
+    public int getLoad(int serverIdentifier)
+    {
+        return this.TRACKER.getLoad( serverIdentifier );
+    }
+
+    @Override
+    public int getServerWithLessLoad()
+    {
+        return this.TRACKER.getServerWithLessLoad( this.excluding( List.of() ) );
+    }
+
+    @Override
+    public int getServerWithLessLoad(Collection<Integer> excludedServers)
+    {
+        return this.TRACKER.getServerWithLessLoad( this.excluding( excludedServers ) );
+    }
+
+    @Override
+    public int selectServer(Collection<Integer> excludedServers)
+    {
+        return this.TRACKER.selectServer( this.excluding( excludedServers ) );
+    }
+
+    @Override
+    public int reserveServer(Collection<Integer> excludedServers)
+    {
+        return this.TRACKER.reserveServer( this.excluding( excludedServers ) );
+    }
+
+    @Override
+    public int selectServer(Collection<Integer> excludedServers, String routingKey)
+    {
+        return this.TRACKER.selectServer( this.excluding( excludedServers ), routingKey );
+    }
+
+    @Override
+    public int reserveServer(Collection<Integer> excludedServers, String routingKey)
+    {
+        return this.TRACKER.reserveServer( this.excluding( excludedServers ), routingKey );
+    }
+
+    @Override
+    public void releaseReservation(int serverIdentifier)
+    {
+        this.TRACKER.releaseReservation( serverIdentifier );
+    }
+
+    @Override
+    public void setSelectionStrategy(ServerSelectionStrategy selectionStrategy)
+    {
+        this.TRACKER.setSelectionStrategy( selectionStrategy );
+    }
+
+    @Override
+    public List<ServerLoad> getServerLoads()
+    {
+        return this.TRACKER.getServerLoads();
+    }
+
+    /**
+     * @param port The port of the server.
+     * @return The breaker of the server, created closed the first time.
+     */
+    private CircuitBreaker getBreaker(int port)
+    {
+        return this.BREAKERS.computeIfAbsent( port, key -> new CircuitBreaker( this.FAILURE_THRESHOLD, this.OPEN_TIMEOUT ) );
+    }
+
+    /**
+     * @param excludedServers The servers the caller excludes.
+     * @return The servers the caller excludes and the servers whose breaker is not closed.
+     */
+    private Collection<Integer> excluding(Collection<Integer> excludedServers)
+    {
+        Collection<Integer> unavailable = this.getUnavailableServers();
+        if ( unavailable.isEmpty() )
+            return excludedServers;
+
+        unavailable.addAll( excludedServers );
+        return unavailable;
+    }
+}
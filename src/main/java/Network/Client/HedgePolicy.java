@@ -0,0 +1,192 @@
+package Network.Client;
+
+import Utils.Parser.Config;
+
+import java.util.Arrays;
+
+/**
+ * Decides when a tile still outstanding is sent to a second server, and counts how hedging performs.
+ * <p>
+ * The policy keeps the latencies of the last tiles, from the moment a tile is handed to its slave to its first
+ * response. A tile outstanding for longer than the configured percentile of these latencies is a straggler worth a
+ * duplicate request. Hedging only starts once enough latencies were observed, and the duplicates are capped to a share
+ * of the tiles, so a server that slows down for everyone does not double the load of the others.
+ * </p>
+ * <p>
+ * One policy is meant to be shared by the clients of a process, the latencies of an image then help the next one.
+ * </p>
+ */
+public class HedgePolicy {
+
+    /**
+     * Number of latencies the percentile is computed over.
+     */
+    private static final int WINDOW = 256;
+
+    private final int PERCENTILE;
+    private final int MAX_RATE;
+    private final int MIN_SAMPLES;
+    private final long[] LATENCIES;
+
+    private int samples;
+    private int next;
+    private long hedgeDelay;
+    private boolean hedgeDelayStale;
+
+    private long tiles;
+    private long hedges;
+    private long hedgeWins;
+    private long cancelledLosers;
+
+    /**
+     * Creates a policy with the hedging settings of the configuration.
+     *
+     * @param config The configuration with the hedge percentile, the maximum hedge rate and the minimum of samples.
+     */
+    public HedgePolicy(Config config)
+    {
+        this( config.getHedgePercentile(), config.getHedgeMaxRate(), config.getHedgeMinSamples() );
+    }
+
+    /**
+     * Creates a policy.
+     *
+     * @param percentile The percentile of the tile latency after which a tile is hedged, 0 disables hedging.
+     * @param maxRate    The maximum share of the tiles, in percent, that may be hedged.
+     * @param minSamples The number of latencies to observe before hedging.
+     */
+    public HedgePolicy(int percentile, int maxRate, int minSamples)
+    {
+        if ( percentile < 0 || percentile > 99 )
+            throw new IllegalArgumentException( "The hedge percentile must be between 0 and 99" );
+
+        this.PERCENTILE = percentile;
+        this.MAX_RATE = maxRate;
+        this.MIN_SAMPLES = Math.max( 1, minSamples );
+        this.LATENCIES = new long[WINDOW];
+        this.hedgeDelayStale = true;
+    }
+
+    /**
+     * @return <b>True</b> if the policy may hedge tiles.
+     */
+    public boolean isEnabled()
+    {
+        return this.PERCENTILE > 0 && this.MAX_RATE > 0;
+    }
+
+    /**
+     * Counts a tile handed to a slave, the hedges are capped to a share of these tiles.
+     */
+    public synchronized void onTileStarted()
+    {
+        this.tiles++;
+    }
+
+    /**
+     * Records the latency of a tile, from the moment it was handed to its slave to its first response.
+     *
+     * @param latency The latency in milliseconds.
+     */
+    public synchronized void recordLatency(long latency)
+    {
+        this.LATENCIES[this.next] = latency;
+        this.next = ( this.next + 1 ) % WINDOW;
+        this.samples = Math.min( this.samples + 1, WINDOW );
+        this.hedgeDelayStale = true;
+    }
+
+    /**
+     * @return The time in milliseconds after which an outstanding tile is hedged, -1 while hedging is disabled or not
+     * enough latencies were observed.
+     */
+    public synchronized long getHedgeDelay()
+    {
+        if ( !this.isEnabled() || this.samples < this.MIN_SAMPLES )
+            return -1;
+
+        if ( this.hedgeDelayStale )
+        {
+            long[] sorted = Arrays.copyOf( this.LATENCIES, this.samples );
+            Arrays.sort( sorted );
+            this.hedgeDelay = sorted[ Math.min( this.samples - 1, this.samples * this.PERCENTILE / 100 ) ];
+            this.hedgeDelayStale = false;
+        }
+        return this.hedgeDelay;
+    }
+
+    /**
+     * Asks to hedge a straggler, granted while the hedges stay under the maximum share of the tiles.
+     *
+     * @return <b>True</b> if the tile may be hedged, the hedge is counted.
+     */
+    public synchronized boolean tryHedge()
+    {
+        if ( !this.isEnabled() || ( this.hedges + 1 ) * 100 > this.tiles * this.MAX_RATE )
+            return false;
+
+        this.hedges++;
+        return true;
+    }
+
+    /**
+     * Records the outcome of a hedged tile.
+     *
+     * @param hedgeWon        <b>True</b> if the duplicate answered first.
+     * @param loserCancelled  <b>True</b> if the request that lost was still outstanding and got cancelled.
+     */
+    public synchronized void recordHedgeOutcome(boolean hedgeWon, boolean loserCancelled)
+    {
+        if ( hedgeWon )
+            this.hedgeWins++;
+        if ( loserCancelled )
+            this.cancelledLosers++;
+    }
+
+    /**
+     * @return The number of tiles handed to slaves.
+     */
+    public synchronized long getTiles()
+    {
+        return this.tiles;
+    }
+
+    /**
+     * @return The number of duplicate requests sent.
+     */
+    public synchronized long getHedges()
+    {
+        return this.hedges;
+    }
+
+    /**
+     * @return The number of hedged tiles whose duplicate answered first.
+     */
+    public synchronized long getHedgeWins()
+    {
+        return this.hedgeWins;
+    }
+
+    /**
+     * @return The number of losing requests cancelled.
+     */
+    public synchronized long getCancelledLosers()
+    {
+        return this.cancelledLosers;
+    }
+
+    /**
+     * @return The share of the tiles that were hedged, between 0 and 1.
+     */
+    public synchronized double getHedgeRate()
+    {
+        return this.tiles == 0 ? 0 : (double) this.hedges / this.tiles;
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        return String.format( "tiles=%d hedges=%d hedgeWins=%d cancelledLosers=%d hedgeDelay=%dms",
+                this.tiles, this.hedges, this.hedgeWins, this.cancelledLosers, this.getHedgeDelay() );
+    }
+}
@@ -0,0 +1,120 @@
+package Network.Client;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A tile that may be requested from two servers at once, by its primary slave and by a hedge slave.
+ * <p>
+ * The slave whose response arrives first wins the tile, it alone stores the processed image part and reports it. The
+ * other slave drops its response, and the master client cancels it if it is still waiting.
+ * </p>
+ */
+public class HedgedTile {
+
+    private final long STARTED_AT;
+    private final AtomicReference<SlaveClient> winner;
+    private volatile long wonAt;
+    private volatile SlaveClient primary;
+    private volatile SlaveClient hedge;
+
+    /**
+     * Creates a tile handed to its primary slave now.
+     */
+    public HedgedTile()
+    {
+        this.STARTED_AT = System.currentTimeMillis();
+        this.winner = new AtomicReference<>();
+    }
+
+    /**
+     * Claims the tile for a slave that received a response.
+     *
+     * @param slave The slave that received the response.
+     * @return <b>True</b> if the slave is the first one, and must store the response.
+     */
+    public boolean tryWin(SlaveClient slave)
+    {
+        if ( !this.winner.compareAndSet( null, slave ) )
+            return false;
+
+        this.wonAt = System.currentTimeMillis();
+        return true;
+    }
+
+    /**
+     * @return <b>True</b> once a slave won the tile.
+     */
+    public boolean isWon()
+    {
+        return this.winner.get() != null;
+    }
+
+    /**
+     * @return <b>True</b> if the hedge slave won the tile.
+     */
+    public boolean isWonByHedge()
+    {
+        SlaveClient winner = this.winner.get();
+        return winner != null && winner == this.hedge;
+    }
+
+    /**
+     * @return The slave that lost the tile, null if it is not won yet or was never hedged.
+     */
+    public SlaveClient getLoser()
+    {
+        SlaveClient winner = this.winner.get();
+        if ( winner == null || this.hedge == null )
+            return null;
+        return winner == this.primary ? this.hedge : this.primary;
+    }
+
+    /**
+     * @return The time in milliseconds from the moment the tile was handed to its slave to its first response, or up
+     * to now if it is still outstanding.
+     */
+    public long getLatency()
+    {
+        return ( this.isWon() ? this.wonAt : System.currentTimeMillis() ) - this.STARTED_AT;
+    }
+
+    /**
+     * @return <b>True</b> while a slave of the tile is still running.
+     */
+    public boolean isOutstanding()
+    {
+        return ( this.primary != null && this.primary.isAlive() ) || ( this.hedge != null && this.hedge.isAlive() );
+    }
+
+    /**
+     * @return The slave the tile was first handed to.
+     */
+    public SlaveClient getPrimary()
+    {
+        return this.primary;
+    }
+
+    /**
+     * @param primary The slave the tile is first handed to.
+     */
+    public void setPrimary(SlaveClient primary)
+    {
+        this.primary = primary;
+    }
+
+    /**
+     * @return The slave sending the duplicate request, null if the tile was not hedged.
+     */
+    public SlaveClient getHedge()
+    {
+        return this.hedge;
+    }
+
+    /**
+     * @param hedge The slave sending the duplicate request.
+     */
+    public void setHedge(SlaveClient hedge)
+    {
+        this.hedge = hedge;
+    }
+}
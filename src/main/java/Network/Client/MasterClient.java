@@ -1,6 +1,8 @@
 package Network.Client;
 
 import Network.Server.LoadTrackerReader;
+import Network.Server.Request;
+import Network.Server.SocketSettings;
 import Utils.Events.Enums.EventTypes;
 import Utils.Events.Enums.ImageStates;
 import Utils.Events.Enums.SeverityLevels;
@@ -11,10 +13,19 @@ import Utils.Image.ImageTransformer;
 import Utils.Image.SplitImage;
 import Utils.Observer.Observer;
 import Utils.Observer.Subject;
+import Utils.Parser.Config;
 import Utils.VarSync;
 
 import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.Socket;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
 
 
 /**
@@ -31,6 +42,11 @@ import java.util.ArrayList;
  *   occurring during the processing task, facilitating real-time monitoring and feedback.
  * - Load Tracking: Integrates with a LoadTrackerReader to monitor server load information, enabling dynamic
  *   load balancing and resource optimization.
+ * - Cancellation: Every run is a job with its own identifier and deadline carried by all its requests. Cancelling
+ *   sends a cancel request to the servers holding parts of the job, so abandoned parts do not use server capacity.
+ * - Hedging: The image is only merged once its slowest tile arrives. When the {@link HedgePolicy} allows it, a tile
+ *   still outstanding past a percentile of the observed tile latency is requested again from another server, the
+ *   first response wins and the request that lost is cancelled on its server.
  */
 public class MasterClient extends Thread implements Subject, Observer {
 
@@ -40,12 +56,28 @@ public class MasterClient extends Thread implements Subject, Observer {
     private BufferedImage[][] splittedOriginalImage;
     private final BufferedImage[][] splittedFinalImage;
     private ArrayList<SlaveClient> slaveClientsList;
+    private final ArrayList<HedgedTile> tiles;
+    private final HedgePolicy hedgePolicy;
+    private volatile boolean cancelRequested;
     private VarSync<Boolean> isCancel;
 
     private final String savePhat;
+    private final Config config;
+    private String jobId;
+    private long deadline;
 
     /**
-     * Constructs a MasterClient object with the provided parameters.
+     * Time limit in milliseconds to deliver a cancel request to a server.
+     */
+    private static final int CANCEL_TIMEOUT = 1000;
+
+    /**
+     * Interval in milliseconds between two checks of the outstanding tiles while hedging.
+     */
+    private static final int HEDGE_CHECK_INTERVAL = 10;
+
+    /**
+     * Constructs a MasterClient object with the provided parameters and the default client settings.
      *
      * @param name              The name of the MasterClient (e.g. name of the image to process).
      * @param originalImage     The original image to be processed.
@@ -55,6 +87,39 @@ public class MasterClient extends Thread implements Subject, Observer {
      * @throws IllegalArgumentException If nRows or nColumns is less than 1.
      */
     public MasterClient(String name, BufferedImage originalImage, int nRows, int nColumns, LoadTrackerReader loadTrackerReader, String savePhat) throws IllegalArgumentException {
+        this(name, originalImage, nRows, nColumns, loadTrackerReader, savePhat, new Config());
+    }
+
+    /**
+     * Constructs a MasterClient object with the provided parameters.
+     *
+     * @param name              The name of the MasterClient (e.g. name of the image to process).
+     * @param originalImage     The original image to be processed.
+     * @param nRows             The number of rows to divide the image into.
+     * @param nColumns          The number of columns to divide the image into.
+     * @param loadTrackerReader The reader for tracking load information from servers.
+     * @param savePhat          The directory where the edited image is saved.
+     * @param config            The configuration with the client retry settings.
+     * @throws IllegalArgumentException If nRows or nColumns is less than 1.
+     */
+    public MasterClient(String name, BufferedImage originalImage, int nRows, int nColumns, LoadTrackerReader loadTrackerReader, String savePhat, Config config) throws IllegalArgumentException {
+        this(name, originalImage, nRows, nColumns, loadTrackerReader, savePhat, config, new HedgePolicy(config));
+    }
+
+    /**
+     * Constructs a MasterClient object that hedges its straggler tiles with a policy shared with other clients.
+     *
+     * @param name              The name of the MasterClient (e.g. name of the image to process).
+     * @param originalImage     The original image to be processed.
+     * @param nRows             The number of rows to divide the image into.
+     * @param nColumns          The number of columns to divide the image into.
+     * @param loadTrackerReader The reader for tracking load information from servers.
+     * @param savePhat          The directory where the edited image is saved.
+     * @param config            The configuration with the client retry settings.
+     * @param hedgePolicy       The policy deciding which tiles are requested twice.
+     * @throws IllegalArgumentException If nRows or nColumns is less than 1.
+     */
+    public MasterClient(String name, BufferedImage originalImage, int nRows, int nColumns, LoadTrackerReader loadTrackerReader, String savePhat, Config config, HedgePolicy hedgePolicy) throws IllegalArgumentException {
 
         if ( nRows < 1 || nColumns < 1 )
             throw new IllegalArgumentException("MasterClient nRows and nColumns new to be >= 1");
@@ -67,9 +132,12 @@ public class MasterClient extends Thread implements Subject, Observer {
         this.observers = new VarSync< ArrayList<Observer> >( new ArrayList<Observer>() );
         this.setName( name );
         this.slaveClientsList = new ArrayList<SlaveClient>();
+        this.tiles = new ArrayList<HedgedTile>();
+        this.hedgePolicy = hedgePolicy;
         this.isCancel = new VarSync<>(true);
         this.loadTrackerReader = loadTrackerReader;
         this.savePhat = savePhat;
+        this.config = config;
 
     }
 
@@ -120,23 +188,134 @@ public class MasterClient extends Thread implements Subject, Observer {
      */
     private void initSlaves() {
 
+        this.jobId = UUID.randomUUID().toString();
+        this.deadline = this.config.getTileDeadline() > 0 ? System.currentTimeMillis() + this.config.getTileDeadline() : 0;
+
         for (short line = 0; line < this.getNumberOfRows(); line++)
         {
             for (short column = 0; column < this.getNumberOfColumns(); column++)
             {
                 SplitImage splitImage = new SplitImage(column, line, splittedOriginalImage[line][column]);
-                String name = String.format("Slave %d%d for %s",line,column,this.getName() );
-                SlaveClient slaveClient = new SlaveClient(splittedFinalImage, splitImage, name, this.loadTrackerReader );
-                slaveClientsList.add(slaveClient);
+                HedgedTile tile = new HedgedTile();
+                tile.setPrimary( this.startSlave( splitImage, tile, List.of() ) );
+                this.tiles.add( tile );
+                this.hedgePolicy.onTileStarted();
+            }
+        }
 
-                slaveClient.addObserver(this);
+        this.notify( EventFactory.createImageStateEvent( "Image divided", EventTypes.IMAGE, ImageStates.PREPARED_FOR_PROCESSING));
+
+    }
 
-                slaveClient.start();
+    /**
+     * Creates and starts the slave requesting a tile.
+     *
+     * @param splitImage     The image part of the tile.
+     * @param tile           The tile shared by the slaves requesting it.
+     * @param avoidedServers The servers the slave must not send the tile to.
+     * @return The started slave, null if the client was cancelled meanwhile.
+     */
+    private SlaveClient startSlave( SplitImage splitImage, HedgedTile tile, List<Integer> avoidedServers )
+    {
+        String name = String.format("Slave %d%d for %s",splitImage.getLineNumber(),splitImage.getColumnNumber(),this.getName() );
+        SlaveClient slaveClient = new SlaveClient(splittedFinalImage, splitImage, name, this.loadTrackerReader, this.config, this.jobId, this.deadline, tile, avoidedServers );
+        slaveClient.addObserver(this);
+
+        // cancel interrupts the slaves of the list, a slave added after it would not be
+        this.isCancel.lock();
+        if ( this.cancelRequested )
+        {
+            this.isCancel.unlock();
+            return null;
+        }
+        slaveClientsList.add(slaveClient);
+        slaveClient.start();
+        this.isCancel.unlock();
+
+        return slaveClient;
+    }
+
+    /**
+     * Waits for every tile to be won or given up. While hedging is enabled the outstanding tiles are checked at a short
+     * interval, a straggler is hedged and the loser of a hedged tile is cancelled as soon as the tile is won.
+     */
+    private void waitTiles()
+    {
+        ArrayList<HedgedTile> outstanding = new ArrayList<>( this.tiles );
+        while ( !outstanding.isEmpty() )
+        {
+            long hedgeDelay = this.cancelRequested ? -1 : this.hedgePolicy.getHedgeDelay();
+
+            Iterator<HedgedTile> iterator = outstanding.iterator();
+            while ( iterator.hasNext() )
+            {
+                HedgedTile tile = iterator.next();
+                if ( tile.isWon() )
+                {
+                    this.settle( tile );
+                    iterator.remove();
+                }
+                else if ( !tile.isOutstanding() )
+                {
+                    // won just before its slave finished, or given up
+                    if ( tile.isWon() )
+                        this.settle( tile );
+                    iterator.remove();
+                }
+                else if ( hedgeDelay >= 0 && tile.getHedge() == null && tile.getLatency() >= hedgeDelay && this.hedgePolicy.tryHedge() )
+                {
+                    this.hedge( tile );
+                }
+            }
+
+            if ( outstanding.isEmpty() )
+                break;
+
+            try {
+                Thread.sleep( HEDGE_CHECK_INTERVAL );
+            } catch (InterruptedException e) {
+                return;
             }
         }
+    }
 
-        this.notify( EventFactory.createImageStateEvent( "Image divided", EventTypes.IMAGE, ImageStates.PREPARED_FOR_PROCESSING));
+    /**
+     * Requests a straggler tile again from a server other than the one its primary slave sent it to.
+     *
+     * @param tile The tile to hedge.
+     */
+    private void hedge( HedgedTile tile )
+    {
+        SlaveClient primary = tile.getPrimary();
+        int port = primary.getCurrentPort();
+        tile.setHedge( this.startSlave( primary.getSplitImage(), tile, port == -1 ? List.of() : List.of( port ) ) );
+    }
+
+    /**
+     * Records the latency of a won tile and cancels the slave that lost it, if it is still waiting for its server.
+     *
+     * @param tile The won tile.
+     */
+    private void settle( HedgedTile tile )
+    {
+        this.hedgePolicy.recordLatency( tile.getLatency() );
+
+        SlaveClient loser = tile.getLoser();
+        if ( loser == null )
+            return;
 
+        boolean cancelled = loser.isAlive();
+        if ( cancelled )
+        {
+            loser.interrupt();
+            if ( loser.getCurrentPort() != -1 )
+            {
+                Request cancelPart = new Request( Request.CANCEL_PART, this.jobId );
+                cancelPart.setMessageContent( loser.getMessage() );
+                this.sendCancel( loser.getCurrentPort(), cancelPart );
+            }
+        }
+        this.hedgePolicy.recordHedgeOutcome( tile.isWonByHedge(), cancelled );
     }
 
     /**
@@ -144,7 +323,10 @@ public class MasterClient extends Thread implements Subject, Observer {
      */
     private void waitSlaves()
     {
-        for ( SlaveClient slave :  this.slaveClientsList )
+        if ( this.hedgePolicy.isEnabled() )
+            this.waitTiles();
+
+        for ( SlaveClient slave : this.getSlaves() )
         {
             try {
                 slave.join();
@@ -175,17 +357,48 @@ public class MasterClient extends Thread implements Subject, Observer {
     }
 
     /**
-     * Cancels the processing task.
+     * Cancels the processing task. Interrupts the slaves and asks the servers they sent requests to, to drop the
+     * parts of this job.
      */
     public void cancel()
     {
+        HashSet<Integer> ports = new HashSet<>();
         this.isCancel.lock();
-        if ( ! this.isCancel.asyncGet() ) {
+        if ( ! this.isCancel.asyncGet() && ! this.cancelRequested ) {
+            this.cancelRequested = true;
             for (SlaveClient slave : this.slaveClientsList) {
                 slave.interrupt();
+                if ( slave.isAlive() && slave.getCurrentPort() != -1 )
+                    ports.add( slave.getCurrentPort() );
             }
         }
         this.isCancel.unlock();
+
+        // the servers are told after unlocking, so start() and the slaves never wait on this network I/O
+        for ( int port : ports )
+            this.sendCancel( port, new Request( Request.CANCEL, this.jobId ) );
+    }
+
+    /**
+     * Sends a cancel request for the current job, or for a part of it, to a server.
+     *
+     * @param port    The port of the server.
+     * @param request The cancel request.
+     */
+    private void sendCancel( int port, Request request )
+    {
+        try ( Socket socket = new SocketSettings( this.config ).connect( "localhost", port ) )
+        {
+            socket.setSoTimeout( CANCEL_TIMEOUT );
+            ObjectOutputStream out = new ObjectOutputStream( socket.getOutputStream() );
+            ObjectInputStream in = new ObjectInputStream( socket.getInputStream() );
+            out.writeObject( request );
+            in.readObject();
+        }
+        catch ( IOException | ClassNotFoundException e )
+        {
+            this.notify( EventFactory.createErrorEvent( String.format("Could not cancel %s on server %d", this.getName(), port), EventTypes.ERROR, SeverityLevels.WARNING ) );
+        }
     }
 
     /**
@@ -210,13 +423,32 @@ public class MasterClient extends Thread implements Subject, Observer {
      */
     private boolean isAllSlavesInterrupted(){
         boolean allInterrupted = true;
-        for (SlaveClient slave : this.slaveClientsList )
+        for (SlaveClient slave : this.getSlaves() )
         {
             allInterrupted = allInterrupted && !slave.isAlive();
         }
         return allInterrupted;
     }
 
+    /**
+     * @return A copy of the slaves started so far, hedges are added while the client runs.
+     */
+    private ArrayList<SlaveClient> getSlaves()
+    {
+        this.isCancel.lock();
+        ArrayList<SlaveClient> slaves = new ArrayList<>( this.slaveClientsList );
+        this.isCancel.unlock();
+        return slaves;
+    }
+
+    /**
+     * @return The policy deciding which tiles are requested twice, with the hedging metrics.
+     */
+    public HedgePolicy getHedgePolicy()
+    {
+        return this.hedgePolicy;
+    }
+
     /**
      * Checks if the processing task is cancelled.
      *
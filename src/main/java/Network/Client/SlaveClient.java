@@ -10,8 +10,11 @@ import Utils.Image.ImageTransformer;
 import Utils.Image.SplitImage;
 import Network.Server.LoadTrackerReader;
 import Network.Server.Request;
+import Network.Server.SocketSettings;
 import Utils.Observer.Observer;
 import Utils.Observer.Subject;
+import Utils.Parser.Config;
+import Utils.ScheduledTask;
 import Utils.VarSync;
 
 import java.awt.image.BufferedImage;
@@ -21,22 +24,107 @@ import java.io.ObjectOutputStream;
 import java.net.Socket;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
 
 /**
  * The {@code SlaveClient} class represents a client responsible for processing a portion of an image
  * by communicating with servers and managing observers for event notifications.
  * It extends {@code Thread} and implements the {@code Subject} interface.
+ * <p>
+ * A server that refuses the request as busy, or fails it, is skipped for the rest of the retry round and the next
+ * least loaded server is tried. When every server refused or failed the request, the client waits a jittered
+ * exponential backoff, never shorter than the retry-after hints received, and starts a new round.
+ * </p>
+ * <p>
+ * Failed requests and answers are reported to the load tracker reader, a {@link HealthMonitor} stops offering a
+ * server whose requests keep failing. Only connection, I/O and deserialization errors count as failures: a request
+ * that is abandoned because the slave was interrupted, the tile was won by the other slave or the deadline passed says
+ * nothing about the health of the server.
+ * </p>
+ * <p>
+ * Every request carries the job identifier of the image and the deadline of the job, the client gives up the image
+ * part once the deadline passes.
+ * </p>
+ * <p>
+ * A straggler tile can be requested by a second slave from another server, see {@link HedgedTile}, the slave that
+ * loses the tile drops its response.
+ * </p>
+ * <p>
+ * A server that gave the queued request away to an idle server answers with a {@link Response#STOLEN} response, the
+ * request is then sent at once to the idle server without a reservation. A tile is redirected at most
+ * {@link #MAX_REDIRECTS} times and every redirect counts as a retry round, so servers stealing it back and forth do not
+ * bounce it until its deadline. A redirect past the limit is handled like a busy answer.
+ * </p>
+ * <p>
+ * With the {@code consistentHash} selection the tile is routed by a fingerprint of its pixels, or by its job, so the
+ * same content keeps going to the server that may have it cached.
+ * </p>
  */
 public class SlaveClient extends Thread implements Subject {
 
+    /**
+     * Maximum number of times a tile follows a {@link Response#STOLEN} response to another server.
+     */
+    private static final int MAX_REDIRECTS = 1;
+
     private final VarSync<ArrayList<Observer>> observers;
     private LoadTrackerReader serverLoadTrackerReader;
     private final SplitImage splitImage;
     private final BufferedImage[][] resultSplittedImage;
     private final LoadTrackerReader loadTrackerReader;
     private final String name;
+    private final Backoff backoff;
+    private final int maxRetries;
+    private final String jobId;
+    private final long deadline;
+    private final int priority;
+    private final SocketSettings socketSettings;
+    private final String message;
+    private final HedgedTile tile;
+    private final Collection<Integer> avoidedServers;
+    private final String routing;
+    private volatile int currentPort;
+    private boolean requestSent;
 
     public SlaveClient(BufferedImage[][] resultSplittedImage,SplitImage splitImage, String name,LoadTrackerReader loadTrackerReader)
+    {
+        this(resultSplittedImage, splitImage, name, loadTrackerReader, new Config(), UUID.randomUUID().toString(), 0);
+    }
+
+    /**
+     * Creates a SlaveClient that retries with the backoff settings of the configuration.
+     *
+     * @param resultSplittedImage The grid where the processed image part is stored.
+     * @param splitImage          The image part to process.
+     * @param name                The name of the client.
+     * @param loadTrackerReader   The reader used to choose the servers.
+     * @param config              The configuration with the retry, backoff and socket settings.
+     * @param jobId               The identifier of the job (image) the part belongs to.
+     * @param deadline            The deadline of the job in epoch milliseconds, 0 for no deadline.
+     */
+    public SlaveClient(BufferedImage[][] resultSplittedImage,SplitImage splitImage, String name,LoadTrackerReader loadTrackerReader, Config config, String jobId, long deadline)
+    {
+        this(resultSplittedImage, splitImage, name, loadTrackerReader, config, jobId, deadline, null, List.of());
+    }
+
+    /**
+     * Creates a SlaveClient that requests a tile possibly requested by another slave too. Only the slave that receives
+     * the first response stores the processed image part.
+     *
+     * @param resultSplittedImage The grid where the processed image part is stored.
+     * @param splitImage          The image part to process.
+     * @param name                The name of the client.
+     * @param loadTrackerReader   The reader used to choose the servers.
+     * @param config              The configuration with the retry, backoff, socket and priority settings.
+     * @param jobId               The identifier of the job (image) the part belongs to.
+     * @param deadline            The deadline of the job in epoch milliseconds, 0 for no deadline.
+     * @param tile                The tile shared with the other slave, null if the tile is only requested once.
+     * @param avoidedServers      The servers never tried, e.g. the server the other slave sent the tile to.
+     */
+    public SlaveClient(BufferedImage[][] resultSplittedImage,SplitImage splitImage, String name,LoadTrackerReader loadTrackerReader, Config config, String jobId, long deadline, HedgedTile tile, Collection<Integer> avoidedServers)
     {
         this.splitImage = splitImage;
         this.resultSplittedImage = resultSplittedImage;
@@ -44,45 +132,156 @@ public class SlaveClient extends Thread implements Subject {
         this.observers = new VarSync<ArrayList<Observer>>( new ArrayList<Observer>() );
         this.loadTrackerReader = loadTrackerReader;
         this.name = name;
+        this.backoff = new Backoff( config.getBackoffBase(), config.getBackoffMax() );
+        this.maxRetries = config.getMaxRetries();
+        this.jobId = jobId;
+        this.deadline = deadline;
+        this.priority = ScheduledTask.priorityForName( config.getPriority() );
+        this.currentPort = -1;
+        this.socketSettings = new SocketSettings( config );
+        this.message = String.format("Image:%s SubImage(L:%d C:%d )", name, splitImage.getLineNumber(), splitImage.getColumnNumber() );
+        this.tile = tile;
+        this.avoidedServers = avoidedServers;
+        this.routing = "consistentHash".equals( config.getSelectionStrategy() ) ? config.getRoutingKey() : null;
     }
 
     @Override
     public void run()
     {
         // create request
-        String message = String.format("Image:%s SubImage(L:%d C:%d )", this.name, this.splitImage.getLineNumber(), this.splitImage.getColumnNumber() );
-        Request request = new Request("Ask to process", message, this.splitImage.getImage());
+        String message = this.message;
+        Request request = new Request(Request.PROCESS, message, this.jobId, this.deadline, this.splitImage.getImage());
+        request.setPriority( this.priority );
 
-        int lastErrorPort = 0;
-        int errorCount = 0;
-        int port;
+        ArrayList<Integer> refusedServers = new ArrayList<>( this.avoidedServers );
+        long retryAfter = 0;
+        int round = 0;
+        int redirectPort = -1;
+        int redirects = 0;
+        String routingKey = this.getRoutingKey();
 
-        // send request, retry if fail until all  try with all server and repeat the same twice and fail
-        do
+        // send request, a server that refuses or fails is skipped until every server was tried, then back off
+        while ( !this.isInterrupted() )
         {
-            port = this.loadTrackerReader.getServerWithLessLoad();
+            // the other slave of the tile won it
+            if ( this.tile != null && this.tile.isWon() )
+                return;
+
+            if ( request.isExpired() )
+            {
+                this.notify( EventFactory.createErrorEvent( String.format("%s dropped, the deadline passed", message), EventTypes.ERROR, SeverityLevels.WARNING ) );
+                return;
+            }
+
+            // the reserved slot makes the other slaves see this request before the server admits it, a request given
+            // away goes to the idle server that took it over
+            int port = redirectPort != -1 ? redirectPort : this.loadTrackerReader.reserveServer( refusedServers, routingKey );
+            request.setReserved( redirectPort == -1 );
+            redirectPort = -1;
+            if ( port == -1 )
+            {
+                if ( round >= this.maxRetries )
+                {
+                    this.notify( EventFactory.createErrorEvent( String.format("%s dropped after %d retry rounds", message, round), EventTypes.ERROR, SeverityLevels.ERROR ) );
+                    return;
+                }
+
+                try {
+                    Thread.sleep( Math.max( retryAfter, this.backoff.getDelay( round ) ) );
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                refusedServers.clear();
+                refusedServers.addAll( this.avoidedServers );
+                retryAfter = 0;
+                round++;
+                continue;
+            }
+
             Response response = sendRequestAndReceiveResponse("localhost", port, request);
-            if (response != null)
+            if ( response == null )
             {
-                this.handleResponse(response, message);
-                break;
+                // a server that read the request confirmed the reservation itself
+                if ( request.isReserved() && !this.requestSent )
+                    this.loadTrackerReader.releaseReservation( port );
+
+                // the server may have closed the connection of a cancelled request on purpose
+                if ( this.isAbandoned( request ) )
+                    continue;
+
+                this.loadTrackerReader.recordFailure( port );
+                refusedServers.add( port );
+                continue;
             }
-            else
+
+            this.loadTrackerReader.recordSuccess( port );
+            if ( response.getStatus().equals( Response.BUSY ) )
+            {
+                refusedServers.add( port );
+                retryAfter = Math.max( retryAfter, response.getRetryAfter() );
+            }
+            else if ( response.getStatus().equals( Response.STOLEN ) )
             {
-                if (port == lastErrorPort)
-                    errorCount++;
-                else
+                // past the limit the tile goes back to the selection, like after a busy answer
+                refusedServers.add( port );
+                if ( redirects < MAX_REDIRECTS && round < this.maxRetries )
                 {
-                    lastErrorPort = port;
-                    errorCount = 1;
+                    redirectPort = response.getRedirectPort();
+                    redirects++;
+                    round++;
                 }
             }
+            else if ( response.getStatus().equals( Response.CANCELLED ) || response.getStatus().equals( Response.EXPIRED ) )
+            {
+                // the loser of a hedged tile is cancelled by its master
+                if ( this.tile != null && this.tile.isWon() )
+                    return;
+                this.notify( EventFactory.createErrorEvent( String.format("%s was %s by the server", message, response.getStatus()), EventTypes.ERROR, SeverityLevels.WARNING ) );
+                return;
+            }
+            else
+            {
+                this.handleResponse(response, message);
+                return;
+            }
         }
-        while( errorCount <=2 );
+    }
+
+    /**
+     * Checks if a request was given up by the client rather than failed by the server: the slave was interrupted, by a
+     * cancel or because the tile was won by the other slave, or the deadline passed. The server may have closed the
+     * connection on purpose, e.g. when it cancelled the request.
+     *
+     * @param request The request sent.
+     * @return <b>True</b> if the request was abandoned.
+     */
+    private boolean isAbandoned( Request request )
+    {
+        return this.isInterrupted() || request.isExpired() || ( this.tile != null && this.tile.isWon() );
+    }
+
+    /**
+     * @return The key the tile is routed by, a fingerprint of its pixels or the job identifier, null when the servers
+     * are not chosen by key.
+     */
+    private String getRoutingKey()
+    {
+        if ( this.routing == null )
+            return null;
+        if ( this.routing.equals( "job" ) )
+            return this.jobId;
+
+        BufferedImage image = this.splitImage.getImage();
+        int[] pixels = image.getRGB( 0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth() );
+        return image.getWidth() + "x" + image.getHeight() + ":" + Integer.toHexString( Arrays.hashCode( pixels ) );
     }
 
     private void handleResponse( Response response, String message)
     {
+        if( response.getMessage().equals( message ) && this.tile != null && !this.tile.tryWin( this ) )
+            return;
+
         if( response.getMessage().equals( message ) )
         {
             BufferedImage image = ImageTransformer.createImageFromBytes(response.getImageSection() );
@@ -107,7 +306,13 @@ public class SlaveClient extends Thread implements Subject {
      * @return The response object from the server, or null in case of an error.
      */
     public Response sendRequestAndReceiveResponse(String host, int port, Request request) {
-        try (Socket socket = new Socket(host, port)) {
+        this.currentPort = port;
+        this.requestSent = false;
+        try (Socket socket = this.socketSettings.connect(host, port)) {
+
+            // do not wait for the response beyond the deadline
+            if ( request.getDeadline() > 0 )
+                socket.setSoTimeout( (int) Math.max( 1, request.getDeadline() - System.currentTimeMillis() ) );
 
             // Create and initialize the streams for sending and receiving objects
             ObjectOutputStream out = new ObjectOutputStream(socket.getOutputStream());
@@ -117,13 +322,17 @@ public class SlaveClient extends Thread implements Subject {
             Event eventWaitingForServer = EventFactory.createImageStateEvent( "Image Finished", EventTypes.IMAGE, ImageStates.WAITING_FOR_PROCESSING, this.splitImage);
             this.notify(eventWaitingForServer);
             out.writeObject(request);
+            out.flush();
+            this.requestSent = true;
 
             // Wait for and return the response from the server
             Response response = (Response) in.readObject();
             return response;
 
         } catch (Exception e) {
-            Event event = EventFactory.createErrorEvent( e.getMessage() , EventTypes.ERROR, SeverityLevels.ERROR );
+            if ( this.isAbandoned( request ) )
+                return null;
+            Event event = EventFactory.createErrorEvent( String.format("Request to server %d failed: %s", port, e), EventTypes.ERROR, SeverityLevels.ERROR );
             this.notify(event);
         }
         // Return null or consider a better error handling/return strategy
@@ -138,6 +347,28 @@ public class SlaveClient extends Thread implements Subject {
         return splitImage;
     }
 
+    /**
+     * @return The message identifying the tile in the requests and responses.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @return <b>True</b> if the last request was written to its server, a connection that failed before could not
+     * have reached it.
+     */
+    public boolean isRequestSent() {
+        return requestSent;
+    }
+
+    /**
+     * @return The port of the last server the request was sent to, -1 if it was not sent yet.
+     */
+    public int getCurrentPort() {
+        return currentPort;
+    }
+
     @Override
     public void addObserver(Observer observer) {
 
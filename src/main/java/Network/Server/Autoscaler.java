@@ -0,0 +1,132 @@
+package Network.Server;
+
+import Utils.Parser.Config;
+
+import java.util.Collection;
+
+/**
+ * Adds and removes the servers of a {@link ServersHandler} following the load the servers report to the load tracker.
+ * <p>
+ * A server is added when the tiles waiting per executor, over all the servers of the handler, go above the scale up
+ * threshold. A server is removed when the load per executor stayed under the scale down utilization for the whole idle
+ * period. The two thresholds measure different things, a queue that builds up and executors that sit idle, so the
+ * band between them keeps the autoscaler from adding and removing the same server over and over. After each decision
+ * the autoscaler waits for the cooldown, so the load can settle on the new set of servers before it is measured again.
+ * </p>
+ * <p>
+ * The handler keeps the number of servers between the configured amount and the maximum, a decision it refuses is not
+ * taken and does not start the cooldown.
+ * </p>
+ */
+public class Autoscaler extends Thread {
+
+    private final ServersHandler HANDLER;
+    private final LoadTrackerReader TRACKER;
+    private final long INTERVAL;
+    private final double SCALE_UP_QUEUE;
+    private final double SCALE_DOWN_UTILIZATION;
+    private final long IDLE_PERIOD;
+    private final long COOLDOWN;
+
+    private long lastDecision;
+    private long idleSince;
+
+    /**
+     * Creates an autoscaler, it does nothing until started.
+     *
+     * @param handler The handler whose servers are scaled.
+     * @param tracker The tracker the servers of the handler report their load to.
+     * @param config  The configuration holding the thresholds, the idle period and the cooldown.
+     */
+    public Autoscaler(ServersHandler handler, LoadTrackerReader tracker, Config config)
+    {
+        super( "Autoscaler" );
+        this.setDaemon( true );
+        this.HANDLER = handler;
+        this.TRACKER = tracker;
+        this.INTERVAL = Math.max( 1, config.getAutoscaleInterval() );
+        this.SCALE_UP_QUEUE = config.getScaleUpQueue();
+        this.SCALE_DOWN_UTILIZATION = config.getScaleDownUtilization() / 100.0;
+        this.IDLE_PERIOD = config.getScaleDownIdlePeriod();
+        this.COOLDOWN = config.getScaleCooldown();
+        this.lastDecision = -this.COOLDOWN;
+        this.idleSince = -1;
+    }
+
+    @Override
+    public void run()
+    {
+        try
+        {
+            while ( !this.isInterrupted() )
+            {
+                Thread.sleep( this.INTERVAL );
+                this.check( System.currentTimeMillis() );
+            }
+        }
+        catch (InterruptedException ignored) {}
+    }
+
+    /**
+     * Stops the autoscaler and waits for a decision in progress to finish.
+     */
+    public void close()
+    {
+        this.interrupt();
+        try {
+            this.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Measures the load of the servers of the handler and scales them if needed.
+     *
+     * @param now The current time in milliseconds.
+     * @return The port of the server added or removed, -1 if nothing changed.
+     */
+    public synchronized int check(long now)
+    {
+        Collection<Integer> ports = this.HANDLER.getServerPorts();
+
+        int waiting = 0;
+        int load = 0;
+        int executors = 0;
+        for ( ServerLoad server : this.TRACKER.getServerLoads() )
+        {
+            if ( !ports.contains( server.getPort() ) )
+                continue;
+
+            waiting += server.getWaiting();
+            load += server.getLoad();
+            executors += Math.max( 1, server.getCapacity() );
+        }
+        if ( executors == 0 )
+            return -1;
+
+        boolean idle = (double) load / executors <= this.SCALE_DOWN_UTILIZATION;
+        if ( !idle )
+            this.idleSince = -1;
+        else if ( this.idleSince < 0 )
+            this.idleSince = now;
+
+        if ( now - this.lastDecision < this.COOLDOWN )
+            return -1;
+
+        int port = -1;
+        if ( (double) waiting / executors > this.SCALE_UP_QUEUE )
+        {
+            port = this.HANDLER.scaleUp( String.format( "%d tiles waiting for %d executors", waiting, executors ) );
+        }
+        else if ( idle && now - this.idleSince >= this.IDLE_PERIOD )
+        {
+            port = this.HANDLER.scaleDown( String.format( "load of %d for %d executors since %d ms", load, executors, now - this.idleSince ) );
+            this.idleSince = now;
+        }
+
+        if ( port >= 0 )
+            this.lastDecision = now;
+        return port;
+    }
+}
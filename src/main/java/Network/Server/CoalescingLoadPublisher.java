@@ -0,0 +1,189 @@
+package Network.Server;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the load of one server to a load tracker, merging the updates that change it little.
+ * <p>
+ * An update is written to the tracker at once when the load moved by at least the threshold since the last write, or
+ * when the server becomes idle or stops being idle. Smaller changes, and the latency averages, are kept and written
+ * together at most the maximum staleness after the first one, so the tracker is never further than the threshold
+ * behind the server for longer than that. Entry, capacity and reservation changes are written at once. A confirmed
+ * reservation first writes the load held back, the load that counts the admitted request, so the tracker never shows
+ * neither the reservation nor the request.
+ * </p>
+ * <p>
+ * Under load a server changes its load twice per tile, the publisher turns that into about one write per maximum
+ * staleness, which also spares the observers of the tracker one load update event per write.
+ * </p>
+ */
+public class CoalescingLoadPublisher implements LoadTrackerEdit {
+
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor( runnable -> {
+        Thread thread = new Thread( runnable, "Load publisher" );
+        thread.setDaemon( true );
+        return thread;
+    } );
+
+    private final LoadTrackerEdit TRACKER;
+    private final int THRESHOLD;
+    private final long MAX_STALENESS;
+
+    private int serverIdentifier;
+    private boolean tracked;
+    private int running;
+    private int waiting;
+    private int publishedLoad;
+    private boolean loadChanged;
+    private double serviceTime;
+    private double queueWait;
+    private boolean latencyChanged;
+    private ScheduledFuture<?> flush;
+
+    private long updates;
+    private long writes;
+
+    /**
+     * Creates a publisher for one server.
+     *
+     * @param tracker      The tracker the updates are written to.
+     * @param threshold    The change of load, running plus waiting tasks, that is written at once.
+     * @param maxStaleness The time in milliseconds after which a smaller change is written.
+     */
+    public CoalescingLoadPublisher(LoadTrackerEdit tracker, int threshold, long maxStaleness)
+    {
+        if ( threshold < 1 || maxStaleness < 1 )
+            throw new IllegalArgumentException( "The threshold and the maximum staleness must be positive" );
+
+        this.TRACKER = tracker;
+        this.THRESHOLD = threshold;
+        this.MAX_STALENESS = maxStaleness;
+    }
+
+    @Override
+    public synchronized void update(int serverIdentifier, int running, int waiting)
+    {
+        this.updates++;
+        this.serverIdentifier = serverIdentifier;
+        this.running = running;
+        this.waiting = waiting;
+        this.loadChanged = true;
+
+        int load = running + waiting;
+        if ( Math.abs( load - this.publishedLoad ) >= this.THRESHOLD || ( load == 0 ) != ( this.publishedLoad == 0 ) )
+            this.publish();
+        else
+            this.scheduleFlush();
+    }
+
+    @Override
+    public synchronized void updateLatency(int serverIdentifier, double serviceTime, double queueWait)
+    {
+        this.serverIdentifier = serverIdentifier;
+        this.serviceTime = serviceTime;
+        this.queueWait = queueWait;
+        this.latencyChanged = true;
+        this.scheduleFlush();
+    }
+
+    @Override
+    public synchronized void addEntry(int serverIdentifier, int running, int waiting)
+    {
+        this.serverIdentifier = serverIdentifier;
+        this.running = running;
+        this.waiting = waiting;
+        this.publishedLoad = running + waiting;
+        this.loadChanged = false;
+        this.latencyChanged = false;
+        this.tracked = true;
+        this.TRACKER.addEntry( serverIdentifier, running, waiting );
+    }
+
+    @Override
+    public synchronized void removeEntry(int serverIdentifier)
+    {
+        this.tracked = false;
+        if ( this.flush != null )
+            this.flush.cancel( false );
+        this.TRACKER.removeEntry( serverIdentifier );
+    }
+
+    @Override
+    public void updateCapacity(int serverIdentifier, int capacity)
+    {
+        this.TRACKER.updateCapacity( serverIdentifier, capacity );
+    }
+
+    @Override
+    public void updateRejected(int serverIdentifier, long rejected)
+    {
+        this.TRACKER.updateRejected( serverIdentifier, rejected );
+    }
+
+    @Override
+    public synchronized void confirmReservation(int serverIdentifier)
+    {
+        if ( this.loadChanged )
+            this.publish();
+        this.TRACKER.confirmReservation( serverIdentifier );
+    }
+
+    /**
+     * Writes the changes that are still held back.
+     */
+    public synchronized void flush()
+    {
+        if ( this.tracked && ( this.loadChanged || this.latencyChanged ) )
+            this.publish();
+    }
+
+    /**
+     * @return The number of load updates received from the server.
+     */
+    public synchronized long getUpdateCount()
+    {
+        return this.updates;
+    }
+
+    /**
+     * @return The number of writes to the tracker, load and latency written together count once.
+     */
+    public synchronized long getWriteCount()
+    {
+        return this.writes;
+    }
+
+    /**
+     * Writes the held back changes to the tracker.
+     */
+    private void publish()
+    {
+        if ( !this.tracked )
+            return;
+
+        if ( this.loadChanged )
+        {
+            this.TRACKER.update( this.serverIdentifier, this.running, this.waiting );
+            this.publishedLoad = this.running + this.waiting;
+            this.loadChanged = false;
+        }
+        if ( this.latencyChanged )
+        {
+            this.TRACKER.updateLatency( this.serverIdentifier, this.serviceTime, this.queueWait );
+            this.latencyChanged = false;
+        }
+        this.writes++;
+    }
+
+    /**
+     * Makes sure the held back changes are written within the maximum staleness.
+     */
+    private void scheduleFlush()
+    {
+        if ( this.flush == null || this.flush.isDone() )
+            this.flush = FLUSHER.schedule( this::flush, this.MAX_STALENESS, TimeUnit.MILLISECONDS );
+    }
+}
@@ -0,0 +1,82 @@
+package Network.Server;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Chooses the server where a new task is expected to complete first.
+ * <p>
+ * The completion time of a task on a server is estimated as the number of tasks per executor ahead of it times the
+ * moving average of the service time of the server, plus the service time of the task itself, which runs on a single
+ * executor. Unlike queue lengths alone, the estimate steers tasks away from servers that are slower, e.g. because they
+ * share their host with other work or are still warming up. A server that has not reported a service time yet is
+ * assumed to be as fast as the average of the others.
+ * </p>
+ * <p>
+ * While tasks are waiting on a server, the wait ahead of a new task is at least the moving average of the queue wait
+ * the server measures, which catches the waits the task count misses, e.g. tasks bigger than the average. An idle
+ * server keeps the average of its last busy period, so the measured wait is only used when tasks are waiting.
+ * </p>
+ */
+public class CompletionTimeStrategy implements ServerSelectionStrategy {
+
+    @Override
+    public int select(List<ServerLoad> servers, Collection<Integer> excludedServers)
+    {
+        double defaultServiceTime = this.getAverageServiceTime( servers );
+
+        int port = -1;
+        double earliestCompletion = -1;
+
+        for ( ServerLoad server : servers )
+        {
+            if ( excludedServers.contains( server.getPort() ) )
+                continue;
+
+            double completion = estimateCompletionTime( server, defaultServiceTime );
+            if ( completion <= earliestCompletion || earliestCompletion == -1 )
+            {
+                port = server.getPort();
+                earliestCompletion = completion;
+            }
+        }
+
+        return port;
+    }
+
+    /**
+     * Estimates when a new task would complete on a server.
+     *
+     * @param server             the load entry of the server
+     * @param defaultServiceTime the service time used if the server has not reported one
+     * @return the estimated completion time in milliseconds.
+     */
+    public static double estimateCompletionTime(ServerLoad server, double defaultServiceTime)
+    {
+        double serviceTime = server.getServiceTime() > 0 ? server.getServiceTime() : defaultServiceTime;
+        double executors = Math.max( 1, server.getCapacity() );
+        double wait = server.getLoad() / executors * serviceTime;
+        if ( server.getWaiting() > 0 )
+            wait = Math.max( wait, server.getQueueWait() );
+        return wait + serviceTime;
+    }
+
+    /**
+     * @return the average service time of the servers that reported one, 1 if none did so the estimate falls back to
+     * the utilization.
+     */
+    private double getAverageServiceTime(List<ServerLoad> servers)
+    {
+        double sum = 0;
+        int reported = 0;
+        for ( ServerLoad server : servers )
+        {
+            if ( server.getServiceTime() > 0 )
+            {
+                sum += server.getServiceTime();
+                reported++;
+            }
+        }
+        return reported == 0 ? 1 : sum / reported;
+    }
+}
@@ -0,0 +1,187 @@
+package Network.Server;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Sends the tasks with the same routing key to the same server, so what a server keeps from a task, e.g. decoded
+ * tiles or lookup tables, is still there for the next task with that key.
+ * <p>
+ * Every server has a number of virtual nodes, points placed on a ring of hashes. A key is sent to the server of the
+ * first point after its hash that is not excluded, so adding or removing a server only moves the keys of its own
+ * points and the keys of the other servers keep hitting their caches. The virtual nodes spread the keys evenly over
+ * the servers.
+ * </p>
+ * <p>
+ * The load stays bounded: when the server a key hashes to holds more than the load bound above the least loaded server,
+ * the task goes to the least loaded server. A task without a routing key always goes to the least loaded server.
+ * </p>
+ */
+public class ConsistentHashStrategy implements ServerSelectionStrategy {
+
+    private static final int DEFAULT_VIRTUAL_NODES = 100;
+    private static final int DEFAULT_LOAD_BOUND = 2;
+
+    private final int VIRTUAL_NODES;
+    private final int LOAD_BOUND;
+    private final TreeMap<Long, Integer> RING;
+    private final Set<Integer> MEMBERS;
+
+    /**
+     * Creates a strategy with 100 virtual nodes per server and a load bound of 2 tasks.
+     */
+    public ConsistentHashStrategy()
+    {
+        this( DEFAULT_VIRTUAL_NODES, DEFAULT_LOAD_BOUND );
+    }
+
+    /**
+     * Creates a strategy.
+     *
+     * @param virtualNodes The number of points of each server on the ring.
+     * @param loadBound    The number of tasks the server a key hashes to may hold above the least loaded server.
+     */
+    public ConsistentHashStrategy(int virtualNodes, int loadBound)
+    {
+        this.VIRTUAL_NODES = Math.max( 1, virtualNodes );
+        this.LOAD_BOUND = Math.max( 0, loadBound );
+        this.RING = new TreeMap<>();
+        this.MEMBERS = new HashSet<>();
+    }
+
+    @Override
+    public int select(List<ServerLoad> servers, Collection<Integer> excludedServers)
+    {
+        return this.select( servers, excludedServers, null );
+    }
+
+    @Override
+    public synchronized int select(List<ServerLoad> servers, Collection<Integer> excludedServers, String routingKey)
+    {
+        Map<Integer, ServerLoad> candidates = new HashMap<>();
+        ServerLoad leastLoaded = null;
+        for ( ServerLoad server : servers )
+        {
+            if ( excludedServers.contains( server.getPort() ) )
+                continue;
+
+            candidates.put( server.getPort(), server );
+            if ( leastLoaded == null || server.getLoad() < leastLoaded.getLoad() )
+                leastLoaded = server;
+        }
+
+        if ( leastLoaded == null || routingKey == null )
+            return leastLoaded == null ? -1 : leastLoaded.getPort();
+
+        this.updateRing( servers );
+        ServerLoad preferred = this.getOwner( hash( routingKey ), candidates );
+        if ( preferred == null || preferred.getLoad() - leastLoaded.getLoad() > this.LOAD_BOUND )
+            return leastLoaded.getPort();
+        return preferred.getPort();
+    }
+
+    @Override
+    public synchronized void onAdd(ServerLoad server)
+    {
+        this.addServer( server.getPort() );
+    }
+
+    @Override
+    public synchronized void onRemove(int serverIdentifier)
+    {
+        this.removeServer( serverIdentifier );
+    }
+
+    /**
+     * @param keyHash    The hash of a routing key.
+     * @param candidates The servers that are not excluded, by port.
+     * @return The server of the first point of a candidate after the hash, null if the ring has none.
+     */
+    private ServerLoad getOwner(long keyHash, Map<Integer, ServerLoad> candidates)
+    {
+        for ( Integer port : this.RING.tailMap( keyHash ).values() )
+        {
+            if ( candidates.containsKey( port ) )
+                return candidates.get( port );
+        }
+        for ( Integer port : this.RING.headMap( keyHash ).values() )
+        {
+            if ( candidates.containsKey( port ) )
+                return candidates.get( port );
+        }
+        return null;
+    }
+
+    /**
+     * Places the servers that are new on the ring and removes the ones that are gone. The trackers that do not report
+     * their entries to the strategy only show the servers through the selections.
+     *
+     * @param servers The load entries of the tracked servers.
+     */
+    private void updateRing(List<ServerLoad> servers)
+    {
+        Set<Integer> ports = new HashSet<>();
+        for ( ServerLoad server : servers )
+            ports.add( server.getPort() );
+        if ( ports.equals( this.MEMBERS ) )
+            return;
+
+        for ( Integer port : new HashSet<>( this.MEMBERS ) )
+        {
+            if ( !ports.contains( port ) )
+                this.removeServer( port );
+        }
+        for ( Integer port : ports )
+            this.addServer( port );
+    }
+
+    /**
+     * @param port The port of the server to place on the ring.
+     */
+    private void addServer(int port)
+    {
+        if ( !this.MEMBERS.add( port ) )
+            return;
+
+        for ( int node = 0; node < this.VIRTUAL_NODES; node++ )
+            this.RING.putIfAbsent( hash( port + "#" + node ), port );
+    }
+
+    /**
+     * @param port The port of the server to remove from the ring.
+     */
+    private void removeServer(int port)
+    {
+        if ( this.MEMBERS.remove( port ) )
+            this.RING.values().removeIf( owner -> owner == port );
+    }
+
+    /**
+     * Hashes a key with FNV-1a and mixes the bits of the result, so keys that only differ by a character, like the
+     * virtual nodes of a server, land far apart on the ring.
+     *
+     * @param key The key to hash.
+     * @return The position of the key on the ring.
+     */
+    static long hash(String key)
+    {
+        long hash = 0xcbf29ce484222325L;
+        for ( int i = 0; i < key.length(); i++ )
+        {
+            hash ^= key.charAt( i );
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
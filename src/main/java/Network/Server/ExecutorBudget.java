@@ -0,0 +1,95 @@
+package Network.Server;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the executors of all the servers of the JVM against the processors of the host.
+ * <p>
+ * The executors a server is configured with are always granted, even when they already exceed the budget. The
+ * executors a server adds to absorb a burst are only granted while the budget has room left, so the servers together
+ * never grow past one executor per processor.
+ * </p>
+ */
+public class ExecutorBudget {
+
+    private static final ExecutorBudget INSTANCE = new ExecutorBudget( Runtime.getRuntime().availableProcessors() );
+
+    private final int LIMIT;
+    private final AtomicInteger inUse;
+
+    /**
+     * Creates a budget.
+     *
+     * @param limit The number of executors the added ones may not go past.
+     */
+    public ExecutorBudget(int limit)
+    {
+        if ( limit < 1 )
+            throw new IllegalArgumentException( "The executor budget must be positive" );
+
+        this.LIMIT = limit;
+        this.inUse = new AtomicInteger();
+    }
+
+    /**
+     * @return The budget shared by the servers of the JVM, one executor per available processor.
+     */
+    public static ExecutorBudget getInstance()
+    {
+        return INSTANCE;
+    }
+
+    /**
+     * Counts executors that are granted whatever the budget left.
+     *
+     * @param executors The number of executors.
+     */
+    public void reserve(int executors)
+    {
+        this.inUse.addAndGet( executors );
+    }
+
+    /**
+     * Grants one more executor if the budget has room left.
+     *
+     * @return <b>True</b> if the executor was granted.
+     */
+    public boolean tryAcquire()
+    {
+        int current;
+        do
+        {
+            current = this.inUse.get();
+            if ( current >= this.LIMIT )
+                return false;
+        }
+        while ( !this.inUse.compareAndSet( current, current + 1 ) );
+        return true;
+    }
+
+    /**
+     * Gives back executors that were retired.
+     *
+     * @param executors The number of executors.
+     */
+    public void release(int executors)
+    {
+        this.inUse.addAndGet( -executors );
+    }
+
+    /**
+     * @return The number of executors the added ones may not go past.
+     */
+    public int getLimit()
+    {
+        return this.LIMIT;
+    }
+
+    /**
+     * @return The number of executors counted.
+     */
+    public int getInUse()
+    {
+        return this.inUse.get();
+    }
+}
@@ -0,0 +1,115 @@
+package Network.Server;
+
+import Utils.Parser.Config;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sizes the task pool of one server between its configured size and a maximum.
+ * <p>
+ * The scaler checks the server at a fixed interval. While tasks are waiting and the expected wait of a new task is
+ * above the target, it adds an executor if the {@link ExecutorBudget} of the host grants one. The expected wait is the
+ * larger of the moving average of the measured queue wait and of the waiting tasks per executor times the service
+ * time, the second one reacts to a burst before its first task left the queue.
+ * </p>
+ * <p>
+ * Once no task waited and an executor stayed free for the keep-alive, the scaler retires one added executor and gives
+ * it back to the budget, one per keep-alive, so a burst does not leave the host oversubscribed.
+ * </p>
+ */
+public class ExecutorScaler {
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor( runnable -> {
+        Thread thread = new Thread( runnable, "Executor scaler" );
+        thread.setDaemon( true );
+        return thread;
+    } );
+
+    /**
+     * Interval in milliseconds between two checks of a server.
+     */
+    private static final long CHECK_INTERVAL = 100;
+
+    private final Server SERVER;
+    private final int MIN_EXECUTORS;
+    private final int MAX_EXECUTORS;
+    private final double TARGET_WAIT;
+    private final long KEEP_ALIVE;
+
+    private long lastSaturated;
+    private volatile ScheduledFuture<?> checks;
+
+    /**
+     * Creates a scaler, it does nothing until started.
+     *
+     * @param server       The server whose task pool is sized.
+     * @param minExecutors The number of executors the pool never goes under.
+     * @param config       The configuration with the maximum number of executors, the target queue wait and the
+     *                     keep-alive.
+     */
+    public ExecutorScaler(Server server, int minExecutors, Config config)
+    {
+        this.SERVER = server;
+        this.MIN_EXECUTORS = minExecutors;
+        this.MAX_EXECUTORS = config.getMaxExecutors();
+        this.TARGET_WAIT = config.getExecutorQueueWait();
+        this.KEEP_ALIVE = config.getExecutorKeepAlive();
+        this.lastSaturated = System.currentTimeMillis();
+    }
+
+    /**
+     * Starts checking the server at a fixed interval. Called by the server when it starts.
+     */
+    public void start()
+    {
+        if ( this.checks == null )
+            this.checks = SCHEDULER.scheduleAtFixedRate( () -> this.check( System.currentTimeMillis() ),
+                    CHECK_INTERVAL, CHECK_INTERVAL, TimeUnit.MILLISECONDS );
+    }
+
+    /**
+     * Stops checking the server, the executors stay as they are. Does not wait for a check in progress, a check that
+     * runs after the server closed adds no executor.
+     */
+    public void stop()
+    {
+        ScheduledFuture<?> checks = this.checks;
+        if ( checks != null )
+        {
+            checks.cancel( false );
+            this.checks = null;
+        }
+    }
+
+    /**
+     * Adds or retires an executor of the server if needed.
+     *
+     * @param now The current time in milliseconds.
+     * @return 1 if an executor was added, -1 if one was retired, 0 otherwise.
+     */
+    public synchronized int check(long now)
+    {
+        int executors = this.SERVER.getCapacity();
+        int waiting = this.SERVER.getWaitingTasks();
+
+        if ( waiting > 0 || this.SERVER.getRunningTasks() >= executors )
+            this.lastSaturated = now;
+
+        double expectedWait = Math.max( this.SERVER.getQueueWait(),
+                (double) waiting / Math.max( 1, executors ) * this.SERVER.getServiceTime() );
+
+        if ( waiting > 0 && expectedWait >= this.TARGET_WAIT && executors < this.MAX_EXECUTORS )
+            return this.SERVER.tryAddExecutor() ? 1 : 0;
+
+        if ( executors > this.MIN_EXECUTORS && now - this.lastSaturated >= this.KEEP_ALIVE )
+        {
+            this.SERVER.removeExecutor();
+            this.lastSaturated = now;
+            return -1;
+        }
+        return 0;
+    }
+}
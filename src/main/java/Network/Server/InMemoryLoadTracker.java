@@ -0,0 +1,351 @@
+package Network.Server;
+
+import Utils.Events.Enums.EventTypes;
+import Utils.Events.Enums.SeverityLevels;
+import Utils.Events.Event;
+import Utils.Events.EventFactory;
+import Utils.Observer.Observer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A load tracker that keeps the load of each server in memory.
+ * <p>
+ * Updates only set the atomic counters of the server entry and reads scan an array of entries, neither takes a lock.
+ * Adding and removing servers is rare, it replaces the array under the tracker monitor. A reservation selects and
+ * reserves a server under a lock of its own, so two clients reserving at once never both see the same idle server. Every change of an entry is
+ * reported to the selection strategy, so a strategy can keep its own index of the servers.
+ * </p>
+ * <p>
+ * A background snapshotter can persist the table in the load info file format at a fixed interval. Only the
+ * snapshotter thread writes the file, it writes a temporary file and moves it over the load info file, so readers of
+ * the file always see a complete table.
+ * </p>
+ */
+public class InMemoryLoadTracker implements LoadTracker {
+
+    private final ConcurrentHashMap<Integer, ServerLoad> LOADS;
+    private final CopyOnWriteArrayList<Observer> OBSERVERS;
+    private final AtomicLong version;
+    private final Object RESERVATIONS;
+    private volatile ServerLoad[] servers;
+    private Snapshotter snapshotter;
+    private volatile ServerSelectionStrategy selectionStrategy;
+
+    private static final ServerSelectionStrategy LEAST_LOADED = new LeastLoadedStrategy();
+
+    /**
+     * Creates an empty tracker.
+     */
+    public InMemoryLoadTracker()
+    {
+        this.LOADS = new ConcurrentHashMap<>();
+        this.OBSERVERS = new CopyOnWriteArrayList<>();
+        this.version = new AtomicLong();
+        this.RESERVATIONS = new Object();
+        this.servers = new ServerLoad[0];
+        this.selectionStrategy = new PowerOfTwoChoicesStrategy();
+    }
+
+    @Override
+    public void update(int serverIdentifier, int running, int waiting)
+    {
+        ServerLoad load = this.LOADS.get( serverIdentifier );
+        if ( load == null )
+            return;
+
+        load.set( running, waiting );
+        this.selectionStrategy.onUpdate( load );
+        this.version.incrementAndGet();
+
+        this.notify( EventFactory.createLoadUpdateEvent("server update", running ,waiting, serverIdentifier) );
+    }
+
+    @Override
+    public synchronized void addEntry(int serverIdentifier, int running, int waiting)
+    {
+        ServerLoad load = new ServerLoad( serverIdentifier, running, waiting );
+        ServerLoad previous = this.LOADS.put( serverIdentifier, load );
+
+        ServerLoad[] current = this.servers;
+        if ( previous == null )
+        {
+            ServerLoad[] next = Arrays.copyOf( current, current.length + 1 );
+            next[current.length] = load;
+            this.servers = next;
+        }
+        else
+        {
+            ServerLoad[] next = current.clone();
+            for ( int i = 0; i < next.length; i++ )
+            {
+                if ( next[i] == previous )
+                    next[i] = load;
+            }
+            this.servers = next;
+        }
+        this.selectionStrategy.onAdd( load );
+        this.version.incrementAndGet();
+    }
+
+    @Override
+    public synchronized void removeEntry(int serverIdentifier)
+    {
+        ServerLoad removed = this.LOADS.remove( serverIdentifier );
+        if ( removed == null )
+            return;
+
+        this.servers = Arrays.stream( this.servers ).filter( load -> load != removed ).toArray( ServerLoad[]::new );
+        this.selectionStrategy.onRemove( serverIdentifier );
+        this.version.incrementAndGet();
+    }
+
+    @Override
+    public void updateCapacity(int serverIdentifier, int capacity)
+    {
+        ServerLoad load = this.LOADS.get( serverIdentifier );
+        if ( load == null )
+            return;
+
+        load.setCapacity( capacity );
+        this.selectionStrategy.onUpdate( load );
+        this.version.incrementAndGet();
+    }
+
+    @Override
+    public void updateLatency(int serverIdentifier, double serviceTime, double queueWait)
+    {
+        ServerLoad load = this.LOADS.get( serverIdentifier );
+        if ( load != null )
+            load.setLatency( serviceTime, queueWait );
+    }
+
+    @Override
+    public void updateRejected(int serverIdentifier, long rejected)
+    {
+        ServerLoad load = this.LOADS.get( serverIdentifier );
+        if ( load != null )
+            load.setRejected( rejected );
+    }
+
+    @Override
+    public int getLoad(int serverIdentifier)
+    {
+        ServerLoad load = this.LOADS.get( serverIdentifier );
+        return load == null ? -1 : load.getLoad();
+    }
+
+    @Override
+    public int getServerWithLessLoad()
+    {
+        return this.getServerWithLessLoad( List.of() );
+    }
+
+    @Override
+    public int getServerWithLessLoad(Collection<Integer> excludedServers)
+    {
+        return LEAST_LOADED.select( this.getServerLoads(), excludedServers );
+    }
+
+    @Override
+    public int selectServer(Collection<Integer> excludedServers)
+    {
+        return this.selectServer( excludedServers, null );
+    }
+
+    @Override
+    public int selectServer(Collection<Integer> excludedServers, String routingKey)
+    {
+        return this.selectionStrategy.select( this.getServerLoads(), excludedServers, routingKey );
+    }
+
+    @Override
+    public int reserveServer(Collection<Integer> excludedServers)
+    {
+        return this.reserveServer( excludedServers, null );
+    }
+
+    @Override
+    public int reserveServer(Collection<Integer> excludedServers, String routingKey)
+    {
+        // the next reservation selects among the loads that already count this one
+        synchronized ( this.RESERVATIONS )
+        {
+            int port = this.selectServer( excludedServers, routingKey );
+            ServerLoad load = this.LOADS.get( port );
+            if ( load != null )
+            {
+                load.reserve();
+                this.selectionStrategy.onUpdate( load );
+            }
+            return port;
+        }
+    }
+
+    @Override
+    public void releaseReservation(int serverIdentifier)
+    {
+        ServerLoad load = this.LOADS.get( serverIdentifier );
+        if ( load != null )
+        {
+            load.releaseReservation();
+            this.selectionStrategy.onUpdate( load );
+        }
+    }
+
+    @Override
+    public void confirmReservation(int serverIdentifier)
+    {
+        this.releaseReservation( serverIdentifier );
+    }
+
+    @Override
+    public synchronized void setSelectionStrategy(ServerSelectionStrategy selectionStrategy)
+    {
+        for ( ServerLoad server : this.servers )
+            selectionStrategy.onAdd( server );
+        this.selectionStrategy = selectionStrategy;
+    }
+
+    @Override
+    public List<ServerLoad> getServerLoads()
+    {
+        return Arrays.asList( this.servers );
+    }
+
+    @Override
+    public String readLoadInfo()
+    {
+        StringBuilder loadInfoBuilder = new StringBuilder();
+        for ( ServerLoad server : this.servers )
+        {
+            loadInfoBuilder.append( server ).append( "\n" );
+        }
+        return loadInfoBuilder.toString();
+    }
+
+    /**
+     * Starts persisting the table to a load info file. Does nothing if the snapshots are already running.
+     *
+     * @param path     The path of the load info file.
+     * @param interval The interval in milliseconds between two snapshots.
+     */
+    public synchronized void startSnapshots(String path, long interval)
+    {
+        if ( this.snapshotter != null )
+            return;
+
+        this.snapshotter = new Snapshotter( new File( path ).toPath(), interval );
+        this.snapshotter.start();
+    }
+
+    /**
+     * Stops the snapshots after writing a last one with the current table.
+     */
+    public synchronized void stopSnapshots()
+    {
+        if ( this.snapshotter == null )
+            return;
+
+        this.snapshotter.interrupt();
+        try {
+            this.snapshotter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.snapshotter = null;
+    }
+
+    @Override
+    public void addObserver(Observer observer)
+    {
+        this.OBSERVERS.addIfAbsent( observer );
+    }
+
+    @Override
+    public void removeObserver(Observer observer)
+    {
+        this.OBSERVERS.remove( observer );
+    }
+
+    @Override
+    public void notify(Event event)
+    {
+        for (Observer observer : this.OBSERVERS)
+        {
+            observer.update(this,event);
+        }
+    }
+
+
+    /**
+     * Persists the table in the load info file whenever it changed since the last snapshot.
+     */
+    private class Snapshotter extends Thread {
+
+        private final Path PATH;
+        private final long INTERVAL;
+        private long writtenVersion;
+
+        /**
+         * @param path     The path of the load info file.
+         * @param interval The interval in milliseconds between two snapshots.
+         */
+        public Snapshotter(Path path, long interval)
+        {
+            super( "Load info snapshotter" );
+            this.setDaemon( true );
+            this.PATH = path;
+            this.INTERVAL = interval;
+            this.writtenVersion = -1;
+        }
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                while ( !this.isInterrupted() )
+                {
+                    this.snapshot();
+                    Thread.sleep( this.INTERVAL );
+                }
+            }
+            catch (InterruptedException ignored) {}
+
+            this.snapshot();
+        }
+
+        /**
+         * Writes the table to a temporary file and moves it over the load info file.
+         */
+        private void snapshot()
+        {
+            long currentVersion = version.get();
+            if ( currentVersion == this.writtenVersion )
+                return;
+
+            Path tempFile = this.PATH.resolveSibling( this.PATH.getFileName() + ".temp" );
+            try
+            {
+                Files.writeString( tempFile, readLoadInfo() );
+                Files.move( tempFile, this.PATH, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+                this.writtenVersion = currentVersion;
+            }
+            catch (IOException e)
+            {
+                InMemoryLoadTracker.this.notify( EventFactory.createErrorEvent( String.format("Load info snapshot to %s failed: %s", this.PATH, e.getMessage()), EventTypes.ERROR, SeverityLevels.ERROR ) );
+            }
+        }
+    }
+}
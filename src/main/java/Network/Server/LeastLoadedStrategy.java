@@ -0,0 +1,37 @@
+package Network.Server;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Chooses the server with the lowest utilization, its load per executor, scanning every server. On a tie the last
+ * server wins.
+ * <p>
+ * Every client reading the same load table picks the same server, so clients starting at once all send their tasks to
+ * it before its load entry is updated.
+ * </p>
+ */
+public class LeastLoadedStrategy implements ServerSelectionStrategy {
+
+    @Override
+    public int select(List<ServerLoad> servers, Collection<Integer> excludedServers)
+    {
+        int port = -1;
+        double lowestUtilization = -1;
+
+        for ( ServerLoad server : servers )
+        {
+            if ( excludedServers.contains( server.getPort() ) )
+                continue;
+
+            double utilization = server.getUtilization();
+            if ( utilization <= lowestUtilization || lowestUtilization == -1 )
+            {
+                port = server.getPort();
+                lowestUtilization = utilization;
+            }
+        }
+
+        return port;
+    }
+}
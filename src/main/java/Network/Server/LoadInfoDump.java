@@ -0,0 +1,43 @@
+package Network.Server;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Prints a memory-mapped load table in the {@code port=running,waiting} text form of the load info file, for tools that
+ * still read that format.
+ * <p>
+ * Usage: {@code LoadInfoDump <mapped table> [output file]}. Without an output file the table is printed to the
+ * standard output.
+ * </p>
+ */
+public class LoadInfoDump {
+
+    /**
+     * Dumps the table once.
+     *
+     * @param args the path of the mapped table and, optionally, the path of the text file to write
+     * @throws IOException if the table cannot be mapped or the text file cannot be written
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if ( args.length < 1 )
+        {
+            System.err.println("Usage: LoadInfoDump <mapped table> [output file]");
+            System.exit( 1 );
+        }
+
+        if ( !Files.exists( Paths.get( args[0] ) ) )
+        {
+            System.err.println("No load table at " + args[0]);
+            System.exit( 1 );
+        }
+
+        String loadInfo = new MappedLoadTracker( args[0], 0 ).readLoadInfo();
+        if ( args.length > 1 )
+            Files.writeString( Paths.get( args[1] ), loadInfo );
+        else
+            System.out.print( loadInfo );
+    }
+}
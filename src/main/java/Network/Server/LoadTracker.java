@@ -0,0 +1,16 @@
+package Network.Server;
+
+import Utils.Observer.Subject;
+
+/**
+ * A load tracker that servers write to, clients read from and observers follow through load update events.
+ */
+public interface LoadTracker extends LoadTrackerEdit, LoadTrackerReader, Subject {
+
+    /**
+     * Reads the tracked load information in the load info file format, one {@code port=running,waiting} line per server.
+     *
+     * @return a string containing the server port and corresponding load values
+     */
+    public String readLoadInfo();
+}
@@ -22,4 +22,32 @@ public interface LoadTrackerEdit {
          * @param serverIdentifier the identifier of the server
          */
         void removeEntry(int serverIdentifier);
+
+        /**
+         * Updates the capacity of a server, so clients can weigh its load by the number of its executors.
+         * @param serverIdentifier the identifier of the server
+         * @param capacity the number of executors of the server
+         */
+        void updateCapacity(int serverIdentifier, int capacity);
+
+        /**
+         * Updates the latency averages of a server, so clients can estimate when a new task would complete on it.
+         * @param serverIdentifier the identifier of the server
+         * @param serviceTime the moving average of the processing time of a task in milliseconds
+         * @param queueWait the moving average of the time a task waits in the queue in milliseconds
+         */
+        void updateLatency(int serverIdentifier, double serviceTime, double queueWait);
+
+        /**
+         * Updates the number of tasks the task pool of a server rejected or dropped because its queue was full.
+         * @param serverIdentifier the identifier of the server
+         * @param rejected the number of tasks rejected or dropped since the server started
+         */
+        void updateRejected(int serverIdentifier, long rejected);
+
+        /**
+         * Confirms a slot reserved by a client, the server read the request sent to it.
+         * @param serverIdentifier the identifier of the server
+         */
+        void confirmReservation(int serverIdentifier);
 }
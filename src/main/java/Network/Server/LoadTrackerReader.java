@@ -1,5 +1,8 @@
 package Network.Server;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface LoadTrackerReader {
 
     /**
@@ -14,4 +17,89 @@ public interface LoadTrackerReader {
      */
     public int getServerWithLessLoad();
 
+    /**
+     * @param excludedServers identifiers of servers that must not be chosen, e.g. servers that refused or failed a request.
+     * @return server identifier, not excluded, that has the less load. -1 if no such server exists.
+     */
+    public int getServerWithLessLoad(Collection<Integer> excludedServers);
+
+    /**
+     * Chooses the server to send a task to with the selection strategy of the tracker.
+     *
+     * @param excludedServers identifiers of servers that must not be chosen, e.g. servers that refused or failed a request.
+     * @return server identifier, not excluded, chosen by the strategy. -1 if no such server exists.
+     */
+    public int selectServer(Collection<Integer> excludedServers);
+
+    /**
+     * Chooses a server like {@link #selectServer(Collection)} and reserves a slot on it, so the selections that follow
+     * count the task before the server admits it. The server confirms the reservation when it reads a request marked
+     * as reserved, the client releases it with {@link #releaseReservation(int)} if the request could not be sent.
+     *
+     * @param excludedServers identifiers of servers that must not be chosen, e.g. servers that refused or failed a request.
+     * @return server identifier, not excluded, with a reserved slot. -1 if no such server exists.
+     */
+    public int reserveServer(Collection<Integer> excludedServers);
+
+    /**
+     * Chooses a server like {@link #selectServer(Collection)}, a strategy that routes by key sends the tasks with the
+     * same routing key to the same server. Readers and strategies that do not route by key ignore it.
+     *
+     * @param excludedServers identifiers of servers that must not be chosen, e.g. servers that refused or failed a request.
+     * @param routingKey      the key of the task, e.g. a fingerprint of its content, null if it has none.
+     * @return server identifier, not excluded, chosen by the strategy. -1 if no such server exists.
+     */
+    public default int selectServer(Collection<Integer> excludedServers, String routingKey)
+    {
+        return this.selectServer( excludedServers );
+    }
+
+    /**
+     * Chooses a server like {@link #selectServer(Collection, String)} and reserves a slot on it, like
+     * {@link #reserveServer(Collection)}.
+     *
+     * @param excludedServers identifiers of servers that must not be chosen, e.g. servers that refused or failed a request.
+     * @param routingKey      the key of the task, e.g. a fingerprint of its content, null if it has none.
+     * @return server identifier, not excluded, with a reserved slot. -1 if no such server exists.
+     */
+    public default int reserveServer(Collection<Integer> excludedServers, String routingKey)
+    {
+        return this.reserveServer( excludedServers );
+    }
+
+    /**
+     * Releases a slot reserved with {@link #reserveServer(Collection)} on a server the request did not reach.
+     *
+     * @param serverIdentifier the identifier of the server
+     */
+    public void releaseReservation(int serverIdentifier);
+
+    /**
+     * Sets the strategy used by {@link #selectServer(Collection)}, {@link PowerOfTwoChoicesStrategy} by default.
+     *
+     * @param selectionStrategy the selection strategy
+     */
+    public void setSelectionStrategy(ServerSelectionStrategy selectionStrategy);
+
+    /**
+     * @return the load entries of the tracked servers.
+     */
+    public List<ServerLoad> getServerLoads();
+
+    /**
+     * Reports that a request reached a server and got an answer. Readers that do not track the health of the servers
+     * ignore it.
+     *
+     * @param serverIdentifier the identifier of the server
+     */
+    public default void recordSuccess(int serverIdentifier) {}
+
+    /**
+     * Reports that a request to a server failed to connect or to get an answer. Readers that do not track the health
+     * of the servers ignore it.
+     *
+     * @param serverIdentifier the identifier of the server
+     */
+    public default void recordFailure(int serverIdentifier) {}
+
 }
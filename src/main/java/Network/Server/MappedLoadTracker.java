@@ -0,0 +1,558 @@
+package Network.Server;
+
+import Utils.Events.Enums.EventTypes;
+import Utils.Events.Enums.SeverityLevels;
+import Utils.Events.Event;
+import Utils.Events.EventFactory;
+import Utils.Observer.Observer;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A load tracker that keeps the load table in a memory-mapped file, so servers and clients of separate JVMs on the same
+ * host share it at memory speed.
+ * <p>
+ * The file has a header followed by fixed-size binary records, one per server:
+ * </p>
+ * <pre>
+ * header: magic (int) | version (int) | number of records (int) | record size (int)
+ * record: sequence (int) | port (int) | running (int) | waiting (int) | capacity (int) | pending (int) | timestamp (long)
+ *         | service time (double) | queue wait (double) | rejected (long) | reserved
+ * </pre>
+ * <p>
+ * A record is written under its own seqlock: the writer moves the sequence to an odd value, writes the fields and moves
+ * it to the next even value. Readers never lock, they read the fields between two reads of the sequence and retry if it
+ * was odd or changed, a reader that keeps finding the record locked skips it rather than stall the selection. The
+ * pending counter of reserved slots is changed atomically outside of the seqlock, so clients reserving slots do not
+ * contend with the server. The clients of one process select and reserve a server under one lock, so they never both
+ * see the same idle server. A port of zero marks a free record, the port is written last under the seqlock of the
+ * record so a reader never sees a new port with the counts of the server that had the record before. The file can be
+ * printed in the {@code port=running,waiting} text form with {@link LoadInfoDump}.
+ * </p>
+ */
+public class MappedLoadTracker implements LoadTracker {
+
+    private static final int MAGIC = 0x4C4F4144;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE = 64;
+
+    private static final int SEQUENCE = 0;
+    private static final int PORT = 4;
+    private static final int RUNNING = 8;
+    private static final int WAITING = 12;
+    private static final int CAPACITY = 16;
+    private static final int PENDING = 20;
+    private static final int TIMESTAMP = 24;
+    private static final int SERVICE_TIME = 32;
+    private static final int QUEUE_WAIT = 40;
+    private static final int REJECTED = 48;
+
+    /**
+     * Number of spins of a writer before a record locked by another writer is considered abandoned, e.g. by a process
+     * that died in the middle of a write.
+     */
+    private static final int MAX_SPINS = 1 << 20;
+
+    /**
+     * Time in nanoseconds a reader waits for a record that stays locked by the same write before it skips the record. A
+     * write only takes a few stores, a record locked for longer was left by a dead writer. The readers that come after
+     * skip the record at once while it stays locked by that write.
+     */
+    private static final long MAX_READ_WAIT = 20_000_000;
+
+    /**
+     * Number of spins of a reader on a locked record before it yields, so a descheduled writer can finish.
+     */
+    private static final int READ_SPINS = 64;
+
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle( int[].class, ByteOrder.nativeOrder() );
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle( long[].class, ByteOrder.nativeOrder() );
+
+    private final MappedByteBuffer BUFFER;
+    private final int RECORDS;
+    private final ConcurrentHashMap<Integer, Integer> SLOTS;
+    private final ConcurrentHashMap<Integer, Integer> ABANDONED;
+    private final Object RESERVATIONS;
+    private final CopyOnWriteArrayList<Observer> OBSERVERS;
+    private volatile ServerSelectionStrategy selectionStrategy;
+
+    private static final ServerSelectionStrategy LEAST_LOADED = new LeastLoadedStrategy();
+
+    /**
+     * Maps a load table file, creating and initializing it if it does not exist yet. If the file already holds a table,
+     * its number of records is kept.
+     *
+     * @param path    The path of the load table file.
+     * @param records The number of records of a new table, the maximum number of servers it can track.
+     * @throws IOException If the file cannot be created or mapped, or holds something else than a load table.
+     */
+    public MappedLoadTracker(String path, int records) throws IOException
+    {
+        Path file = Paths.get( path );
+        try ( FileChannel channel = FileChannel.open( file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE ) )
+        {
+            boolean initialized = channel.size() >= HEADER_SIZE;
+            long size = initialized ? channel.size() : HEADER_SIZE + (long) records * RECORD_SIZE;
+            this.BUFFER = channel.map( FileChannel.MapMode.READ_WRITE, 0, size );
+        }
+
+        if ( (int) INT.getVolatile( this.BUFFER, 0 ) != MAGIC )
+        {
+            INT.set( this.BUFFER, 4, VERSION );
+            INT.set( this.BUFFER, 8, records );
+            INT.set( this.BUFFER, 12, RECORD_SIZE );
+            INT.setVolatile( this.BUFFER, 0, MAGIC );
+        }
+        else if ( (int) INT.get( this.BUFFER, 4 ) != VERSION || (int) INT.get( this.BUFFER, 12 ) != RECORD_SIZE )
+        {
+            throw new IOException( "Unsupported load table in " + path );
+        }
+
+        this.RECORDS = (int) INT.get( this.BUFFER, 8 );
+        this.SLOTS = new ConcurrentHashMap<>();
+        this.ABANDONED = new ConcurrentHashMap<>();
+        this.RESERVATIONS = new Object();
+        this.OBSERVERS = new CopyOnWriteArrayList<>();
+        this.selectionStrategy = new PowerOfTwoChoicesStrategy();
+    }
+
+    @Override
+    public void update(int serverIdentifier, int running, int waiting)
+    {
+        int slot = this.findSlot( serverIdentifier );
+        if ( slot == -1 )
+            return;
+
+        int offset = offsetOf( slot );
+        int sequence = this.beginWrite( offset );
+        INT.set( this.BUFFER, offset + RUNNING, running );
+        INT.set( this.BUFFER, offset + WAITING, waiting );
+        LONG.set( this.BUFFER, offset + TIMESTAMP, System.currentTimeMillis() );
+        this.endWrite( offset, sequence );
+
+        this.notify( EventFactory.createLoadUpdateEvent("server update", running ,waiting, serverIdentifier) );
+    }
+
+    @Override
+    public void addEntry(int serverIdentifier, int running, int waiting)
+    {
+        int slot = this.findSlot( serverIdentifier );
+        if ( slot != -1 )
+        {
+            this.writeEntry( offsetOf( slot ), this.beginWrite( offsetOf( slot ) ), serverIdentifier, running, waiting );
+            return;
+        }
+
+        // a free record is claimed by locking it, the port is written with the other fields
+        for ( int i = 0; slot == -1 && i < this.RECORDS; i++ )
+        {
+            int offset = offsetOf( i );
+            if ( (int) INT.getVolatile( this.BUFFER, offset + PORT ) != 0 )
+                continue;
+
+            int sequence = this.tryBeginWrite( offset );
+            if ( sequence == -1 )
+                continue;
+
+            if ( (int) INT.get( this.BUFFER, offset + PORT ) == 0 )
+            {
+                this.writeEntry( offset, sequence, serverIdentifier, running, waiting );
+                slot = i;
+            }
+            else
+                this.endWrite( offset, sequence );
+        }
+
+        if ( slot == -1 )
+        {
+            this.notify( EventFactory.createErrorEvent( String.format("Load table is full, server %d is not tracked", serverIdentifier), EventTypes.ERROR, SeverityLevels.ERROR ) );
+            return;
+        }
+        this.SLOTS.put( serverIdentifier, slot );
+    }
+
+    @Override
+    public void removeEntry(int serverIdentifier)
+    {
+        int slot = this.findSlot( serverIdentifier );
+        if ( slot == -1 )
+            return;
+
+        int offset = offsetOf( slot );
+        this.SLOTS.remove( serverIdentifier );
+        this.writeEntry( offset, this.beginWrite( offset ), 0, 0, 0 );
+    }
+
+    /**
+     * Writes every field of a locked record, the port last, and unlocks it.
+     *
+     * @param offset           the offset of the record
+     * @param sequence         the sequence returned when the record was locked
+     * @param serverIdentifier the identifier of the server, 0 to free the record
+     * @param running          the number of running tasks
+     * @param waiting          the number of waiting tasks
+     */
+    private void writeEntry(int offset, int sequence, int serverIdentifier, int running, int waiting)
+    {
+        INT.set( this.BUFFER, offset + RUNNING, running );
+        INT.set( this.BUFFER, offset + WAITING, waiting );
+        INT.set( this.BUFFER, offset + CAPACITY, 0 );
+        INT.setVolatile( this.BUFFER, offset + PENDING, 0 );
+        LONG.set( this.BUFFER, offset + SERVICE_TIME, 0L );
+        LONG.set( this.BUFFER, offset + QUEUE_WAIT, 0L );
+        LONG.set( this.BUFFER, offset + REJECTED, 0L );
+        LONG.set( this.BUFFER, offset + TIMESTAMP, System.currentTimeMillis() );
+        INT.setVolatile( this.BUFFER, offset + PORT, serverIdentifier );
+        this.endWrite( offset, sequence );
+    }
+
+    @Override
+    public void updateCapacity(int serverIdentifier, int capacity)
+    {
+        int slot = this.findSlot( serverIdentifier );
+        if ( slot == -1 )
+            return;
+
+        int offset = offsetOf( slot );
+        int sequence = this.beginWrite( offset );
+        INT.set( this.BUFFER, offset + CAPACITY, capacity );
+        LONG.set( this.BUFFER, offset + TIMESTAMP, System.currentTimeMillis() );
+        this.endWrite( offset, sequence );
+    }
+
+    @Override
+    public void updateLatency(int serverIdentifier, double serviceTime, double queueWait)
+    {
+        int slot = this.findSlot( serverIdentifier );
+        if ( slot == -1 )
+            return;
+
+        int offset = offsetOf( slot );
+        int sequence = this.beginWrite( offset );
+        LONG.set( this.BUFFER, offset + SERVICE_TIME, Double.doubleToRawLongBits( serviceTime ) );
+        LONG.set( this.BUFFER, offset + QUEUE_WAIT, Double.doubleToRawLongBits( queueWait ) );
+        LONG.set( this.BUFFER, offset + TIMESTAMP, System.currentTimeMillis() );
+        this.endWrite( offset, sequence );
+    }
+
+    @Override
+    public void updateRejected(int serverIdentifier, long rejected)
+    {
+        int slot = this.findSlot( serverIdentifier );
+        if ( slot == -1 )
+            return;
+
+        int offset = offsetOf( slot );
+        int sequence = this.beginWrite( offset );
+        LONG.set( this.BUFFER, offset + REJECTED, rejected );
+        LONG.set( this.BUFFER, offset + TIMESTAMP, System.currentTimeMillis() );
+        this.endWrite( offset, sequence );
+    }
+
+    @Override
+    public int getLoad(int serverIdentifier)
+    {
+        int slot = this.findSlot( serverIdentifier );
+        if ( slot == -1 )
+            return -1;
+
+        ServerLoad load = this.readRecord( slot );
+        return load == null || load.getPort() != serverIdentifier ? -1 : load.getLoad();
+    }
+
+    @Override
+    public int getServerWithLessLoad()
+    {
+        return this.getServerWithLessLoad( List.of() );
+    }
+
+    @Override
+    public int getServerWithLessLoad(Collection<Integer> excludedServers)
+    {
+        return LEAST_LOADED.select( this.getServerLoads(), excludedServers );
+    }
+
+    @Override
+    public int selectServer(Collection<Integer> excludedServers)
+    {
+        return this.selectServer( excludedServers, null );
+    }
+
+    @Override
+    public int selectServer(Collection<Integer> excludedServers, String routingKey)
+    {
+        return this.selectionStrategy.select( this.getServerLoads(), excludedServers, routingKey );
+    }
+
+    @Override
+    public int reserveServer(Collection<Integer> excludedServers)
+    {
+        return this.reserveServer( excludedServers, null );
+    }
+
+    @Override
+    public int reserveServer(Collection<Integer> excludedServers, String routingKey)
+    {
+        synchronized ( this.RESERVATIONS )
+        {
+            int port = this.selectServer( excludedServers, routingKey );
+            int slot = port == -1 ? -1 : this.findSlot( port );
+            if ( slot != -1 )
+                INT.getAndAdd( this.BUFFER, offsetOf( slot ) + PENDING, 1 );
+            return port;
+        }
+    }
+
+    @Override
+    public void releaseReservation(int serverIdentifier)
+    {
+        int slot = this.findSlot( serverIdentifier );
+        if ( slot == -1 )
+            return;
+
+        int offset = offsetOf( slot );
+        int pending;
+        do {
+            pending = (int) INT.getVolatile( this.BUFFER, offset + PENDING );
+        } while ( pending > 0 && !INT.compareAndSet( this.BUFFER, offset + PENDING, pending, pending - 1 ) );
+    }
+
+    @Override
+    public void confirmReservation(int serverIdentifier)
+    {
+        this.releaseReservation( serverIdentifier );
+    }
+
+    @Override
+    public void setSelectionStrategy(ServerSelectionStrategy selectionStrategy)
+    {
+        this.selectionStrategy = selectionStrategy;
+    }
+
+    @Override
+    public List<ServerLoad> getServerLoads()
+    {
+        ArrayList<ServerLoad> loads = new ArrayList<>();
+        for ( int slot = 0; slot < this.RECORDS; slot++ )
+        {
+            ServerLoad server = this.readRecord( slot );
+            if ( server != null )
+                loads.add( server );
+        }
+        return loads;
+    }
+
+    @Override
+    public String readLoadInfo()
+    {
+        StringBuilder loadInfoBuilder = new StringBuilder();
+        for ( ServerLoad server : this.getServerLoads() )
+        {
+            loadInfoBuilder.append( server ).append( "\n" );
+        }
+        return loadInfoBuilder.toString();
+    }
+
+    /**
+     * Reads the timestamp of the last write of a server record.
+     *
+     * @param serverIdentifier the identifier of the server
+     * @return the time of the last write in epoch milliseconds, -1 if the server is not tracked.
+     */
+    public long getTimestamp(int serverIdentifier)
+    {
+        int slot = this.findSlot( serverIdentifier );
+        return slot == -1 ? -1 : (long) LONG.getVolatile( this.BUFFER, offsetOf( slot ) + TIMESTAMP );
+    }
+
+    /**
+     * Forces the pages of the table to the file.
+     */
+    public void force()
+    {
+        this.BUFFER.force();
+    }
+
+    /**
+     * Finds the record of a server, the slot is cached after the first scan.
+     *
+     * @param serverIdentifier the identifier of the server
+     * @return the index of the record, -1 if the server is not in the table.
+     */
+    private int findSlot(int serverIdentifier)
+    {
+        Integer cached = this.SLOTS.get( serverIdentifier );
+        if ( cached != null && (int) INT.getVolatile( this.BUFFER, offsetOf( cached ) + PORT ) == serverIdentifier )
+            return cached;
+
+        for ( int slot = 0; slot < this.RECORDS; slot++ )
+        {
+            if ( (int) INT.getVolatile( this.BUFFER, offsetOf( slot ) + PORT ) == serverIdentifier )
+            {
+                this.SLOTS.put( serverIdentifier, slot );
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads a record without locking.
+     *
+     * @param slot the index of the record
+     * @return a copy of the record, null if the record is free or stays locked by a writer.
+     */
+    private ServerLoad readRecord(int slot)
+    {
+        int offset = offsetOf( slot );
+        int locked = 0;
+        int spins = 0;
+        long lockedSince = 0;
+        while ( true )
+        {
+            int before = (int) INT.getAcquire( this.BUFFER, offset + SEQUENCE );
+            if ( ( before & 1 ) == 1 )
+            {
+                // only a write that does not progress counts, the writers of a busy record keep it readable
+                if ( before != locked && this.ABANDONED.getOrDefault( slot, 0 ) == before )
+                    return null;
+
+                if ( before != locked )
+                {
+                    locked = before;
+                    spins = 0;
+                    lockedSince = System.nanoTime();
+                }
+                else if ( System.nanoTime() - lockedSince > MAX_READ_WAIT )
+                {
+                    this.ABANDONED.put( slot, before );
+                    return null;
+                }
+
+                if ( ++spins < READ_SPINS )
+                    Thread.onSpinWait();
+                else
+                    Thread.yield();
+                continue;
+            }
+
+            int port = (int) INT.get( this.BUFFER, offset + PORT );
+            int running = (int) INT.get( this.BUFFER, offset + RUNNING );
+            int waiting = (int) INT.get( this.BUFFER, offset + WAITING );
+            int capacity = (int) INT.get( this.BUFFER, offset + CAPACITY );
+            int pending = (int) INT.getVolatile( this.BUFFER, offset + PENDING );
+            long serviceTime = (long) LONG.get( this.BUFFER, offset + SERVICE_TIME );
+            long queueWait = (long) LONG.get( this.BUFFER, offset + QUEUE_WAIT );
+            long rejected = (long) LONG.get( this.BUFFER, offset + REJECTED );
+
+            VarHandle.loadLoadFence();
+            if ( before == (int) INT.getAcquire( this.BUFFER, offset + SEQUENCE ) )
+            {
+                if ( port == 0 )
+                    return null;
+
+                ServerLoad load = new ServerLoad( port, running, waiting, capacity,
+                        Double.longBitsToDouble( serviceTime ), Double.longBitsToDouble( queueWait ) );
+                load.setPending( pending );
+                load.setRejected( rejected );
+                return load;
+            }
+        }
+    }
+
+    /**
+     * Locks a record for writing by moving its sequence to an odd value.
+     *
+     * @param offset the offset of the record
+     * @return the even sequence the record had before the write.
+     */
+    private int beginWrite(int offset)
+    {
+        for ( int spins = 0; ; spins++ )
+        {
+            int sequence = (int) INT.getVolatile( this.BUFFER, offset + SEQUENCE );
+
+            if ( ( sequence & 1 ) == 0 )
+            {
+                if ( INT.compareAndSet( this.BUFFER, offset + SEQUENCE, sequence, sequence + 1 ) )
+                    return sequence;
+            }
+            // a writer that never finished left the sequence odd, take the record over
+            else if ( spins >= MAX_SPINS && INT.compareAndSet( this.BUFFER, offset + SEQUENCE, sequence, sequence + 2 ) )
+            {
+                return sequence + 1;
+            }
+
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Locks a record for writing if no other writer holds it.
+     *
+     * @param offset the offset of the record
+     * @return the even sequence the record had before the write, -1 if another writer holds the record.
+     */
+    private int tryBeginWrite(int offset)
+    {
+        int sequence = (int) INT.getVolatile( this.BUFFER, offset + SEQUENCE );
+        if ( ( sequence & 1 ) == 0 && INT.compareAndSet( this.BUFFER, offset + SEQUENCE, sequence, sequence + 1 ) )
+            return sequence;
+        return -1;
+    }
+
+    /**
+     * Unlocks a record by moving its sequence to the next even value.
+     *
+     * @param offset   the offset of the record
+     * @param sequence the sequence returned by {@link #beginWrite(int)}
+     */
+    private void endWrite(int offset, int sequence)
+    {
+        INT.setRelease( this.BUFFER, offset + SEQUENCE, sequence + 2 );
+    }
+
+    /**
+     * @param slot the index of a record
+     * @return the offset of the record in the file.
+     */
+    private static int offsetOf(int slot)
+    {
+        return HEADER_SIZE + slot * RECORD_SIZE;
+    }
+
+    @Override
+    public void addObserver(Observer observer)
+    {
+        this.OBSERVERS.addIfAbsent( observer );
+    }
+
+    @Override
+    public void removeObserver(Observer observer)
+    {
+        this.OBSERVERS.remove( observer );
+    }
+
+    @Override
+    public void notify(Event event)
+    {
+        for (Observer observer : this.OBSERVERS)
+        {
+            observer.update(this,event);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package Network.Server;
+
+import Utils.IndexedMinHeap;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Chooses the server with the lowest utilization from an indexed min-heap that the tracker keeps up to date.
+ * <p>
+ * Each change of a server entry moves it in the heap in O(log n) and a choice reads the top of the heap in O(1), so
+ * selecting stays cheap with hundreds of servers. Excluded servers are skipped by walking the heap below them.
+ * </p>
+ * <p>
+ * The heap is only fed by an {@link InMemoryLoadTracker}. Until it received its first entry, e.g. when it is set on a
+ * tracker shared between processes, the strategy scans the servers it is given like {@link LeastLoadedStrategy}.
+ * </p>
+ */
+public class MinHeapStrategy implements ServerSelectionStrategy {
+
+    private static final ServerSelectionStrategy LEAST_LOADED = new LeastLoadedStrategy();
+
+    private final IndexedMinHeap HEAP;
+
+    /**
+     * Creates a strategy with an empty heap.
+     */
+    public MinHeapStrategy()
+    {
+        this.HEAP = new IndexedMinHeap();
+    }
+
+    @Override
+    public int select(List<ServerLoad> servers, Collection<Integer> excludedServers)
+    {
+        synchronized ( this.HEAP )
+        {
+            if ( this.HEAP.size() > 0 )
+                return this.HEAP.peekExcluding( excludedServers );
+        }
+        return LEAST_LOADED.select( servers, excludedServers );
+    }
+
+    @Override
+    public void onAdd(ServerLoad server)
+    {
+        synchronized ( this.HEAP )
+        {
+            this.HEAP.insert( server.getPort(), server.getUtilization() );
+        }
+    }
+
+    @Override
+    public void onUpdate(ServerLoad server)
+    {
+        // the key is read under the heap lock, so the last update of a server always leaves its current utilization
+        synchronized ( this.HEAP )
+        {
+            this.HEAP.update( server.getPort(), server.getUtilization() );
+        }
+    }
+
+    @Override
+    public void onRemove(int serverIdentifier)
+    {
+        synchronized ( this.HEAP )
+        {
+            this.HEAP.remove( serverIdentifier );
+        }
+    }
+}
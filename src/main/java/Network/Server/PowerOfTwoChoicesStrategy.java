@@ -0,0 +1,94 @@
+package Network.Server;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Samples two random servers and chooses the one with the lower utilization, its load per executor.
+ * <p>
+ * Clients reading the same load table sample different pairs, so a burst of tasks is spread over the servers instead
+ * of herding on the least loaded one, while the queue lengths stay close to the least loaded choice. A decision reads
+ * two entries whatever the number of servers; only when the samples keep hitting excluded servers it falls back to a
+ * scan of the remaining ones.
+ * </p>
+ */
+public class PowerOfTwoChoicesStrategy implements ServerSelectionStrategy {
+
+    private static final int SAMPLES = 4;
+
+    private final Random RANDOM;
+
+    /**
+     * Creates a strategy sampling with the random generator of the calling thread.
+     */
+    public PowerOfTwoChoicesStrategy()
+    {
+        this( null );
+    }
+
+    /**
+     * Creates a strategy sampling with the given random generator, e.g. a seeded one for reproducible simulations.
+     *
+     * @param random The random generator, null to use the one of the calling thread.
+     */
+    public PowerOfTwoChoicesStrategy(Random random)
+    {
+        this.RANDOM = random;
+    }
+
+    @Override
+    public int select(List<ServerLoad> servers, Collection<Integer> excludedServers)
+    {
+        int size = servers.size();
+        if ( size == 0 )
+            return -1;
+
+        Random random = this.RANDOM != null ? this.RANDOM : ThreadLocalRandom.current();
+
+        ServerLoad first = null;
+        ServerLoad second = null;
+        for ( int i = 0; i < SAMPLES && second == null; i++ )
+        {
+            ServerLoad candidate = servers.get( random.nextInt( size ) );
+            if ( candidate == first || excludedServers.contains( candidate.getPort() ) )
+                continue;
+
+            if ( first == null )
+                first = candidate;
+            else
+                second = candidate;
+        }
+
+        if ( first == null )
+            return this.selectAmongRemaining( servers, excludedServers, random );
+        if ( second == null )
+            return first.getPort();
+
+        return second.getUtilization() < first.getUtilization() ? second.getPort() : first.getPort();
+    }
+
+    /**
+     * Chooses the less loaded of two random servers among the ones that are not excluded.
+     *
+     * @return the identifier of the chosen server, -1 if every server is excluded.
+     */
+    private int selectAmongRemaining(List<ServerLoad> servers, Collection<Integer> excludedServers, Random random)
+    {
+        ArrayList<ServerLoad> remaining = new ArrayList<>();
+        for ( ServerLoad server : servers )
+        {
+            if ( !excludedServers.contains( server.getPort() ) )
+                remaining.add( server );
+        }
+
+        if ( remaining.isEmpty() )
+            return -1;
+
+        ServerLoad first = remaining.get( random.nextInt( remaining.size() ) );
+        ServerLoad second = remaining.get( random.nextInt( remaining.size() ) );
+        return second.getUtilization() < first.getUtilization() ? second.getPort() : first.getPort();
+    }
+}
@@ -1,5 +1,6 @@
 package Network.Server;
 import Utils.Image.ImageTransformer;
+import Utils.ScheduledTask;
 
 import java.awt.image.BufferedImage;
 import java.io.Serial;
@@ -15,9 +16,41 @@ public class Request implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L; // Ensure compatibility during serialization
 
+    /**
+     * Type of a request that asks the server to process its image section.
+     */
+    public static final String PROCESS = "Ask to process";
+
+    /**
+     * Type of a request that asks the server to drop every image section of its job.
+     */
+    public static final String CANCEL = "Cancel";
+
+    /**
+     * Type of a request that asks the server to drop a single image section of its job, the one whose message is the
+     * content of the request, e.g. the duplicate of a hedged image section that lost.
+     */
+    public static final String CANCEL_PART = "Cancel part";
+
+    /**
+     * Type of a request that only asks the server whether it accepts connections, it is answered at once with an
+     * {@link Response#OK} response and never queued.
+     */
+    public static final String PING = "Ping";
+
+    /**
+     * Type of a request sent by an idle server to a loaded one, whose content is the port of the idle server. The
+     * loaded server sends the client of its most recently queued image section to the idle server.
+     */
+    public static final String STEAL = "Steal";
+
     private String messageType;
     private String messageContent;
     private byte[] imageSection;
+    private String jobId;
+    private long deadline;
+    private int priority = ScheduledTask.PRIORITY_NORMAL;
+    private boolean reserved;
 
     /**
      * Constructs a new Request with specified message type and content.
@@ -32,6 +65,34 @@ public class Request implements Serializable {
         this.imageSection = ImageTransformer.createBytesFromImage(imageSection);
         }
 
+    /**
+     * Constructs a new Request that belongs to a job and must be answered before a deadline.
+     *
+     * @param messageType    The type of the message, e.g. {@link #PROCESS}.
+     * @param messageContent The content of the message.
+     * @param jobId          The identifier of the job (image) the request belongs to.
+     * @param deadline       The time in epoch milliseconds after which the request is worthless, 0 for no deadline.
+     * @param imageSection   The image section to process.
+     */
+    public Request ( String messageType , String messageContent , String jobId , long deadline , BufferedImage imageSection ) {
+        this( messageType, messageContent, imageSection );
+        this.jobId = jobId;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Constructs a new control Request, without image section, about a job. The content of the message is the job
+     * identifier.
+     *
+     * @param messageType The type of the message, e.g. {@link #CANCEL}.
+     * @param jobId       The identifier of the job the request is about.
+     */
+    public Request ( String messageType , String jobId ) {
+        this.messageType = messageType;
+        this.messageContent = jobId;
+        this.jobId = jobId;
+    }
+
     /**
      * Returns the type of the message.
      *
@@ -72,6 +133,72 @@ public class Request implements Serializable {
         return imageSection;
     }
 
+    /**
+     * Returns the identifier of the job the request belongs to.
+     *
+     * @return The job identifier, null if the request does not belong to a job.
+     */
+    public String getJobId ( ) {
+        return jobId;
+    }
+
+    /**
+     * Returns the deadline of the request.
+     *
+     * @return The deadline in epoch milliseconds, 0 if the request has no deadline.
+     */
+    public long getDeadline ( ) {
+        return deadline;
+    }
+
+    /**
+     * Checks if the deadline of the request has passed.
+     *
+     * @return <b>True</b> if the request has a deadline and it has passed.
+     */
+    public boolean isExpired ( ) {
+        return deadline > 0 && System.currentTimeMillis() > deadline;
+    }
+
+    /**
+     * Returns the priority class of the request, the server runs the requests of a more urgent class first when its
+     * queue discipline is {@code priority}.
+     *
+     * @return The priority class, {@link ScheduledTask#PRIORITY_INTERACTIVE}, {@link ScheduledTask#PRIORITY_NORMAL}
+     * or {@link ScheduledTask#PRIORITY_BATCH}.
+     */
+    public int getPriority ( ) {
+        return priority;
+    }
+
+    /**
+     * Sets the priority class of the request.
+     *
+     * @param priority The priority class, a lower value is more urgent.
+     */
+    public void setPriority ( int priority ) {
+        this.priority = priority;
+    }
+
+    /**
+     * Checks if the client reserved a slot on the server before sending the request, the server confirms the
+     * reservation when it reads the request.
+     *
+     * @return <b>True</b> if the request was sent to a reserved slot.
+     */
+    public boolean isReserved ( ) {
+        return reserved;
+    }
+
+    /**
+     * Marks the request as sent to a reserved slot.
+     *
+     * @param reserved <b>True</b> if the client reserved a slot on the server.
+     */
+    public void setReserved ( boolean reserved ) {
+        this.reserved = reserved;
+    }
+
 //    public void setImageSection(byte[] imageSection) {
 //        this.imageSection = imageSection;
 //    }
@@ -14,9 +14,36 @@ public class Response implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L; // Ensure compatibility during serialization
 
+    /**
+     * Status of a processed request, the response carries the edited image section.
+     */
+    public static final String OK = "OK";
+
+    /**
+     * Status of a request refused because the server queue is full, the response carries a retry-after hint.
+     */
+    public static final String BUSY = "BUSY";
+
+    /**
+     * Status of a request dropped, or of a cancel request answered, because its job was cancelled.
+     */
+    public static final String CANCELLED = "CANCELLED";
+
+    /**
+     * Status of a request dropped because its deadline passed.
+     */
+    public static final String EXPIRED = "EXPIRED";
+
+    /**
+     * Status of a queued request given away to an idle server, the client must send it again to the redirect port.
+     */
+    public static final String STOLEN = "STOLEN";
+
     private String status;
     private String message;
     private byte[] imageSection;
+    private long retryAfter;
+    private int redirectPort;
 
 
     /**
@@ -31,6 +58,30 @@ public class Response implements Serializable {
         this.imageSection = ImageTransformer.createBytesFromImage(imageSection);
     }
 
+    /**
+     * Constructs a new Response without image section.
+     *
+     * @param status  The status of the response, e.g., {@link #CANCELLED}.
+     * @param message The message of the request being answered.
+     */
+    public Response ( String status , String message ) {
+        this.status = status;
+        this.message = message;
+    }
+
+    /**
+     * Constructs a new Response without image section, used to refuse a request.
+     *
+     * @param status     The status of the response, e.g., {@link #BUSY}.
+     * @param message    The message of the refused request.
+     * @param retryAfter The time in milliseconds the client should wait before retrying this server.
+     */
+    public Response ( String status , String message , long retryAfter ) {
+        this.status = status;
+        this.message = message;
+        this.retryAfter = retryAfter;
+    }
+
     /**
      * Returns the status of the response.
      *
@@ -71,6 +122,33 @@ public class Response implements Serializable {
         return imageSection;
     }
 
+    /**
+     * Returns the time the client should wait before retrying the server that refused the request.
+     *
+     * @return The retry-after hint in milliseconds, zero if the request was not refused.
+     */
+    public long getRetryAfter ( ) {
+        return retryAfter;
+    }
+
+    /**
+     * Returns the port of the server a {@link #STOLEN} request must be sent to.
+     *
+     * @return The redirect port, zero if the request was not given away.
+     */
+    public int getRedirectPort ( ) {
+        return redirectPort;
+    }
+
+    /**
+     * Sets the port of the server a {@link #STOLEN} request must be sent to.
+     *
+     * @param redirectPort The port of the server that took the request over.
+     */
+    public void setRedirectPort ( int redirectPort ) {
+        this.redirectPort = redirectPort;
+    }
+
 //    public void setImageSection(byte[] imageSection) {
 //        this.imageSection = imageSection;
 //    }
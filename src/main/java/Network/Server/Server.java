@@ -6,9 +6,14 @@ import Utils.Events.Enums.SeverityLevels;
 import Utils.Events.Event;
 import Utils.Events.EventFactory;
 import Utils.Image.ImageTransformer;
+import Utils.Ewma;
 import Utils.Observer.Observer;
 import Utils.Observer.Subject;
+import Utils.Parser.Config;
+import Utils.RejectionPolicy;
+import Utils.ScheduledTask;
 import Utils.TaskPool;
+import Utils.TaskQueue;
 import Utils.VarSync;
 
 import java.awt.image.BufferedImage;
@@ -16,6 +21,9 @@ import java.io.*;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A TCP/IP server that listens for connections on a specified port and handles each client connection in a separate thread.
@@ -31,31 +39,154 @@ import java.util.ArrayList;
  *     <li>Server Closed Event: Signifies the closure of the server and the termination of client connections.</li>
  *     <li>Error Event: Indicates occurrences of errors during the server's operation.</li>
  * </ul>
+ * <p>
+ * Requests are read when a connection is accepted. The queue of the task pool may be bounded, so the waiting time of
+ * the queued parts stays bounded under overload: an image part that does not fit is handled by the configured
+ * {@link RejectionPolicy}, its client gets a {@link Response#BUSY} response and a retry-after hint if it is rejected or
+ * dropped, and the number of rejected parts is published in the load tracker.
+ * </p>
+ * <p>
+ * Requests carry the job they belong to and a deadline. A {@link Request#CANCEL} request removes the still queued
+ * image parts of its job from the task pool and stops the running ones at the next band of rows, expired parts are
+ * dropped without being processed. A {@link Request#PING} request of a health monitor is answered at once.
+ * </p>
+ * <p>
+ * The server keeps moving averages of the time an image part waits in the queue and of the time it takes to process,
+ * and publishes them in the load tracker with its load, so clients can estimate when a new part would complete.
+ * </p>
+ * <p>
+ * When a load publish interval is configured, the load is published through a {@link CoalescingLoadPublisher} that
+ * merges small changes instead of writing the tracker on every admission and response.
+ * </p>
+ * <p>
+ * When a maximum number of executors above the task pool size is configured, an {@link ExecutorScaler} grows the task
+ * pool while image parts wait too long and retires the added executors once they stay idle. The executors of all the
+ * servers are counted against an {@link ExecutorBudget} of the host.
+ * </p>
+ * <p>
+ * An idle server may take over the most recently queued image part of a loaded one, see {@link WorkStealer}. A server
+ * of the same process is stolen from directly, its handler runs in the task pool of the idle server and its cancel
+ * requests still reach it through the server that admitted it. Another server is sent a {@link Request#STEAL} request,
+ * it answers the client of its most recently queued part with a {@link Response#STOLEN} response that sends the client
+ * to the idle server. The parts that are not stolen are processed in the order of the queue discipline.
+ * </p>
+ * <p>
+ * The queue discipline is FIFO by default. With the {@code priority} discipline the parts of an interactive client run
+ * before the queued parts of batch jobs, with the {@code deadline} discipline the part with the earliest deadline runs
+ * first. With the {@code fair} discipline the jobs take turns, each with the same share of work, so an image split in many
+ * parts does not starve the images sent after it. The priority class, the deadline and the job are read from the
+ * request of the part.
+ * </p>
+ * <p>
+ * The server thread only accepts the connections, their requests are read and answered or queued by a small admission
+ * pool. A client that is slow to send its request, or a rejection policy that waits for room in a full queue, holds an
+ * admission thread instead of the accepts, so the health probes and the steal requests of the other servers are still
+ * answered at once.
+ * </p>
  */
 public class Server extends Thread implements Subject {
 
     private final ArrayList<Observer> OBSERVERS;
     private final int PORT;
     private final TaskPool TASK_POOL;
+    private final TaskPool ADMISSION_POOL;
     private VarSync<Boolean> isOpen;
+    private final int RETRY_AFTER;
+    private final VarSync< ArrayList<ServerClientHandler> > HANDLERS;
+    private final SocketSettings SOCKET_SETTINGS;
+    private final Ewma SERVICE_TIME;
+    private final Ewma QUEUE_WAIT;
+    private final ExecutorBudget EXECUTOR_BUDGET;
+    private final ExecutorScaler EXECUTOR_SCALER;
     private ServerSocket socket;
     private LoadTrackerEdit loadTrackerEdit;
 
     /**
-     * Constructs a new Server instance.
+     * Time limit in milliseconds to read the request of an accepted connection.
+     */
+    private static final int ADMISSION_TIMEOUT = 2000;
+
+    /**
+     * Number of threads reading the requests of the accepted connections.
+     */
+    private static final int ADMISSION_THREADS = 4;
+
+    /**
+     * Weight of a new sample in the latency averages.
+     */
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    /**
+     * Time limit in milliseconds for the running image parts to finish when the server closes.
+     */
+    private static final int CLOSE_TIMEOUT = 5000;
+
+    /**
+     * Time limit in milliseconds for a server that is asked to give away an image part to answer.
+     */
+    private static final int STEAL_TIMEOUT = 1000;
+
+    private static final String HOST = "localhost";
+
+    /**
+     * Constructs a new Server instance with an unbounded queue.
      *
      * @param PORT            The port number on which the server will listen for incoming connections.
      * @param capacity        The capacity of the task pool for managing client connections.
      * @param loadTrackerEdit The load tracker for monitoring server load.
      */
     public Server (String name, int PORT, int capacity, LoadTrackerEdit loadTrackerEdit)
+    {
+        this( name, PORT, capacity, loadTrackerEdit, new Config() );
+    }
+
+    /**
+     * Constructs a new Server instance.
+     *
+     * @param PORT            The port number on which the server will listen for incoming connections.
+     * @param capacity        The capacity of the task pool for managing client connections.
+     * @param loadTrackerEdit The load tracker for monitoring server load.
+     * @param config          The configuration with the queue bound, the retry-after hint, the load publishing and the
+     *                        socket settings.
+     */
+    public Server (String name, int PORT, int capacity, LoadTrackerEdit loadTrackerEdit, Config config)
+    {
+        this( name, PORT, capacity, loadTrackerEdit, config, ExecutorBudget.getInstance() );
+    }
+
+    /**
+     * Constructs a new Server instance.
+     *
+     * @param PORT            The port number on which the server will listen for incoming connections.
+     * @param capacity        The capacity of the task pool for managing client connections.
+     * @param loadTrackerEdit The load tracker for monitoring server load.
+     * @param config          The configuration with the queue bound, the retry-after hint, the load publishing, the
+     *                        executor scaling, the scheduling mode, capacity and rejection policy of the task pool and
+     *                        the socket settings.
+     * @param executorBudget  The budget the executors of the server are counted against.
+     */
+    public Server (String name, int PORT, int capacity, LoadTrackerEdit loadTrackerEdit, Config config, ExecutorBudget executorBudget)
     {
         this.setName( name );
         this.PORT = PORT;
-        this.TASK_POOL = new TaskPool( capacity );
+        this.TASK_POOL = new TaskPool( capacity, config.isWorkStealing(), TaskQueue.forName( config.getQueueDiscipline() ),
+                config.getQueueCapacity(), RejectionPolicy.forName( config.getRejectionPolicy(), config.getRejectionTimeout() ) );
+        this.TASK_POOL.setDropListener( task -> this.refuse( (ServerClientHandler) task ) );
+        this.ADMISSION_POOL = new TaskPool( ADMISSION_THREADS );
+        this.TASK_POOL.setFailureListener( this::reportFailure );
+        this.ADMISSION_POOL.setFailureListener( this::reportFailure );
         this.isOpen = new VarSync<Boolean>(false);
         this.OBSERVERS = new ArrayList<>();
-        this.loadTrackerEdit = loadTrackerEdit;
+        this.loadTrackerEdit = config.getLoadPublishInterval() > 0
+                ? new CoalescingLoadPublisher( loadTrackerEdit, config.getLoadPublishThreshold(), config.getLoadPublishInterval() )
+                : loadTrackerEdit;
+        this.RETRY_AFTER = config.getRetryAfter();
+        this.HANDLERS = new VarSync<>( new ArrayList<>() );
+        this.SOCKET_SETTINGS = new SocketSettings( config );
+        this.SERVICE_TIME = new Ewma( LATENCY_SMOOTHING );
+        this.QUEUE_WAIT = new Ewma( LATENCY_SMOOTHING );
+        this.EXECUTOR_BUDGET = executorBudget;
+        this.EXECUTOR_SCALER = config.getMaxExecutors() > capacity ? new ExecutorScaler( this, capacity, config ) : null;
     }
 
     /**
@@ -70,8 +201,12 @@ public class Server extends Thread implements Subject {
             this.isOpen.asyncSet(true);
             this.isOpen.unlock();
             this.loadTrackerEdit.addEntry(this.PORT, 0, 0);
+            this.loadTrackerEdit.updateCapacity(this.PORT, this.TASK_POOL.getSize());
+            this.EXECUTOR_BUDGET.reserve( this.TASK_POOL.getSize() );
 
             this.startServer();
+            if ( this.EXECUTOR_SCALER != null )
+                this.EXECUTOR_SCALER.start();
             super.start();
         }else{
             this.isOpen.unlock();
@@ -90,9 +225,10 @@ public class Server extends Thread implements Subject {
             if ( this.socket != null )
                 this.socket.close();
 
-            this.socket = new ServerSocket (PORT);
+            this.socket = this.SOCKET_SETTINGS.openServerSocket( this.PORT );
 
             this.TASK_POOL.start();
+            this.ADMISSION_POOL.start();
 
         } catch (IOException e) {
             this.notify( EventFactory.createErrorEvent( e.getMessage(), EventTypes.ERROR, SeverityLevels.ERROR ) );
@@ -115,8 +251,8 @@ public class Server extends Thread implements Subject {
             while( this.isOpen.syncGet() )
             {
                 Socket clientSocket = this.socket.accept ( );
-                this.TASK_POOL.addTask( new ServerClientHandler ( clientSocket, this ) );
-                this.loadTrackerEdit.update(this.PORT, this.TASK_POOL.getNumberOfRunningTasks(), this.TASK_POOL.getNumberOfWaitingTasks());
+                if ( !this.ADMISSION_POOL.addTask( () -> this.admit( clientSocket ) ) )
+                    clientSocket.close();
             }
 
         }catch (IOException e){}
@@ -127,19 +263,346 @@ public class Server extends Thread implements Subject {
     }
 
     /**
-     * Closes the server, waits for current running tasks in the taskPool finishes.
+     * Reads the request of an accepted connection and queues it in the task pool, in a thread of the admission pool.
+     * Cancel requests and expired requests are answered immediately and the connection is closed, the requests that do
+     * not fit in the queue are handled by its rejection policy. The slot reserved by the client of a reserved request is confirmed once the request is
+     * queued or answered.
+     *
+     * @param clientSocket The accepted client socket.
+     */
+    private void admit( Socket clientSocket )
+    {
+        // a malformed request must not end the thread, the admission pool only has a few of them
+        try
+        {
+            this.SOCKET_SETTINGS.applyTo( clientSocket );
+            clientSocket.setSoTimeout( ADMISSION_TIMEOUT );
+            ObjectOutputStream out = new ObjectOutputStream( clientSocket.getOutputStream() );
+            ObjectInputStream in = new ObjectInputStream( clientSocket.getInputStream() );
+            Request request = (Request) in.readObject();
+
+            try
+            {
+                this.answerOrQueue( clientSocket, out, in, request );
+            }
+            finally
+            {
+                // the load entry now counts the request, or the client got its answer
+                if ( request != null && request.isReserved() )
+                    this.loadTrackerEdit.confirmReservation( this.PORT );
+            }
+        }
+        catch ( IOException | ClassNotFoundException | RuntimeException e )
+        {
+            this.notify( EventFactory.createErrorEvent( "A error occurred when admitting a Client", EventTypes.ERROR, SeverityLevels.ERROR ) );
+            try
+            {
+                clientSocket.close();
+            }
+            catch ( IOException ignored ) {}
+        }
+    }
+
+    /**
+     * Answers or queues the request read on an accepted connection.
+     *
+     * @param clientSocket The accepted client socket.
+     * @param out          The output stream opened on the socket.
+     * @param in           The input stream opened on the socket.
+     * @param request      The request read on the socket.
+     * @throws IOException If an I/O error occurs when answering the request.
+     */
+    private void answerOrQueue( Socket clientSocket, ObjectOutputStream out, ObjectInputStream in, Request request ) throws IOException
+    {
+        if ( Request.PING.equals( request.getMessageType() ) )
+        {
+            this.answerAndClose( clientSocket, out, new Response( Response.OK, request.getMessageContent() ) );
+            return;
+        }
+
+        if ( Request.CANCEL.equals( request.getMessageType() ) || Request.CANCEL_PART.equals( request.getMessageType() ) )
+        {
+            String part = Request.CANCEL_PART.equals( request.getMessageType() ) ? request.getMessageContent() : null;
+            int cancelled = this.cancelJob( request.getJobId(), part );
+            this.answerAndClose( clientSocket, out, new Response( Response.CANCELLED, String.valueOf( cancelled ) ) );
+            return;
+        }
+
+        if ( Request.STEAL.equals( request.getMessageType() ) )
+        {
+            int given;
+            try
+            {
+                given = this.giveAway( Integer.parseInt( request.getMessageContent() ) );
+            }
+            catch ( NumberFormatException e )
+            {
+                // a steal request without a valid port gets nothing
+                given = 0;
+            }
+            this.answerAndClose( clientSocket, out, new Response( Response.OK, String.valueOf( given ) ) );
+            return;
+        }
+
+        if ( request.isExpired() )
+        {
+            this.answerAndClose( clientSocket, out, new Response( Response.EXPIRED, request.getMessageContent() ) );
+            return;
+        }
+
+        clientSocket.setSoTimeout( 0 );
+        ServerClientHandler handler = new ServerClientHandler( clientSocket, out, in, request, this );
+        this.HANDLERS.lock();
+        this.HANDLERS.asyncGet().add( handler );
+        this.HANDLERS.unlock();
+
+        if ( !this.TASK_POOL.addTask( handler ) )
+            this.refuse( handler );
+        this.loadTrackerEdit.update(this.PORT, this.TASK_POOL.getNumberOfRunningTasks(), this.TASK_POOL.getNumberOfWaitingTasks());
+    }
+
+    /**
+     * Reports a task of the task pool or of the admission pool that ended with an exception, the executor that ran it
+     * goes on with the next one.
+     *
+     * @param task    The task.
+     * @param failure The exception thrown by the task.
+     */
+    private void reportFailure( Runnable task, Throwable failure )
+    {
+        this.notify( EventFactory.createErrorEvent( String.format("A task of %s failed: %s", this.getName(), failure), EventTypes.ERROR, SeverityLevels.ERROR ) );
+    }
+
+    /**
+     * Answers the client of an image part the task pool rejected, or dropped to make room for another one, with a
+     * {@link Response#BUSY} response and publishes the number of rejected image parts.
+     *
+     * @param handler The handler of the image part.
+     */
+    private void refuse( ServerClientHandler handler )
+    {
+        handler.origin.HANDLERS.lock();
+        handler.origin.HANDLERS.asyncGet().remove( handler );
+        handler.origin.HANDLERS.unlock();
+
+        handler.refuse( this.getRetryAfterHint() );
+        this.notify( EventFactory.createErrorEvent( String.format("%s refused, the queue of %s is full", handler.getMessageContent(), this.getName()), EventTypes.ERROR, SeverityLevels.WARNING ) );
+        this.loadTrackerEdit.updateRejected( this.PORT, this.TASK_POOL.getNumberOfRejectedTasks() );
+    }
+
+    /**
+     * Writes a response to a connection that is not queued and closes it.
+     *
+     * @param clientSocket The client socket.
+     * @param out          The output stream opened on the socket.
+     * @param response     The response to send.
+     * @throws IOException If an I/O error occurs when writing the response.
+     */
+    private void answerAndClose( Socket clientSocket, ObjectOutputStream out, Response response ) throws IOException
+    {
+        out.writeObject( response );
+        out.flush();
+        clientSocket.close();
+    }
+
+    /**
+     * Cancels every image part of a job, or a single one. Queued parts are removed from the task pool and their
+     * connections closed, running parts stop at their next checkpoint.
+     *
+     * @param jobId The identifier of the job to cancel.
+     * @param part  The message of the image part to cancel, null to cancel every part of the job.
+     * @return The number of image parts cancelled.
+     */
+    private int cancelJob( String jobId, String part )
+    {
+        if ( jobId == null )
+            return 0;
+
+        int cancelled = 0;
+
+        this.HANDLERS.lock();
+        Iterator<ServerClientHandler> iterator = this.HANDLERS.asyncGet().iterator();
+        while ( iterator.hasNext() )
+        {
+            ServerClientHandler handler = iterator.next();
+            if ( jobId.equals( handler.getJobId() ) && ( part == null || part.equals( handler.getMessageContent() ) ) )
+            {
+                handler.cancel();
+                if ( this.TASK_POOL.removeTask( handler ) )
+                {
+                    handler.closeConnection();
+                    iterator.remove();
+                }
+                cancelled++;
+            }
+        }
+        this.HANDLERS.unlock();
+
+        this.loadTrackerEdit.update(this.PORT, this.TASK_POOL.getNumberOfRunningTasks(), this.TASK_POOL.getNumberOfWaitingTasks());
+        return cancelled;
+    }
+
+    /**
+     * Takes the most recently queued image part of another server of this process and queues it in this server. The
+     * handler stays registered in the server that admitted it, so the cancel requests sent there still reach it.
+     *
+     * @param victim The server to steal from.
+     * @return <b>True</b> if an image part was stolen.
+     */
+    boolean stealFrom( Server victim )
+    {
+        if ( victim == this )
+            return false;
+
+        this.isOpen.lock();
+        try
+        {
+            if ( !this.isOpen.asyncGet() )
+                return false;
+
+            ServerClientHandler handler = (ServerClientHandler) victim.TASK_POOL.stealTask();
+            if ( handler == null )
+                return false;
+
+            handler.runOn( this );
+            if ( !this.TASK_POOL.addTask( handler ) )
+                this.refuse( handler );
+        }
+        finally
+        {
+            this.isOpen.unlock();
+        }
+
+        victim.loadTrackerEdit.update(victim.PORT, victim.TASK_POOL.getNumberOfRunningTasks(), victim.TASK_POOL.getNumberOfWaitingTasks());
+        this.loadTrackerEdit.update(this.PORT, this.TASK_POOL.getNumberOfRunningTasks(), this.TASK_POOL.getNumberOfWaitingTasks());
+        return true;
+    }
+
+    /**
+     * Asks a server that does not belong to this process to send the client of its most recently queued image part to
+     * this server.
+     *
+     * @param port The port of the server to steal from.
+     * @return <b>True</b> if the server gave an image part away, its client is about to connect.
+     */
+    boolean requestSteal( int port )
+    {
+        if ( !this.isOpen.syncGet() )
+            return false;
+
+        Request request = new Request( Request.STEAL, null );
+        request.setMessageContent( String.valueOf( this.PORT ) );
+        try ( Socket socket = this.SOCKET_SETTINGS.connect( HOST, port, STEAL_TIMEOUT ) )
+        {
+            socket.setSoTimeout( STEAL_TIMEOUT );
+            ObjectOutputStream out = new ObjectOutputStream( socket.getOutputStream() );
+            ObjectInputStream in = new ObjectInputStream( socket.getInputStream() );
+            out.writeObject( request );
+            Response response = (Response) in.readObject();
+            return Response.OK.equals( response.getStatus() ) && Integer.parseInt( response.getMessage() ) > 0;
+        }
+        catch ( IOException | ClassNotFoundException | NumberFormatException e )
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Removes the most recently queued image part and sends its client to another server with a
+     * {@link Response#STOLEN} response.
+     *
+     * @param port The port of the server that takes the image part over.
+     * @return The number of image parts given away, 0 or 1.
+     */
+    private int giveAway( int port )
+    {
+        if ( port == this.PORT || port <= 0 )
+            return 0;
+
+        ServerClientHandler handler = (ServerClientHandler) this.TASK_POOL.stealTask();
+        if ( handler == null )
+            return 0;
+
+        // an image part stolen in process is registered in the server that admitted it
+        handler.origin.HANDLERS.lock();
+        handler.origin.HANDLERS.asyncGet().remove( handler );
+        handler.origin.HANDLERS.unlock();
+
+        handler.redirect( port );
+        this.loadTrackerEdit.update(this.PORT, this.TASK_POOL.getNumberOfRunningTasks(), this.TASK_POOL.getNumberOfWaitingTasks());
+        return 1;
+    }
+
+    /**
+     * @return The number of executors that would find no image part to process, the ones an idle server can fill by
+     * stealing.
+     */
+    int getIdleExecutors()
+    {
+        return Math.max( 0, this.TASK_POOL.getSize() - this.TASK_POOL.getNumberOfRunningTasks() - this.TASK_POOL.getNumberOfWaitingTasks() );
+    }
+
+    /**
+     * @return The number of image parts waiting while every executor is busy, the ones worth stealing.
+     */
+    int getBacklog()
+    {
+        return Math.max( 0, this.TASK_POOL.getNumberOfRunningTasks() + this.TASK_POOL.getNumberOfWaitingTasks() - this.TASK_POOL.getSize() );
+    }
+
+    /**
+     * The retry-after hint grows with the number of waiting tasks per executor.
+     *
+     * @return The time in milliseconds a refused client should wait before retrying this server.
+     */
+    private long getRetryAfterHint()
+    {
+        return (long) this.RETRY_AFTER * ( this.TASK_POOL.getNumberOfWaitingTasks() / Math.max( 1, this.TASK_POOL.getSize() ) + 1 );
+    }
+
+    /**
+     * Closes the server, waits for current running tasks in the taskPool finishes and for the port to be released.
+     * <p>
+     * The clients of the image parts still queued are disconnected, and the clients of the running ones get their
+     * current response before the connection ends. The wait for the running image parts is bounded by the close
+     * timeout.
+     * </p>
      */
     public void close()
+    {
+        this.close( false );
+    }
+
+    /**
+     * Drains and closes the server, e.g. when it is scaled down: no image part is accepted anymore, but the queued ones
+     * still run with the running ones. Only when they do not finish within the close timeout are the clients of the
+     * image parts still queued disconnected, like with {@link #close()}.
+     */
+    public void drain()
+    {
+        this.close( true );
+    }
+
+    /**
+     * Closes the server, see {@link #close()} and {@link #drain()}.
+     *
+     * @param drain <b>True</b> to let the queued image parts run before the clients are disconnected.
+     */
+    private void close( boolean drain )
     {
         this.isOpen.lock();
         if ( this.isOpen.asyncGet() )
         {
             this.isOpen.asyncSet(false);
-            this.TASK_POOL.pause();
-
-
-            // finish the current running task
-            while ( !this.TASK_POOL.isPaused() );
+            if ( this.EXECUTOR_SCALER != null )
+                this.EXECUTOR_SCALER.stop();
+            if ( drain )
+            {
+                this.TASK_POOL.shutdown();
+                this.stopReading();
+            }
+            else
+                this.stopHandlers();
 
             try
             {
@@ -148,13 +611,95 @@ public class Server extends Thread implements Subject {
             catch (IOException e) {
                 this.notify( EventFactory.createErrorEvent( e.getMessage(), EventTypes.ERROR, SeverityLevels.ERROR ) );
             } ;
+            this.isOpen.unlock();
+
+            // the port is only released once the server thread blocked in accept let go of the socket
+            if ( Thread.currentThread() != this )
+            {
+                try {
+                    this.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            try
+            {
+                // the connections accepted last are still read, the closed task pool refuses them
+                this.ADMISSION_POOL.shutdown();
+                this.ADMISSION_POOL.awaitTermination( ADMISSION_TIMEOUT, TimeUnit.MILLISECONDS );
+
+                // finish the current running tasks, and the queued ones when draining
+                boolean terminated = this.TASK_POOL.awaitTermination( CLOSE_TIMEOUT, TimeUnit.MILLISECONDS );
+                if ( !terminated && drain )
+                {
+                    this.stopHandlers();
+                    terminated = this.TASK_POOL.awaitTermination( CLOSE_TIMEOUT, TimeUnit.MILLISECONDS );
+                }
+                if ( !terminated )
+                    this.notify( EventFactory.createErrorEvent( String.format("Server %s closed with image parts still running", this.getName()), EventTypes.ERROR, SeverityLevels.WARNING ) );
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
 
             this.loadTrackerEdit.removeEntry(this.PORT);
+            this.EXECUTOR_BUDGET.release( this.TASK_POOL.getSize() );
             this.notify( EventFactory.createServerEvent( String.format("Serve %s is CLOSED", this.getName()), EventTypes.SERVER, ServerStates.CLOSED, this.PORT));
+            return;
         }
         this.isOpen.unlock();
     }
 
+    /**
+     * Shuts the task pool down, disconnects the clients of the queued image parts and stops reading from the clients of
+     * the running ones, so their handlers end after the current response instead of waiting for another request.
+     */
+    private void stopHandlers()
+    {
+        for ( Runnable task : this.TASK_POOL.shutdownNow() )
+        {
+            ServerClientHandler handler = (ServerClientHandler) task;
+            handler.origin.HANDLERS.lock();
+            handler.origin.HANDLERS.asyncGet().remove( handler );
+            handler.origin.HANDLERS.unlock();
+            handler.closeConnection();
+        }
+
+        this.stopReading();
+    }
+
+    /**
+     * Stops reading from the clients of the image parts of this server, so their handlers end after the current
+     * response instead of waiting for another request.
+     */
+    private void stopReading()
+    {
+        this.HANDLERS.lock();
+        for ( ServerClientHandler handler : this.HANDLERS.asyncGet() )
+        {
+            if ( handler.server == this )
+                handler.stopReading();
+        }
+        this.HANDLERS.unlock();
+    }
+
+    /**
+     * @return The moving average of the processing time of an image part in milliseconds, 0 before the first one.
+     */
+    public double getServiceTime()
+    {
+        return this.SERVICE_TIME.get();
+    }
+
+    /**
+     * @return The moving average of the time an image part waits in the queue in milliseconds.
+     */
+    public double getQueueWait()
+    {
+        return this.QUEUE_WAIT.get();
+    }
+
     /**
      * @return port.
      */
@@ -170,17 +715,67 @@ public class Server extends Thread implements Subject {
     }
 
     /**
-     * Removes one executor to the taskPool.
+     * @return The number of image parts being processed.
+     */
+    public int getRunningTasks(){
+        return this.TASK_POOL.getNumberOfRunningTasks();
+    }
+
+    /**
+     * @return The number of image parts waiting in the queue.
+     */
+    public int getWaitingTasks(){
+        return this.TASK_POOL.getNumberOfWaitingTasks();
+    }
+
+    /**
+     * @return The number of image parts the task pool rejected or dropped because its queue was full.
+     */
+    public long getRejectedTasks(){
+        return this.TASK_POOL.getNumberOfRejectedTasks();
+    }
+
+    /**
+     * Adds one executor to the taskPool and records the new capacity in the load tracker. The executor is counted
+     * against the executor budget even if the budget has no room left.
      */
     public void addExecutor(){
+        this.isOpen.lock();
+        if ( this.isOpen.asyncGet() )
+            this.EXECUTOR_BUDGET.reserve( 1 );
         this.TASK_POOL.addExecutors(1);
+        this.isOpen.unlock();
+        this.loadTrackerEdit.updateCapacity(this.PORT, this.TASK_POOL.getSize());
+    }
+
+    /**
+     * Adds one executor to the taskPool of a running server if the executor budget has room left, and records the new
+     * capacity in the load tracker.
+     *
+     * @return <b>True</b> if the executor was added.
+     */
+    boolean tryAddExecutor(){
+        this.isOpen.lock();
+        boolean added = this.isOpen.asyncGet() && this.EXECUTOR_BUDGET.tryAcquire();
+        if ( added )
+            this.TASK_POOL.addExecutors(1);
+        this.isOpen.unlock();
+
+        if ( added )
+            this.loadTrackerEdit.updateCapacity(this.PORT, this.TASK_POOL.getSize());
+        return added;
     }
 
     /**
-     * Removes one executor from the taskPool.
+     * Removes one executor from the taskPool and records the new capacity in the load tracker. The executor finishes
+     * its current image part.
      */
     public void removeExecutor(){
-        this.TASK_POOL.removeExecutors(1);
+        this.isOpen.lock();
+        if ( this.TASK_POOL.removeExecutors(1) && this.isOpen.asyncGet() )
+            this.EXECUTOR_BUDGET.release( 1 );
+        this.isOpen.unlock();
+        this.loadTrackerEdit.updateCapacity(this.PORT, this.TASK_POOL.getSize());
     }
 
     @Override
@@ -214,22 +809,39 @@ public class Server extends Thread implements Subject {
 
 
     /**
-     * Handles client connections. Reads objects from the client, processes them, and sends a response back.
+     * Handles client connections. Processes the request read on admission, keeps reading objects from the client,
+     * processes them, and sends a response back. The handler is queued with the priority, the deadline and the job of
+     * the request read on admission.
      */
-    private static class ServerClientHandler implements Runnable {
+    private static class ServerClientHandler implements ScheduledTask {
 
         private final Socket clientSocket;
-        private final Server server;
+        private final ObjectOutputStream out;
+        private final ObjectInputStream in;
+        private final Request firstRequest;
+        private final Server origin;
+        private volatile Server server;
+        private final long admittedAt;
+        private volatile boolean cancelled;
 
         /**
          * Constructs a new ClientHandler instance.
          *
-         * @param socket The client socket.
+         * @param socket       The client socket.
+         * @param out          The output stream already opened on the socket.
+         * @param in           The input stream already opened on the socket.
+         * @param firstRequest The request read when the connection was admitted.
+         * @param server       The server that accepted the connection.
          */
-        public ServerClientHandler ( Socket socket, Server server)
+        public ServerClientHandler ( Socket socket, ObjectOutputStream out, ObjectInputStream in, Request firstRequest, Server server)
         {
             this.clientSocket = socket;
+            this.out = out;
+            this.in = in;
+            this.firstRequest = firstRequest;
+            this.origin = server;
             this.server = server;
+            this.admittedAt = System.nanoTime();
         }
 
         /**
@@ -239,21 +851,30 @@ public class Server extends Thread implements Subject {
         @Override
         public void run ( )
         {
-            try ( ObjectOutputStream out = new ObjectOutputStream ( clientSocket.getOutputStream ( ) ) ;
-                  ObjectInputStream in = new ObjectInputStream ( clientSocket.getInputStream ( ) ) ) {
+            try ( ObjectOutputStream out = this.out ;
+                  ObjectInputStream in = this.in ) {
+
+                server.QUEUE_WAIT.add( ( System.nanoTime() - this.admittedAt ) / 1e6 );
+                out.writeObject ( handleRequest( this.firstRequest ) );
 
                 Request request;
-                while ( ( request = (Request)in.readObject() ) != null ) {
+                while ( !this.cancelled && ( request = (Request)in.readObject() ) != null ) {
                     out.writeObject ( handleRequest( request ) );
                 }
 
             } catch ( EOFException e )  { /*finished clients requests*/ }
             catch ( IOException | ClassNotFoundException e )
             {
-               server.notify( EventFactory.createErrorEvent("A error occored when handling a Client",EventTypes.ERROR, SeverityLevels.ERROR) );
+                // the client of a cancelled job is gone
+                if ( !this.cancelled )
+                    server.notify( EventFactory.createErrorEvent("A error occored when handling a Client",EventTypes.ERROR, SeverityLevels.ERROR) );
 
             }
             finally {
+                origin.HANDLERS.lock();
+                origin.HANDLERS.asyncGet().remove( this );
+                origin.HANDLERS.unlock();
+
                 try
                 {
                     clientSocket.close ( );
@@ -274,14 +895,155 @@ public class Server extends Thread implements Subject {
          */
         private Response handleRequest ( Request request )
         {
-            BufferedImage editedImage = ImageTransformer.convertToGrayScale( ImageTransformer.createImageFromBytes(request.getImageSection()) );
-            Response response = new Response ( "OK" , request.getMessageContent() ,editedImage);
+            Response response;
+            try
+            {
+                if ( this.cancelled || request.isExpired() )
+                    throw new CancellationException();
+
+                long start = System.nanoTime();
+                BufferedImage editedImage = ImageTransformer.convertToGrayScale(
+                        ImageTransformer.createImageFromBytes(request.getImageSection()), () -> this.cancelled || request.isExpired() );
+                response = new Response ( Response.OK , request.getMessageContent() ,editedImage);
+
+                server.SERVICE_TIME.add( ( System.nanoTime() - start ) / 1e6 );
+                server.loadTrackerEdit.updateLatency(server.PORT, server.SERVICE_TIME.get(), server.QUEUE_WAIT.get());
+            }
+            catch ( CancellationException e )
+            {
+                response = new Response ( this.cancelled ? Response.CANCELLED : Response.EXPIRED , request.getMessageContent() );
+            }
 
             server.loadTrackerEdit.update(server.PORT, server.TASK_POOL.getNumberOfRunningTasks(), server.TASK_POOL.getNumberOfWaitingTasks());
 
             return response;
         }
 
+        /**
+         * @return The identifier of the job of the request read on admission.
+         */
+        @Override
+        public String getJobId ( )
+        {
+            return this.firstRequest.getJobId();
+        }
+
+        @Override
+        public int getPriority ( )
+        {
+            return this.firstRequest.getPriority();
+        }
+
+        @Override
+        public long getDeadline ( )
+        {
+            return this.firstRequest.getDeadline();
+        }
+
+        /**
+         * @return The size of the image section of the request read on admission, the work of the handler grows with it.
+         */
+        @Override
+        public long getCost ( )
+        {
+            byte[] imageSection = this.firstRequest.getImageSection();
+            return imageSection == null ? 1 : imageSection.length;
+        }
+
+        /**
+         * @return The message of the request read on admission, it identifies the image part.
+         */
+        public String getMessageContent ( )
+        {
+            return this.firstRequest.getMessageContent();
+        }
+
+        /**
+         * Marks the handler as cancelled, a running request stops at the next band of rows.
+         */
+        public void cancel ( )
+        {
+            this.cancelled = true;
+        }
+
+        /**
+         * Moves the handler to the server that stole it, the image part is then measured and reported by that server.
+         *
+         * @param server The server whose task pool runs the handler.
+         */
+        public void runOn ( Server server )
+        {
+            this.server = server;
+        }
+
+        /**
+         * Sends the client of a handler that will not run to another server and closes the connection.
+         *
+         * @param port The port of the server the client must send its request to.
+         */
+        public void redirect ( int port )
+        {
+            try
+            {
+                Response response = new Response( Response.STOLEN, this.firstRequest.getMessageContent() );
+                response.setRedirectPort( port );
+                out.writeObject( response );
+                out.flush();
+            }
+            catch ( IOException e )
+            {
+                server.notify( EventFactory.createErrorEvent("Error redirecting a client: " + e.getMessage ( ), EventTypes.ERROR, SeverityLevels.ERROR) );
+            }
+            this.closeConnection();
+        }
+
+        /**
+         * Stops reading requests from the client, the handler ends after sending the response it is working on.
+         */
+        public void stopReading ( )
+        {
+            try
+            {
+                if ( !clientSocket.isClosed() )
+                    clientSocket.shutdownInput ( );
+            }
+            catch ( IOException ignored ) { /*the client already closed the connection*/ }
+        }
+
+        /**
+         * Tells the client of a handler that will not run to retry later and closes the connection.
+         *
+         * @param retryAfter The time in milliseconds the client should wait before retrying.
+         */
+        public void refuse ( long retryAfter )
+        {
+            try
+            {
+                out.writeObject( new Response( Response.BUSY, this.firstRequest.getMessageContent(), retryAfter ) );
+                out.flush();
+            }
+            catch ( IOException e )
+            {
+                server.notify( EventFactory.createErrorEvent("Error refusing a client: " + e.getMessage ( ), EventTypes.ERROR, SeverityLevels.ERROR) );
+            }
+            this.closeConnection();
+        }
+
+        /**
+         * Closes the connection of a handler that will not run.
+         */
+        public void closeConnection ( )
+        {
+            try
+            {
+                clientSocket.close ( );
+            }
+            catch ( IOException e )
+            {
+                server.notify( EventFactory.createErrorEvent("Error closing client socket: " + e.getMessage ( ), EventTypes.ERROR, SeverityLevels.ERROR) );
+            }
+        }
+
     }
 
 }
@@ -0,0 +1,234 @@
+package Network.Server;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The load entry of one server: the number of running and waiting tasks, the number of tasks clients reserved a slot
+ * for but the server did not admit yet, the number of executors running them and the moving averages of the time a
+ * task waits in its queue and of the time it takes to process, and the number of tasks its task pool rejected.
+ * <p>
+ * The counters are atomic so an entry can be updated by its server and read by any client without locks. Each counter
+ * is always consistent, a reader may see the running counter of one update and the waiting counter of the next.
+ * </p>
+ */
+public class ServerLoad {
+
+    private final int PORT;
+    private final AtomicInteger running;
+    private final AtomicInteger waiting;
+    private final AtomicInteger pending;
+    private final AtomicInteger capacity;
+    private final AtomicLong rejected;
+    private volatile double serviceTime;
+    private volatile double queueWait;
+
+    /**
+     * Creates a load entry of a server whose capacity is not known yet.
+     *
+     * @param port    The identifier of the server.
+     * @param running The number of running tasks.
+     * @param waiting The number of waiting tasks.
+     */
+    public ServerLoad(int port, int running, int waiting)
+    {
+        this( port, running, waiting, 0 );
+    }
+
+    /**
+     * Creates a load entry.
+     *
+     * @param port     The identifier of the server.
+     * @param running  The number of running tasks.
+     * @param waiting  The number of waiting tasks.
+     * @param capacity The number of executors of the server, 0 if unknown.
+     */
+    public ServerLoad(int port, int running, int waiting, int capacity)
+    {
+        this( port, running, waiting, capacity, 0, 0 );
+    }
+
+    /**
+     * Creates a load entry.
+     *
+     * @param port        The identifier of the server.
+     * @param running     The number of running tasks.
+     * @param waiting     The number of waiting tasks.
+     * @param capacity    The number of executors of the server, 0 if unknown.
+     * @param serviceTime The moving average of the processing time of a task in milliseconds, 0 if unknown.
+     * @param queueWait   The moving average of the time a task waits in the queue in milliseconds.
+     */
+    public ServerLoad(int port, int running, int waiting, int capacity, double serviceTime, double queueWait)
+    {
+        this.PORT = port;
+        this.running = new AtomicInteger( running );
+        this.waiting = new AtomicInteger( waiting );
+        this.pending = new AtomicInteger();
+        this.capacity = new AtomicInteger( capacity );
+        this.rejected = new AtomicLong();
+        this.serviceTime = serviceTime;
+        this.queueWait = queueWait;
+    }
+
+    /**
+     * @return The identifier of the server.
+     */
+    public int getPort()
+    {
+        return this.PORT;
+    }
+
+    /**
+     * @return The number of running tasks.
+     */
+    public int getRunning()
+    {
+        return this.running.get();
+    }
+
+    /**
+     * @return The number of waiting tasks.
+     */
+    public int getWaiting()
+    {
+        return this.waiting.get();
+    }
+
+    /**
+     * @return The number of reserved slots the server did not confirm yet.
+     */
+    public int getPending()
+    {
+        return this.pending.get();
+    }
+
+    /**
+     * @return The load of the server, running plus waiting tasks plus reserved slots.
+     */
+    public int getLoad()
+    {
+        return this.running.get() + this.waiting.get() + this.pending.get();
+    }
+
+    /**
+     * @return The number of executors of the server, 0 if unknown.
+     */
+    public int getCapacity()
+    {
+        return this.capacity.get();
+    }
+
+    /**
+     * @return The load of the server per executor, (running + waiting + pending) / capacity, see {@link #getLoad()}. A
+     * server of unknown capacity counts as a single executor.
+     */
+    public double getUtilization()
+    {
+        return (double) this.getLoad() / Math.max( 1, this.capacity.get() );
+    }
+
+    /**
+     * @return The moving average of the processing time of a task in milliseconds, 0 if unknown.
+     */
+    public double getServiceTime()
+    {
+        return this.serviceTime;
+    }
+
+    /**
+     * @return The moving average of the time a task waits in the queue in milliseconds.
+     */
+    public double getQueueWait()
+    {
+        return this.queueWait;
+    }
+
+    /**
+     * @return The number of tasks the task pool of the server rejected or dropped because its queue was full.
+     */
+    public long getRejected()
+    {
+        return this.rejected.get();
+    }
+
+    /**
+     * Replaces the counters.
+     *
+     * @param running The number of running tasks.
+     * @param waiting The number of waiting tasks.
+     */
+    public void set(int running, int waiting)
+    {
+        this.running.set( running );
+        this.waiting.set( waiting );
+    }
+
+    /**
+     * Replaces the capacity.
+     *
+     * @param capacity The number of executors of the server.
+     */
+    public void setCapacity(int capacity)
+    {
+        this.capacity.set( capacity );
+    }
+
+    /**
+     * Reserves a slot for a task about to be sent to the server.
+     */
+    public void reserve()
+    {
+        this.pending.incrementAndGet();
+    }
+
+    /**
+     * Removes a reserved slot, because the server confirmed it or the task could not be sent. Never goes below zero, a
+     * slot confirmed by the server and released by a client that lost the response is only removed once.
+     */
+    public void releaseReservation()
+    {
+        this.pending.updateAndGet( pending -> Math.max( 0, pending - 1 ) );
+    }
+
+    /**
+     * Replaces the reserved slots counter.
+     *
+     * @param pending The number of reserved slots.
+     */
+    public void setPending(int pending)
+    {
+        this.pending.set( pending );
+    }
+
+    /**
+     * Replaces the rejected tasks counter.
+     *
+     * @param rejected The number of tasks the task pool of the server rejected or dropped.
+     */
+    public void setRejected(long rejected)
+    {
+        this.rejected.set( rejected );
+    }
+
+    /**
+     * Replaces the latency averages.
+     *
+     * @param serviceTime The moving average of the processing time of a task in milliseconds.
+     * @param queueWait   The moving average of the time a task waits in the queue in milliseconds.
+     */
+    public void setLatency(double serviceTime, double queueWait)
+    {
+        this.serviceTime = serviceTime;
+        this.queueWait = queueWait;
+    }
+
+    /**
+     * @return The entry in the {@code port=running,waiting} form of the load info file, the capacity is left out so the
+     * format stays readable by existing tools.
+     */
+    @Override
+    public String toString()
+    {
+        return this.PORT + "=" + this.getRunning() + "," + this.getWaiting();
+    }
+}
@@ -2,6 +2,12 @@ package Network.Server;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import Utils.Events.Event;
 import Utils.Events.EventFactory;
@@ -10,13 +16,21 @@ import Utils.Observer.Subject;
 import Utils.VarSync;
 
 /**
- * A singleton class for tracking server load information.
+ * A singleton class for tracking server load information in the load info file.
+ * Every update rewrites the file, see {@link InMemoryLoadTracker} for a tracker that keeps the file off the hot path.
+ * Reserved slots are only counted in memory, they are seen by the clients of this process, which select and reserve a
+ * server under one lock.
  */
-public class ServerLoadTracker implements LoadTrackerEdit, LoadTrackerReader, Subject {
+public class ServerLoadTracker implements LoadTracker {
     private static ServerLoadTracker instance;
     private static VarSync<File> FILE_VARSYNC;
 
     private final ArrayList<Observer> OBSERVERS;
+    private final ConcurrentHashMap<Integer, AtomicInteger> PENDING;
+    private final Object RESERVATIONS;
+    private volatile ServerSelectionStrategy selectionStrategy;
+
+    private static final ServerSelectionStrategy LEAST_LOADED = new LeastLoadedStrategy();
 
     /**
      * Private constructor to prevent instantiation from outside the class.
@@ -24,6 +38,9 @@ public class ServerLoadTracker implements LoadTrackerEdit, LoadTrackerReader, Su
     private ServerLoadTracker() {
         FILE_VARSYNC = new VarSync<>(null);
         this.OBSERVERS = new ArrayList<>();
+        this.PENDING = new ConcurrentHashMap<>();
+        this.RESERVATIONS = new Object();
+        this.selectionStrategy = new PowerOfTwoChoicesStrategy();
     }
 
     /**
@@ -69,6 +86,7 @@ public class ServerLoadTracker implements LoadTrackerEdit, LoadTrackerReader, Su
      * Reads the tracked load information from the file.
      * @return a string containing the server port and corresponding load values
      */
+    @Override
     public synchronized String readLoadInfo() {
         StringBuilder loadInfoBuilder = new StringBuilder();
         FILE_VARSYNC.lock();
@@ -117,6 +135,63 @@ public class ServerLoadTracker implements LoadTrackerEdit, LoadTrackerReader, Su
     @Override
     public void update(int serverIdentifier, int running, int waiting) {
 
+        // the capacity and the latency of the server, if they were recorded, are kept
+        this.rewriteEntry( serverIdentifier, 2, values -> {
+            values[0] = String.valueOf( running );
+            values[1] = String.valueOf( waiting );
+        } );
+
+        this.notify(EventFactory.createLoadUpdateEvent("server update", running ,waiting, serverIdentifier) );
+    }
+
+    /**
+     * Records the capacity of a server as a third value of its entry, {@code port=running,waiting,capacity}.
+     *
+     * @param serverIdentifier the identifier of the server
+     * @param capacity the number of executors of the server
+     */
+    @Override
+    public void updateCapacity(int serverIdentifier, int capacity) {
+        this.rewriteEntry( serverIdentifier, 3, values -> values[2] = String.valueOf( capacity ) );
+    }
+
+    /**
+     * Records the latency averages of a server as the fourth and fifth values of its entry,
+     * {@code port=running,waiting,capacity,serviceTime,queueWait}.
+     *
+     * @param serverIdentifier the identifier of the server
+     * @param serviceTime the moving average of the processing time of a task in milliseconds
+     * @param queueWait the moving average of the time a task waits in the queue in milliseconds
+     */
+    @Override
+    public void updateLatency(int serverIdentifier, double serviceTime, double queueWait) {
+        this.rewriteEntry( serverIdentifier, 5, values -> {
+            values[3] = String.valueOf( serviceTime );
+            values[4] = String.valueOf( queueWait );
+        } );
+    }
+
+    /**
+     * Records the number of rejected tasks of a server as the sixth value of its entry,
+     * {@code port=running,waiting,capacity,serviceTime,queueWait,rejected}.
+     *
+     * @param serverIdentifier the identifier of the server
+     * @param rejected the number of tasks rejected or dropped since the server started
+     */
+    @Override
+    public void updateRejected(int serverIdentifier, long rejected) {
+        this.rewriteEntry( serverIdentifier, 6, values -> values[5] = String.valueOf( rejected ) );
+    }
+
+    /**
+     * Rewrites the values of the line of a server in the load info file.
+     *
+     * @param serverIdentifier the identifier of the server
+     * @param length the minimum number of values of the new line, missing values are written as 0
+     * @param edit changes the values of the current line
+     */
+    private void rewriteEntry(int serverIdentifier, int length, Consumer<String[]> edit) {
+
         FILE_VARSYNC.lock();
 
         File originalFile = FILE_VARSYNC.asyncGet();
@@ -134,7 +209,12 @@ public class ServerLoadTracker implements LoadTrackerEdit, LoadTrackerReader, Su
 
                 if (currentServerIdentifier == serverIdentifier)
                 {
-                    writer.write(serverIdentifier + "=" + running + "," + waiting + "\n");
+                    String[] currentValues = parts[1].split(",");
+                    String[] values = Arrays.copyOf( currentValues, Math.max( length, currentValues.length ) );
+                    Arrays.fill( values, currentValues.length, values.length, "0" );
+
+                    edit.accept( values );
+                    writer.write(serverIdentifier + "=" + String.join( ",", values ) + "\n");
                 }
                 else
                 {
@@ -149,6 +229,7 @@ public class ServerLoadTracker implements LoadTrackerEdit, LoadTrackerReader, Su
         // Replace the original file with the temporary file
         if (!originalFile.delete()) {
             System.err.println("Failed to delete original file.");
+            FILE_VARSYNC.unlock();
             return;
         }
 
@@ -157,8 +238,6 @@ public class ServerLoadTracker implements LoadTrackerEdit, LoadTrackerReader, Su
         }
 
         FILE_VARSYNC.unlock();
-
-        this.notify(EventFactory.createLoadUpdateEvent("server update", running ,waiting, serverIdentifier) );
     }
 
     /**
@@ -186,6 +265,8 @@ public class ServerLoadTracker implements LoadTrackerEdit, LoadTrackerReader, Su
     @Override
     public void removeEntry(int serverIdentifier) {
 
+        this.PENDING.remove( serverIdentifier );
+
         FILE_VARSYNC.lock();
 
         File originalFile = FILE_VARSYNC.asyncGet();
@@ -253,11 +334,72 @@ public class ServerLoadTracker implements LoadTrackerEdit, LoadTrackerReader, Su
 
     @Override
     public int getServerWithLessLoad()
+    {
+        return this.getServerWithLessLoad( List.of() );
+    }
+
+    @Override
+    public int getServerWithLessLoad(Collection<Integer> excludedServers)
+    {
+        return LEAST_LOADED.select( this.getServerLoads(), excludedServers );
+    }
+
+    @Override
+    public int selectServer(Collection<Integer> excludedServers)
+    {
+        return this.selectServer( excludedServers, null );
+    }
+
+    @Override
+    public int selectServer(Collection<Integer> excludedServers, String routingKey)
+    {
+        return this.selectionStrategy.select( this.getServerLoads(), excludedServers, routingKey );
+    }
+
+    @Override
+    public int reserveServer(Collection<Integer> excludedServers)
+    {
+        return this.reserveServer( excludedServers, null );
+    }
+
+    @Override
+    public int reserveServer(Collection<Integer> excludedServers, String routingKey)
+    {
+        synchronized ( this.RESERVATIONS )
+        {
+            int port = this.selectServer( excludedServers, routingKey );
+            if ( port != -1 )
+                this.PENDING.computeIfAbsent( port, key -> new AtomicInteger() ).incrementAndGet();
+            return port;
+        }
+    }
+
+    @Override
+    public void releaseReservation(int serverIdentifier)
+    {
+        AtomicInteger pending = this.PENDING.get( serverIdentifier );
+        if ( pending != null )
+            pending.updateAndGet( value -> Math.max( 0, value - 1 ) );
+    }
+
+    @Override
+    public void confirmReservation(int serverIdentifier)
+    {
+        this.releaseReservation( serverIdentifier );
+    }
+
+    @Override
+    public void setSelectionStrategy(ServerSelectionStrategy selectionStrategy)
+    {
+        this.selectionStrategy = selectionStrategy;
+    }
+
+    @Override
+    public List<ServerLoad> getServerLoads()
     {
         FILE_VARSYNC.lock();
 
-        int port = -1;
-        int lowestLoad = -1;
+        ArrayList<ServerLoad> loads = new ArrayList<>();
 
         try ( BufferedReader reader = new BufferedReader(new FileReader( FILE_VARSYNC.asyncGet() )) ) {
 
@@ -266,15 +408,18 @@ public class ServerLoadTracker implements LoadTrackerEdit, LoadTrackerReader, Su
             while ((line = reader.readLine()) != null) {
 
                 String[] parts = line.split("=");
-                String[] loads = parts[1].split(",");
-
-                int load = Integer.parseInt( loads[0] ) + Integer.parseInt( loads[1] );
-
-                if ( load <= lowestLoad || lowestLoad == -1 )
-                {
-                    port = Integer.parseInt(parts[0]);
-                    lowestLoad = load;
-                }
+                String[] values = parts[1].split(",");
+
+                int capacity = values.length > 2 ? Integer.parseInt( values[2] ) : 0;
+                double serviceTime = values.length > 4 ? Double.parseDouble( values[3] ) : 0;
+                double queueWait = values.length > 4 ? Double.parseDouble( values[4] ) : 0;
+                ServerLoad load = new ServerLoad( Integer.parseInt(parts[0]), Integer.parseInt( values[0] ), Integer.parseInt( values[1] ), capacity, serviceTime, queueWait );
+                if ( values.length > 5 )
+                    load.setRejected( Long.parseLong( values[5] ) );
+                AtomicInteger pending = this.PENDING.get( load.getPort() );
+                if ( pending != null )
+                    load.setPending( pending.get() );
+                loads.add( load );
             }
 
         } catch (IOException e) {
@@ -283,7 +428,7 @@ public class ServerLoadTracker implements LoadTrackerEdit, LoadTrackerReader, Su
 
         FILE_VARSYNC.unlock();
 
-        return port;
+        return loads;
     }
 
     @Override
@@ -0,0 +1,100 @@
+package Network.Server;
+
+import Utils.Parser.Config;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Chooses the server a client sends its next task to, from the load entries of a tracker.
+ * <p>
+ * A strategy that keeps its own index of the servers is told by the {@link InMemoryLoadTracker} about every entry that
+ * is added, changed or removed, other strategies ignore these notifications.
+ * </p>
+ */
+public interface ServerSelectionStrategy {
+
+    /**
+     * Chooses a server.
+     *
+     * @param servers         the load entries of the tracked servers
+     * @param excludedServers identifiers of servers that must not be chosen, e.g. servers that refused or failed a request.
+     * @return the identifier of the chosen server, -1 if there is no server that is not excluded.
+     */
+    int select(List<ServerLoad> servers, Collection<Integer> excludedServers);
+
+    /**
+     * Chooses a server for a task with a routing key. Strategies that do not route by key ignore it.
+     *
+     * @param servers         the load entries of the tracked servers
+     * @param excludedServers identifiers of servers that must not be chosen, e.g. servers that refused or failed a request.
+     * @param routingKey      the key of the task, e.g. a fingerprint of its content, null if it has none.
+     * @return the identifier of the chosen server, -1 if there is no server that is not excluded.
+     */
+    default int select(List<ServerLoad> servers, Collection<Integer> excludedServers, String routingKey)
+    {
+        return this.select( servers, excludedServers );
+    }
+
+    /**
+     * Called when a server entry is added to the tracker, or the strategy is set on a tracker that has entries.
+     *
+     * @param server the load entry of the server
+     */
+    default void onAdd(ServerLoad server) {}
+
+    /**
+     * Called after the load, the reservations or the capacity of a server entry changed.
+     *
+     * @param server the load entry of the server
+     */
+    default void onUpdate(ServerLoad server) {}
+
+    /**
+     * Called when a server entry is removed from the tracker.
+     *
+     * @param serverIdentifier the identifier of the server
+     */
+    default void onRemove(int serverIdentifier) {}
+
+    /**
+     * Creates a strategy from its name in the configuration.
+     *
+     * @param name {@code powerOfTwo}, {@code leastLoaded}, {@code completionTime}, {@code minHeap} or
+     *             {@code consistentHash}
+     * @return a new strategy
+     * @throws IllegalArgumentException if there is no strategy with that name
+     */
+    static ServerSelectionStrategy forName(String name)
+    {
+        switch ( name )
+        {
+            case "powerOfTwo":
+                return new PowerOfTwoChoicesStrategy();
+            case "leastLoaded":
+                return new LeastLoadedStrategy();
+            case "completionTime":
+                return new CompletionTimeStrategy();
+            case "minHeap":
+                return new MinHeapStrategy();
+            case "consistentHash":
+                return new ConsistentHashStrategy();
+            default:
+                throw new IllegalArgumentException( "Unknown server selection strategy: " + name );
+        }
+    }
+
+    /**
+     * Creates the strategy named in the configuration, with its settings.
+     *
+     * @param config the configuration holding the name of the strategy and the settings of the consistent hashing.
+     * @return a new strategy
+     * @throws IllegalArgumentException if there is no strategy with that name
+     */
+    static ServerSelectionStrategy forConfig(Config config)
+    {
+        if ( "consistentHash".equals( config.getSelectionStrategy() ) )
+            return new ConsistentHashStrategy( config.getVirtualNodes(), config.getHashLoadBound() );
+        return forName( config.getSelectionStrategy() );
+    }
+}
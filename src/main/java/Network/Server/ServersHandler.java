@@ -1,6 +1,7 @@
 package Network.Server;
 
 import Utils.Events.Enums.EventTypes;
+import Utils.Events.Enums.ServerStates;
 import Utils.Events.Enums.SeverityLevels;
 import Utils.Events.Event;
 import Utils.Events.InterfaceEvents.InterfaceEvent;
@@ -12,6 +13,7 @@ import Utils.Events.EventFactory;
 import Utils.VarSync;
 
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Manages the creation, removal, and monitoring of servers within the system.
@@ -19,8 +21,11 @@ import java.util.ArrayList;
  * as an Observer to receive events from other components.
  * <p>
  * Emits:
- * - Server events
+ * - Server events, including the scaling decisions of the {@link Autoscaler}
  * - Errors Events
+ * <p>
+ * When a steal interval is configured, a {@link WorkStealer} moves the queued tiles of the loaded servers to the idle
+ * ones.
  */
 public class ServersHandler implements Subject, Observer {
 
@@ -28,7 +33,10 @@ public class ServersHandler implements Subject, Observer {
     private final ArrayList<Server> SERVERS;
     private final Config CONFIG;
     private final LoadTrackerEdit LOADTRACKEREDIT;
+    private final LoadTrackerReader LOADTRACKERREADER;
     private final VarSync<Integer> nextAvailablePort ;
+    private Autoscaler autoscaler;
+    private WorkStealer workStealer;
 
     /**
      * Constructs a new ServersHandler object.
@@ -37,23 +45,50 @@ public class ServersHandler implements Subject, Observer {
      * @param loadTrackerEdit LoadTrackerEdit instance for load tracking.
      */
     public ServersHandler( Config config, LoadTrackerEdit loadTrackerEdit)
+    {
+        this( config, loadTrackerEdit, null );
+    }
+
+    /**
+     * Constructs a new ServersHandler object that scales its servers with the load read from the tracker, when the
+     * autoscaler is enabled in the configuration.
+     *
+     * @param config Configuration settings for servers.
+     * @param loadTrackerEdit LoadTrackerEdit instance for load tracking.
+     * @param loadTrackerReader The tracker the autoscaler reads the load of the servers from, null to disable it. The
+     *                          work stealer also reads the load of the servers of other processes from it.
+     */
+    public ServersHandler( Config config, LoadTrackerEdit loadTrackerEdit, LoadTrackerReader loadTrackerReader)
     {
         this.OBSERVERS = new ArrayList<Observer>();
         this.SERVERS = new ArrayList<Server>();
         this.CONFIG = config;
         this.LOADTRACKEREDIT = loadTrackerEdit;
+        this.LOADTRACKERREADER = loadTrackerReader;
         this.nextAvailablePort = new VarSync<>( this.CONFIG.getStartPort() );
 
         //startConfigServer();
     }
 
     /**
-     * Starts default servers
+     * Starts default servers, and the autoscaler and the work stealer if they are enabled.
      */
     public void startConfigServer(){
         for (int i = 0; i < this.CONFIG.getServerAmount() ; i++) {
             this.addServer( "Server " + i);
         }
+
+        if ( this.LOADTRACKERREADER != null && this.CONFIG.getAutoscaleInterval() > 0 && this.autoscaler == null )
+        {
+            this.autoscaler = new Autoscaler( this, this.LOADTRACKERREADER, this.CONFIG );
+            this.autoscaler.start();
+        }
+
+        if ( this.CONFIG.getStealInterval() > 0 && this.workStealer == null )
+        {
+            this.workStealer = new WorkStealer( this, this.LOADTRACKERREADER, this.CONFIG );
+            this.workStealer.start();
+        }
     }
 
     /**
@@ -62,53 +97,152 @@ public class ServersHandler implements Subject, Observer {
      * @param serverName The name of the server to create.
      */
     public void addServer(String serverName)
+    {
+        if ( this.startServer( serverName ) < 0 )
+        {
+            this.notify(
+                    EventFactory.createErrorEvent( String.format("Cannot add a new server max servers numbers reached. %d ",
+                            this.CONFIG.getMaxServersNumber() ),EventTypes.ERROR, SeverityLevels.ERROR )
+            );
+        }
+    }
+
+    /**
+     * Stops and remover the last added server.
+     */
+    public void removeLastServer()
+    {
+        if ( this.stopLastServer() < 0 )
+        {
+            this.notify(
+                    EventFactory.createErrorEvent( String.format( "Cannot remove more servers config minimum is %d", this.CONFIG.getServerAmount() ),
+                            EventTypes.ERROR, SeverityLevels.WARNING )
+            );
+        }
+    }
+
+    /**
+     * Adds a server on behalf of the autoscaler and reports the decision with a {@link ServerStates#SCALE_UP} event.
+     * Does nothing when the maximum number of servers is reached.
+     *
+     * @param reason The measure that led to the decision.
+     * @return The port of the new server, -1 if none was added.
+     */
+    int scaleUp(String reason)
+    {
+        int port = this.startServer( "Server " + this.getNUmberOfSevers() );
+        if ( port >= 0 )
+            this.notify( EventFactory.createServerEvent( String.format( "added server %d, %s", port, reason ), EventTypes.SERVER, ServerStates.SCALE_UP, port ) );
+        return port;
+    }
+
+    /**
+     * Drains and removes the last added server on behalf of the autoscaler and reports the decision with a
+     * {@link ServerStates#SCALE_DOWN} event. Does nothing when only the configured amount of servers is left.
+     *
+     * @param reason The measure that led to the decision.
+     * @return The port of the removed server, -1 if none was removed.
+     */
+    int scaleDown(String reason)
+    {
+        int port = this.stopLastServer();
+        if ( port >= 0 )
+            this.notify( EventFactory.createServerEvent( String.format( "removed server %d, %s", port, reason ), EventTypes.SERVER, ServerStates.SCALE_DOWN, port ) );
+        return port;
+    }
+
+    /**
+     * Creates and starts a new server if the maximum number of servers is not reached.
+     *
+     * @param serverName The name of the server to create.
+     * @return The port of the new server, -1 if the maximum is reached.
+     */
+    private int startServer(String serverName)
     {
         this.nextAvailablePort.lock();
-       //int numberOfServers = ( this.nextAvailablePort.asyncGet() ) - this.CONFIG.getStartPort();
-        if ( this.SERVERS.size() + 1 <= CONFIG.getMaxServersNumber() )
+        try
         {
-            Server newServer = new Server( serverName, this.nextAvailablePort.asyncGet(), CONFIG.getTaskPoolSize(), LOADTRACKEREDIT);
+            if ( this.SERVERS.size() + 1 > CONFIG.getMaxServersNumber() )
+                return -1;
+
+            int port = this.nextAvailablePort.asyncGet();
+            Server newServer = new Server( serverName, port, CONFIG.getTaskPoolSize(), LOADTRACKEREDIT, CONFIG);
             this.SERVERS.add( newServer );
             newServer.addObserver(this);
             newServer.start();
-            this.nextAvailablePort.asyncSet( this.nextAvailablePort.asyncGet() + 1 );
+            this.nextAvailablePort.asyncSet( port + 1 );
+            return port;
+        }
+        finally
+        {
+            this.nextAvailablePort.unlock();
+        }
+    }
 
+    /**
+     * Stops the last added server, letting it finish its tasks, if more than the configured amount of servers run.
+     *
+     * @return The port of the removed server, -1 if the minimum is reached.
+     */
+    private int stopLastServer()
+    {
+        Server serverToRemove;
+        this.nextAvailablePort.lock();
+        try
+        {
+            if ( this.SERVERS.size() - 1 < CONFIG.getServerAmount() )
+                return -1;
 
+            serverToRemove = this.SERVERS.remove(this.SERVERS.size()-1);
+        }
+        finally
+        {
             this.nextAvailablePort.unlock();
-
-            return;
         }
-        this.nextAvailablePort.unlock();
 
-        this.notify(
-                EventFactory.createErrorEvent( String.format("Cannot add a new server max servers numbers reached. %d ",
-                        this.CONFIG.getMaxServersNumber() ),EventTypes.ERROR, SeverityLevels.ERROR )
-        );
+        // draining waits for the queued and running tasks, the list of servers stays available meanwhile
+        serverToRemove.drain();
+        serverToRemove.removeObserver(this);
 
+        // the port is reused once free, unless a server was started on the next one meanwhile
+        int port = serverToRemove.getPort();
+        this.nextAvailablePort.lock();
+        if ( this.nextAvailablePort.asyncGet() == port + 1 )
+            this.nextAvailablePort.asyncSet( port );
+        this.nextAvailablePort.unlock();
+        return port;
     }
 
     /**
-     * Stops and remover the last added server.
+     * @return The ports of the current servers.
      */
-    public void removeLastServer()
+    public List<Integer> getServerPorts()
     {
         this.nextAvailablePort.lock();
-        if (this.SERVERS.size() -1 >= CONFIG.getServerAmount() )
+        try
         {
-            Server serverToRemove = this.SERVERS.remove(this.SERVERS.size()-1);
-            serverToRemove.close();
-            serverToRemove.removeObserver(this);
-            this.nextAvailablePort.asyncSet( serverToRemove.getPort() );
-            this.nextAvailablePort.unlock();
+            return this.SERVERS.stream().map( Server::getPort ).toList();
         }
-        else{
+        finally
+        {
             this.nextAvailablePort.unlock();
-            this.notify(
-                    EventFactory.createErrorEvent( String.format( "Cannot remove more servers config minimum is %d", this.CONFIG.getServerAmount() ),
-                            EventTypes.ERROR, SeverityLevels.WARNING )
-            );
         }
+    }
 
+    /**
+     * @return A copy of the current servers.
+     */
+    List<Server> getServers()
+    {
+        this.nextAvailablePort.lock();
+        try
+        {
+            return new ArrayList<>( this.SERVERS );
+        }
+        finally
+        {
+            this.nextAvailablePort.unlock();
+        }
     }
 
     public void addObserver(Observer observer) {
@@ -122,6 +256,18 @@ public class ServersHandler implements Subject, Observer {
      */
     public void closeAllServers()
     {
+        if ( this.autoscaler != null )
+        {
+            this.autoscaler.close();
+            this.autoscaler = null;
+        }
+
+        if ( this.workStealer != null )
+        {
+            this.workStealer.close();
+            this.workStealer = null;
+        }
+
         for ( Server server : this.SERVERS)
         {
             server.close();
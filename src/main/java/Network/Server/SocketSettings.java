@@ -0,0 +1,136 @@
+package Network.Server;
+
+import Utils.Parser.Config;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+/**
+ * Groups the TCP options applied to the server sockets and to both ends of every client connection.
+ * <p>
+ * The options are read from the {@code [network]} section of the configuration. Buffer sizes of zero keep the system
+ * defaults.
+ * </p>
+ */
+public class SocketSettings {
+
+    private final boolean TCP_NO_DELAY;
+    private final int SEND_BUFFER_SIZE;
+    private final int RECEIVE_BUFFER_SIZE;
+    private final int ACCEPT_BACKLOG;
+    private final boolean REUSE_ADDRESS;
+
+    /**
+     * Creates the settings from a configuration.
+     *
+     * @param config The configuration with the network settings.
+     */
+    public SocketSettings(Config config)
+    {
+        this( config.isTcpNoDelay(), config.getSendBufferSize(), config.getReceiveBufferSize(), config.getAcceptBacklog(), config.isReuseAddress() );
+    }
+
+    /**
+     * Creates the settings.
+     *
+     * @param tcpNoDelay        <b>True</b> to disable Nagle's algorithm.
+     * @param sendBufferSize    The send buffer size in bytes, zero for the system default.
+     * @param receiveBufferSize The receive buffer size in bytes, zero for the system default.
+     * @param acceptBacklog     The maximum number of pending connections of a server socket.
+     * @param reuseAddress      <b>True</b> to let a server socket bind a port in the TIME_WAIT state.
+     */
+    public SocketSettings(boolean tcpNoDelay, int sendBufferSize, int receiveBufferSize, int acceptBacklog, boolean reuseAddress)
+    {
+        this.TCP_NO_DELAY = tcpNoDelay;
+        this.SEND_BUFFER_SIZE = sendBufferSize;
+        this.RECEIVE_BUFFER_SIZE = receiveBufferSize;
+        this.ACCEPT_BACKLOG = acceptBacklog;
+        this.REUSE_ADDRESS = reuseAddress;
+    }
+
+    /**
+     * Opens a server socket bound to a port. The receive buffer is set before binding so it also applies to the
+     * accepted connections.
+     *
+     * @param port The port to bind.
+     * @return The bound server socket.
+     * @throws IOException If the socket cannot be opened or bound.
+     */
+    public ServerSocket openServerSocket(int port) throws IOException
+    {
+        ServerSocket serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress( this.REUSE_ADDRESS );
+        if ( this.RECEIVE_BUFFER_SIZE > 0 )
+            serverSocket.setReceiveBufferSize( this.RECEIVE_BUFFER_SIZE );
+
+        serverSocket.bind( new InetSocketAddress( port ), this.ACCEPT_BACKLOG );
+        return serverSocket;
+    }
+
+    /**
+     * Opens a client connection with the settings applied before connecting.
+     *
+     * @param host The host of the server.
+     * @param port The port of the server.
+     * @return The connected socket.
+     * @throws IOException If the connection cannot be established.
+     */
+    public Socket connect(String host, int port) throws IOException
+    {
+        return this.connect( host, port, 0 );
+    }
+
+    /**
+     * Opens a client connection with the settings applied before connecting, giving up after a timeout.
+     *
+     * @param host    The host of the server.
+     * @param port    The port of the server.
+     * @param timeout The time limit in milliseconds to establish the connection, 0 for none.
+     * @return The connected socket.
+     * @throws IOException If the connection cannot be established in time.
+     */
+    public Socket connect(String host, int port, int timeout) throws IOException
+    {
+        Socket socket = new Socket();
+        try
+        {
+            this.applyTo( socket );
+            socket.connect( new InetSocketAddress( host, port ), timeout );
+        }
+        catch ( IOException e )
+        {
+            socket.close();
+            throw e;
+        }
+        return socket;
+    }
+
+    /**
+     * Applies the connection settings to a socket, e.g. one accepted by a server.
+     *
+     * @param socket The socket to configure.
+     * @throws IOException If an option cannot be set.
+     */
+    public void applyTo(Socket socket) throws IOException
+    {
+        socket.setTcpNoDelay( this.TCP_NO_DELAY );
+        if ( this.SEND_BUFFER_SIZE > 0 )
+            socket.setSendBufferSize( this.SEND_BUFFER_SIZE );
+        if ( this.RECEIVE_BUFFER_SIZE > 0 )
+            socket.setReceiveBufferSize( this.RECEIVE_BUFFER_SIZE );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SocketSettings{" +
+                "tcpNoDelay=" + TCP_NO_DELAY +
+                ", sendBufferSize=" + SEND_BUFFER_SIZE +
+                ", receiveBufferSize=" + RECEIVE_BUFFER_SIZE +
+                ", acceptBacklog=" + ACCEPT_BACKLOG +
+                ", reuseAddress=" + REUSE_ADDRESS +
+                '}';
+    }
+}
@@ -0,0 +1,153 @@
+package Network.Server;
+
+import Utils.Parser.Config;
+
+import java.util.List;
+
+/**
+ * Moves queued image parts from the most loaded servers to the idle ones.
+ * <p>
+ * A tile handed to a server waits in the queue of that server even when another server has nothing to do. At a fixed
+ * interval the stealer fills every idle executor of the servers of a {@link ServersHandler} with the most recently
+ * queued tile of the server with the largest backlog, the tiles waiting while all its executors are busy. Taking the
+ * most recent tile leaves the oldest ones, about to run, where they are, and the tiles that are not stolen keep their
+ * order.
+ * </p>
+ * <p>
+ * The servers of the handler are stolen from directly. When the handler is given the tracker of the load of all the
+ * servers, a server of another process with a larger backlog is sent a {@link Request#STEAL} request instead, once
+ * per idle server and check since its tracked backlog only changes when it publishes its load.
+ * </p>
+ */
+public class WorkStealer extends Thread {
+
+    private final ServersHandler HANDLER;
+    private final LoadTrackerReader TRACKER;
+    private final long INTERVAL;
+
+    /**
+     * Creates a work stealer, it does nothing until started.
+     *
+     * @param handler The handler whose idle servers steal.
+     * @param tracker The tracker of the load of all the servers, null to only steal between the servers of the handler.
+     * @param config  The configuration holding the steal interval.
+     */
+    public WorkStealer(ServersHandler handler, LoadTrackerReader tracker, Config config)
+    {
+        super( "Work stealer" );
+        this.setDaemon( true );
+        this.HANDLER = handler;
+        this.TRACKER = tracker;
+        this.INTERVAL = Math.max( 1, config.getStealInterval() );
+    }
+
+    @Override
+    public void run()
+    {
+        try
+        {
+            while ( !this.isInterrupted() )
+            {
+                Thread.sleep( this.INTERVAL );
+                this.check();
+            }
+        }
+        catch (InterruptedException ignored) {}
+    }
+
+    /**
+     * Stops the work stealer and waits for a check in progress to finish.
+     */
+    public void close()
+    {
+        this.interrupt();
+        try {
+            this.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Fills the idle executors of the servers of the handler with the tiles of the servers with the largest backlog.
+     *
+     * @return The number of tiles stolen.
+     */
+    public synchronized int check()
+    {
+        List<Server> servers = this.HANDLER.getServers();
+        List<Integer> ports = servers.stream().map( Server::getPort ).toList();
+
+        int stolen = 0;
+        for ( Server thief : servers )
+        {
+            boolean askedRemote = false;
+            for ( int idle = thief.getIdleExecutors(); idle > 0; idle-- )
+            {
+                Server victim = this.getMostLoaded( servers );
+                int victimBacklog = victim == null ? 0 : victim.getBacklog();
+
+                ServerLoad remote = askedRemote ? null : this.getMostLoadedRemote( ports );
+                int remoteBacklog = remote == null ? 0 : getBacklog( remote );
+
+                boolean taken;
+                if ( remoteBacklog > victimBacklog )
+                {
+                    askedRemote = true;
+                    taken = thief.requestSteal( remote.getPort() );
+                }
+                else
+                    taken = victimBacklog > 0 && thief.stealFrom( victim );
+
+                if ( !taken )
+                    break;
+                stolen++;
+            }
+        }
+        return stolen;
+    }
+
+    /**
+     * @param servers The servers of the handler.
+     * @return The server of the handler with the largest backlog, null if there is none.
+     */
+    private Server getMostLoaded(List<Server> servers)
+    {
+        Server mostLoaded = null;
+        for ( Server server : servers )
+        {
+            if ( mostLoaded == null || server.getBacklog() > mostLoaded.getBacklog() )
+                mostLoaded = server;
+        }
+        return mostLoaded;
+    }
+
+    /**
+     * @param ports The ports of the servers of the handler.
+     * @return The tracked load of the server of another process with the largest backlog, null if there is none.
+     */
+    private ServerLoad getMostLoadedRemote(List<Integer> ports)
+    {
+        if ( this.TRACKER == null )
+            return null;
+
+        ServerLoad mostLoaded = null;
+        for ( ServerLoad server : this.TRACKER.getServerLoads() )
+        {
+            if ( ports.contains( server.getPort() ) )
+                continue;
+            if ( mostLoaded == null || getBacklog( server ) > getBacklog( mostLoaded ) )
+                mostLoaded = server;
+        }
+        return mostLoaded;
+    }
+
+    /**
+     * @param server The tracked load of a server.
+     * @return The number of tiles waiting while all the executors of the server are busy.
+     */
+    private static int getBacklog(ServerLoad server)
+    {
+        return server.getRunning() + server.getWaiting() - Math.max( 1, server.getCapacity() );
+    }
+}
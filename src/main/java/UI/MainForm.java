@@ -380,6 +380,12 @@ public class MainForm extends JPanel implements Observer, Subject {
                 case UPDATE -> {
                     System.out.println("UPDATE " + event.getServerIdentifier());
                 }
+
+                case SCALE_UP, SCALE_DOWN -> {
+
+                    text.insertString( text.getLength(),"Autoscaler: ", serversNotfifycations.getStyle(StylesTypes.WARNING.toString()) );
+                    text.insertString( text.getLength(),event.getMessage() + "\n", serversNotfifycations.getStyle(StylesTypes.NORMAL.toString()) );
+                }
             }
 
         }catch (BadLocationException e)
@@ -0,0 +1,94 @@
+package Utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the task with the earliest deadline first, see {@link ScheduledTask#getDeadline()}. The tasks without a deadline
+ * run after all the others, and the tasks with the same deadline run in the order they were added.
+ * <p>
+ * The tasks are kept in a lock-free skip list sorted by deadline, and a task is found by its key in a concurrent map
+ * to be removed.
+ * </p>
+ */
+public class DeadlineTaskQueue implements TaskQueue {
+
+    private final ConcurrentSkipListMap<Key, Runnable> TASKS = new ConcurrentSkipListMap<>();
+    private final Map<Runnable, Key> KEYS = new ConcurrentHashMap<>();
+    private final AtomicLong LAST = new AtomicLong();
+    private final AtomicLong FIRST = new AtomicLong();
+
+    @Override
+    public void offer(Runnable task)
+    {
+        this.add( task, this.LAST.incrementAndGet() );
+    }
+
+    @Override
+    public void offerFirst(Runnable task)
+    {
+        this.add( task, this.FIRST.decrementAndGet() );
+    }
+
+    @Override
+    public Runnable poll()
+    {
+        return this.taken( this.TASKS.pollFirstEntry() );
+    }
+
+    @Override
+    public Runnable pollLast()
+    {
+        return this.taken( this.TASKS.pollLastEntry() );
+    }
+
+    @Override
+    public boolean remove(Runnable task)
+    {
+        Key key = this.KEYS.remove( task );
+        return key != null && this.TASKS.remove( key ) != null;
+    }
+
+    /**
+     * @param task     The task to add.
+     * @param sequence The order of the task among the tasks with the same deadline.
+     */
+    private void add(Runnable task, long sequence)
+    {
+        long deadline = ScheduledTask.deadlineOf( task );
+        Key key = new Key( deadline > 0 ? deadline : Long.MAX_VALUE, sequence );
+        this.KEYS.put( task, key );
+        this.TASKS.put( key, task );
+    }
+
+    /**
+     * @param entry The entry removed from the skip list, null if it was empty.
+     * @return The task of the entry, null if there is none.
+     */
+    private Runnable taken(Map.Entry<Key, Runnable> entry)
+    {
+        if ( entry == null )
+            return null;
+
+        this.KEYS.remove( entry.getValue(), entry.getKey() );
+        return entry.getValue();
+    }
+
+    /**
+     * The position of a task in the queue.
+     *
+     * @param deadline The deadline of the task, {@link Long#MAX_VALUE} if it has none.
+     * @param sequence The order of the task among the tasks with the same deadline.
+     */
+    private record Key(long deadline, long sequence) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other)
+        {
+            int byDeadline = Long.compare( this.deadline, other.deadline );
+            return byDeadline != 0 ? byDeadline : Long.compare( this.sequence, other.sequence );
+        }
+    }
+}
@@ -48,6 +48,16 @@ package Utils.Events.Enums;
  * enter a maintenance mode or shut down completely, depending on the nature of
  * the updates.
  * </li>
+ *
+ * <li>
+ * {@code SCALE_UP} - Reports that the autoscaler added the server because the
+ * tiles waiting per executor went over the configured threshold.
+ * </li>
+ *
+ * <li>
+ * {@code SCALE_DOWN} - Reports that the autoscaler drained and removed the
+ * server because the servers stayed idle for the configured period.
+ * </li>
  * </ul>
  *
  * <p>
@@ -79,4 +89,14 @@ public enum ServerStates {
      * normal operations.
      */
     UPDATE,
+
+    /**
+     * The autoscaler added the server to absorb the waiting tiles.
+     */
+    SCALE_UP,
+
+    /**
+     * The autoscaler removed the server after a period of idleness.
+     */
+    SCALE_DOWN,
 }
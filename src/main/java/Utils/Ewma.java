@@ -0,0 +1,58 @@
+package Utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An exponentially weighted moving average that many threads can feed without locks.
+ * <p>
+ * Each sample moves the average by {@code alpha} times its distance to the sample, so recent samples weigh more and
+ * older ones fade out. The first sample sets the average.
+ * </p>
+ */
+public class Ewma {
+
+    private final double ALPHA;
+    private final AtomicLong average;
+
+    /**
+     * Creates an average without samples.
+     *
+     * @param alpha the weight of a new sample, between 0 (exclusive) and 1 (inclusive).
+     */
+    public Ewma(double alpha)
+    {
+        if ( alpha <= 0 || alpha > 1 )
+            throw new IllegalArgumentException( "The weight of a sample must be in ]0, 1]" );
+
+        this.ALPHA = alpha;
+        this.average = new AtomicLong( Double.doubleToRawLongBits( Double.NaN ) );
+    }
+
+    /**
+     * Adds a sample to the average.
+     *
+     * @param sample the sample
+     * @return the new average.
+     */
+    public double add(double sample)
+    {
+        while ( true )
+        {
+            long current = this.average.get();
+            double currentAverage = Double.longBitsToDouble( current );
+            double nextAverage = Double.isNaN( currentAverage ) ? sample : currentAverage + this.ALPHA * ( sample - currentAverage );
+
+            if ( this.average.compareAndSet( current, Double.doubleToRawLongBits( nextAverage ) ) )
+                return nextAverage;
+        }
+    }
+
+    /**
+     * @return the average, 0 if there was no sample yet.
+     */
+    public double get()
+    {
+        double currentAverage = Double.longBitsToDouble( this.average.get() );
+        return Double.isNaN( currentAverage ) ? 0 : currentAverage;
+    }
+}
@@ -0,0 +1,158 @@
+package Utils;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shares the executors fairly between the jobs, see {@link ScheduledTask#getJobId()}, so a job that queues many tasks
+ * does not starve the jobs that come after it. The tasks of a job run in the order they were added.
+ * <p>
+ * Every job has its own sub-queue and the sub-queues take turns, with deficit round robin: at every turn a job earns a
+ * quantum of work and runs its tasks while their cost, see {@link ScheduledTask#getCost()}, fits in what it earned.
+ * What is left is kept for its next turn, so jobs with large tasks get the same share of work as jobs with small ones
+ * rather than the same number of tasks. The quantum is the cost of the largest task seen, a job runs at least one task
+ * per turn. Tasks without a job share one sub-queue.
+ * </p>
+ * <p>
+ * Unlike the other disciplines, the sub-queues are kept under a lock.
+ * </p>
+ */
+public class FairShareTaskQueue implements TaskQueue {
+
+    private static final Object NO_JOB = new Object();
+
+    private final Map<Object, JobQueue> JOBS = new HashMap<>();
+    private final ArrayDeque<JobQueue> TURNS = new ArrayDeque<>();
+    private long quantum = 1;
+
+    @Override
+    public synchronized void offer(Runnable task)
+    {
+        this.getJobQueue( task ).tasks.offerLast( task );
+    }
+
+    @Override
+    public synchronized void offerFirst(Runnable task)
+    {
+        this.getJobQueue( task ).tasks.offerFirst( task );
+    }
+
+    @Override
+    public synchronized Runnable poll()
+    {
+        while ( !this.TURNS.isEmpty() )
+        {
+            JobQueue job = this.TURNS.peekFirst();
+            if ( !job.inTurn )
+            {
+                job.deficit += this.quantum;
+                job.inTurn = true;
+            }
+
+            Runnable task = job.tasks.peekFirst();
+            long cost = ScheduledTask.costOf( task );
+            if ( job.deficit >= cost )
+            {
+                job.deficit -= cost;
+                job.tasks.pollFirst();
+                this.removeIfEmpty( job );
+                return task;
+            }
+
+            // the job used its share of the turn, the next job plays
+            job.inTurn = false;
+            this.TURNS.pollFirst();
+            this.TURNS.offerLast( job );
+        }
+        return null;
+    }
+
+    /**
+     * Takes the most recent task of the job with the most waiting tasks, the job that holds the others back the most.
+     */
+    @Override
+    public synchronized Runnable pollLast()
+    {
+        JobQueue largest = null;
+        for ( JobQueue job : this.TURNS )
+        {
+            if ( largest == null || job.tasks.size() > largest.tasks.size() )
+                largest = job;
+        }
+        if ( largest == null )
+            return null;
+
+        Runnable task = largest.tasks.pollLast();
+        this.removeIfEmpty( largest );
+        return task;
+    }
+
+    @Override
+    public synchronized boolean remove(Runnable task)
+    {
+        JobQueue job = this.JOBS.get( getKey( task ) );
+        if ( job == null || !job.tasks.remove( task ) )
+            return false;
+
+        this.removeIfEmpty( job );
+        return true;
+    }
+
+    /**
+     * Gets the sub-queue of the job of a task, a new job takes its turn after the jobs already waiting.
+     *
+     * @param task The task to add.
+     * @return The sub-queue of the job of the task.
+     */
+    private JobQueue getJobQueue(Runnable task)
+    {
+        this.quantum = Math.max( this.quantum, ScheduledTask.costOf( task ) );
+
+        return this.JOBS.computeIfAbsent( getKey( task ), key -> {
+            JobQueue job = new JobQueue( key );
+            this.TURNS.offerLast( job );
+            return job;
+        } );
+    }
+
+    /**
+     * Forgets a job whose sub-queue is empty, with what it earned, as in deficit round robin.
+     *
+     * @param job The sub-queue of a job.
+     */
+    private void removeIfEmpty(JobQueue job)
+    {
+        if ( !job.tasks.isEmpty() )
+            return;
+
+        this.JOBS.remove( job.key );
+        this.TURNS.remove( job );
+    }
+
+    /**
+     * @param task A task.
+     * @return The key of the sub-queue of the job of the task.
+     */
+    private static Object getKey(Runnable task)
+    {
+        String jobId = ScheduledTask.jobOf( task );
+        return jobId != null ? jobId : NO_JOB;
+    }
+
+    /**
+     * The waiting tasks of a job and the work it may still do in its turn.
+     */
+    private static class JobQueue {
+
+        private final Object key;
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        private long deficit;
+        private boolean inTurn;
+
+        private JobQueue(Object key)
+        {
+            this.key = key;
+        }
+    }
+}
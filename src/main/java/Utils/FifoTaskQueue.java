@@ -0,0 +1,50 @@
+package Utils;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Runs the tasks in the order they were added, the default discipline of a {@link TaskPool}. The queue is lock-free.
+ */
+public class FifoTaskQueue implements TaskQueue {
+
+    private final ConcurrentLinkedDeque<Runnable> TASKS = new ConcurrentLinkedDeque<>();
+
+    @Override
+    public void offer(Runnable task)
+    {
+        this.TASKS.offer( task );
+    }
+
+    @Override
+    public void offerFirst(Runnable task)
+    {
+        this.TASKS.offerFirst( task );
+    }
+
+    @Override
+    public Runnable poll()
+    {
+        return this.TASKS.poll();
+    }
+
+    @Override
+    public Runnable pollLast()
+    {
+        return this.TASKS.pollLast();
+    }
+
+    /**
+     * Drops the oldest task, the one most likely to be stale.
+     */
+    @Override
+    public Runnable pollToDrop()
+    {
+        return this.TASKS.poll();
+    }
+
+    @Override
+    public boolean remove(Runnable task)
+    {
+        return this.TASKS.remove( task );
+    }
+}
@@ -7,6 +7,8 @@ import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
 
 /**
  * The ImageTransformer class implements a set of methods for performing
@@ -15,6 +17,11 @@ import java.io.IOException;
  */
 public class ImageTransformer {
 
+    /**
+     * Number of rows converted between two cancellation checkpoints.
+     */
+    private static final int ROW_BAND = 16;
+
     private ImageTransformer() {
     }
 
@@ -78,15 +85,35 @@ public class ImageTransformer {
      *         image.
      */
     public static BufferedImage convertToGrayScale(BufferedImage image) {
+        return convertToGrayScale(image, () -> false);
+    }
+
+    /**
+     * Converts a given BufferedImage to grayscale, band of rows by band of rows.
+     * Before each band the cancellation condition is checked, so an abandoned
+     * conversion stops without converting the remaining rows.
+     *
+     * @param image       The input BufferedImage to be converted to grayscale.
+     * @param isCancelled Condition checked at every band of rows.
+     * @return A new BufferedImage representing the grayscale version of the input
+     *         image.
+     * @throws CancellationException If the condition holds at a checkpoint.
+     */
+    public static BufferedImage convertToGrayScale(BufferedImage image, BooleanSupplier isCancelled) {
         int width = image.getWidth();
         int height = image.getHeight();
         Color c;
         BufferedImage resultingImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-        for (int i = 0; i < width; i++) {
-            for (int j = 0; j < height; j++) {
-                c = new Color(image.getRGB(i, j));
-                resultingImage.setRGB(i, j, new Color((int) Math.floor(c.getRed() * 0.2),
-                        (int) Math.floor(c.getRed() * 0.2), (int) Math.floor(c.getRed() * 0.2)).getRGB());
+        for (int band = 0; band < height; band += ROW_BAND) {
+            if (isCancelled.getAsBoolean()) {
+                throw new CancellationException("Grayscale conversion cancelled at row " + band);
+            }
+            for (int j = band; j < Math.min(band + ROW_BAND, height); j++) {
+                for (int i = 0; i < width; i++) {
+                    c = new Color(image.getRGB(i, j));
+                    resultingImage.setRGB(i, j, new Color((int) Math.floor(c.getRed() * 0.2),
+                            (int) Math.floor(c.getRed() * 0.2), (int) Math.floor(c.getRed() * 0.2)).getRGB());
+                }
             }
         }
         return resultingImage;
@@ -0,0 +1,224 @@
+package Utils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.PriorityQueue;
+
+/**
+ * A binary min-heap of identifiers ordered by a key, with an index from each identifier to its position so the key of
+ * any identifier can be changed, increased or decreased, in O(log n).
+ * <p>
+ * The identifier with the smallest key is read in O(1). The heap is not synchronized.
+ * </p>
+ */
+public class IndexedMinHeap {
+
+    private final HashMap<Integer, Integer> POSITIONS;
+    private int[] identifiers;
+    private double[] keys;
+    private int size;
+
+    /**
+     * Creates an empty heap.
+     */
+    public IndexedMinHeap()
+    {
+        this.POSITIONS = new HashMap<>();
+        this.identifiers = new int[16];
+        this.keys = new double[16];
+    }
+
+    /**
+     * Inserts an identifier, or changes its key if it is already in the heap.
+     *
+     * @param identifier the identifier
+     * @param key        the key of the identifier
+     */
+    public void insert(int identifier, double key)
+    {
+        if ( this.POSITIONS.containsKey( identifier ) )
+        {
+            this.update( identifier, key );
+            return;
+        }
+
+        if ( this.size == this.identifiers.length )
+        {
+            this.identifiers = Arrays.copyOf( this.identifiers, this.size * 2 );
+            this.keys = Arrays.copyOf( this.keys, this.size * 2 );
+        }
+
+        this.identifiers[this.size] = identifier;
+        this.keys[this.size] = key;
+        this.POSITIONS.put( identifier, this.size );
+        this.size++;
+        this.siftUp( this.size - 1 );
+    }
+
+    /**
+     * Changes the key of an identifier.
+     *
+     * @param identifier the identifier
+     * @param key        the new key
+     * @return <b>False</b> if the identifier is not in the heap.
+     */
+    public boolean update(int identifier, double key)
+    {
+        Integer position = this.POSITIONS.get( identifier );
+        if ( position == null )
+            return false;
+
+        double previous = this.keys[position];
+        this.keys[position] = key;
+        if ( key < previous )
+            this.siftUp( position );
+        else
+            this.siftDown( position );
+        return true;
+    }
+
+    /**
+     * Removes an identifier.
+     *
+     * @param identifier the identifier
+     * @return <b>False</b> if the identifier is not in the heap.
+     */
+    public boolean remove(int identifier)
+    {
+        Integer position = this.POSITIONS.remove( identifier );
+        if ( position == null )
+            return false;
+
+        this.size--;
+        if ( position == this.size )
+            return true;
+
+        // the last leaf takes the place of the removed identifier
+        this.identifiers[position] = this.identifiers[this.size];
+        this.keys[position] = this.keys[this.size];
+        this.POSITIONS.put( this.identifiers[position], position );
+        this.siftUp( position );
+        this.siftDown( this.POSITIONS.get( this.identifiers[position] ) );
+        return true;
+    }
+
+    /**
+     * @return the identifier with the smallest key, -1 if the heap is empty.
+     */
+    public int peek()
+    {
+        return this.size == 0 ? -1 : this.identifiers[0];
+    }
+
+    /**
+     * Finds the identifier with the smallest key that is not excluded. Only the excluded identifiers and their children
+     * are visited, so the cost depends on the number of exclusions, not on the size of the heap.
+     *
+     * @param excluded identifiers that must be skipped
+     * @return the identifier with the smallest key among the others, -1 if there is none.
+     */
+    public int peekExcluding(Collection<Integer> excluded)
+    {
+        if ( this.size == 0 )
+            return -1;
+        if ( !excluded.contains( this.identifiers[0] ) )
+            return this.identifiers[0];
+
+        PriorityQueue<Integer> frontier = new PriorityQueue<>( ( a, b ) -> Double.compare( this.keys[a], this.keys[b] ) );
+        frontier.add( 0 );
+        while ( !frontier.isEmpty() )
+        {
+            int position = frontier.poll();
+            if ( !excluded.contains( this.identifiers[position] ) )
+                return this.identifiers[position];
+
+            for ( int child = 2 * position + 1; child <= 2 * position + 2 && child < this.size; child++ )
+                frontier.add( child );
+        }
+        return -1;
+    }
+
+    /**
+     * @param identifier the identifier
+     * @return the key of the identifier, NaN if it is not in the heap.
+     */
+    public double getKey(int identifier)
+    {
+        Integer position = this.POSITIONS.get( identifier );
+        return position == null ? Double.NaN : this.keys[position];
+    }
+
+    /**
+     * @param identifier the identifier
+     * @return <b>True</b> if the identifier is in the heap.
+     */
+    public boolean contains(int identifier)
+    {
+        return this.POSITIONS.containsKey( identifier );
+    }
+
+    /**
+     * @return the number of identifiers in the heap.
+     */
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * Moves an entry up while its key is smaller than the key of its parent.
+     */
+    private void siftUp(int position)
+    {
+        while ( position > 0 )
+        {
+            int parent = ( position - 1 ) / 2;
+            if ( this.keys[parent] <= this.keys[position] )
+                return;
+
+            this.swap( position, parent );
+            position = parent;
+        }
+    }
+
+    /**
+     * Moves an entry down while a child has a smaller key.
+     */
+    private void siftDown(int position)
+    {
+        while ( true )
+        {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+
+            if ( left < this.size && this.keys[left] < this.keys[smallest] )
+                smallest = left;
+            if ( right < this.size && this.keys[right] < this.keys[smallest] )
+                smallest = right;
+            if ( smallest == position )
+                return;
+
+            this.swap( position, smallest );
+            position = smallest;
+        }
+    }
+
+    /**
+     * Swaps two entries and updates their positions.
+     */
+    private void swap(int first, int second)
+    {
+        int identifier = this.identifiers[first];
+        double key = this.keys[first];
+
+        this.identifiers[first] = this.identifiers[second];
+        this.keys[first] = this.keys[second];
+        this.identifiers[second] = identifier;
+        this.keys[second] = key;
+
+        this.POSITIONS.put( this.identifiers[first], first );
+        this.POSITIONS.put( this.identifiers[second], second );
+    }
+}
@@ -22,6 +22,49 @@ public class Config {
     private int rows;
     private int startPort;
     private int maxServersNumber;
+    private int retryAfter = 50;
+    private int loadPublishInterval = 0;
+    private int loadPublishThreshold = 2;
+    private int maxExecutors = 0;
+    private int executorQueueWait = 50;
+    private int executorKeepAlive = 2000;
+    private int stealInterval = 0;
+    private boolean workStealing = false;
+    private String queueDiscipline = "fifo";
+    private int queueCapacity = 0;
+    private String rejectionPolicy = "reject";
+    private int rejectionTimeout = 100;
+    private int autoscaleInterval = 0;
+    private int scaleUpQueue = 2;
+    private int scaleDownUtilization = 25;
+    private int scaleDownIdlePeriod = 5000;
+    private int scaleCooldown = 3000;
+    private int healthProbeInterval = 0;
+    private int healthProbeTimeout = 500;
+    private int breakerFailureThreshold = 3;
+    private int breakerOpenTimeout = 2000;
+    private int maxRetries = 6;
+    private int backoffBase = 50;
+    private int backoffMax = 2000;
+    private int tileDeadline = 60000;
+    private int hedgePercentile = 0;
+    private int hedgeMaxRate = 5;
+    private int hedgeMinSamples = 20;
+    private String priority = "normal";
+    private boolean tcpNoDelay = true;
+    private int sendBufferSize = 0;
+    private int receiveBufferSize = 0;
+    private int acceptBacklog = 128;
+    private boolean reuseAddress = true;
+    private String loadTrackerType = "memory";
+    private String loadInfoPath = "load_info.temp";
+    private int snapshotInterval = 500;
+    private String mappedPath = "load_info.map";
+    private int mappedRecords = 256;
+    private String selectionStrategy = "powerOfTwo";
+    private String routingKey = "content";
+    private int virtualNodes = 100;
+    private int hashLoadBound = 2;
 
     /**
      * Creates a new instance of {@code Config} with default values. This
@@ -164,4 +207,795 @@ public class Config {
     public String getSavePath() {
         return savePath;
     }
+
+    /**
+     * Gets the base retry-after hint, in milliseconds, sent by a busy server.
+     * The hint grows with the number of queued parts per executor.
+     *
+     * @return The base retry-after hint in milliseconds.
+     */
+    public int getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * Sets the base retry-after hint, in milliseconds, sent by a busy server.
+     *
+     * @param retryAfter The base retry-after hint in milliseconds.
+     */
+    public void setRetryAfter(int retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Gets the maximum staleness, in milliseconds, of the load a server publishes.
+     * Small load changes are merged and written within this time, 0 writes every change.
+     *
+     * @return The maximum staleness in milliseconds.
+     */
+    public int getLoadPublishInterval() {
+        return loadPublishInterval;
+    }
+
+    /**
+     * Sets the maximum staleness, in milliseconds, of the load a server publishes.
+     *
+     * @param loadPublishInterval The maximum staleness in milliseconds.
+     */
+    public void setLoadPublishInterval(int loadPublishInterval) {
+        this.loadPublishInterval = loadPublishInterval;
+    }
+
+    /**
+     * Gets the change of load, running plus waiting tasks, a server publishes at once
+     * when load updates are merged.
+     *
+     * @return The load change threshold.
+     */
+    public int getLoadPublishThreshold() {
+        return loadPublishThreshold;
+    }
+
+    /**
+     * Sets the change of load a server publishes at once.
+     *
+     * @param loadPublishThreshold The load change threshold.
+     */
+    public void setLoadPublishThreshold(int loadPublishThreshold) {
+        this.loadPublishThreshold = loadPublishThreshold;
+    }
+
+    /**
+     * Gets the number of executors a server may grow its task pool to, a value not above the task pool size keeps the pool fixed.
+     *
+     * @return maxExecutors The maximum number of executors.
+     */
+    public int getMaxExecutors() {
+        return maxExecutors;
+    }
+
+    /**
+     * Sets the number of executors a server may grow its task pool to.
+     *
+     * @param maxExecutors maxExecutors The maximum number of executors.
+     */
+    public void setMaxExecutors(int maxExecutors) {
+        this.maxExecutors = maxExecutors;
+    }
+
+    /**
+     * Gets the expected queue wait in milliseconds above which a server adds an executor.
+     *
+     * @return executorQueueWait The queue wait in milliseconds.
+     */
+    public int getExecutorQueueWait() {
+        return executorQueueWait;
+    }
+
+    /**
+     * Sets the expected queue wait in milliseconds above which a server adds an executor.
+     *
+     * @param executorQueueWait executorQueueWait The queue wait in milliseconds.
+     */
+    public void setExecutorQueueWait(int executorQueueWait) {
+        this.executorQueueWait = executorQueueWait;
+    }
+
+    /**
+     * Gets the time in milliseconds a server keeps an added executor once no task waits in its queue.
+     *
+     * @return executorKeepAlive The keep-alive in milliseconds.
+     */
+    public int getExecutorKeepAlive() {
+        return executorKeepAlive;
+    }
+
+    /**
+     * Sets the time in milliseconds a server keeps an added executor once no task waits in its queue.
+     *
+     * @param executorKeepAlive executorKeepAlive The keep-alive in milliseconds.
+     */
+    public void setExecutorKeepAlive(int executorKeepAlive) {
+        this.executorKeepAlive = executorKeepAlive;
+    }
+
+    /**
+     * Gets the interval in milliseconds at which idle servers steal queued tiles from the most loaded server.
+     *
+     * @return stealInterval The steal interval in milliseconds, 0 disables work stealing.
+     */
+    public int getStealInterval() {
+        return stealInterval;
+    }
+
+    /**
+     * Sets the interval in milliseconds at which idle servers steal queued tiles from the most loaded server.
+     *
+     * @param stealInterval stealInterval The steal interval in milliseconds, 0 disables work stealing.
+     */
+    public void setStealInterval(int stealInterval) {
+        this.stealInterval = stealInterval;
+    }
+
+    /**
+     * Checks if the executors of a server queue the tasks they add in their own deques and steal from each
+     * other, instead of sharing one queue.
+     *
+     * @return workStealing <b>True</b> for the work stealing mode of the task pool.
+     */
+    public boolean isWorkStealing() {
+        return workStealing;
+    }
+
+    /**
+     * Sets if the executors of a server queue the tasks they add in their own deques.
+     *
+     * @param workStealing workStealing <b>True</b> for the work stealing mode of the task pool.
+     */
+    public void setWorkStealing(boolean workStealing) {
+        this.workStealing = workStealing;
+    }
+
+    /**
+     * Gets the discipline of the queue of the image parts waiting on a server.
+     *
+     * @return queueDiscipline {@code fifo}, {@code priority}, {@code deadline} or {@code fair}.
+     */
+    public String getQueueDiscipline() {
+        return queueDiscipline;
+    }
+
+    /**
+     * Sets the discipline of the queue of the image parts waiting on a server.
+     *
+     * @param queueDiscipline queueDiscipline {@code fifo}, {@code priority}, {@code deadline} or {@code fair}.
+     */
+    public void setQueueDiscipline(String queueDiscipline) {
+        this.queueDiscipline = queueDiscipline;
+    }
+
+    /**
+     * Gets the maximum number of image parts the task pool of a server holds waiting, 0 for no maximum.
+     *
+     * @return queueCapacity The maximum number of waiting image parts, 0 for no maximum.
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Sets the maximum number of image parts the task pool of a server holds waiting.
+     *
+     * @param queueCapacity queueCapacity The maximum number of waiting image parts, 0 for no maximum.
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Gets what happens to an image part queued while the task pool of a server is full.
+     *
+     * @return rejectionPolicy {@code reject}, {@code callerRuns}, {@code dropOldest} or {@code block}.
+     */
+    public String getRejectionPolicy() {
+        return rejectionPolicy;
+    }
+
+    /**
+     * Sets what happens to an image part queued while the task pool of a server is full.
+     *
+     * @param rejectionPolicy rejectionPolicy {@code reject}, {@code callerRuns}, {@code dropOldest} or {@code block}.
+     */
+    public void setRejectionPolicy(String rejectionPolicy) {
+        this.rejectionPolicy = rejectionPolicy;
+    }
+
+    /**
+     * Gets the time in milliseconds the {@code block} rejection policy waits for room in a full task pool.
+     *
+     * @return rejectionTimeout The time in milliseconds to wait for room.
+     */
+    public int getRejectionTimeout() {
+        return rejectionTimeout;
+    }
+
+    /**
+     * Sets the time in milliseconds the {@code block} rejection policy waits for room in a full task pool.
+     *
+     * @param rejectionTimeout rejectionTimeout The time in milliseconds to wait for room.
+     */
+    public void setRejectionTimeout(int rejectionTimeout) {
+        this.rejectionTimeout = rejectionTimeout;
+    }
+
+    /**
+     * Gets the interval in milliseconds between two checks of the autoscaler, 0 disables it.
+     *
+     * @return autoscaleInterval The check interval in milliseconds.
+     */
+    public int getAutoscaleInterval() {
+        return autoscaleInterval;
+    }
+
+    /**
+     * Sets the interval in milliseconds between two checks of the autoscaler.
+     *
+     * @param autoscaleInterval autoscaleInterval The check interval in milliseconds.
+     */
+    public void setAutoscaleInterval(int autoscaleInterval) {
+        this.autoscaleInterval = autoscaleInterval;
+    }
+
+    /**
+     * Gets the number of waiting tiles per executor above which the autoscaler adds a server.
+     *
+     * @return scaleUpQueue The waiting tiles per executor.
+     */
+    public int getScaleUpQueue() {
+        return scaleUpQueue;
+    }
+
+    /**
+     * Sets the number of waiting tiles per executor above which the autoscaler adds a server.
+     *
+     * @param scaleUpQueue scaleUpQueue The waiting tiles per executor.
+     */
+    public void setScaleUpQueue(int scaleUpQueue) {
+        this.scaleUpQueue = scaleUpQueue;
+    }
+
+    /**
+     * Gets the utilization in percent under which the servers count as idle.
+     *
+     * @return scaleDownUtilization The utilization in percent.
+     */
+    public int getScaleDownUtilization() {
+        return scaleDownUtilization;
+    }
+
+    /**
+     * Sets the utilization in percent under which the servers count as idle.
+     *
+     * @param scaleDownUtilization scaleDownUtilization The utilization in percent.
+     */
+    public void setScaleDownUtilization(int scaleDownUtilization) {
+        this.scaleDownUtilization = scaleDownUtilization;
+    }
+
+    /**
+     * Gets the time in milliseconds the servers must stay idle before the autoscaler removes one.
+     *
+     * @return scaleDownIdlePeriod The idle time in milliseconds.
+     */
+    public int getScaleDownIdlePeriod() {
+        return scaleDownIdlePeriod;
+    }
+
+    /**
+     * Sets the time in milliseconds the servers must stay idle before the autoscaler removes one.
+     *
+     * @param scaleDownIdlePeriod scaleDownIdlePeriod The idle time in milliseconds.
+     */
+    public void setScaleDownIdlePeriod(int scaleDownIdlePeriod) {
+        this.scaleDownIdlePeriod = scaleDownIdlePeriod;
+    }
+
+    /**
+     * Gets the time in milliseconds the autoscaler waits after a scaling decision before taking another.
+     *
+     * @return scaleCooldown The cooldown in milliseconds.
+     */
+    public int getScaleCooldown() {
+        return scaleCooldown;
+    }
+
+    /**
+     * Sets the time in milliseconds the autoscaler waits after a scaling decision before taking another.
+     *
+     * @param scaleCooldown scaleCooldown The cooldown in milliseconds.
+     */
+    public void setScaleCooldown(int scaleCooldown) {
+        this.scaleCooldown = scaleCooldown;
+    }
+
+    /**
+     * Gets the interval in milliseconds between two health probes of the servers, 0 disables the health monitor.
+     *
+     * @return healthProbeInterval The probe interval in milliseconds.
+     */
+    public int getHealthProbeInterval() {
+        return healthProbeInterval;
+    }
+
+    /**
+     * Sets the interval in milliseconds between two health probes of the servers.
+     *
+     * @param healthProbeInterval healthProbeInterval The probe interval in milliseconds.
+     */
+    public void setHealthProbeInterval(int healthProbeInterval) {
+        this.healthProbeInterval = healthProbeInterval;
+    }
+
+    /**
+     * Gets the time in milliseconds a server has to answer a health probe.
+     *
+     * @return healthProbeTimeout The probe timeout in milliseconds.
+     */
+    public int getHealthProbeTimeout() {
+        return healthProbeTimeout;
+    }
+
+    /**
+     * Sets the time in milliseconds a server has to answer a health probe.
+     *
+     * @param healthProbeTimeout healthProbeTimeout The probe timeout in milliseconds.
+     */
+    public void setHealthProbeTimeout(int healthProbeTimeout) {
+        this.healthProbeTimeout = healthProbeTimeout;
+    }
+
+    /**
+     * Gets the number of consecutive failures that open the circuit breaker of a server.
+     *
+     * @return breakerFailureThreshold The number of failures.
+     */
+    public int getBreakerFailureThreshold() {
+        return breakerFailureThreshold;
+    }
+
+    /**
+     * Sets the number of consecutive failures that open the circuit breaker of a server.
+     *
+     * @param breakerFailureThreshold breakerFailureThreshold The number of failures.
+     */
+    public void setBreakerFailureThreshold(int breakerFailureThreshold) {
+        this.breakerFailureThreshold = breakerFailureThreshold;
+    }
+
+    /**
+     * Gets the time in milliseconds a circuit breaker stays open before a probe may close it.
+     *
+     * @return breakerOpenTimeout The open timeout in milliseconds.
+     */
+    public int getBreakerOpenTimeout() {
+        return breakerOpenTimeout;
+    }
+
+    /**
+     * Sets the time in milliseconds a circuit breaker stays open before a probe may close it.
+     *
+     * @param breakerOpenTimeout breakerOpenTimeout The open timeout in milliseconds.
+     */
+    public void setBreakerOpenTimeout(int breakerOpenTimeout) {
+        this.breakerOpenTimeout = breakerOpenTimeout;
+    }
+
+    /**
+     * Gets the number of backoff rounds a client performs before giving up an
+     * image part, a round ends when every server refused or failed the part.
+     *
+     * @return The maximum number of retry rounds.
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Sets the number of backoff rounds a client performs before giving up an image part.
+     *
+     * @param maxRetries The maximum number of retry rounds.
+     */
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * Gets the initial backoff delay, in milliseconds, of the client retries.
+     *
+     * @return The initial backoff delay in milliseconds.
+     */
+    public int getBackoffBase() {
+        return backoffBase;
+    }
+
+    /**
+     * Sets the initial backoff delay, in milliseconds, of the client retries.
+     *
+     * @param backoffBase The initial backoff delay in milliseconds.
+     */
+    public void setBackoffBase(int backoffBase) {
+        this.backoffBase = backoffBase;
+    }
+
+    /**
+     * Gets the upper limit, in milliseconds, of the client backoff delay.
+     *
+     * @return The maximum backoff delay in milliseconds.
+     */
+    public int getBackoffMax() {
+        return backoffMax;
+    }
+
+    /**
+     * Sets the upper limit, in milliseconds, of the client backoff delay.
+     *
+     * @param backoffMax The maximum backoff delay in milliseconds.
+     */
+    public void setBackoffMax(int backoffMax) {
+        this.backoffMax = backoffMax;
+    }
+
+    /**
+     * Gets the time, in milliseconds from the start of an image, its parts have to
+     * be processed. Servers drop the parts whose deadline passed. Zero means no deadline.
+     *
+     * @return The deadline of the image parts in milliseconds.
+     */
+    public int getTileDeadline() {
+        return tileDeadline;
+    }
+
+    /**
+     * Sets the time, in milliseconds from the start of an image, its parts have to be processed.
+     *
+     * @param tileDeadline The deadline of the image parts in milliseconds, zero for no deadline.
+     */
+    public void setTileDeadline(int tileDeadline) {
+        this.tileDeadline = tileDeadline;
+    }
+
+    /**
+     * Gets the percentile of the observed tile latency after which an outstanding tile is sent to a second server, 0 disables hedging.
+     *
+     * @return hedgePercentile The percentile, between 1 and 99.
+     */
+    public int getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    /**
+     * Sets the percentile of the observed tile latency after which an outstanding tile is sent to a second server.
+     *
+     * @param hedgePercentile hedgePercentile The percentile, between 1 and 99.
+     */
+    public void setHedgePercentile(int hedgePercentile) {
+        this.hedgePercentile = hedgePercentile;
+    }
+
+    /**
+     * Gets the maximum share of the tiles, in percent, that may be sent to a second server.
+     *
+     * @return hedgeMaxRate The share in percent.
+     */
+    public int getHedgeMaxRate() {
+        return hedgeMaxRate;
+    }
+
+    /**
+     * Sets the maximum share of the tiles, in percent, that may be sent to a second server.
+     *
+     * @param hedgeMaxRate hedgeMaxRate The share in percent.
+     */
+    public void setHedgeMaxRate(int hedgeMaxRate) {
+        this.hedgeMaxRate = hedgeMaxRate;
+    }
+
+    /**
+     * Gets the number of tile latencies to observe before hedging starts.
+     *
+     * @return hedgeMinSamples The number of latencies.
+     */
+    public int getHedgeMinSamples() {
+        return hedgeMinSamples;
+    }
+
+    /**
+     * Sets the number of tile latencies to observe before hedging starts.
+     *
+     * @param hedgeMinSamples hedgeMinSamples The number of latencies.
+     */
+    public void setHedgeMinSamples(int hedgeMinSamples) {
+        this.hedgeMinSamples = hedgeMinSamples;
+    }
+
+    /**
+     * Gets the priority class of the image parts sent by the client.
+     *
+     * @return priority {@code interactive}, {@code normal} or {@code batch}.
+     */
+    public String getPriority() {
+        return priority;
+    }
+
+    /**
+     * Sets the priority class of the image parts sent by the client.
+     *
+     * @param priority priority {@code interactive}, {@code normal} or {@code batch}.
+     */
+    public void setPriority(String priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * Gets whether the sockets disable Nagle's algorithm, so small response frames
+     * are sent without waiting for more data.
+     *
+     * @return <b>True</b> if TCP_NODELAY is set on the sockets.
+     */
+    public boolean isTcpNoDelay() {
+        return tcpNoDelay;
+    }
+
+    /**
+     * Sets whether the sockets disable Nagle's algorithm.
+     *
+     * @param tcpNoDelay <b>True</b> to set TCP_NODELAY on the sockets.
+     */
+    public void setTcpNoDelay(boolean tcpNoDelay) {
+        this.tcpNoDelay = tcpNoDelay;
+    }
+
+    /**
+     * Gets the send buffer size, in bytes, of the sockets. Zero keeps the system default.
+     *
+     * @return The send buffer size in bytes.
+     */
+    public int getSendBufferSize() {
+        return sendBufferSize;
+    }
+
+    /**
+     * Sets the send buffer size, in bytes, of the sockets.
+     *
+     * @param sendBufferSize The send buffer size in bytes, zero for the system default.
+     */
+    public void setSendBufferSize(int sendBufferSize) {
+        this.sendBufferSize = sendBufferSize;
+    }
+
+    /**
+     * Gets the receive buffer size, in bytes, of the sockets. Zero keeps the system default.
+     *
+     * @return The receive buffer size in bytes.
+     */
+    public int getReceiveBufferSize() {
+        return receiveBufferSize;
+    }
+
+    /**
+     * Sets the receive buffer size, in bytes, of the sockets.
+     *
+     * @param receiveBufferSize The receive buffer size in bytes, zero for the system default.
+     */
+    public void setReceiveBufferSize(int receiveBufferSize) {
+        this.receiveBufferSize = receiveBufferSize;
+    }
+
+    /**
+     * Gets the maximum number of pending connections a server socket keeps before refusing new ones.
+     *
+     * @return The accept backlog.
+     */
+    public int getAcceptBacklog() {
+        return acceptBacklog;
+    }
+
+    /**
+     * Sets the maximum number of pending connections a server socket keeps before refusing new ones.
+     *
+     * @param acceptBacklog The accept backlog.
+     */
+    public void setAcceptBacklog(int acceptBacklog) {
+        this.acceptBacklog = acceptBacklog;
+    }
+
+    /**
+     * Gets whether a server socket may bind a port still in the TIME_WAIT state.
+     *
+     * @return <b>True</b> if SO_REUSEADDR is set on the server sockets.
+     */
+    public boolean isReuseAddress() {
+        return reuseAddress;
+    }
+
+    /**
+     * Sets whether a server socket may bind a port still in the TIME_WAIT state.
+     *
+     * @param reuseAddress <b>True</b> to set SO_REUSEADDR on the server sockets.
+     */
+    public void setReuseAddress(boolean reuseAddress) {
+        this.reuseAddress = reuseAddress;
+    }
+
+    /**
+     * Gets the kind of load tracker: {@code memory} keeps the table in memory and
+     * persists snapshots of it, {@code file} rewrites the load info file on every update,
+     * {@code mapped} shares a memory-mapped binary table between processes.
+     *
+     * @return The kind of load tracker.
+     */
+    public String getLoadTrackerType() {
+        return loadTrackerType;
+    }
+
+    /**
+     * Sets the kind of load tracker.
+     *
+     * @param loadTrackerType {@code memory}, {@code file} or {@code mapped}.
+     */
+    public void setLoadTrackerType(String loadTrackerType) {
+        this.loadTrackerType = loadTrackerType;
+    }
+
+    /**
+     * Gets the path of the load info file.
+     *
+     * @return The path of the load info file.
+     */
+    public String getLoadInfoPath() {
+        return loadInfoPath;
+    }
+
+    /**
+     * Sets the path of the load info file.
+     *
+     * @param loadInfoPath The path of the load info file.
+     */
+    public void setLoadInfoPath(String loadInfoPath) {
+        this.loadInfoPath = loadInfoPath;
+    }
+
+    /**
+     * Gets the interval, in milliseconds, between two snapshots of the in memory
+     * load table to the load info file.
+     *
+     * @return The snapshot interval in milliseconds.
+     */
+    public int getSnapshotInterval() {
+        return snapshotInterval;
+    }
+
+    /**
+     * Sets the interval, in milliseconds, between two snapshots of the in memory load table.
+     *
+     * @param snapshotInterval The snapshot interval in milliseconds.
+     */
+    public void setSnapshotInterval(int snapshotInterval) {
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    /**
+     * Gets the path of the memory-mapped load table shared between processes.
+     *
+     * @return The path of the mapped load table.
+     */
+    public String getMappedPath() {
+        return mappedPath;
+    }
+
+    /**
+     * Sets the path of the memory-mapped load table.
+     *
+     * @param mappedPath The path of the mapped load table.
+     */
+    public void setMappedPath(String mappedPath) {
+        this.mappedPath = mappedPath;
+    }
+
+    /**
+     * Gets the number of records of a new memory-mapped load table, the maximum
+     * number of servers all the processes sharing it can register.
+     *
+     * @return The number of records.
+     */
+    public int getMappedRecords() {
+        return mappedRecords;
+    }
+
+    /**
+     * Sets the number of records of a new memory-mapped load table.
+     *
+     * @param mappedRecords The number of records.
+     */
+    public void setMappedRecords(int mappedRecords) {
+        this.mappedRecords = mappedRecords;
+    }
+
+    /**
+     * Gets the strategy clients use to choose a server: {@code powerOfTwo} compares
+     * two random servers, {@code leastLoaded} scans for the least loaded one,
+     * {@code completionTime} scans for the one expected to complete a task first,
+     * {@code minHeap} reads the least loaded one from a heap kept up to date by the tracker,
+     * {@code consistentHash} sends the tiles with the same routing key to the same server while it is not overloaded.
+     *
+     * @return The name of the server selection strategy.
+     */
+    public String getSelectionStrategy() {
+        return selectionStrategy;
+    }
+
+    /**
+     * Sets the strategy clients use to choose a server.
+     *
+     * @param selectionStrategy The name of the server selection strategy.
+     */
+    public void setSelectionStrategy(String selectionStrategy) {
+        this.selectionStrategy = selectionStrategy;
+    }
+
+    /**
+     * Gets what the {@code consistentHash} selection hashes: {@code content} routes the tiles with the same
+     * pixels to the same server, {@code job} routes the tiles of an image to the same server.
+     *
+     * @return routingKey The routing key, {@code content} or {@code job}.
+     */
+    public String getRoutingKey() {
+        return routingKey;
+    }
+
+    /**
+     * Sets what the {@code consistentHash} selection hashes.
+     *
+     * @param routingKey routingKey The routing key, {@code content} or {@code job}.
+     */
+    public void setRoutingKey(String routingKey) {
+        this.routingKey = routingKey;
+    }
+
+    /**
+     * Gets the number of points each server has on the ring of the {@code consistentHash} selection.
+     *
+     * @return virtualNodes The number of virtual nodes per server.
+     */
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    /**
+     * Sets the number of points each server has on the ring of the {@code consistentHash} selection.
+     *
+     * @param virtualNodes virtualNodes The number of virtual nodes per server.
+     */
+    public void setVirtualNodes(int virtualNodes) {
+        this.virtualNodes = virtualNodes;
+    }
+
+    /**
+     * Gets how many tasks more than the least loaded server the server a tile hashes to may hold before
+     * the {@code consistentHash} selection falls back to the least loaded server.
+     *
+     * @return hashLoadBound The load bound in tasks.
+     */
+    public int getHashLoadBound() {
+        return hashLoadBound;
+    }
+
+    /**
+     * Sets the load bound of the {@code consistentHash} selection.
+     *
+     * @param hashLoadBound hashLoadBound The load bound in tasks.
+     */
+    public void setHashLoadBound(int hashLoadBound) {
+        this.hashLoadBound = hashLoadBound;
+    }
 }
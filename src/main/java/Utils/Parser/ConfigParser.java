@@ -56,11 +56,59 @@ public class ConfigParser {
         config.setTaskPoolSize(parseInteger(configFile, "server", "taskPoolSize"));
         config.setStartPort(parseInteger(configFile, "server", "startPort"));
         config.setMaxServersNumber(parseInteger(configFile, "server", "maxServers"));
+        config.setRetryAfter(parseInteger(configFile, "server", "retryAfter", config.getRetryAfter()));
+        config.setLoadPublishInterval(parseInteger(configFile, "server", "loadPublishInterval", config.getLoadPublishInterval()));
+        config.setLoadPublishThreshold(parseInteger(configFile, "server", "loadPublishThreshold", config.getLoadPublishThreshold()));
+        config.setMaxExecutors(parseInteger(configFile, "server", "maxExecutors", config.getMaxExecutors()));
+        config.setExecutorQueueWait(parseInteger(configFile, "server", "executorQueueWait", config.getExecutorQueueWait()));
+        config.setExecutorKeepAlive(parseInteger(configFile, "server", "executorKeepAlive", config.getExecutorKeepAlive()));
+        config.setStealInterval(parseInteger(configFile, "server", "stealInterval", config.getStealInterval()));
+        config.setWorkStealing(parseBoolean(configFile, "server", "workStealing", config.isWorkStealing()));
+        config.setQueueDiscipline(parseChoice(configFile, "server", "queueDiscipline", config.getQueueDiscipline(), "fifo", "priority", "deadline", "fair"));
+        config.setQueueCapacity(parseInteger(configFile, "server", "queueCapacity", config.getQueueCapacity()));
+        config.setRejectionPolicy(parseChoice(configFile, "server", "rejectionPolicy", config.getRejectionPolicy(), "reject", "callerRuns", "dropOldest", "block"));
+        config.setRejectionTimeout(parseInteger(configFile, "server", "rejectionTimeout", config.getRejectionTimeout()));
 
         validateSectionExists(configFile, "image");
         config.setColumns(parseInteger(configFile, "image", "columns"));
         config.setRows(parseInteger(configFile, "image", "rows"));
 
+        config.setAutoscaleInterval(parseInteger(configFile, "autoscaler", "interval", config.getAutoscaleInterval()));
+        config.setScaleUpQueue(parseInteger(configFile, "autoscaler", "scaleUpQueue", config.getScaleUpQueue()));
+        config.setScaleDownUtilization(parseInteger(configFile, "autoscaler", "scaleDownUtilization", config.getScaleDownUtilization()));
+        config.setScaleDownIdlePeriod(parseInteger(configFile, "autoscaler", "idlePeriod", config.getScaleDownIdlePeriod()));
+        config.setScaleCooldown(parseInteger(configFile, "autoscaler", "cooldown", config.getScaleCooldown()));
+
+        config.setHealthProbeInterval(parseInteger(configFile, "health", "probeInterval", config.getHealthProbeInterval()));
+        config.setHealthProbeTimeout(parseInteger(configFile, "health", "probeTimeout", config.getHealthProbeTimeout()));
+        config.setBreakerFailureThreshold(parseInteger(configFile, "health", "failureThreshold", config.getBreakerFailureThreshold()));
+        config.setBreakerOpenTimeout(parseInteger(configFile, "health", "openTimeout", config.getBreakerOpenTimeout()));
+
+        config.setMaxRetries(parseInteger(configFile, "client", "maxRetries", config.getMaxRetries()));
+        config.setBackoffBase(parseInteger(configFile, "client", "backoffBase", config.getBackoffBase()));
+        config.setBackoffMax(parseInteger(configFile, "client", "backoffMax", config.getBackoffMax()));
+        config.setTileDeadline(parseInteger(configFile, "client", "tileDeadline", config.getTileDeadline()));
+        config.setHedgePercentile(parseInteger(configFile, "client", "hedgePercentile", config.getHedgePercentile()));
+        config.setHedgeMaxRate(parseInteger(configFile, "client", "hedgeMaxRate", config.getHedgeMaxRate()));
+        config.setHedgeMinSamples(parseInteger(configFile, "client", "hedgeMinSamples", config.getHedgeMinSamples()));
+        config.setPriority(parseChoice(configFile, "client", "priority", config.getPriority(), "interactive", "normal", "batch"));
+
+        config.setTcpNoDelay(parseBoolean(configFile, "network", "tcpNoDelay", config.isTcpNoDelay()));
+        config.setSendBufferSize(parseInteger(configFile, "network", "sendBufferSize", config.getSendBufferSize()));
+        config.setReceiveBufferSize(parseInteger(configFile, "network", "receiveBufferSize", config.getReceiveBufferSize()));
+        config.setAcceptBacklog(parseInteger(configFile, "network", "acceptBacklog", config.getAcceptBacklog()));
+        config.setReuseAddress(parseBoolean(configFile, "network", "reuseAddress", config.isReuseAddress()));
+
+        config.setLoadTrackerType(parseChoice(configFile, "loadTracker", "type", config.getLoadTrackerType(), "memory", "file", "mapped"));
+        config.setLoadInfoPath(parseString(configFile, "loadTracker", "path", config.getLoadInfoPath()));
+        config.setSnapshotInterval(parseInteger(configFile, "loadTracker", "snapshotInterval", config.getSnapshotInterval()));
+        config.setMappedPath(parseString(configFile, "loadTracker", "mappedPath", config.getMappedPath()));
+        config.setMappedRecords(parseInteger(configFile, "loadTracker", "mappedRecords", config.getMappedRecords()));
+        config.setSelectionStrategy(parseChoice(configFile, "loadTracker", "selection", config.getSelectionStrategy(), "powerOfTwo", "leastLoaded", "completionTime", "minHeap", "consistentHash"));
+        config.setRoutingKey(parseChoice(configFile, "loadTracker", "routingKey", config.getRoutingKey(), "content", "job"));
+        config.setVirtualNodes(parseInteger(configFile, "loadTracker", "virtualNodes", config.getVirtualNodes()));
+        config.setHashLoadBound(parseInteger(configFile, "loadTracker", "hashLoadBound", config.getHashLoadBound()));
+
         return config;
     }
 
@@ -99,6 +147,82 @@ public class ConfigParser {
         }
     }
 
+    /**
+     * Parses an optional integer value from a specified section and key within the
+     * INI file, falling back to a default when the section or key is missing.
+     *
+     * @param configFile   The INI configuration file.
+     * @param section      The section from which to parse the integer.
+     * @param key          The key corresponding to the integer value.
+     * @param defaultValue The value used when the key is missing.
+     * @return The parsed integer value, or the default value.
+     * @throws IllegalArgumentException If the value is not a valid integer.
+     */
+    private int parseInteger(Ini configFile, String section, String key, int defaultValue) {
+        if (configFile.get(section, key) == null) {
+            return defaultValue;
+        }
+        return parseInteger(configFile, section, key);
+    }
+
+    /**
+     * Parses an optional string value from a specified section and key within the
+     * INI file, falling back to a default when the section or key is missing.
+     *
+     * @param configFile   The INI configuration file.
+     * @param section      The section from which to parse the string.
+     * @param key          The key corresponding to the string value.
+     * @param defaultValue The value used when the key is missing.
+     * @return The string value, or the default value.
+     */
+    private String parseString(Ini configFile, String section, String key, String defaultValue) {
+        String valueStr = configFile.get(section, key);
+        return valueStr == null ? defaultValue : valueStr.trim();
+    }
+
+    /**
+     * Parses an optional string value that must be one of a set of choices.
+     *
+     * @param configFile   The INI configuration file.
+     * @param section      The section from which to parse the string.
+     * @param key          The key corresponding to the string value.
+     * @param defaultValue The value used when the key is missing.
+     * @param choices      The accepted values.
+     * @return The string value, or the default value.
+     * @throws IllegalArgumentException If the value is not one of the choices.
+     */
+    private String parseChoice(Ini configFile, String section, String key, String defaultValue, String... choices) {
+        String value = parseString(configFile, section, key, defaultValue);
+        for (String choice : choices) {
+            if (choice.equals(value)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Invalid value '" + value + "' for '" + key + "' in [" + section + "] section.");
+    }
+
+    /**
+     * Parses an optional boolean value from a specified section and key within the
+     * INI file, falling back to a default when the section or key is missing.
+     *
+     * @param configFile   The INI configuration file.
+     * @param section      The section from which to parse the boolean.
+     * @param key          The key corresponding to the boolean value.
+     * @param defaultValue The value used when the key is missing.
+     * @return The parsed boolean value, or the default value.
+     * @throws IllegalArgumentException If the value is neither true nor false.
+     */
+    private boolean parseBoolean(Ini configFile, String section, String key, boolean defaultValue) {
+        String valueStr = configFile.get(section, key);
+        if (valueStr == null) {
+            return defaultValue;
+        }
+        if (!valueStr.equalsIgnoreCase("true") && !valueStr.equalsIgnoreCase("false")) {
+            throw new IllegalArgumentException("Invalid boolean format for '" + key + "' in [" + section + "] section.");
+        }
+        return Boolean.parseBoolean(valueStr);
+    }
+
     /**
      * Retrieves the singleton instance of the {@code ConfigParser}.
      *
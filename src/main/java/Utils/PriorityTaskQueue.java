@@ -0,0 +1,91 @@
+package Utils;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Runs the tasks by priority class, see {@link ScheduledTask#getPriority()}, and in the order they were added within a
+ * class. A task of a class only runs when no task of a more urgent class waits, so an interactive image part never
+ * waits behind the parts of a batch job. The priority is strict: a steady flow of urgent tasks holds the others back.
+ * <p>
+ * Every class has its own lock-free deque, the queue takes no lock.
+ * </p>
+ */
+public class PriorityTaskQueue implements TaskQueue {
+
+    private static final int DEFAULT_CLASSES = ScheduledTask.PRIORITY_BATCH + 1;
+
+    private final ConcurrentLinkedDeque<Runnable>[] CLASSES;
+
+    /**
+     * Creates a queue with the interactive, normal and batch classes.
+     */
+    public PriorityTaskQueue()
+    {
+        this( DEFAULT_CLASSES );
+    }
+
+    /**
+     * Creates a queue.
+     *
+     * @param classes The number of priority classes, the priorities out of range go to the first or the last class.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public PriorityTaskQueue(int classes)
+    {
+        this.CLASSES = new ConcurrentLinkedDeque[ Math.max( 1, classes ) ];
+        for ( int i = 0; i < this.CLASSES.length; i++ )
+            this.CLASSES[i] = new ConcurrentLinkedDeque<>();
+    }
+
+    @Override
+    public void offer(Runnable task)
+    {
+        this.getTasksOf( task ).offer( task );
+    }
+
+    @Override
+    public void offerFirst(Runnable task)
+    {
+        this.getTasksOf( task ).offerFirst( task );
+    }
+
+    @Override
+    public Runnable poll()
+    {
+        for ( ConcurrentLinkedDeque<Runnable> tasks : this.CLASSES )
+        {
+            Runnable task = tasks.poll();
+            if ( task != null )
+                return task;
+        }
+        return null;
+    }
+
+    @Override
+    public Runnable pollLast()
+    {
+        for ( int i = this.CLASSES.length - 1; i >= 0; i-- )
+        {
+            Runnable task = this.CLASSES[i].pollLast();
+            if ( task != null )
+                return task;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean remove(Runnable task)
+    {
+        return this.getTasksOf( task ).remove( task );
+    }
+
+    /**
+     * @param task A task.
+     * @return The deque of the priority class of the task.
+     */
+    private ConcurrentLinkedDeque<Runnable> getTasksOf(Runnable task)
+    {
+        int priority = ScheduledTask.priorityOf( task );
+        return this.CLASSES[ Math.max( 0, Math.min( this.CLASSES.length - 1, priority ) ) ];
+    }
+}
@@ -0,0 +1,114 @@
+package Utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides what happens to a task added to a {@link TaskPool} whose queue is full.
+ * <p>
+ * A bounded queue keeps the memory of an overloaded pool bounded, every waiting task may hold a connection and its
+ * data. The tasks rejected by a policy, and the tasks it drops, are counted by the pool.
+ * </p>
+ */
+public interface RejectionPolicy {
+
+    /**
+     * Handles a task that does not fit in the queue.
+     *
+     * @param task The task added.
+     * @param pool The pool whose queue is full.
+     * @return <b>True</b> if the task was queued or run, <b>false</b> if it is rejected.
+     */
+    boolean onFull(Runnable task, TaskPool pool);
+
+    /**
+     * @return A policy that rejects the task, the caller gets it back.
+     */
+    static RejectionPolicy reject()
+    {
+        return (task, pool) -> false;
+    }
+
+    /**
+     * @return A policy that runs the task in the thread adding it, which slows the producer down to the pace of the
+     * executors.
+     */
+    static RejectionPolicy callerRuns()
+    {
+        return (task, pool) -> {
+            if ( pool.isShutdown() )
+                return false;
+
+            task.run();
+            return true;
+        };
+    }
+
+    /**
+     * @return A policy that drops a waiting task to queue the new one. A FIFO queue drops the task that waited the
+     * longest, a ranked discipline its least urgent task, see {@link TaskQueue#pollToDrop()}. The dropped task is
+     * handed to the drop listener of the pool.
+     */
+    static RejectionPolicy dropOldest()
+    {
+        return (task, pool) -> {
+            while ( !pool.offerTask( task ) )
+            {
+                if ( pool.isShutdown() || pool.dropOldest() == null )
+                    return false;
+            }
+            return true;
+        };
+    }
+
+    /**
+     * @param timeout The maximum time in milliseconds to wait for room in the queue.
+     * @return A policy that waits for room in the queue, and rejects the task if there is still none after the timeout.
+     */
+    static RejectionPolicy blockWithTimeout(long timeout)
+    {
+        return (task, pool) -> {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos( timeout );
+            try
+            {
+                while ( !pool.offerTask( task ) )
+                {
+                    long remaining = deadline - System.nanoTime();
+                    if ( remaining <= 0 || pool.isShutdown() )
+                        return false;
+                    pool.awaitSpace( remaining );
+                }
+                return true;
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Creates a policy from its name in the configuration.
+     *
+     * @param name    {@code reject}, {@code callerRuns}, {@code dropOldest} or {@code block}
+     * @param timeout The maximum time in milliseconds the {@code block} policy waits for room in the queue.
+     * @return The policy.
+     * @throws IllegalArgumentException If there is no policy with that name.
+     */
+    static RejectionPolicy forName(String name, long timeout)
+    {
+        switch ( name )
+        {
+            case "reject":
+                return reject();
+            case "callerRuns":
+                return callerRuns();
+            case "dropOldest":
+                return dropOldest();
+            case "block":
+                return blockWithTimeout( timeout );
+            default:
+                throw new IllegalArgumentException( "Unknown rejection policy: " + name );
+        }
+    }
+}
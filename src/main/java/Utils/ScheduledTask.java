@@ -0,0 +1,111 @@
+package Utils;
+
+/**
+ * A task that tells a {@link TaskQueue} how urgent it is, with a priority class and a deadline, and which job it
+ * belongs to and how much work it is, so the jobs can share the executors fairly.
+ * <p>
+ * Tasks that do not implement the interface are scheduled as {@link #PRIORITY_NORMAL} tasks without a deadline or a
+ * job, and with a cost of 1.
+ * </p>
+ */
+public interface ScheduledTask extends Runnable {
+
+    /**
+     * Priority class of the tasks a user waits for, they run before all the others.
+     */
+    int PRIORITY_INTERACTIVE = 0;
+
+    /**
+     * Priority class of the tasks that do not tell their priority.
+     */
+    int PRIORITY_NORMAL = 1;
+
+    /**
+     * Priority class of the background tasks, they run when no other task waits.
+     */
+    int PRIORITY_BATCH = 2;
+
+    /**
+     * @return The priority class of the task, a lower value runs first.
+     */
+    int getPriority();
+
+    /**
+     * @return The time in epoch milliseconds the task should be done by, 0 if it has no deadline.
+     */
+    long getDeadline();
+
+    /**
+     * @return The identifier of the job the task belongs to, null if it belongs to none.
+     */
+    default String getJobId()
+    {
+        return null;
+    }
+
+    /**
+     * @return The amount of work of the task, in any unit shared by the tasks of a pool, at least 1.
+     */
+    default long getCost()
+    {
+        return 1;
+    }
+
+    /**
+     * @param task A task.
+     * @return The priority class of the task, {@link #PRIORITY_NORMAL} if it does not tell it.
+     */
+    static int priorityOf(Runnable task)
+    {
+        return task instanceof ScheduledTask scheduled ? scheduled.getPriority() : PRIORITY_NORMAL;
+    }
+
+    /**
+     * @param task A task.
+     * @return The deadline of the task in epoch milliseconds, 0 if it has none or does not tell it.
+     */
+    static long deadlineOf(Runnable task)
+    {
+        return task instanceof ScheduledTask scheduled ? scheduled.getDeadline() : 0;
+    }
+
+    /**
+     * @param task A task.
+     * @return The identifier of the job of the task, null if it has none or does not tell it.
+     */
+    static String jobOf(Runnable task)
+    {
+        return task instanceof ScheduledTask scheduled ? scheduled.getJobId() : null;
+    }
+
+    /**
+     * @param task A task.
+     * @return The amount of work of the task, 1 if it does not tell it.
+     */
+    static long costOf(Runnable task)
+    {
+        return task instanceof ScheduledTask scheduled ? Math.max( 1, scheduled.getCost() ) : 1;
+    }
+
+    /**
+     * Gets a priority class from its name in the configuration.
+     *
+     * @param name {@code interactive}, {@code normal} or {@code batch}
+     * @return The priority class.
+     * @throws IllegalArgumentException If there is no priority class with that name.
+     */
+    static int priorityForName(String name)
+    {
+        switch ( name )
+        {
+            case "interactive":
+                return PRIORITY_INTERACTIVE;
+            case "normal":
+                return PRIORITY_NORMAL;
+            case "batch":
+                return PRIORITY_BATCH;
+            default:
+                throw new IllegalArgumentException( "Unknown priority class: " + name );
+        }
+    }
+}
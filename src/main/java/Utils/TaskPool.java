@@ -1,10 +1,23 @@
 package Utils;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Condition;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * Represents a task pool that manages the execution of Runnable objects in multiple threads.
@@ -21,56 +34,142 @@ import java.util.concurrent.locks.Condition;
  *   <li>Allows pausing and resuming the execution of tasks in the pool.</li>
  *   <li>Ensures thread safety using synchronization and locks.</li>
  *   <li>Provides methods to add, remove, and query tasks in the pool.</li>
+ *   <li>Lets another pool steal the most recently queued task, the others keep their FIFO order.</li>
  * </ul>
  *
  * <p>
+ * The waiting tasks are kept in a lock-free queue, adding a task and picking one never take a lock, so the thread
+ * accepting connections does not queue up behind the executors. A task already waiting is found in a set of the
+ * waiting tasks instead of scanning the queue. An executor that finds no task parks, and a new task unparks one of the
+ * parked executors. Executors only wake up for a new task or a change of the state of the pool, an idle pool does not
+ * use the CPU.
+ *
+ * <p>
+ * The queue may be bounded: a task added while it is full is handled by a {@link RejectionPolicy}, which rejects it,
+ * runs it in the calling thread, drops the oldest waiting task for it or waits for room.
+ *
+ * <p>
+ * The state flags of the pool and of its executors are volatile and the counters of running and rejected tasks are
+ * striped {@link LongAdder}s, the executors never take a lock to start or end a task or to check whether they should
+ * stop. The lock of the executor list is only taken to start, pause, add or remove executors.
+ *
+ * <p>
+ * The order of the waiting tasks is the discipline of a {@link TaskQueue}: FIFO by default, or by priority class,
+ * earliest deadline or a fair share between jobs for the tasks that are a {@link ScheduledTask}.
+ *
+ * <p>
+ * {@link #shutdown()} lets the waiting tasks run before the executors stop, {@link #shutdownNow()} hands them back, and
+ * {@link #awaitTermination(long, TimeUnit)} waits for the executors to stop, including the ones removed from the pool that
+ * are still finishing a task.
+ *
+ * <p>
+ * {@link #submit(Callable)} returns a future of the result of a task. Cancelling the future removes the task if it is
+ * still waiting, and the stages chained on the future run on the executors of the pool: the synchronous ones on the
+ * executor that completed it, the asynchronous ones are queued as tasks of the pool. Stages such as decoding,
+ * transforming and encoding an image part can so be chained without a thread blocking on a result.
+ *
+ * <p>
+ * In the work stealing mode every executor also has its own deque. A task added by a task running in an executor, e.g.
+ * a continuation or a part of a larger task, goes to the deque of that executor, which runs the most recent one first
+ * while its data is still in the cache. An executor with nothing to run takes the oldest task of the deque of a random
+ * other executor. Tasks added from outside the executors always go to the shared queue and keep its order.
+ *
+ * <p>
  * The TaskPool class is designed to be highly customizable and suitable for various
  * multithreading task execution scenarios.
  */
-public class TaskPool {
+public class TaskPool implements Executor {
 
-    private final int waitingTime;
+    private volatile boolean running;
 
-    private final VarSync<Boolean> isRunningSate;
+    private volatile boolean shutdown;
 
-    private final VarSync<Integer> tasksRunning;
+    private final LongAdder tasksRunning;
 
     private final VarSync< ArrayList<TaskExecutor> > taskExecutors;
 
-    private final VarSync< Queue<Runnable> > waitingTasks;
-    private final Condition awaitTasks;
+    private final TaskQueue waitingTasks;
+    private final Set<Runnable> waitingSet;
+    private final AtomicInteger numberOfWaitingTasks;
+
+    private final int capacity;
+    private final RejectionPolicy rejectionPolicy;
+    private final LongAdder rejectedTasks;
+    private final Object spaceMonitor;
+    private final AtomicInteger spaceWaiters;
+    private volatile Consumer<Runnable> dropListener;
+    private volatile BiConsumer<Runnable, Throwable> failureListener;
+    private final ConcurrentLinkedQueue<TaskExecutor> parkedExecutors;
+
+    private final boolean workStealing;
+    private volatile TaskExecutor[] executorArray;
+    private final Set<TaskExecutor> retiredExecutors;
 
     /**
-     * Initializes a task pool with the specified size. Also creates its executors in the paused state.
+     * Initializes a task pool with the specified size and scheduling mode. Also creates its executors in the paused
+     * state.
      *
-     * @param size        The size of the task pool (number of executor threads).
-     * @param waitingTime The time limit to wait for a task in milliseconds,without checking for new tasks.
+     * @param size         The size of the task pool (number of executor threads).
+     * @param workStealing <b>True</b> to queue the tasks added by the executors in their own deques.
      */
-    public TaskPool(int size,int waitingTime)
+    public TaskPool(int size, boolean workStealing)
     {
-        this.waitingTime = waitingTime;
+        this(size, workStealing, new FifoTaskQueue());
+    }
 
-        this.isRunningSate = new VarSync<Boolean>(false);
+    /**
+     * Initializes a task pool with the specified size, scheduling mode and queue discipline. Also creates its executors
+     * in the paused state.
+     *
+     * @param size         The size of the task pool (number of executor threads).
+     * @param workStealing <b>True</b> to queue the tasks added by the executors in their own deques.
+     * @param waitingTasks The empty queue that decides in which order the waiting tasks run.
+     */
+    public TaskPool(int size, boolean workStealing, TaskQueue waitingTasks)
+    {
+        this(size, workStealing, waitingTasks, 0, RejectionPolicy.reject());
+    }
+
+    /**
+     * Initializes a task pool whose queue holds a bounded number of tasks. Also creates its executors in the paused
+     * state.
+     *
+     * @param size            The size of the task pool (number of executor threads).
+     * @param workStealing    <b>True</b> to queue the tasks added by the executors in their own deques.
+     * @param waitingTasks    The empty queue that decides in which order the waiting tasks run.
+     * @param capacity        The maximum number of waiting tasks, 0 for no maximum.
+     * @param rejectionPolicy What happens to a task added while the queue is full.
+     */
+    public TaskPool(int size, boolean workStealing, TaskQueue waitingTasks, int capacity, RejectionPolicy rejectionPolicy)
+    {
+        this.workStealing = workStealing;
+        this.capacity = Math.max( 0, capacity );
+        this.rejectionPolicy = rejectionPolicy;
+        this.rejectedTasks = new LongAdder();
+        this.spaceMonitor = new Object();
+        this.spaceWaiters = new AtomicInteger();
 
-        this.tasksRunning = new VarSync<Integer>(0);
+        this.tasksRunning = new LongAdder();
 
         this.taskExecutors = new VarSync<ArrayList<TaskExecutor>>( new ArrayList<TaskExecutor>(size) );
 
-        this.waitingTasks = new VarSync<  Queue<Runnable> >( new LinkedList<Runnable>() ) ;
-        this.awaitTasks = this.waitingTasks.getLock().newCondition();
-
+        this.waitingTasks = waitingTasks;
+        this.waitingSet = ConcurrentHashMap.newKeySet();
+        this.numberOfWaitingTasks = new AtomicInteger();
+        this.parkedExecutors = new ConcurrentLinkedQueue<TaskExecutor>();
+        this.retiredExecutors = ConcurrentHashMap.newKeySet();
 
         this.initializeTaskExecutors(size);
     }
 
     /**
-     * Initializes a task pool with the specified size and default waiting time of 100 milliseconds.
+     * Initializes a task pool with the specified size. Also creates its executors in the paused state.
      *
      * @param size The size of the task pool ( number of executor threads ).
      */
     public TaskPool(int size)
     {
-        this(size,100);
+        this(size, false);
     }
 
     /**
@@ -82,8 +181,9 @@ public class TaskPool {
     {
         for (int i = 0; i < numberOfExecutors ; i++)
         {
-            this.taskExecutors.asyncGet().add( new TaskExecutor(this.waitingTime));
+            this.taskExecutors.asyncGet().add( new TaskExecutor());
         }
+        this.executorArray = this.taskExecutors.asyncGet().toArray( new TaskExecutor[0] );
     }
 
     /**
@@ -91,21 +191,19 @@ public class TaskPool {
      */
     public void start()
     {
-        this.isRunningSate.lock();
+        this.taskExecutors.lock();
 
-        if( !this.isRunningSate.asyncGet() )
+        if( !this.running )
         {
-            this.taskExecutors.lock();
             for (int i = 0; i < this.taskExecutors.asyncGet().size() ; i++)
             {
                 this.taskExecutors.asyncGet().get(i).start();
             }
 
-            this.taskExecutors.unlock();
-            this.isRunningSate.asyncSet(true);
+            this.running = true;
         }
 
-        this.isRunningSate.unlock();
+        this.taskExecutors.unlock();
     }
 
     /**
@@ -113,21 +211,20 @@ public class TaskPool {
      */
     public void pause()
     {
-        this.isRunningSate.lock();
+        this.taskExecutors.lock();
 
-        if( this.isRunningSate.asyncGet() )
+        if( this.running )
         {
-            this.taskExecutors.lock();
             for (int i = 0; i < this.taskExecutors.asyncGet().size() ; i++)
             {
                 this.taskExecutors.asyncGet().get(i).pause();
+                LockSupport.unpark( this.taskExecutors.asyncGet().get(i) );
             }
 
-            this.taskExecutors.unlock();
-            this.isRunningSate.asyncSet(false);
+            this.running = false;
         }
 
-        this.isRunningSate.unlock();
+        this.taskExecutors.unlock();
     }
 
     /**
@@ -136,25 +233,268 @@ public class TaskPool {
      * @return <b>True</b> if the internal state is <b>paused</b> and all executors are <b>not executing</b>.
      */
     public boolean isPaused(){
-        return !isRunningSate.syncGet() && tasksRunning.syncGet() == 0 ;
+        return !this.running && this.tasksRunning.sum() == 0 ;
     }
 
     /**
-     * Adds a task to the pool only if <b>task</b> does <b>not</b> already exists in the poll
+     * Shuts the pool down gracefully: no task is accepted anymore, the waiting tasks still run and every executor stops
+     * once it finds the queue empty.
+     */
+    public void shutdown()
+    {
+        this.shutdown = true;
+        this.unparkExecutors();
+        this.signalSpace();
+    }
+
+    /**
+     * Shuts the pool down at once: no task is accepted anymore, the waiting tasks are removed and the executors stop
+     * after their current task. The running tasks are not interrupted.
+     *
+     * @return The tasks that were waiting, in the order they would have run.
+     */
+    public List<Runnable> shutdownNow()
+    {
+        this.shutdown = true;
+
+        List<Runnable> tasks = new ArrayList<>();
+        Runnable task;
+        while ( ( task = this.waitingTasks.poll() ) != null )
+        {
+            this.onTaskTaken(task);
+            tasks.add(task);
+        }
+        for ( TaskExecutor executor : this.executorArray )
+        {
+            while ( ( task = executor.localTasks.pollLast() ) != null )
+            {
+                this.onTaskTaken(task);
+                tasks.add(task);
+            }
+        }
+
+        this.pause();
+        this.unparkExecutors();
+        this.signalSpace();
+        return tasks;
+    }
+
+    /**
+     * Waits for the executors to stop after a shutdown, the removed executors still finishing a task included.
+     *
+     * @param timeout The maximum time to wait.
+     * @param unit    The unit of the timeout.
+     * @return <b>True</b> if every executor stopped, <b>false</b> if the timeout elapsed first.
+     * @throws InterruptedException If the calling thread is interrupted while waiting.
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for ( TaskExecutor executor : this.getAllExecutors() )
+        {
+            TimeUnit.NANOSECONDS.timedJoin( executor, deadline - System.nanoTime() );
+            if ( executor.isAlive() )
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return The executors of the pool followed by the removed executors that may still be finishing a task.
+     */
+    private List<TaskExecutor> getAllExecutors()
+    {
+        List<TaskExecutor> executors = new ArrayList<>( List.of( this.executorArray ) );
+        executors.addAll( this.retiredExecutors );
+        return executors;
+    }
+
+    /**
+     * @return <b>True</b> once the pool was shut down, it accepts no more tasks.
+     */
+    public boolean isShutdown()
+    {
+        return this.shutdown;
+    }
+
+    /**
+     * @return <b>True</b> if the pool was shut down and all its executors stopped.
+     */
+    public boolean isTerminated()
+    {
+        if ( !this.shutdown )
+            return false;
+
+        for ( TaskExecutor executor : this.getAllExecutors() )
+        {
+            if ( executor.isAlive() )
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Submits a task whose result is returned through a future.
+     * <p>
+     * Cancelling the future removes the task if it is still waiting, a task already running finishes but its result is
+     * dropped. The stages chained on the future without an executor run on the executors of this pool.
+     *
+     * @param task The task to run.
+     * @param <T>  The type of the result of the task.
+     * @return The future of the result of the task, completed exceptionally with a {@link RejectedExecutionException}
+     * if the pool was shut down.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task)
+    {
+        PoolFuture<T> future = new PoolFuture<>();
+        if ( this.shutdown )
+        {
+            future.completeExceptionally( new RejectedExecutionException( "The task pool was shut down" ) );
+            return future;
+        }
+
+        future.task = () -> {
+            if ( future.isDone() )
+                return;
+            try
+            {
+                future.complete( task.call() );
+            }
+            catch ( Throwable e )
+            {
+                future.completeExceptionally( e );
+            }
+        };
+        if ( !this.addTask( future.task ) )
+            future.completeExceptionally( new RejectedExecutionException( "The task pool rejected the task" ) );
+        return future;
+    }
+
+    /**
+     * Runs a task in the pool, the {@link Executor} view of {@link #addTask(Runnable)}.
+     *
+     * @param command The task to run.
+     * @throws RejectedExecutionException If the pool was shut down or rejected the task.
+     */
+    @Override
+    public void execute(Runnable command)
+    {
+        if ( !this.addTask( command ) )
+            throw new RejectedExecutionException( this.shutdown ? "The task pool was shut down" : "The task pool rejected the task" );
+    }
+
+    /**
+     * Adds a task to the pool only if <b>task</b> does <b>not</b> already exists in the poll. A pool that was shut
+     * down ignores the task. When the queue is full, the rejection policy decides what happens to the task.
      *
      * @param task , task to be executed in the pool;
+     * @return <b>True</b> if the task is waiting in the pool or was run by the rejection policy, <b>false</b> if it was
+     * rejected.
+     */
+    public boolean addTask(Runnable task)
+    {
+        if ( this.shutdown )
+            return false;
+
+        if ( this.offerTask(task) || this.rejectionPolicy.onFull(task, this) )
+            return true;
+
+        this.rejectedTasks.increment();
+        return false;
+    }
+
+    /**
+     * Adds a task if the queue has room, without applying the rejection policy.
+     *
+     * @param task The task to add.
+     * @return <b>True</b> if the task is waiting in the pool, <b>false</b> if the queue is full or the pool was shut
+     * down.
      */
-    public void addTask(Runnable task)
+    boolean offerTask(Runnable task)
     {
-        this.waitingTasks.lock();
+        if ( this.shutdown )
+            return false;
+        if ( !this.waitingSet.add(task) )
+            return true;
+        if ( !this.reserveSlot() )
+        {
+            this.waitingSet.remove(task);
+            return false;
+        }
+
+        TaskExecutor owner = this.getCurrentExecutor();
+        if ( owner != null )
+            owner.localTasks.offerFirst(task);
+        else
+            this.waitingTasks.offer(task);
+
+        // a shutdown that drained the queue meanwhile would leave the task behind
+        if ( this.shutdown && this.removeTask(task) )
+            return false;
 
-        if ( !this.waitingTasks.asyncGet().contains(task) )
+        this.unparkExecutor();
+        return true;
+    }
+
+    /**
+     * Counts a new waiting task, if the queue has room for it.
+     *
+     * @return <b>True</b> if the task may be queued.
+     */
+    private boolean reserveSlot()
+    {
+        while ( true )
         {
-            this.waitingTasks.asyncGet().add(task);
-            this.awaitTasks.signal();
+            int waiting = this.numberOfWaitingTasks.get();
+            if ( this.capacity > 0 && waiting >= this.capacity )
+                return false;
+            if ( this.numberOfWaitingTasks.compareAndSet( waiting, waiting + 1 ) )
+                return true;
         }
+    }
+
+    /**
+     * Removes the task the queue discipline drops first to make room for a new one, see {@link TaskQueue#pollToDrop()},
+     * and hands it to the drop listener.
+     *
+     * @return The dropped task, null if no task is waiting in the shared queue.
+     */
+    Runnable dropOldest()
+    {
+        Runnable task = this.waitingTasks.pollToDrop();
+        if ( task == null )
+            return null;
 
-        this.waitingTasks.unlock();
+        this.onTaskTaken(task);
+        this.rejectedTasks.increment();
+
+        Consumer<Runnable> listener = this.dropListener;
+        if ( listener != null )
+            listener.accept(task);
+        return task;
+    }
+
+    /**
+     * Waits until a waiting task leaves the queue or the time runs out.
+     *
+     * @param nanos The maximum time to wait in nanoseconds.
+     * @throws InterruptedException If the calling thread is interrupted while waiting.
+     */
+    void awaitSpace(long nanos) throws InterruptedException
+    {
+        this.spaceWaiters.incrementAndGet();
+        try
+        {
+            synchronized ( this.spaceMonitor )
+            {
+                if ( !this.shutdown && this.capacity > 0 && this.numberOfWaitingTasks.get() >= this.capacity )
+                    TimeUnit.NANOSECONDS.timedWait( this.spaceMonitor, nanos );
+            }
+        }
+        finally
+        {
+            this.spaceWaiters.decrementAndGet();
+        }
     }
 
     /**
@@ -165,19 +505,145 @@ public class TaskPool {
      */
     public boolean removeTask(Runnable taskToRemove)
     {
-        boolean executing = this.isTaskRunning(taskToRemove);
-        boolean removed;
+        if ( this.isTaskRunning(taskToRemove) || !( this.waitingTasks.remove(taskToRemove) || this.removeLocalTask(taskToRemove) ) )
+            return false;
 
-        this.waitingTasks.lock();
+        this.onTaskTaken(taskToRemove);
+        return true;
+    }
 
-        if ( !executing && this.waitingTasks.asyncGet().contains(taskToRemove) )
-            removed = this.waitingTasks.asyncGet().remove(taskToRemove);
-        else
-            removed = false;
+    /**
+     * Removes the most recently queued task, the one that would wait the longest, so it can run elsewhere. The tasks
+     * left in the queue keep their order.
+     *
+     * @return The removed task, null if no task is waiting.
+     */
+    public Runnable stealTask()
+    {
+        Runnable task = this.waitingTasks.pollLast();
+        if ( task != null )
+            this.onTaskTaken(task);
+
+        return task;
+    }
+
+    /**
+     * Takes the next task of an executor: the most recent task of its own deque, else the oldest task of the shared
+     * queue, else the oldest task of the deque of another executor.
+     *
+     * @param executor The executor asking for a task.
+     * @return The task, null if no task is waiting.
+     */
+    private Runnable pollTask(TaskExecutor executor)
+    {
+        Runnable task = executor.localTasks.pollFirst();
+        if ( task == null )
+            task = this.waitingTasks.poll();
+        if ( task == null && this.workStealing )
+            task = this.stealFromExecutor(executor);
+
+        if ( task != null )
+            this.onTaskTaken(task);
+
+        return task;
+    }
+
+    /**
+     * Takes the oldest task of the deque of another executor, starting with a random one.
+     *
+     * @param thief The executor that has nothing to run.
+     * @return The task, null if the deques of the other executors are empty.
+     */
+    private Runnable stealFromExecutor(TaskExecutor thief)
+    {
+        TaskExecutor[] executors = this.executorArray;
+        if ( executors.length == 0 )
+            return null;
+
+        int start = ThreadLocalRandom.current().nextInt( executors.length );
+        for ( int i = 0; i < executors.length; i++ )
+        {
+            TaskExecutor victim = executors[ (start + i) % executors.length ];
+            if ( victim == thief )
+                continue;
+
+            Runnable task = victim.localTasks.pollLast();
+            if ( task != null )
+                return task;
+        }
+        return null;
+    }
+
+    /**
+     * @param task The task to remove.
+     * @return <b>True</b> if the task was waiting in the deque of an executor and was removed.
+     */
+    private boolean removeLocalTask(Runnable task)
+    {
+        if ( !this.workStealing )
+            return false;
+
+        for ( TaskExecutor executor : this.executorArray )
+        {
+            if ( executor.localTasks.remove(task) )
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return The running executor of this pool that calls the method, null if the pool is not in the work stealing
+     * mode or the caller is not one of its executors.
+     */
+    private TaskExecutor getCurrentExecutor()
+    {
+        if ( this.workStealing && Thread.currentThread() instanceof TaskExecutor executor && executor.getPool() == this && executor.isRunning() )
+            return executor;
+        return null;
+    }
+
+    /**
+     * Unparks one of the executors waiting for a task.
+     */
+    private void unparkExecutor()
+    {
+        TaskExecutor parked = this.parkedExecutors.poll();
+        if ( parked != null )
+            LockSupport.unpark(parked);
+    }
 
-        this.waitingTasks.unlock();
+    /**
+     * Unparks all the executors, so they see a change of the state of the pool.
+     */
+    private void unparkExecutors()
+    {
+        for ( TaskExecutor executor : this.executorArray )
+            LockSupport.unpark(executor);
+    }
+
+    /**
+     * Forgets a task that left the queue, it can be added again.
+     *
+     * @param task The task taken from the queue.
+     */
+    private void onTaskTaken(Runnable task)
+    {
+        this.numberOfWaitingTasks.decrementAndGet();
+        this.waitingSet.remove(task);
+
+        if ( this.spaceWaiters.get() > 0 )
+            this.signalSpace();
+    }
 
-        return removed;
+    /**
+     * Wakes up the threads waiting for room in the queue, e.g. after a task left it or the pool was shut down.
+     */
+    private void signalSpace()
+    {
+        synchronized ( this.spaceMonitor )
+        {
+            this.spaceMonitor.notifyAll();
+        }
     }
 
     /**
@@ -188,18 +654,12 @@ public class TaskPool {
      */
     public boolean isTaskRunning(Runnable task){
 
-        this.taskExecutors.lock();
-        for( int iTaskExecutor = 0; iTaskExecutor < this.taskExecutors.asyncGet().size(); iTaskExecutor++)
+        for ( TaskExecutor executor : this.executorArray )
         {
-            Runnable currentTask = this.taskExecutors.asyncGet().get(iTaskExecutor).getCurrentTask();
+            Runnable currentTask = executor.getCurrentTask();
             if( currentTask != null && currentTask.equals( task ))
-            {
-                this.taskExecutors.unlock();
                 return true;
-            }
-
         }
-        this.taskExecutors.unlock();
         return false;
     }
 
@@ -211,15 +671,14 @@ public class TaskPool {
      */
     public void addExecutors(int numberOfExecutors)
     {
-        this.isRunningSate.lock();
         this.taskExecutors.lock();
 
-        if( this.isRunningSate.asyncGet() )
+        if( this.running )
         {
             TaskExecutor executor;
             for (int i = 0; i < numberOfExecutors; i++)
             {
-                executor = new TaskExecutor(this.waitingTime);
+                executor = new TaskExecutor();
                 this.taskExecutors.asyncGet().add( executor );
                 executor.start();
             }
@@ -228,12 +687,12 @@ public class TaskPool {
         {
             for (int i = 0; i < numberOfExecutors; i++)
             {
-                this.taskExecutors.asyncGet().add( new TaskExecutor(this.waitingTime));
+                this.taskExecutors.asyncGet().add( new TaskExecutor());
             }
         }
 
+        this.executorArray = this.taskExecutors.asyncGet().toArray( new TaskExecutor[0] );
         this.taskExecutors.unlock();
-        this.isRunningSate.unlock();
     }
 
     /**
@@ -253,13 +712,20 @@ public class TaskPool {
             return false;
         }
 
+        // the executors that stopped since the last removal are forgotten, the others are awaited on termination
+        this.retiredExecutors.removeIf( executor -> !executor.isAlive() );
+
         TaskExecutor executer;
         for (int i = 0; i < numberOfExecutors; i++)
         {
             executer = this.taskExecutors.asyncGet().remove( this.taskExecutors.asyncGet().size() - 1);
             executer.pause();
+            if ( executer.isAlive() )
+                this.retiredExecutors.add( executer );
+            LockSupport.unpark( executer );
         }
 
+        this.executorArray = this.taskExecutors.asyncGet().toArray( new TaskExecutor[0] );
         this.taskExecutors.unlock();
         return true;
     }
@@ -270,7 +736,7 @@ public class TaskPool {
      * @return The size of the pool.
      */
     public int getSize(){
-        return this.taskExecutors.syncGet().size();
+        return this.executorArray.length;
     }
 
     /**
@@ -280,7 +746,7 @@ public class TaskPool {
      */
     public int getNumberOfRunningTasks()
     {
-        return this.tasksRunning.syncGet();
+        return this.tasksRunning.intValue();
     }
 
     /**
@@ -290,11 +756,84 @@ public class TaskPool {
      */
     public int getNumberOfWaitingTasks()
     {
-        return this.waitingTasks.syncGet().size();
+        return this.numberOfWaitingTasks.get();
+    }
+
+    /**
+     * @return The maximum number of waiting tasks, 0 if the queue is not bounded.
+     */
+    public int getCapacity()
+    {
+        return this.capacity;
+    }
+
+    /**
+     * Gets the number of tasks rejected by the rejection policy or dropped to make room for a new task.
+     *
+     * @return The number of tasks rejected or dropped since the pool was created.
+     */
+    public long getNumberOfRejectedTasks()
+    {
+        return this.rejectedTasks.sum();
+    }
+
+    /**
+     * Sets the listener of the tasks dropped from the queue to make room for a new one, e.g. to tell the client of the
+     * task. The listener runs in the thread adding the new task.
+     *
+     * @param dropListener The listener, null for none.
+     */
+    public void setDropListener(Consumer<Runnable> dropListener)
+    {
+        this.dropListener = dropListener;
     }
 
+    /**
+     * Sets the listener of the tasks that ended with an exception. The executor that ran the task keeps running the
+     * next ones. The listener runs in the executor thread. Without a listener the failure goes to the uncaught
+     * exception handler of the executor thread.
+     *
+     * @param failureListener The listener, null for none.
+     */
+    public void setFailureListener(BiConsumer<Runnable, Throwable> failureListener)
+    {
+        this.failureListener = failureListener;
+    }
+
+
+
+
+    /**
+     * The future of a task submitted to the pool. Cancelling it removes the task from the queue, and the stages chained
+     * on it run on the executors of the pool by default.
+     *
+     * @param <T> The type of the result of the task.
+     */
+    private class PoolFuture<T> extends CompletableFuture<T> {
+
+        private volatile Runnable task;
 
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning)
+        {
+            boolean cancelled = super.cancel( mayInterruptIfRunning );
+            if ( cancelled && this.task != null )
+                removeTask( this.task );
+            return cancelled;
+        }
 
+        @Override
+        public Executor defaultExecutor()
+        {
+            return TaskPool.this;
+        }
+
+        @Override
+        public <U> CompletableFuture<U> newIncompleteFuture()
+        {
+            return new PoolFuture<>();
+        }
+    }
 
     /**
      * Represents a worker thread responsible for executing tasks in the TaskPool.
@@ -318,21 +857,18 @@ public class TaskPool {
      */
     private class TaskExecutor extends Thread{
 
-        private Runnable currentTask;
-        private final int waitingTime;
-        private VarSync<Boolean> isPaused;
+        private volatile Runnable currentTask;
+        private final AtomicBoolean isPaused;
+        private final ConcurrentLinkedDeque<Runnable> localTasks;
 
         /**
-         * Initializes a new TaskExecutor with the specified waiting time.
-         *
-         * @param waitingTime The time to wait for a task in milliseconds when
-         *                    checking for new tasks.
+         * Initializes a new TaskExecutor in the paused state.
          */
-        public TaskExecutor(int waitingTime)
+        public TaskExecutor()
         {
             super();
-            isPaused = new VarSync<Boolean>(true);
-            this.waitingTime = waitingTime;
+            this.isPaused = new AtomicBoolean(true);
+            this.localTasks = new ConcurrentLinkedDeque<Runnable>();
         }
 
         /**
@@ -342,15 +878,8 @@ public class TaskPool {
         @Override
         public void start()
         {
-            this.isPaused.lock();
-            if ( this.isPaused.asyncGet() )
-            {
-                this.isPaused.asyncSet(false);
-                this.isPaused.unlock();
-
+            if ( this.isPaused.compareAndSet(true, false) )
                 super.start();
-            } else
-                this.isPaused.unlock();
         }
 
         /**
@@ -360,12 +889,7 @@ public class TaskPool {
          */
         public void pause()
         {
-            this.isPaused.lock();
-            if( !this.isPaused.asyncGet())
-            {
-                this.isPaused.asyncSet(true);
-            }
-            this.isPaused.unlock();
+            this.isPaused.set(true);
         }
 
         @Override
@@ -375,13 +899,68 @@ public class TaskPool {
             {
                 this.currentTask = this.pickNextTask();
 
-                if ( this.isPaused.syncGet() )
-                    break;
+                // paused while waiting, or interrupted
+                if ( this.currentTask == null )
+                    continue;
 
                 this.startTask();
-                this.currentTask.run();
-                this.endTask();
+                try
+                {
+                    this.currentTask.run();
+                }
+                catch ( RuntimeException e )
+                {
+                    this.reportFailure( this.currentTask, e );
+                }
+                finally
+                {
+                    this.endTask();
+                }
+            }
+
+            this.releaseLocalTasks();
+        }
+
+        /**
+         * Hands a task that ended with an exception to the failure listener of the pool, or to the uncaught exception
+         * handler of the executor thread if there is none.
+         *
+         * @param task    The task.
+         * @param failure The exception thrown by the task.
+         */
+        private void reportFailure(Runnable task, Throwable failure)
+        {
+            BiConsumer<Runnable, Throwable> listener = failureListener;
+            if ( listener != null )
+                listener.accept( task, failure );
+            else
+                this.getUncaughtExceptionHandler().uncaughtException( this, failure );
+        }
+
+        /**
+         * Moves the tasks left in the deque of a paused executor to the head of the shared queue, oldest first, so the
+         * other executors run them.
+         */
+        private void releaseLocalTasks()
+        {
+            Runnable task;
+            boolean released = false;
+            while ( ( task = this.localTasks.pollFirst() ) != null )
+            {
+                waitingTasks.offerFirst( task );
+                released = true;
             }
+
+            if ( released )
+                unparkExecutor();
+        }
+
+        /**
+         * @return The pool the executor belongs to.
+         */
+        public TaskPool getPool()
+        {
+            return TaskPool.this;
         }
 
         /**
@@ -389,42 +968,39 @@ public class TaskPool {
          */
         public boolean isRunning()
         {
-            return !isPaused.syncGet();
+            return !this.isPaused.get();
         }
 
         /**
          * Picks the next task from the task queue for execution.
          *
-         * <p>If no tasks are available and the TaskExecutor is running, it will
-         * wait for a signal that a new task is available.
-         * <p>At the interval of <b>waitingTime</b> will check is a new task is available.
+         * <p>If no tasks are available and the TaskExecutor is running, it parks until a new task or a change of the
+         * state of the pool unparks it, an idle executor does not use the CPU. Once the pool is shut down, an executor
+         * that finds no task stops.
          *
-         * @return The next task to be executed, or null if no tasks are available.
+         * @return The next task to be executed, or null if the executor was paused or woke up without a task.
          */
         private Runnable pickNextTask()
         {
-            Runnable task = null;
-            try
-            {
-                waitingTasks.lock();
-
-                while( waitingTasks.asyncGet().isEmpty() && this.isRunning())
-                {
-                    awaitTasks.await( this.waitingTime,TimeUnit.MILLISECONDS );
-                }
-
-                if (!waitingTasks.asyncGet().isEmpty()){
-                    task = waitingTasks.asyncGet().poll();
-                }
-
-                waitingTasks.unlock();
-
-            }
-            catch (InterruptedException e)
-            {
-                System.out.println("A Thread has been Interrupted while waiting for tasks!");
-                e.printStackTrace();
-            }
+            // a paused executor leaves the remaining tasks to the others
+            if ( !this.isRunning() )
+                return null;
+
+            Runnable task = pollTask( this );
+            if ( task != null )
+                return task;
+
+            // the queue is checked again once parked executors can be seen, so a task added meanwhile is not missed
+            parkedExecutors.offer( this );
+            task = pollTask( this );
+            if ( task == null && shutdown )
+                this.pause();
+            else if ( task == null && this.isRunning() )
+                LockSupport.park( this );
+
+            // the unpark of a task taken without parking may have been meant for another executor
+            if ( !parkedExecutors.remove( this ) && task != null && numberOfWaitingTasks.get() > 0 )
+                unparkExecutor();
 
             return task;
         }
@@ -436,10 +1012,7 @@ public class TaskPool {
          */
         private void startTask()
         {
-            tasksRunning.lock();
-            tasksRunning.asyncSet(tasksRunning.asyncGet() + 1);
-            System.out.println(tasksRunning.asyncGet());
-            tasksRunning.unlock();
+            tasksRunning.increment();
         }
 
         /**
@@ -449,9 +1022,7 @@ public class TaskPool {
          */
         private void endTask()
         {
-            tasksRunning.lock();
-            tasksRunning.asyncSet(tasksRunning.asyncGet() - 1);
-            tasksRunning.unlock();
+            tasksRunning.decrement();
 
             this.currentTask = null;
         }
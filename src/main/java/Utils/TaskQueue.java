@@ -0,0 +1,82 @@
+package Utils;
+
+/**
+ * The queue discipline of a {@link TaskPool}: the order in which the waiting tasks run.
+ * <p>
+ * The task pool keeps a task at most once in its queue, so an implementation does not check for duplicates. All the
+ * methods may be called by several threads at once.
+ * </p>
+ */
+public interface TaskQueue {
+
+    /**
+     * Adds a task behind the tasks of the same rank.
+     *
+     * @param task The task to add.
+     */
+    void offer(Runnable task);
+
+    /**
+     * Gives back a task that was taken from a queue but did not run, ahead of the tasks of the same rank.
+     *
+     * @param task The task to give back.
+     */
+    void offerFirst(Runnable task);
+
+    /**
+     * Removes the task to run next.
+     *
+     * @return The task, null if no task is waiting.
+     */
+    Runnable poll();
+
+    /**
+     * Removes the task that would wait the longest, the one to hand to another pool.
+     *
+     * @return The task, null if no task is waiting.
+     */
+    Runnable pollLast();
+
+    /**
+     * Removes the task to drop to make room for a new one when the queue is full. By default the task that would wait
+     * the longest, so a ranked discipline drops its least urgent task and never the one it would run next.
+     *
+     * @return The task, null if no task is waiting.
+     */
+    default Runnable pollToDrop()
+    {
+        return this.pollLast();
+    }
+
+    /**
+     * Removes a waiting task.
+     *
+     * @param task The task to remove.
+     * @return <b>True</b> if the task was waiting and was removed.
+     */
+    boolean remove(Runnable task);
+
+    /**
+     * Creates a queue from the name of its discipline in the configuration.
+     *
+     * @param name {@code fifo}, {@code priority}, {@code deadline} or {@code fair}
+     * @return A new empty queue.
+     * @throws IllegalArgumentException If there is no discipline with that name.
+     */
+    static TaskQueue forName(String name)
+    {
+        switch ( name )
+        {
+            case "fifo":
+                return new FifoTaskQueue();
+            case "priority":
+                return new PriorityTaskQueue();
+            case "deadline":
+                return new DeadlineTaskQueue();
+            case "fair":
+                return new FairShareTaskQueue();
+            default:
+                throw new IllegalArgumentException( "Unknown queue discipline: " + name );
+        }
+    }
+}
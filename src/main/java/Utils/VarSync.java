@@ -5,11 +5,15 @@ import java.util.concurrent.locks.ReentrantLock;
 /**
  * Generic Class that merges a var and a lock. Util when we need to sync a single variable.
  * Useful when synchronization of a single variable is required.
+ * <p>
+ * The variable is volatile, so {@link #asyncGet()} sees the last value set by any thread without taking the lock. Use
+ * it for reads that do not need to wait for an update in progress, e.g. a flag checked on every loop iteration.
+ * </p>
  * @param <T> Type of the variable.
  */
 public class VarSync<T>{
 
-    private T value;
+    private volatile T value;
     private final ReentrantLock lock;
 
     /**
@@ -73,7 +77,8 @@ public class VarSync<T>{
 
     /**
      * Retrieves the current value of the variable without acquiring the lock.
-     * Useful in a multi-statement context where <b>already acquired the lock</b>.
+     * Useful in a multi-statement context where <b>already acquired the lock</b>, or to read the last value set without
+     * waiting for the lock.
      *
      * @return The current value of the stored variable.
      */
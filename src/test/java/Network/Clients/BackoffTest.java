@@ -0,0 +1,43 @@
+package Network.Clients;
+
+import Network.Client.Backoff;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BackoffTest {
+
+    @Test
+    @DisplayName("Delay doubles with each attempt and keeps half of it fixed")
+    void testDelayGrowth()
+    {
+        Backoff backoff = new Backoff(100, 10000);
+
+        for (int attempt = 0; attempt < 5; attempt++)
+        {
+            long expected = 100L << attempt;
+            long delay = backoff.getDelay(attempt);
+            assertTrue( delay >= expected / 2 && delay <= expected, "attempt " + attempt + " delay " + delay );
+        }
+    }
+
+    @Test
+    @DisplayName("Delay is limited by the maximum")
+    void testDelayLimit()
+    {
+        Backoff backoff = new Backoff(100, 1000);
+
+        assertTrue( backoff.getDelay(10) <= 1000 );
+        assertTrue( backoff.getDelay(200) <= 1000 );
+        assertTrue( backoff.getDelay(200) >= 500 );
+    }
+
+    @Test
+    @DisplayName("Invalid parameters")
+    void testInvalidParameters()
+    {
+        assertThrows( IllegalArgumentException.class, () -> new Backoff(-1, 10) );
+        assertThrows( IllegalArgumentException.class, () -> new Backoff(100, 10) );
+    }
+}
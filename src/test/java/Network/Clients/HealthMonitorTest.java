@@ -0,0 +1,117 @@
+package Network.Clients;
+
+import Network.Client.CircuitBreaker;
+import Network.Client.HealthMonitor;
+import Network.Server.InMemoryLoadTracker;
+import Network.Server.Server;
+import Utils.Parser.Config;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HealthMonitorTest {
+
+    private static final int UP_PORT = 1070;
+    private static final int DOWN_PORT = 1071;
+
+    private InMemoryLoadTracker tracker;
+    private HealthMonitor healthMonitor;
+    private Server server;
+
+    @BeforeEach
+    void setUp()
+    {
+        Config config = new Config();
+        config.setHealthProbeTimeout( 2000 );
+        config.setBreakerFailureThreshold( 2 );
+        config.setBreakerOpenTimeout( 1000 );
+
+        tracker = new InMemoryLoadTracker();
+        server = new Server( "Healthy", UP_PORT, 1, tracker );
+        server.start();
+        // a server that is tracked but does not listen
+        tracker.addEntry( DOWN_PORT, 0, 0 );
+
+        healthMonitor = new HealthMonitor( tracker, config );
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Circuit breaker opens after the threshold and closes after a successful trial")
+    void testCircuitBreaker()
+    {
+        CircuitBreaker breaker = new CircuitBreaker( 2, 1000 );
+        breaker.recordFailure( 0 );
+        assertEquals( CircuitBreaker.State.CLOSED, breaker.getState() );
+        breaker.recordSuccess();
+        breaker.recordFailure( 0 );
+        assertEquals( CircuitBreaker.State.CLOSED, breaker.getState(), "A success resets the failures" );
+
+        breaker.recordFailure( 100 );
+        assertEquals( CircuitBreaker.State.OPEN, breaker.getState() );
+        assertFalse( breaker.tryTrial( 500 ) );
+
+        assertTrue( breaker.tryTrial( 1100 ) );
+        assertEquals( CircuitBreaker.State.HALF_OPEN, breaker.getState() );
+        assertFalse( breaker.tryTrial( 1100 ), "Only one trial at a time" );
+
+        breaker.recordFailure( 1200 );
+        assertEquals( CircuitBreaker.State.OPEN, breaker.getState(), "A failed trial opens the breaker again" );
+        assertFalse( breaker.tryTrial( 2100 ) );
+
+        assertTrue( breaker.tryTrial( 2200 ) );
+        breaker.recordSuccess();
+        assertEquals( CircuitBreaker.State.CLOSED, breaker.getState() );
+    }
+
+    @Test
+    @DisplayName("A server that does not answer the probes is excluded from the selection")
+    void testProbeOpensBreaker()
+    {
+        healthMonitor.probeServers( 0 );
+        assertEquals( CircuitBreaker.State.CLOSED, healthMonitor.getState( DOWN_PORT ) );
+
+        healthMonitor.probeServers( 100 );
+        assertEquals( CircuitBreaker.State.OPEN, healthMonitor.getState( DOWN_PORT ) );
+        assertEquals( CircuitBreaker.State.CLOSED, healthMonitor.getState( UP_PORT ) );
+
+        for ( int i = 0; i < 10; i++ )
+        {
+            assertEquals( UP_PORT, healthMonitor.selectServer( List.of() ) );
+            assertEquals( UP_PORT, healthMonitor.getServerWithLessLoad() );
+        }
+        assertEquals( -1, healthMonitor.reserveServer( List.of( UP_PORT ) ) );
+    }
+
+    @Test
+    @DisplayName("Failures reported by the clients open the breaker and a probe closes it again")
+    void testReportedFailures()
+    {
+        healthMonitor.recordFailure( UP_PORT );
+        healthMonitor.recordFailure( UP_PORT );
+        assertEquals( CircuitBreaker.State.OPEN, healthMonitor.getState( UP_PORT ) );
+        assertTrue( healthMonitor.getUnavailableServers().contains( UP_PORT ) );
+
+        healthMonitor.probeServers( System.currentTimeMillis() + 2000 );
+        assertEquals( CircuitBreaker.State.CLOSED, healthMonitor.getState( UP_PORT ), "The half open trial was answered" );
+    }
+
+    @Test
+    @DisplayName("Breakers of servers that are no longer tracked are forgotten")
+    void testForgetRemovedServers()
+    {
+        healthMonitor.recordFailure( DOWN_PORT );
+        healthMonitor.recordFailure( DOWN_PORT );
+        tracker.removeEntry( DOWN_PORT );
+
+        healthMonitor.probeServers( 0 );
+        assertTrue( healthMonitor.getUnavailableServers().isEmpty() );
+    }
+}
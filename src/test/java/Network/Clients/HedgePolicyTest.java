@@ -0,0 +1,79 @@
+package Network.Clients;
+
+import Network.Client.HedgePolicy;
+import Network.Client.HedgedTile;
+import Network.Client.SlaveClient;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class HedgePolicyTest {
+
+    @Test
+    @DisplayName("The hedge delay is the configured percentile once enough latencies were observed")
+    void testHedgeDelay()
+    {
+        HedgePolicy policy = new HedgePolicy( 90, 10, 10 );
+        for ( int latency = 1; latency < 10; latency++ )
+            policy.recordLatency( latency * 10 );
+        assertEquals( -1, policy.getHedgeDelay(), "Not enough samples yet" );
+
+        policy.recordLatency( 100 );
+        assertEquals( 100, policy.getHedgeDelay() );
+
+        policy.recordLatency( 5 );
+        assertEquals( 90, policy.getHedgeDelay() );
+    }
+
+    @Test
+    @DisplayName("Hedges are capped to the maximum share of the tiles")
+    void testHedgeRate()
+    {
+        HedgePolicy policy = new HedgePolicy( 95, 10, 1 );
+        for ( int i = 0; i < 19; i++ )
+            policy.onTileStarted();
+
+        assertTrue( policy.tryHedge() );
+        assertFalse( policy.tryHedge(), "A second hedge needs 20 tiles" );
+
+        policy.onTileStarted();
+        assertTrue( policy.tryHedge() );
+        assertEquals( 2, policy.getHedges() );
+        assertEquals( 0.1, policy.getHedgeRate(), 1e-9 );
+    }
+
+    @Test
+    @DisplayName("A disabled policy never hedges")
+    void testDisabled()
+    {
+        HedgePolicy policy = new HedgePolicy( 0, 10, 1 );
+        policy.onTileStarted();
+        policy.recordLatency( 10 );
+
+        assertFalse( policy.isEnabled() );
+        assertEquals( -1, policy.getHedgeDelay() );
+        assertFalse( policy.tryHedge() );
+    }
+
+    @Test
+    @DisplayName("The first slave to answer wins the tile and the other one is the loser")
+    void testHedgedTile()
+    {
+        SlaveClient primary = mock( SlaveClient.class );
+        SlaveClient hedge = mock( SlaveClient.class );
+        HedgedTile tile = new HedgedTile();
+        tile.setPrimary( primary );
+        assertFalse( tile.isWon() );
+        assertNull( tile.getLoser(), "Not won yet" );
+
+        tile.setHedge( hedge );
+        assertTrue( tile.tryWin( hedge ) );
+        assertFalse( tile.tryWin( primary ), "Only the first response wins" );
+        assertTrue( tile.isWonByHedge() );
+        assertSame( primary, tile.getLoser() );
+
+        long latency = tile.getLatency();
+        assertEquals( latency, tile.getLatency(), "The latency stops when the tile is won" );
+    }
+}
@@ -0,0 +1,185 @@
+package Network.Clients;
+
+import Network.Client.SlaveClient;
+import Network.Server.LoadTrackerReader;
+import Network.Server.Response;
+import Utils.Image.SplitImage;
+import Utils.Parser.Config;
+import org.junit.jupiter.api.*;
+
+import java.awt.image.BufferedImage;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class SlaveClientTest {
+
+    private static final int CLOSED_PORT = 1090;
+    private static final int DROPPING_PORT = 1091;
+    private static final int FIRST_THIEF_PORT = 1092;
+    private static final int SECOND_THIEF_PORT = 1093;
+
+    private LoadTrackerReader reader;
+    private Config config;
+
+    @BeforeEach
+    void setUp()
+    {
+        reader = mock( LoadTrackerReader.class );
+        config = new Config();
+        config.setMaxRetries( 0 );
+    }
+
+    private SlaveClient createSlave()
+    {
+        SplitImage splitImage = new SplitImage( (short) 0, (short) 0, new BufferedImage( 4, 4, BufferedImage.TYPE_INT_RGB ) );
+        return new SlaveClient( new BufferedImage[1][1], splitImage, "Slave", reader, config, "job", 0 );
+    }
+
+    /**
+     * Accepts one connection, reads the request and closes the connection without answering, like a server that was
+     * closed while the request was queued.
+     */
+    private Thread startDroppingServer( ServerSocket serverSocket )
+    {
+        return startDroppingServer( serverSocket, new CountDownLatch( 1 ), new CountDownLatch( 0 ) );
+    }
+
+    /**
+     * Like {@link #startDroppingServer(ServerSocket)}, but closes the connection only once {@code close} is released.
+     */
+    private Thread startDroppingServer( ServerSocket serverSocket, CountDownLatch read, CountDownLatch close )
+    {
+        Thread thread = new Thread( () -> {
+            try ( Socket socket = serverSocket.accept() )
+            {
+                ObjectOutputStream out = new ObjectOutputStream( socket.getOutputStream() );
+                out.flush();
+                new ObjectInputStream( socket.getInputStream() ).readObject();
+                read.countDown();
+                close.await();
+            }
+            catch ( Exception ignored ) {}
+        } );
+        thread.start();
+        return thread;
+    }
+
+    @Test
+    @DisplayName("The reservation is released when the request could not reach the server")
+    void testReleaseUnsentReservation() throws InterruptedException
+    {
+        when( reader.reserveServer( anyCollection(), any() ) ).thenReturn( CLOSED_PORT, -1 );
+
+        SlaveClient slave = createSlave();
+        slave.start();
+        slave.join( 5000 );
+
+        verify( reader ).releaseReservation( CLOSED_PORT );
+        verify( reader ).recordFailure( CLOSED_PORT );
+    }
+
+    @Test
+    @DisplayName("The reservation of a request read by the server is not released, the server confirmed it")
+    void testKeepSentReservation() throws Exception
+    {
+        when( reader.reserveServer( anyCollection(), any() ) ).thenReturn( DROPPING_PORT, -1 );
+
+        try ( ServerSocket serverSocket = new ServerSocket( DROPPING_PORT ) )
+        {
+            Thread server = startDroppingServer( serverSocket );
+            SlaveClient slave = createSlave();
+            slave.start();
+            slave.join( 5000 );
+            server.join( 5000 );
+        }
+
+        verify( reader, never() ).releaseReservation( anyInt() );
+    }
+
+    @Test
+    @DisplayName("A request abandoned by an interrupted slave is not counted as a failure of the server")
+    void testAbandonedRequestIsNotFailure() throws Exception
+    {
+        when( reader.reserveServer( anyCollection(), any() ) ).thenReturn( DROPPING_PORT, -1 );
+        CountDownLatch read = new CountDownLatch( 1 );
+        CountDownLatch close = new CountDownLatch( 1 );
+
+        try ( ServerSocket serverSocket = new ServerSocket( DROPPING_PORT ) )
+        {
+            Thread server = startDroppingServer( serverSocket, read, close );
+            SlaveClient slave = createSlave();
+            slave.start();
+            assertTrue( read.await( 5, TimeUnit.SECONDS ) );
+
+            // a cancel interrupts the slave, then the server closes the cancelled connection
+            slave.interrupt();
+            close.countDown();
+            slave.join( 5000 );
+            server.join( 5000 );
+        }
+
+        verify( reader, never() ).recordFailure( anyInt() );
+    }
+
+    /**
+     * Answers every connection with a {@link Response#STOLEN} response to another server and counts the connections.
+     */
+    private Thread startStealingServer( ServerSocket serverSocket, int redirectPort, AtomicInteger connections )
+    {
+        Thread thread = new Thread( () -> {
+            while ( !serverSocket.isClosed() )
+            {
+                try ( Socket socket = serverSocket.accept() )
+                {
+                    connections.incrementAndGet();
+                    ObjectOutputStream out = new ObjectOutputStream( socket.getOutputStream() );
+                    out.flush();
+                    new ObjectInputStream( socket.getInputStream() ).readObject();
+                    Response response = new Response( Response.STOLEN, null );
+                    response.setRedirectPort( redirectPort );
+                    out.writeObject( response );
+                    out.flush();
+                }
+                catch ( Exception ignored ) {}
+            }
+        } );
+        thread.start();
+        return thread;
+    }
+
+    @Test
+    @DisplayName("A tile follows a single redirect, servers stealing it back and forth do not bounce it")
+    void testRedirectLimit() throws Exception
+    {
+        config.setMaxRetries( 2 );
+        config.setBackoffBase( 1 );
+        config.setBackoffMax( 1 );
+        when( reader.reserveServer( anyCollection(), any() ) ).thenReturn( FIRST_THIEF_PORT, -1 );
+        AtomicInteger first = new AtomicInteger();
+        AtomicInteger second = new AtomicInteger();
+
+        try ( ServerSocket firstSocket = new ServerSocket( FIRST_THIEF_PORT );
+              ServerSocket secondSocket = new ServerSocket( SECOND_THIEF_PORT ) )
+        {
+            startStealingServer( firstSocket, SECOND_THIEF_PORT, first );
+            startStealingServer( secondSocket, FIRST_THIEF_PORT, second );
+
+            SlaveClient slave = createSlave();
+            slave.start();
+            slave.join( 5000 );
+            assertFalse( slave.isAlive() );
+        }
+
+        assertEquals( 1, first.get() );
+        assertEquals( 1, second.get(), "The redirect from the second server is not followed" );
+    }
+}
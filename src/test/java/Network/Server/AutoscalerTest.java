@@ -0,0 +1,116 @@
+package Network.Server;
+
+import Utils.Events.Enums.EventTypes;
+import Utils.Events.Enums.ServerStates;
+import Utils.Events.Event;
+import Utils.Events.MockObserver;
+import Utils.Events.ServerEvent;
+import Utils.Parser.Config;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AutoscalerTest {
+
+    private static final int START_PORT = 1050;
+
+    private InMemoryLoadTracker tracker;
+    private ServersHandler serversHandler;
+    private Autoscaler autoscaler;
+    private MockObserver mockObserver;
+
+    @BeforeEach
+    void setUp()
+    {
+        Config config = new Config();
+        config.setStartPort( START_PORT );
+        config.setServerAmount( 1 );
+        config.setMaxServersNumber( 2 );
+        config.setTaskPoolSize( 2 );
+        config.setScaleUpQueue( 2 );
+        config.setScaleDownUtilization( 25 );
+        config.setScaleDownIdlePeriod( 1000 );
+        config.setScaleCooldown( 500 );
+
+        tracker = new InMemoryLoadTracker();
+        serversHandler = new ServersHandler( config, tracker, tracker );
+        serversHandler.startConfigServer();
+        mockObserver = new MockObserver();
+        serversHandler.addObserver( mockObserver );
+        autoscaler = new Autoscaler( serversHandler, tracker, config );
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        serversHandler.closeAllServers();
+    }
+
+    @Test
+    @DisplayName("Adds a server when the queue per executor goes over the threshold")
+    void testScaleUp()
+    {
+        tracker.update( START_PORT, 2, 4 );
+        assertEquals( -1, autoscaler.check( 0 ), "2 tiles waiting per executor is not over the threshold" );
+
+        tracker.update( START_PORT, 2, 5 );
+        assertEquals( START_PORT + 1, autoscaler.check( 0 ) );
+        assertEquals( List.of( START_PORT, START_PORT + 1 ), serversHandler.getServerPorts() );
+        assertEquals( 1, countEvents( ServerStates.SCALE_UP ) );
+
+        tracker.update( START_PORT, 2, 20 );
+        assertEquals( -1, autoscaler.check( 1000 ), "The maximum number of servers is reached" );
+        assertEquals( 2, serversHandler.getNUmberOfSevers() );
+    }
+
+    @Test
+    @DisplayName("Removes a server only after a sustained idle period and the cooldown")
+    void testScaleDown()
+    {
+        tracker.update( START_PORT, 2, 10 );
+        assertEquals( START_PORT + 1, autoscaler.check( 0 ) );
+        tracker.update( START_PORT, 0, 0 );
+
+        assertEquals( -1, autoscaler.check( 100 ), "The servers just became idle" );
+        assertEquals( -1, autoscaler.check( 900 ), "The servers are not idle for the whole period" );
+
+        tracker.update( START_PORT, 2, 0 );
+        assertEquals( -1, autoscaler.check( 1000 ), "A busy check restarts the idle period" );
+        tracker.update( START_PORT, 0, 0 );
+        assertEquals( -1, autoscaler.check( 1100 ) );
+        assertEquals( -1, autoscaler.check( 2000 ) );
+
+        assertEquals( START_PORT + 1, autoscaler.check( 2100 ) );
+        assertEquals( List.of( START_PORT ), serversHandler.getServerPorts() );
+        assertEquals( 1, countEvents( ServerStates.SCALE_DOWN ) );
+
+        assertEquals( -1, autoscaler.check( 5000 ), "The configured amount of servers is kept" );
+    }
+
+    @Test
+    @DisplayName("Waits for the cooldown between two decisions")
+    void testCooldown()
+    {
+        tracker.update( START_PORT, 2, 10 );
+        assertEquals( START_PORT + 1, autoscaler.check( 0 ) );
+        tracker.update( START_PORT, 0, 0 );
+
+        assertEquals( -1, autoscaler.check( 1200 ), "The idle period started at the first check" );
+        assertEquals( START_PORT + 1, autoscaler.check( 1200 + 1000 ) );
+
+        tracker.update( START_PORT, 2, 10 );
+        assertEquals( -1, autoscaler.check( 2400 ), "Still cooling down" );
+        assertEquals( START_PORT + 1, autoscaler.check( 2700 ) );
+    }
+
+    private long countEvents(ServerStates state)
+    {
+        return mockObserver.getEvents().stream()
+                .filter( event -> event.getType() == EventTypes.SERVER )
+                .map( event -> (ServerEvent) event )
+                .filter( event -> event.getServerState() == state )
+                .count();
+    }
+}
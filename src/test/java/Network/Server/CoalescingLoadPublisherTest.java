@@ -0,0 +1,113 @@
+package Network.Server;
+
+import Utils.Events.MockObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CoalescingLoadPublisherTest {
+
+    private static final int PORT = 8888;
+    private static final int THRESHOLD = 2;
+    private static final long MAX_STALENESS = 50;
+
+    private InMemoryLoadTracker tracker;
+    private MockObserver observer;
+    private CoalescingLoadPublisher publisher;
+
+    @BeforeEach
+    public void setUp() {
+        tracker = new InMemoryLoadTracker();
+        observer = new MockObserver();
+        tracker.addObserver(observer);
+        publisher = new CoalescingLoadPublisher(tracker, THRESHOLD, MAX_STALENESS);
+        publisher.addEntry(PORT, 0, 0);
+    }
+
+    @Test
+    @DisplayName("Running testThresholdAndIdleChangesPublishAtOnce")
+    public void testThresholdAndIdleChangesPublishAtOnce() {
+        publisher.update(PORT, 1, 0);
+        assertEquals(1, tracker.getLoad(PORT));
+
+        publisher.update(PORT, 1, 1);
+        assertEquals(1, tracker.getLoad(PORT));
+
+        publisher.update(PORT, 1, 2);
+        assertEquals(3, tracker.getLoad(PORT));
+
+        publisher.update(PORT, 0, 0);
+        assertEquals(0, tracker.getLoad(PORT));
+        assertEquals(3, observer.getEvents().size());
+    }
+
+    @Test
+    @DisplayName("Running testMaxStaleness")
+    public void testMaxStaleness() throws InterruptedException {
+        publisher.update(PORT, 4, 0);
+        publisher.update(PORT, 4, 1);
+        publisher.updateLatency(PORT, 2.5, 1.0);
+        assertEquals(4, tracker.getLoad(PORT));
+
+        Thread.sleep(MAX_STALENESS * 4);
+        assertEquals(5, tracker.getLoad(PORT));
+        assertEquals(2.5, tracker.getServerLoads().get(0).getServiceTime());
+    }
+
+    @Test
+    @DisplayName("Running testConfirmPublishesHeldLoad")
+    public void testConfirmPublishesHeldLoad() {
+        publisher.update(PORT, 4, 0);
+        tracker.reserveServer(List.of());
+        publisher.update(PORT, 4, 1);
+        assertEquals(0, tracker.getServerLoads().get(0).getWaiting());
+        assertEquals(5, tracker.getLoad(PORT), "The reservation counts the request held back");
+
+        // the admitted request is counted in the load before its reservation is dropped
+        publisher.confirmReservation(PORT);
+        assertEquals(1, tracker.getServerLoads().get(0).getWaiting());
+        assertEquals(0, tracker.getServerLoads().get(0).getPending());
+        assertEquals(5, tracker.getLoad(PORT));
+    }
+
+    @Test
+    @DisplayName("Running testNothingPublishedAfterRemove")
+    public void testNothingPublishedAfterRemove() throws InterruptedException {
+        publisher.update(PORT, 4, 0);
+        publisher.update(PORT, 4, 1);
+        publisher.removeEntry(PORT);
+
+        Thread.sleep(MAX_STALENESS * 2);
+        assertEquals(-1, tracker.getLoad(PORT));
+        assertTrue(tracker.getServerLoads().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Running testWriteVolumeUnderSteadyLoad")
+    public void testWriteVolumeUnderSteadyLoad() {
+        // a busy server: every tile is admitted (+1) and answered (-1) around a slowly moving level
+        Random random = new Random(5);
+        int level = 10;
+        long end = System.currentTimeMillis() + 4 * MAX_STALENESS;
+        while (System.currentTimeMillis() < end) {
+            if (random.nextInt(1000) == 0)
+                level = Math.max(1, level + random.nextInt(3) - 1);
+
+            int waiting = level + random.nextInt(2);
+            publisher.update(PORT, 4, waiting);
+
+            // the published load is never off by the threshold or more
+            assertTrue(Math.abs(tracker.getLoad(PORT) - (4 + waiting)) < THRESHOLD);
+        }
+
+        long updates = publisher.getUpdateCount();
+        long writes = publisher.getWriteCount();
+        System.out.printf("load updates: %d, tracker writes: %d%n", updates, writes);
+        assertTrue(updates > writes * 100, updates + " updates, " + writes + " writes");
+    }
+}
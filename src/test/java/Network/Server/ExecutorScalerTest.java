@@ -0,0 +1,122 @@
+package Network.Server;
+
+import Utils.Parser.Config;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ExecutorScalerTest {
+
+    private Server server;
+    private ExecutorScaler scaler;
+
+    @BeforeEach
+    void setUp()
+    {
+        Config config = new Config();
+        config.setMaxExecutors( 3 );
+        config.setExecutorQueueWait( 50 );
+        config.setExecutorKeepAlive( 1000 );
+
+        server = mock( Server.class );
+        when( server.getCapacity() ).thenReturn( 1 );
+        when( server.tryAddExecutor() ).thenReturn( true );
+        scaler = new ExecutorScaler( server, 1, config );
+    }
+
+    @Test
+    @DisplayName("Adds an executor while the expected queue wait is above the target")
+    void testGrow()
+    {
+        when( server.getRunningTasks() ).thenReturn( 1 );
+        when( server.getWaitingTasks() ).thenReturn( 2 );
+        when( server.getServiceTime() ).thenReturn( 20.0 );
+        assertEquals( 0, scaler.check( 0 ), "2 waiting tasks of 20 ms make a wait of 40 ms" );
+
+        when( server.getServiceTime() ).thenReturn( 30.0 );
+        assertEquals( 1, scaler.check( 100 ) );
+
+        when( server.getServiceTime() ).thenReturn( 0.0 );
+        when( server.getQueueWait() ).thenReturn( 80.0 );
+        assertEquals( 1, scaler.check( 200 ), "The measured queue wait counts too" );
+
+        when( server.getCapacity() ).thenReturn( 3 );
+        assertEquals( 0, scaler.check( 300 ), "The maximum is reached" );
+        verify( server, times( 2 ) ).tryAddExecutor();
+    }
+
+    @Test
+    @DisplayName("Does not grow when the budget refuses")
+    void testBudgetRefuses()
+    {
+        when( server.tryAddExecutor() ).thenReturn( false );
+        when( server.getRunningTasks() ).thenReturn( 1 );
+        when( server.getWaitingTasks() ).thenReturn( 5 );
+        when( server.getServiceTime() ).thenReturn( 100.0 );
+
+        assertEquals( 0, scaler.check( 0 ) );
+    }
+
+    @Test
+    @DisplayName("Retires one added executor per keep-alive once idle")
+    void testRetire()
+    {
+        when( server.getCapacity() ).thenReturn( 3 );
+        when( server.getRunningTasks() ).thenReturn( 3 );
+        assertEquals( 0, scaler.check( 0 ), "All the executors are busy" );
+
+        when( server.getRunningTasks() ).thenReturn( 1 );
+        assertEquals( 0, scaler.check( 500 ) );
+        assertEquals( -1, scaler.check( 1000 ) );
+
+        when( server.getCapacity() ).thenReturn( 2 );
+        assertEquals( 0, scaler.check( 1500 ), "The keep-alive restarts after a retirement" );
+        assertEquals( -1, scaler.check( 2000 ) );
+
+        when( server.getCapacity() ).thenReturn( 1 );
+        assertEquals( 0, scaler.check( 5000 ), "The configured size is kept" );
+        verify( server, times( 2 ) ).removeExecutor();
+    }
+
+    @Test
+    @DisplayName("The budget grants added executors only while it has room")
+    void testBudget()
+    {
+        ExecutorBudget budget = new ExecutorBudget( 3 );
+        budget.reserve( 4 );
+        assertFalse( budget.tryAcquire() );
+
+        budget.release( 2 );
+        assertTrue( budget.tryAcquire() );
+        assertFalse( budget.tryAcquire() );
+        assertEquals( 3, budget.getInUse() );
+    }
+
+    @Test
+    @DisplayName("A server counts its executors against the budget while it runs")
+    void testServerBudget() throws IOException
+    {
+        String path = "load_infoTestExecutors.temp";
+        ServerLoadTracker.getInstance().setFilePath( path );
+        ExecutorBudget budget = new ExecutorBudget( 3 );
+        Server realServer = new Server( "Elastic", 1060, 2, ServerLoadTracker.getInstance(), new Config(), budget );
+
+        realServer.start();
+        assertEquals( 2, budget.getInUse() );
+        assertTrue( realServer.tryAddExecutor() );
+        assertFalse( realServer.tryAddExecutor() );
+        assertEquals( 3, realServer.getCapacity() );
+
+        realServer.removeExecutor();
+        assertEquals( 2, budget.getInUse() );
+
+        realServer.close();
+        assertEquals( 0, budget.getInUse() );
+        Files.deleteIfExists( Paths.get( path ) );
+    }
+}
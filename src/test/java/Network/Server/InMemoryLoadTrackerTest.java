@@ -0,0 +1,224 @@
+package Network.Server;
+
+import Utils.Events.Enums.EventTypes;
+import Utils.Events.MockObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryLoadTrackerTest {
+
+    private InMemoryLoadTracker tracker;
+
+    @BeforeEach
+    public void setUp() {
+        tracker = new InMemoryLoadTracker();
+        tracker.addEntry(8888, 4, 5);
+        tracker.addEntry(10000, 7, 8);
+    }
+
+    @Test
+    @DisplayName("Running testReadLoadInfo")
+    public void testReadLoadInfo() {
+        assertEquals("8888=4,5\n10000=7,8\n", tracker.readLoadInfo());
+    }
+
+    @Test
+    @DisplayName("Running testUpdate")
+    public void testUpdate() {
+        MockObserver observer = new MockObserver();
+        tracker.addObserver(observer);
+
+        tracker.update(8888, 6, 9);
+
+        assertEquals("8888=6,9\n10000=7,8\n", tracker.readLoadInfo());
+        assertEquals(1, observer.getEvents().size());
+        assertEquals(EventTypes.LOAD_UPDATE, observer.getEvents().get(0).getType());
+    }
+
+    @Test
+    @DisplayName("Running testRemoveEntry")
+    public void testRemoveEntry() {
+        tracker.removeEntry(8888);
+        tracker.addEntry(789, 3, 6);
+        tracker.removeEntry(789);
+        assertEquals("10000=7,8\n", tracker.readLoadInfo());
+        assertEquals(-1, tracker.getLoad(8888));
+    }
+
+    @Test
+    @DisplayName("Running testGetLoad")
+    public void testGetLoad() {
+        assertEquals(9, tracker.getLoad(8888));
+        assertEquals(-1, tracker.getLoad(1));
+    }
+
+    @Test
+    @DisplayName("Running testGetLowestLow")
+    public void testGetLowestLow() {
+        assertEquals(8888, tracker.getServerWithLessLoad());
+        tracker.addEntry(123, 1, 0);
+        assertEquals(123, tracker.getServerWithLessLoad());
+        assertEquals(8888, tracker.getServerWithLessLoad(List.of(123)));
+        assertEquals(-1, tracker.getServerWithLessLoad(List.of(123, 8888, 10000)));
+    }
+
+    @Test
+    @DisplayName("Running testReservations")
+    public void testReservations() {
+        tracker.setSelectionStrategy(new LeastLoadedStrategy());
+
+        assertEquals(8888, tracker.reserveServer(List.of()));
+        assertEquals(10, tracker.getLoad(8888));
+        assertEquals(1, tracker.getServerLoads().get(0).getPending());
+
+        tracker.confirmReservation(8888);
+        tracker.releaseReservation(8888);
+        assertEquals(9, tracker.getLoad(8888));
+        assertEquals(-1, tracker.reserveServer(List.of(8888, 10000)));
+        assertEquals("8888=4,5\n10000=7,8\n", tracker.readLoadInfo());
+    }
+
+    @Test
+    @DisplayName("Running testConcurrentReservationsSpreadEvenly")
+    public void testConcurrentReservationsSpreadEvenly() throws InterruptedException {
+        tracker = new InMemoryLoadTracker();
+        tracker.setSelectionStrategy(new LeastLoadedStrategy());
+        for (int port = 1; port <= 4; port++)
+            tracker.addEntry(port, 0, 0);
+
+        // 16 slaves of an image choose at once, before any server admits their request
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] slaves = new Thread[16];
+        for (int i = 0; i < slaves.length; i++) {
+            slaves[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                tracker.reserveServer(List.of());
+            });
+            slaves[i].start();
+        }
+        start.countDown();
+        for (Thread slave : slaves)
+            slave.join();
+
+        for (ServerLoad load : tracker.getServerLoads())
+            assertEquals(4, load.getPending(), load.getPort() + " got " + load.getPending());
+    }
+
+    @Test
+    @DisplayName("Running testConcurrentReservationsTakeDistinctIdleServers")
+    public void testConcurrentReservationsTakeDistinctIdleServers() throws InterruptedException {
+        int servers = 8;
+        // a slow choice leaves time for the other slaves to choose before the reservation is counted
+        LeastLoadedStrategy leastLoaded = new LeastLoadedStrategy();
+        ServerSelectionStrategy slowLeastLoaded = (loads, excludedServers) -> {
+            int port = leastLoaded.select(loads, excludedServers);
+            Thread.yield();
+            return port;
+        };
+
+        for (int round = 0; round < 20; round++) {
+            tracker = new InMemoryLoadTracker();
+            tracker.setSelectionStrategy(slowLeastLoaded);
+            for (int port = 1; port <= servers; port++)
+                tracker.addEntry(port, 0, 0);
+
+            // as many slaves as idle servers reserve at once, each one gets a server of its own
+            CountDownLatch start = new CountDownLatch(1);
+            Set<Integer> reserved = ConcurrentHashMap.newKeySet();
+            Thread[] slaves = new Thread[servers];
+            for (int i = 0; i < slaves.length; i++) {
+                slaves[i] = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    reserved.add(tracker.reserveServer(List.of()));
+                });
+                slaves[i].start();
+            }
+            start.countDown();
+            for (Thread slave : slaves)
+                slave.join();
+
+            assertEquals(servers, reserved.size(), "round " + round + " reserved " + reserved);
+        }
+    }
+
+    @Test
+    @DisplayName("Running testUpdateLatency")
+    public void testUpdateLatency() {
+        tracker.updateLatency(8888, 2.5, 1.0);
+
+        ServerLoad load = tracker.getServerLoads().get(0);
+        assertEquals(2.5, load.getServiceTime());
+        assertEquals(1.0, load.getQueueWait());
+        assertEquals(9, load.getLoad());
+    }
+
+    @Test
+    @DisplayName("Running testUpdateRejected")
+    public void testUpdateRejected() {
+        tracker.updateRejected(8888, 3);
+
+        ServerLoad load = tracker.getServerLoads().get(0);
+        assertEquals(3, load.getRejected());
+        assertEquals(9, load.getLoad());
+    }
+
+    @Test
+    @DisplayName("Running testUpdateCapacity")
+    public void testUpdateCapacity() {
+        tracker.updateCapacity(10000, 4);
+
+        assertEquals(4, tracker.getServerLoads().get(1).getCapacity());
+        assertEquals(10000, tracker.getServerWithLessLoad());
+        assertEquals("8888=4,5\n10000=7,8\n", tracker.readLoadInfo());
+    }
+
+    @Test
+    @DisplayName("Running testSnapshots")
+    public void testSnapshots() throws IOException, InterruptedException {
+        Path path = Paths.get("load_info_snapshot.temp");
+
+        tracker.startSnapshots(path.toString(), 20);
+        Thread.sleep(100);
+        assertEquals("8888=4,5\n10000=7,8\n", Files.readString(path));
+
+        tracker.update(8888, 1, 0);
+        tracker.stopSnapshots();
+        assertEquals("8888=1,0\n10000=7,8\n", Files.readString(path));
+
+        Files.delete(path);
+    }
+
+    @Test
+    @DisplayName("Running testFailedSnapshotIsReported")
+    public void testFailedSnapshotIsReported() {
+        MockObserver observer = new MockObserver();
+        tracker.addObserver(observer);
+
+        // the directory of the load info file does not exist
+        tracker.startSnapshots(Paths.get("missing_directory", "load_info.temp").toString(), 20);
+        tracker.stopSnapshots();
+
+        assertFalse(observer.getEvents().isEmpty());
+        assertEquals(EventTypes.ERROR, observer.getEvents().get(0).getType());
+    }
+}
@@ -0,0 +1,196 @@
+package Network.Server;
+
+import Utils.Events.Enums.EventTypes;
+import Utils.Events.MockObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedLoadTrackerTest {
+
+    private static final String PATH = "load_info_mapped.temp";
+
+    private MappedLoadTracker tracker;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Files.deleteIfExists(Paths.get(PATH));
+        tracker = new MappedLoadTracker(PATH, 4);
+        tracker.addEntry(8888, 4, 5);
+        tracker.addEntry(10000, 7, 8);
+    }
+
+    @AfterEach
+    public void cleanUp() throws IOException {
+        Files.deleteIfExists(Paths.get(PATH));
+    }
+
+    @Test
+    @DisplayName("Running testReadLoadInfo")
+    public void testReadLoadInfo() {
+        assertEquals("8888=4,5\n10000=7,8\n", tracker.readLoadInfo());
+    }
+
+    @Test
+    @DisplayName("Running testUpdate")
+    public void testUpdate() {
+        MockObserver observer = new MockObserver();
+        tracker.addObserver(observer);
+
+        tracker.update(8888, 6, 9);
+
+        assertEquals("8888=6,9\n10000=7,8\n", tracker.readLoadInfo());
+        assertEquals(1, observer.getEvents().size());
+        assertEquals(EventTypes.LOAD_UPDATE, observer.getEvents().get(0).getType());
+        assertTrue(tracker.getTimestamp(8888) > 0);
+    }
+
+    @Test
+    @DisplayName("Running testRemoveEntryReusesRecord")
+    public void testRemoveEntryReusesRecord() {
+        tracker.removeEntry(8888);
+        assertEquals(-1, tracker.getLoad(8888));
+        assertEquals("10000=7,8\n", tracker.readLoadInfo());
+
+        tracker.addEntry(789, 3, 6);
+        assertEquals("789=3,6\n10000=7,8\n", tracker.readLoadInfo());
+    }
+
+    @Test
+    @DisplayName("Running testFullTable")
+    public void testFullTable() {
+        MockObserver observer = new MockObserver();
+        tracker.addObserver(observer);
+
+        tracker.addEntry(1, 0, 0);
+        tracker.addEntry(2, 0, 0);
+        tracker.addEntry(3, 0, 0);
+        assertEquals(-1, tracker.getLoad(3));
+        assertEquals(1, observer.getEvents().size());
+        assertEquals(EventTypes.ERROR, observer.getEvents().get(0).getType());
+    }
+
+    @Test
+    @DisplayName("Running testGetServerWithLessLoad")
+    public void testGetServerWithLessLoad() {
+        assertEquals(8888, tracker.getServerWithLessLoad());
+        assertEquals(10000, tracker.getServerWithLessLoad(List.of(8888)));
+        assertEquals(-1, tracker.getServerWithLessLoad(List.of(8888, 10000)));
+    }
+
+    @Test
+    @DisplayName("Running testReservations")
+    public void testReservations() throws IOException {
+        tracker.setSelectionStrategy(new LeastLoadedStrategy());
+        MappedLoadTracker other = new MappedLoadTracker(PATH, 4);
+
+        // a reservation of one process is seen by the others
+        assertEquals(8888, tracker.reserveServer(List.of()));
+        assertEquals(10, other.getLoad(8888));
+
+        other.confirmReservation(8888);
+        other.confirmReservation(8888);
+        assertEquals(9, tracker.getLoad(8888));
+        assertEquals(0, tracker.getServerLoads().get(0).getPending());
+    }
+
+    @Test
+    @DisplayName("Running testUpdateLatency")
+    public void testUpdateLatency() {
+        tracker.updateLatency(8888, 2.5, 1.0);
+
+        ServerLoad load = tracker.getServerLoads().get(0);
+        assertEquals(2.5, load.getServiceTime());
+        assertEquals(1.0, load.getQueueWait());
+        assertEquals(9, load.getLoad());
+    }
+
+    @Test
+    @DisplayName("Running testUpdateRejected")
+    public void testUpdateRejected() {
+        tracker.updateRejected(8888, 3);
+
+        ServerLoad load = tracker.getServerLoads().get(0);
+        assertEquals(3, load.getRejected());
+        assertEquals(9, load.getLoad());
+    }
+
+    @Test
+    @DisplayName("Running testUpdateCapacity")
+    public void testUpdateCapacity() {
+        tracker.updateCapacity(10000, 4);
+        tracker.update(10000, 7, 9);
+
+        assertEquals(4, tracker.getServerLoads().get(1).getCapacity());
+        assertEquals(10000, tracker.getServerWithLessLoad());
+    }
+
+    @Test
+    @DisplayName("Running testSharedBetweenMappings")
+    public void testSharedBetweenMappings() throws IOException {
+        MappedLoadTracker other = new MappedLoadTracker(PATH, 64);
+
+        assertEquals("8888=4,5\n10000=7,8\n", other.readLoadInfo());
+        other.update(10000, 1, 0);
+        assertEquals(1, tracker.getLoad(10000));
+        assertEquals(10000, tracker.getServerWithLessLoad());
+    }
+
+    @Test
+    @DisplayName("Running testConsistentRecordsUnderConcurrentWrites")
+    public void testConsistentRecordsUnderConcurrentWrites() throws InterruptedException {
+        // the writer always keeps running == waiting, a torn read would see them differ
+        tracker.update(8888, 0, 0);
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 200000; i++)
+                tracker.update(8888, i, i);
+        });
+        writer.start();
+
+        while (writer.isAlive()) {
+            String line = tracker.readLoadInfo().split("\n")[0];
+            String[] values = line.substring(line.indexOf('=') + 1).split(",");
+            assertEquals(values[0], values[1]);
+        }
+        writer.join();
+    }
+
+    @Test
+    @DisplayName("Running testRecordOfDeadWriterIsSkipped")
+    public void testRecordOfDeadWriterIsSkipped() throws IOException {
+        // a writer of another process died with the sequence of the first record odd
+        try (FileChannel channel = FileChannel.open(Paths.get(PATH), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+            INT.setVolatile(buffer, 64, (int) INT.getVolatile(buffer, 64) + 1);
+        }
+
+        long start = System.nanoTime();
+        assertEquals("10000=7,8\n", tracker.readLoadInfo());
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 100, "The locked record is skipped after a short wait");
+
+        // the record is known to be abandoned, the next selections do not wait for it
+        start = System.nanoTime();
+        for (int i = 0; i < 10; i++)
+            assertEquals(10000, tracker.getServerWithLessLoad());
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 100, "The abandoned record is skipped at once");
+
+        // the next writer takes the record over
+        tracker.update(8888, 1, 2);
+        assertEquals("8888=1,2\n10000=7,8\n", tracker.readLoadInfo());
+    }
+}
@@ -1,5 +1,6 @@
 package Network.Server;
 import Utils.Image.ImageTransformer;
+import Utils.ScheduledTask;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -91,6 +92,14 @@ public class RequestTest {
         }
     }
 
-
-
+    @Test
+    @DisplayName("Running testPriority")
+    public void testPriority() {
+        Request request = new Request(Request.PROCESS, "part", "job", 0, new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB));
+        assertEquals(ScheduledTask.PRIORITY_NORMAL, request.getPriority());
+
+        request.setPriority(ScheduledTask.priorityForName("interactive"));
+        assertEquals(ScheduledTask.PRIORITY_INTERACTIVE, request.getPriority());
+        assertThrows(IllegalArgumentException.class, () -> ScheduledTask.priorityForName("urgent"));
+    }
 }
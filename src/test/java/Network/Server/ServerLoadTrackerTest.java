@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import java.io.*;
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class ServerLoadTrackerTest {
@@ -50,6 +51,61 @@ public class ServerLoadTrackerTest {
         assertEquals(expectedLoadInfo, actualLoadInfo);
     }
 
+    @Test
+    @DisplayName("Running testUpdateCapacity")
+    public void testUpdateCapacity() {
+        ServerLoadTracker serverLoadTracker = ServerLoadTracker.getInstance();
+        serverLoadTracker.setFilePath(TEST_FILE_PATH);
+        serverLoadTracker.updateCapacity(8888, 8);
+        assertEquals("8888=4,5,8\n10000=7,8\n", serverLoadTracker.readLoadInfo());
+
+        // the capacity is kept by load updates and weighs the load in the selection
+        serverLoadTracker.update(8888, 6, 9);
+        assertEquals("8888=6,9,8\n10000=7,8\n", serverLoadTracker.readLoadInfo());
+        assertEquals(15, serverLoadTracker.getLoad(8888));
+        assertEquals(8888, serverLoadTracker.getServerWithLessLoad());
+    }
+
+    @Test
+    @DisplayName("Running testUpdateLatency")
+    public void testUpdateLatency() {
+        ServerLoadTracker serverLoadTracker = ServerLoadTracker.getInstance();
+        serverLoadTracker.setFilePath(TEST_FILE_PATH);
+        serverLoadTracker.updateLatency(10000, 2.5, 1.0);
+        assertEquals("8888=4,5\n10000=7,8,0,2.5,1.0\n", serverLoadTracker.readLoadInfo());
+
+        serverLoadTracker.updateCapacity(10000, 2);
+        serverLoadTracker.update(10000, 1, 1);
+        assertEquals("8888=4,5\n10000=1,1,2,2.5,1.0\n", serverLoadTracker.readLoadInfo());
+        assertEquals(2.5, serverLoadTracker.getServerLoads().get(1).getServiceTime());
+    }
+
+    @Test
+    @DisplayName("Running testUpdateRejected")
+    public void testUpdateRejected() {
+        ServerLoadTracker serverLoadTracker = ServerLoadTracker.getInstance();
+        serverLoadTracker.setFilePath(TEST_FILE_PATH);
+        serverLoadTracker.updateRejected(10000, 3);
+        assertEquals("8888=4,5\n10000=7,8,0,0,0,3\n", serverLoadTracker.readLoadInfo());
+        assertEquals(3, serverLoadTracker.getServerLoads().get(1).getRejected());
+    }
+
+    @Test
+    @DisplayName("Running testReservations")
+    public void testReservations() {
+        ServerLoadTracker serverLoadTracker = ServerLoadTracker.getInstance();
+        serverLoadTracker.setFilePath(TEST_FILE_PATH);
+        serverLoadTracker.setSelectionStrategy(new LeastLoadedStrategy());
+
+        assertEquals(8888, serverLoadTracker.reserveServer(List.of()));
+        assertEquals(1, serverLoadTracker.getServerLoads().get(0).getPending());
+        assertEquals(TEST_CONTENT, serverLoadTracker.readLoadInfo());
+
+        serverLoadTracker.releaseReservation(8888);
+        assertEquals(0, serverLoadTracker.getServerLoads().get(0).getPending());
+        serverLoadTracker.setSelectionStrategy(new PowerOfTwoChoicesStrategy());
+    }
+
     @Test
     @DisplayName("Running testAddEntry")
     public void testAddEntry() {
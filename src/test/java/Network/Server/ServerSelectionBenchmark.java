@@ -0,0 +1,69 @@
+package Network.Server;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Reports the cost of a server selection, with a load update between two selections, for each strategy at 8, 128 and
+ * 1024 servers of an in memory tracker.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class ServerSelectionBenchmark {
+
+    private static final int[] SERVER_COUNTS = { 8, 128, 1024 };
+    private static final int WARM_UP = 200_000;
+    private static final int SELECTIONS = 1_000_000;
+
+    @Test
+    @DisplayName("Server selection cost")
+    void benchmarkSelection()
+    {
+        Map<String, Supplier<ServerSelectionStrategy>> strategies = Map.of(
+                "leastLoaded", LeastLoadedStrategy::new,
+                "powerOfTwo", PowerOfTwoChoicesStrategy::new,
+                "minHeap", MinHeapStrategy::new );
+
+        System.out.printf( "%-12s %10s %22s%n", "strategy", "servers", "select + update (ns)" );
+
+        for ( String name : List.of( "leastLoaded", "powerOfTwo", "minHeap" ) )
+        {
+            for ( int servers : SERVER_COUNTS )
+            {
+                InMemoryLoadTracker tracker = new InMemoryLoadTracker();
+                tracker.setSelectionStrategy( strategies.get( name ).get() );
+                for ( int port = 1; port <= servers; port++ )
+                    tracker.addEntry( port, 0, 0 );
+
+                run( tracker, servers, WARM_UP );
+                long start = System.nanoTime();
+                run( tracker, servers, SELECTIONS );
+                long elapsed = System.nanoTime() - start;
+
+                System.out.printf( "%-12s %10d %22d%n", name, servers, elapsed / SELECTIONS );
+            }
+        }
+    }
+
+    /**
+     * Selects a server and changes the load of a random server, like a server updating its entry between two tiles.
+     */
+    private static void run( InMemoryLoadTracker tracker, int servers, int selections )
+    {
+        Random random = new Random( 1 );
+        for ( int i = 0; i < selections; i++ )
+        {
+            int port = tracker.selectServer( List.of() );
+            assertNotEquals( -1, port );
+            tracker.update( random.nextInt( servers ) + 1, random.nextInt( 8 ), random.nextInt( 16 ) );
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package Network.Server;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ServerSelectionStrategyTest {
+
+    private static final int SERVERS = 16;
+    private static final int SLAVES = 16;
+    private static final int IMAGES = 2000;
+
+    private static List<ServerLoad> createServers(int... loads) {
+        List<ServerLoad> servers = new ArrayList<>();
+        for (int i = 0; i < loads.length; i++)
+            servers.add(new ServerLoad(i + 1, 0, loads[i]));
+        return servers;
+    }
+
+    @Test
+    @DisplayName("Running testLeastLoaded")
+    public void testLeastLoaded() {
+        LeastLoadedStrategy strategy = new LeastLoadedStrategy();
+        List<ServerLoad> servers = createServers(3, 1, 2, 1);
+
+        assertEquals(4, strategy.select(servers, List.of()));
+        assertEquals(2, strategy.select(servers, List.of(4)));
+        assertEquals(-1, strategy.select(servers, List.of(1, 2, 3, 4)));
+        assertEquals(-1, strategy.select(List.of(), List.of()));
+    }
+
+    @Test
+    @DisplayName("Running testUtilization")
+    public void testUtilization() {
+        // 4 tasks on 8 executors are a lighter load than 2 tasks on 1 executor
+        List<ServerLoad> servers = List.of(new ServerLoad(1, 2, 0, 1), new ServerLoad(2, 4, 0, 8));
+
+        assertEquals(2, new LeastLoadedStrategy().select(servers, List.of()));
+        assertEquals(0.5, servers.get(1).getUtilization());
+        assertEquals(3.0, new ServerLoad(3, 1, 2).getUtilization());
+    }
+
+    @Test
+    @DisplayName("Running testProportionalToCapacity")
+    public void testProportionalToCapacity() {
+        // a server with 8 executors and one with 1, each executor processes a tile per round
+        List<ServerLoad> servers = List.of(new ServerLoad(1, 0, 0, 8), new ServerLoad(2, 0, 0, 1));
+        PowerOfTwoChoicesStrategy strategy = new PowerOfTwoChoicesStrategy(new Random(42));
+
+        int[] sent = new int[2];
+        for (int round = 0; round < IMAGES; round++) {
+            for (int tile = 0; tile < 9; tile++) {
+                ServerLoad chosen = servers.get(strategy.select(servers, List.of()) - 1);
+                chosen.set(0, chosen.getWaiting() + 1);
+                sent[chosen.getPort() - 1]++;
+            }
+            for (ServerLoad server : servers)
+                server.set(0, Math.max(0, server.getWaiting() - server.getCapacity()));
+        }
+
+        double share = (double) sent[0] / (sent[0] + sent[1]);
+        assertTrue(share > 0.8, "share of the 8 executors server: " + share);
+        assertTrue(servers.get(1).getWaiting() < 10);
+    }
+
+    @Test
+    @DisplayName("Running testCompletionTime")
+    public void testCompletionTime() {
+        CompletionTimeStrategy strategy = new CompletionTimeStrategy();
+
+        // 3 tasks at 1 ms complete before 1 task at 10 ms
+        List<ServerLoad> servers = List.of(new ServerLoad(1, 1, 0, 1, 10, 0), new ServerLoad(2, 1, 2, 1, 1, 0));
+        assertEquals(2, strategy.select(servers, List.of()));
+        assertEquals(1, strategy.select(servers, List.of(2)));
+
+        // a server without samples counts as average, so the idle one wins
+        servers = List.of(new ServerLoad(1, 1, 0, 1, 4, 0), new ServerLoad(2, 0, 0, 1, 0, 0));
+        assertEquals(2, strategy.select(servers, List.of()));
+        assertEquals(4.0, CompletionTimeStrategy.estimateCompletionTime(servers.get(1), 4));
+    }
+
+    @Test
+    @DisplayName("Running testCompletionTimeCountsOwnServiceOnOneExecutor")
+    public void testCompletionTimeCountsOwnServiceOnOneExecutor() {
+        // more executors shorten the wait ahead of a task, not the task itself
+        assertEquals(3.0, CompletionTimeStrategy.estimateCompletionTime(new ServerLoad(1, 0, 0, 8, 3, 0), 3));
+        assertEquals(3.0, CompletionTimeStrategy.estimateCompletionTime(new ServerLoad(2, 0, 0, 1, 3, 0), 3));
+        assertEquals(4.0, CompletionTimeStrategy.estimateCompletionTime(new ServerLoad(3, 4, 0, 4, 2, 0), 2));
+    }
+
+    @Test
+    @DisplayName("Running testCompletionTimeUsesQueueWait")
+    public void testCompletionTimeUsesQueueWait() {
+        CompletionTimeStrategy strategy = new CompletionTimeStrategy();
+
+        // same queue, but the tasks waiting on server 1 were measured to wait much longer than their count suggests
+        List<ServerLoad> servers = List.of(new ServerLoad(1, 1, 1, 1, 2, 50), new ServerLoad(2, 1, 2, 1, 2, 4));
+        assertEquals(2, strategy.select(servers, List.of()));
+        assertEquals(52.0, CompletionTimeStrategy.estimateCompletionTime(servers.get(0), 2));
+
+        // the wait measured while busy does not count against a server with nothing waiting
+        servers = List.of(new ServerLoad(1, 0, 0, 1, 2, 50), new ServerLoad(2, 1, 0, 1, 2, 0));
+        assertEquals(1, strategy.select(servers, List.of()));
+        assertEquals(2.0, CompletionTimeStrategy.estimateCompletionTime(servers.get(0), 2));
+    }
+
+    @Test
+    @DisplayName("Running testCompletionTimeLowersImageTailLatency")
+    public void testCompletionTimeLowersImageTailLatency() {
+        // one of four servers is four times slower
+        double[] serviceTimes = {1, 1, 1, 4};
+
+        double leastLoadedMakespan = simulateImage(new LeastLoadedStrategy(), serviceTimes);
+        double completionTimeMakespan = simulateImage(new CompletionTimeStrategy(), serviceTimes);
+
+        assertEquals(16, leastLoadedMakespan);
+        assertTrue(completionTimeMakespan <= 5, "image completion time: " + completionTimeMakespan);
+    }
+
+    /**
+     * Sends the 16 tiles of an image to idle servers of one executor each, every choice sees the previous ones.
+     *
+     * @return the time the last tile completes.
+     */
+    private static double simulateImage(ServerSelectionStrategy strategy, double[] serviceTimes) {
+        List<ServerLoad> servers = new ArrayList<>();
+        for (int i = 0; i < serviceTimes.length; i++)
+            servers.add(new ServerLoad(i + 1, 0, 0, 1, serviceTimes[i], 0));
+
+        double makespan = 0;
+        for (int tile = 0; tile < SLAVES; tile++) {
+            ServerLoad chosen = servers.get(strategy.select(servers, List.of()) - 1);
+            chosen.set(0, chosen.getWaiting() + 1);
+            makespan = Math.max(makespan, chosen.getWaiting() * chosen.getServiceTime());
+        }
+        return makespan;
+    }
+
+    @Test
+    @DisplayName("Running testMinHeapFollowsTracker")
+    public void testMinHeapFollowsTracker() {
+        InMemoryLoadTracker tracker = new InMemoryLoadTracker();
+        tracker.addEntry(1, 3, 0);
+        tracker.setSelectionStrategy(new MinHeapStrategy());
+        tracker.addEntry(2, 2, 0);
+        tracker.addEntry(3, 1, 0);
+
+        assertEquals(3, tracker.selectServer(List.of()));
+        assertEquals(2, tracker.selectServer(List.of(3)));
+
+        // increase-key and decrease-key
+        tracker.update(3, 5, 0);
+        tracker.updateCapacity(1, 4);
+        assertEquals(1, tracker.selectServer(List.of()));
+
+        // a reservation counts at once
+        tracker.update(2, 0, 0);
+        assertEquals(2, tracker.reserveServer(List.of()));
+        assertEquals(1, tracker.selectServer(List.of()));
+
+        tracker.removeEntry(1);
+        assertEquals(2, tracker.selectServer(List.of()));
+        assertEquals(-1, tracker.selectServer(List.of(2, 3)));
+    }
+
+    @Test
+    @DisplayName("Running testMinHeapWithoutTracker")
+    public void testMinHeapWithoutTracker() {
+        assertEquals(2, new MinHeapStrategy().select(createServers(3, 1, 2), List.of()));
+    }
+
+    @Test
+    @DisplayName("Running testPowerOfTwoChoicesPicksLessLoadedOfPair")
+    public void testPowerOfTwoChoicesPicksLessLoadedOfPair() {
+        PowerOfTwoChoicesStrategy strategy = new PowerOfTwoChoicesStrategy(new Random(7));
+        List<ServerLoad> servers = createServers(5, 0);
+
+        // with two servers the pair is the whole table unless both samples hit the same server
+        int lessLoaded = 0;
+        for (int i = 0; i < 1000; i++)
+            if (strategy.select(servers, List.of()) == 2)
+                lessLoaded++;
+        assertTrue(lessLoaded > 700);
+
+        // the most loaded server never wins a comparison, only a pair made of itself
+        servers = createServers(5, 0, 0, 0);
+        for (int i = 0; i < 1000; i++)
+            assertNotEquals(-1, strategy.select(servers, List.of()));
+    }
+
+    @Test
+    @DisplayName("Running testPowerOfTwoChoicesExclusions")
+    public void testPowerOfTwoChoicesExclusions() {
+        PowerOfTwoChoicesStrategy strategy = new PowerOfTwoChoicesStrategy(new Random(7));
+        List<ServerLoad> servers = createServers(0, 0, 0, 0, 0, 0, 0, 9);
+
+        for (int i = 0; i < 100; i++)
+            assertEquals(8, strategy.select(servers, List.of(1, 2, 3, 4, 5, 6, 7)));
+        assertEquals(-1, strategy.select(servers, List.of(1, 2, 3, 4, 5, 6, 7, 8)));
+        assertEquals(-1, strategy.select(List.of(), List.of()));
+    }
+
+    @Test
+    @DisplayName("Running testPowerOfTwoChoicesAvoidsHerding")
+    public void testPowerOfTwoChoicesAvoidsHerding() {
+        double leastLoadedVariance = simulate(new LeastLoadedStrategy());
+        double powerOfTwoVariance = simulate(new PowerOfTwoChoicesStrategy(new Random(42)));
+
+        System.out.printf("queue length variance: least loaded %.2f, power of two choices %.2f%n", leastLoadedVariance, powerOfTwoVariance);
+        assertTrue(powerOfTwoVariance * 4 < leastLoadedVariance);
+    }
+
+    /**
+     * Sends the tiles of many images, the slaves of an image all choose from the table as it was when the image started,
+     * and each server processes one tile per image.
+     *
+     * @return the mean variance of the queue lengths seen after each image was sent.
+     */
+    private static double simulate(ServerSelectionStrategy strategy) {
+        List<ServerLoad> servers = createServers(new int[SERVERS]);
+
+        double varianceSum = 0;
+        for (int image = 0; image < IMAGES; image++) {
+            List<ServerLoad> snapshot = new ArrayList<>();
+            for (ServerLoad server : servers)
+                snapshot.add(new ServerLoad(server.getPort(), server.getRunning(), server.getWaiting()));
+
+            for (int slave = 0; slave < SLAVES; slave++) {
+                ServerLoad chosen = servers.get(strategy.select(snapshot, List.of()) - 1);
+                chosen.set(0, chosen.getWaiting() + 1);
+            }
+
+            double mean = servers.stream().mapToInt(ServerLoad::getLoad).average().orElse(0);
+            varianceSum += servers.stream().mapToDouble(server -> Math.pow(server.getLoad() - mean, 2)).average().orElse(0);
+
+            for (ServerLoad server : servers)
+                server.set(0, Math.max(0, server.getWaiting() - 1));
+        }
+        return varianceSum / IMAGES;
+    }
+
+    @Test
+    @DisplayName("Running testConsistentHashKeepsKeysOnTheirServer")
+    public void testConsistentHashKeepsKeysOnTheirServer() {
+        ConsistentHashStrategy strategy = new ConsistentHashStrategy(100, 2);
+        List<ServerLoad> servers = createServers(0, 0, 0, 0);
+
+        int[] owners = new int[1000];
+        int[] keysPerServer = new int[5];
+        for (int key = 0; key < owners.length; key++) {
+            owners[key] = strategy.select(servers, List.of(), "tile " + key);
+            assertEquals(owners[key], strategy.select(servers, List.of(), "tile " + key), "A key always goes to the same server");
+            keysPerServer[owners[key]]++;
+        }
+        for (int port = 1; port <= 4; port++)
+            assertTrue(keysPerServer[port] > 150, "The virtual nodes spread the keys, server " + port + " has " + keysPerServer[port]);
+
+        // removing a server only moves its own keys
+        List<ServerLoad> remaining = servers.subList(0, 3);
+        for (int key = 0; key < owners.length; key++) {
+            int owner = strategy.select(remaining, List.of(), "tile " + key);
+            if (owners[key] != 4)
+                assertEquals(owners[key], owner);
+            else
+                assertNotEquals(4, owner);
+        }
+    }
+
+    @Test
+    @DisplayName("Running testConsistentHashBoundedLoad")
+    public void testConsistentHashBoundedLoad() {
+        ConsistentHashStrategy strategy = new ConsistentHashStrategy(100, 2);
+        List<ServerLoad> servers = createServers(0, 0, 0);
+        int owner = strategy.select(servers, List.of(), "job");
+        ServerLoad preferred = servers.get(owner - 1);
+
+        preferred.set(0, 2);
+        assertEquals(owner, strategy.select(servers, List.of(), "job"), "Within the bound the key keeps its server");
+
+        preferred.set(0, 3);
+        int fallback = strategy.select(servers, List.of(), "job");
+        assertNotEquals(owner, fallback, "Above the bound the least loaded server is chosen");
+        assertEquals(0, servers.get(fallback - 1).getLoad());
+
+        assertNotEquals(owner, strategy.select(servers, List.of(owner), "job"), "An excluded server is skipped");
+        assertEquals(-1, strategy.select(servers, List.of(1, 2, 3), "job"));
+        assertEquals(0, servers.get(strategy.select(servers, List.of(), null) - 1).getLoad(), "Without a key the least loaded server wins");
+    }
+}
@@ -6,11 +6,17 @@ import Utils.Events.MockObserver;
 import Utils.Events.Event;
 
 import Utils.Events.ServerEvent;
+import Utils.Parser.Config;
 import org.junit.jupiter.api.*;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.Socket;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -127,4 +133,350 @@ public class ServerTest {
 
     }
 
+    @Test
+    @DisplayName("Testing BUSY response when the queue is full")
+    public void testBusyWhenQueueFull() throws Exception
+    {
+        Config config = new Config();
+        config.setQueueCapacity(1);
+        config.setRetryAfter(50);
+        Server busyServer = new Server("BusyServer", 1026, 1, loadTraker, config);
+        busyServer.start();
+
+        BufferedImage image = new BufferedImage(10,10, BufferedImage.TYPE_INT_RGB );
+
+        // keeps the only executor occupied while the connection stays open
+        Socket running = new Socket("localhost", 1026);
+        ObjectOutputStream runningOut = new ObjectOutputStream(running.getOutputStream());
+        ObjectInputStream runningIn = new ObjectInputStream(running.getInputStream());
+        runningOut.writeObject( new Request("Ask","running",image) );
+        assertEquals( Response.OK, ((Response) runningIn.readObject()).getStatus() );
+
+        // waits in the queue
+        Socket waiting = new Socket("localhost", 1026);
+        ObjectOutputStream waitingOut = new ObjectOutputStream(waiting.getOutputStream());
+        ObjectInputStream waitingIn = new ObjectInputStream(waiting.getInputStream());
+        waitingOut.writeObject( new Request("Ask","waiting",image) );
+        awaitWaiting( busyServer, 1 );
+
+        // refused
+        Socket refused = new Socket("localhost", 1026);
+        ObjectOutputStream refusedOut = new ObjectOutputStream(refused.getOutputStream());
+        ObjectInputStream refusedIn = new ObjectInputStream(refused.getInputStream());
+        refusedOut.writeObject( new Request("Ask","refused",image) );
+        Response response = (Response) refusedIn.readObject();
+
+        assertEquals( Response.BUSY, response.getStatus() );
+        assertEquals( "refused", response.getMessage() );
+        assertEquals( 100, response.getRetryAfter() );
+
+        running.close();
+        assertEquals( Response.OK, ((Response) waitingIn.readObject()).getStatus() );
+        waiting.close();
+        refused.close();
+
+        // a reserved request is confirmed even when it is refused
+        Socket reserved = new Socket("localhost", 1026);
+        ObjectOutputStream reservedOut = new ObjectOutputStream(reserved.getOutputStream());
+        ObjectInputStream reservedIn = new ObjectInputStream(reserved.getInputStream());
+        Request reservedRequest = new Request("Ask","reserved",image);
+        reservedRequest.setReserved(true);
+        assertEquals( 1026, loadTrakerReader.reserveServer(List.of(1025, 1027)) );
+        reservedOut.writeObject( reservedRequest );
+        assertEquals( Response.OK, ((Response) reservedIn.readObject()).getStatus() );
+        reserved.close();
+        ServerLoad confirmed = loadTrakerReader.getServerLoads().stream().filter( load -> load.getPort() == 1026 ).findFirst().orElseThrow();
+        assertEquals( 0, confirmed.getPending() );
+
+        // the waiting part waited for the running one, both were timed and published
+        assertTrue( busyServer.getServiceTime() > 0 );
+        assertTrue( busyServer.getQueueWait() > 0 );
+        ServerLoad published = loadTrakerReader.getServerLoads().stream().filter( load -> load.getPort() == 1026 ).findFirst().orElseThrow();
+        assertTrue( published.getServiceTime() > 0 );
+
+        busyServer.close();
+    }
+
+    @Test
+    @DisplayName("Testing a full task pool drops the oldest part and reports it")
+    public void testDropOldestWhenPoolFull() throws Exception
+    {
+        Config config = new Config();
+        config.setQueueCapacity(1);
+        config.setRejectionPolicy("dropOldest");
+        Server fullServer = new Server("FullServer", 1028, 1, loadTraker, config);
+        MockObserver observer = new MockObserver();
+        fullServer.addObserver(observer);
+        fullServer.start();
+
+        BufferedImage image = new BufferedImage(10,10, BufferedImage.TYPE_INT_RGB );
+
+        // keeps the only executor occupied while the connection stays open
+        Socket running = new Socket("localhost", 1028);
+        ObjectOutputStream runningOut = new ObjectOutputStream(running.getOutputStream());
+        ObjectInputStream runningIn = new ObjectInputStream(running.getInputStream());
+        runningOut.writeObject( new Request("Ask","running",image) );
+        assertEquals( Response.OK, ((Response) runningIn.readObject()).getStatus() );
+
+        // fills the queue, then is dropped for the next part
+        Socket oldest = new Socket("localhost", 1028);
+        ObjectOutputStream oldestOut = new ObjectOutputStream(oldest.getOutputStream());
+        ObjectInputStream oldestIn = new ObjectInputStream(oldest.getInputStream());
+        oldestOut.writeObject( new Request("Ask","oldest",image) );
+        awaitWaiting( fullServer, 1 );
+
+        Socket newest = new Socket("localhost", 1028);
+        ObjectOutputStream newestOut = new ObjectOutputStream(newest.getOutputStream());
+        ObjectInputStream newestIn = new ObjectInputStream(newest.getInputStream());
+        newestOut.writeObject( new Request("Ask","newest",image) );
+
+        Response dropped = (Response) oldestIn.readObject();
+        assertEquals( Response.BUSY, dropped.getStatus() );
+        assertEquals( "oldest", dropped.getMessage() );
+
+        running.close();
+        assertEquals( Response.OK, ((Response) newestIn.readObject()).getStatus() );
+        newest.close();
+        oldest.close();
+
+        assertEquals( 1, fullServer.getRejectedTasks() );
+        ServerLoad published = loadTrakerReader.getServerLoads().stream().filter( load -> load.getPort() == 1028 ).findFirst().orElseThrow();
+        assertEquals( 1, published.getRejected() );
+        assertTrue( observer.getEvents().stream().anyMatch( event -> event.getType() == EventTypes.ERROR && event.getMessage().contains( "oldest" ) ) );
+
+        fullServer.close();
+    }
+
+    @Test
+    @DisplayName("Testing draining a server lets the queued parts run before it closes")
+    public void testDrainRunsQueuedParts() throws Exception
+    {
+        Server drainedServer = new Server("DrainedServer", 1029, 1, loadTraker);
+        drainedServer.start();
+
+        BufferedImage image = new BufferedImage(10,10, BufferedImage.TYPE_INT_RGB );
+
+        // keeps the only executor occupied while the connection stays open
+        Socket running = new Socket("localhost", 1029);
+        ObjectOutputStream runningOut = new ObjectOutputStream(running.getOutputStream());
+        ObjectInputStream runningIn = new ObjectInputStream(running.getInputStream());
+        runningOut.writeObject( new Request("Ask","running",image) );
+        assertEquals( Response.OK, ((Response) runningIn.readObject()).getStatus() );
+
+        Socket queued = new Socket("localhost", 1029);
+        ObjectOutputStream queuedOut = new ObjectOutputStream(queued.getOutputStream());
+        ObjectInputStream queuedIn = new ObjectInputStream(queued.getInputStream());
+        queuedOut.writeObject( new Request("Ask","queued",image) );
+        awaitWaiting( drainedServer, 1 );
+
+        Thread drain = new Thread( drainedServer::drain );
+        drain.start();
+
+        Response response = (Response) queuedIn.readObject();
+        assertEquals( Response.OK, response.getStatus() );
+        assertEquals( "queued", response.getMessage() );
+
+        drain.join(10000);
+        assertFalse( drain.isAlive() );
+        assertEquals( -1, loadTrakerReader.getLoad(1029) );
+
+        running.close();
+        queued.close();
+    }
+
+    @Test
+    @DisplayName("Testing a client that does not send its request does not hold back the other connections")
+    public void testSlowClientDoesNotBlockAccept() throws Exception
+    {
+        Server acceptingServer = new Server("AcceptingServer", 1030, 1, loadTraker);
+        acceptingServer.start();
+
+        // connects and sends nothing, its admission waits for the request
+        Socket silent = new Socket("localhost", 1030);
+
+        long start = System.nanoTime();
+        Socket ping = new Socket("localhost", 1030);
+        ObjectOutputStream pingOut = new ObjectOutputStream(ping.getOutputStream());
+        ObjectInputStream pingIn = new ObjectInputStream(ping.getInputStream());
+        pingOut.writeObject( new Request(Request.PING, null) );
+        assertEquals( Response.OK, ((Response) pingIn.readObject()).getStatus() );
+        assertTrue( ( System.nanoTime() - start ) / 1_000_000 < 1000, "The ping is answered before the silent client times out" );
+
+        ping.close();
+        silent.close();
+        acceptingServer.close();
+    }
+
+    @Test
+    @DisplayName("Testing malformed requests do not stop the admission of the next clients")
+    public void testMalformedRequestsKeepAdmitting() throws Exception
+    {
+        Server admittingServer = new Server("AdmittingServer", 1031, 1, loadTraker);
+        admittingServer.start();
+
+        // more malformed requests than admission threads, each one used to end its thread
+        Object[] malformed = { "not a request", null, 42, "not a request", null, 42 };
+        for ( Object message : malformed )
+        {
+            try ( Socket socket = new Socket("localhost", 1031) )
+            {
+                ObjectOutputStream out = new ObjectOutputStream(socket.getOutputStream());
+                ObjectInputStream in = new ObjectInputStream(socket.getInputStream());
+                out.writeObject( message );
+                out.flush();
+                assertThrows( IOException.class, in::readObject );
+            }
+        }
+
+        Socket ping = new Socket("localhost", 1031);
+        ping.setSoTimeout( 5000 );
+        ObjectOutputStream pingOut = new ObjectOutputStream(ping.getOutputStream());
+        ObjectInputStream pingIn = new ObjectInputStream(ping.getInputStream());
+        pingOut.writeObject( new Request(Request.PING, null) );
+        assertEquals( Response.OK, ((Response) pingIn.readObject()).getStatus() );
+
+        ping.close();
+        admittingServer.close();
+    }
+
+    @Test
+    @DisplayName("Testing a steal request without a valid port gets nothing and the server keeps admitting")
+    public void testStealWithoutPort() throws Exception
+    {
+        Server stealServer = new Server("StealServer", 1032, 1, loadTraker);
+        stealServer.start();
+
+        for ( String port : new String[]{ "not a port", null, "not a port", null, "not a port" } )
+        {
+            try ( Socket socket = new Socket("localhost", 1032) )
+            {
+                socket.setSoTimeout( 5000 );
+                ObjectOutputStream out = new ObjectOutputStream(socket.getOutputStream());
+                ObjectInputStream in = new ObjectInputStream(socket.getInputStream());
+                out.writeObject( new Request(Request.STEAL, port) );
+                Response response = (Response) in.readObject();
+                assertEquals( Response.OK, response.getStatus() );
+                assertEquals( "0", response.getMessage() );
+            }
+        }
+
+        stealServer.close();
+    }
+
+    @Test
+    @DisplayName("Testing a part stolen in process and given away is no longer cancelled by the server that admitted it")
+    public void testGiveAwayUnregistersStolenPart() throws Exception
+    {
+        Server victim = new Server("Victim", 1033, 1, loadTraker);
+        Server thief = new Server("Thief", 1034, 1, loadTraker);
+        victim.start();
+        thief.start();
+        BufferedImage image = new BufferedImage(10,10, BufferedImage.TYPE_INT_RGB );
+
+        // keeps the only executor of both servers occupied
+        ArrayList<Socket> sockets = new ArrayList<>();
+        for ( int port : new int[]{ 1033, 1034 } )
+        {
+            Socket running = new Socket("localhost", port);
+            sockets.add(running);
+            ObjectOutputStream runningOut = new ObjectOutputStream(running.getOutputStream());
+            ObjectInputStream runningIn = new ObjectInputStream(running.getInputStream());
+            runningOut.writeObject( new Request(Request.PROCESS,"running","other job",0,image) );
+            assertEquals( Response.OK, ((Response) runningIn.readObject()).getStatus() );
+        }
+
+        Socket queued = new Socket("localhost", 1033);
+        sockets.add(queued);
+        ObjectOutputStream queuedOut = new ObjectOutputStream(queued.getOutputStream());
+        ObjectInputStream queuedIn = new ObjectInputStream(queued.getInputStream());
+        queuedOut.writeObject( new Request(Request.PROCESS,"queued","job",0,image) );
+        awaitWaiting( victim, 1 );
+        assertTrue( thief.stealFrom( victim ) );
+
+        // another process asks the thief for the part
+        try ( Socket steal = new Socket("localhost", 1034) )
+        {
+            ObjectOutputStream out = new ObjectOutputStream(steal.getOutputStream());
+            ObjectInputStream in = new ObjectInputStream(steal.getInputStream());
+            out.writeObject( new Request(Request.STEAL, "1035") );
+            assertEquals( "1", ((Response) in.readObject()).getMessage() );
+        }
+        assertEquals( Response.STOLEN, ((Response) queuedIn.readObject()).getStatus() );
+
+        try ( Socket cancel = new Socket("localhost", 1033) )
+        {
+            ObjectOutputStream out = new ObjectOutputStream(cancel.getOutputStream());
+            ObjectInputStream in = new ObjectInputStream(cancel.getInputStream());
+            out.writeObject( new Request(Request.CANCEL,"job") );
+            assertEquals( "0", ((Response) in.readObject()).getMessage() );
+        }
+
+        for (Socket socket : sockets)
+            socket.close();
+        victim.close();
+        thief.close();
+    }
+
+    @Test
+    @DisplayName("Testing cancel removes queued parts and expired parts are dropped")
+    public void testCancelAndDeadline() throws Exception
+    {
+        Server cancelServer = new Server("CancelServer", 1027, 1, loadTraker);
+        cancelServer.start();
+
+        BufferedImage image = new BufferedImage(10,10, BufferedImage.TYPE_INT_RGB );
+
+        // keeps the only executor occupied while the connection stays open
+        Socket running = new Socket("localhost", 1027);
+        ObjectOutputStream runningOut = new ObjectOutputStream(running.getOutputStream());
+        ObjectInputStream runningIn = new ObjectInputStream(running.getInputStream());
+        runningOut.writeObject( new Request(Request.PROCESS,"running","other job",0,image) );
+        assertEquals( Response.OK, ((Response) runningIn.readObject()).getStatus() );
+
+        ArrayList<Socket> queued = new ArrayList<>();
+        for (int i = 0; i < 2; i++)
+        {
+            Socket socket = new Socket("localhost", 1027);
+            ObjectOutputStream out = new ObjectOutputStream(socket.getOutputStream());
+            new ObjectInputStream(socket.getInputStream());
+            out.writeObject( new Request(Request.PROCESS,"queued " + i,"job",0,image) );
+            queued.add(socket);
+        }
+        awaitWaiting( cancelServer, 2 );
+
+        Socket cancel = new Socket("localhost", 1027);
+        ObjectOutputStream cancelOut = new ObjectOutputStream(cancel.getOutputStream());
+        ObjectInputStream cancelIn = new ObjectInputStream(cancel.getInputStream());
+        cancelOut.writeObject( new Request(Request.CANCEL,"job") );
+        Response cancelResponse = (Response) cancelIn.readObject();
+
+        assertEquals( Response.CANCELLED, cancelResponse.getStatus() );
+        assertEquals( "2", cancelResponse.getMessage() );
+        // only the running part is left
+        assertEquals( 1, loadTrakerReader.getLoad(1027) );
+
+        Socket expired = new Socket("localhost", 1027);
+        ObjectOutputStream expiredOut = new ObjectOutputStream(expired.getOutputStream());
+        ObjectInputStream expiredIn = new ObjectInputStream(expired.getInputStream());
+        expiredOut.writeObject( new Request(Request.PROCESS,"expired","job",System.currentTimeMillis() - 1,image) );
+        assertEquals( Response.EXPIRED, ((Response) expiredIn.readObject()).getStatus() );
+
+        for (Socket socket : queued)
+            socket.close();
+        running.close();
+        cancel.close();
+        expired.close();
+
+        cancelServer.close();
+    }
+
+    /**
+     * Waits up to a second for a server to queue a number of image parts, the requests are admitted asynchronously.
+     */
+    private static void awaitWaiting( Server server, int waiting ) throws InterruptedException
+    {
+        for ( int i = 0; i < 100 && server.getWaitingTasks() < waiting; i++ )
+            Thread.sleep( 10 );
+        assertEquals( waiting, server.getWaitingTasks() );
+    }
 }
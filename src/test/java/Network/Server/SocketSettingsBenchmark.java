@@ -0,0 +1,147 @@
+package Network.Server;
+
+import Utils.Parser.Config;
+import org.junit.jupiter.api.*;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reports the effect of each socket setting on the tile round-trip latency over loopback.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class SocketSettingsBenchmark {
+
+    private static final int WARM_UP = 50;
+    private static final int ROUND_TRIPS = 300;
+    private static final int BURST_CLIENTS = 64;
+    private static final String PATH = "load_info_benchmark.temp";
+
+    @BeforeAll
+    static void startUp()
+    {
+        ServerLoadTracker.getInstance().setFilePath( PATH );
+    }
+
+    @AfterAll
+    static void cleanUp() throws IOException
+    {
+        Files.delete( Paths.get( PATH ) );
+    }
+
+    @Test
+    @DisplayName("Socket settings round-trip latency")
+    void benchmarkSocketSettings() throws Exception
+    {
+        Map<String, Config> variants = new LinkedHashMap<>();
+        variants.put( "system defaults", createConfig( false, 0, 0, 50, false ) );
+        variants.put( "tcpNoDelay", createConfig( true, 0, 0, 50, false ) );
+        variants.put( "buffers 64KiB", createConfig( false, 65536, 65536, 50, false ) );
+        variants.put( "acceptBacklog 4", createConfig( false, 0, 0, 4, false ) );
+        variants.put( "acceptBacklog 512", createConfig( false, 0, 0, 512, false ) );
+        variants.put( "reuseAddress", createConfig( false, 0, 0, 50, true ) );
+        variants.put( "config defaults", new Config() );
+
+        BufferedImage tile = new BufferedImage( 64, 64, BufferedImage.TYPE_INT_RGB );
+
+        System.out.printf( "%-20s %12s %12s %12s %16s%n", "setting", "mean (us)", "p50 (us)", "p99 (us)", "burst mean (us)" );
+
+        int port = 1100;
+        for ( Map.Entry<String, Config> variant : variants.entrySet() )
+        {
+            Server server = new Server( variant.getKey(), port, 4, ServerLoadTracker.getInstance(), variant.getValue() );
+            server.start();
+            SocketSettings settings = new SocketSettings( variant.getValue() );
+
+            for ( int i = 0; i < WARM_UP; i++ )
+                roundTrip( settings, port, tile );
+
+            long[] latencies = new long[ROUND_TRIPS];
+            for ( int i = 0; i < ROUND_TRIPS; i++ )
+                latencies[i] = roundTrip( settings, port, tile );
+
+            long burstMean = burst( settings, port, tile );
+
+            server.close();
+            port++;
+
+            Arrays.sort( latencies );
+            System.out.printf( "%-20s %12d %12d %12d %16d%n", variant.getKey(),
+                    Arrays.stream( latencies ).sum() / ROUND_TRIPS / 1000,
+                    latencies[ROUND_TRIPS / 2] / 1000,
+                    latencies[ROUND_TRIPS * 99 / 100] / 1000,
+                    burstMean / 1000 );
+        }
+    }
+
+    /**
+     * Sends one tile and waits for its response.
+     *
+     * @return the round-trip time in nanoseconds.
+     */
+    private long roundTrip( SocketSettings settings, int port, BufferedImage tile ) throws Exception
+    {
+        Request request = new Request( Request.PROCESS, "benchmark", tile );
+        long start = System.nanoTime();
+        try ( Socket socket = settings.connect( "localhost", port ) )
+        {
+            ObjectOutputStream out = new ObjectOutputStream( socket.getOutputStream() );
+            ObjectInputStream in = new ObjectInputStream( socket.getInputStream() );
+            out.writeObject( request );
+            assertEquals( Response.OK, ((Response) in.readObject()).getStatus() );
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Sends one tile from many clients connecting at once.
+     *
+     * @return the mean round-trip time in nanoseconds.
+     */
+    private long burst( SocketSettings settings, int port, BufferedImage tile ) throws InterruptedException
+    {
+        long[] latencies = new long[BURST_CLIENTS];
+        ArrayList<Thread> clients = new ArrayList<>();
+        for ( int i = 0; i < BURST_CLIENTS; i++ )
+        {
+            int client = i;
+            clients.add( new Thread( () -> {
+                try {
+                    latencies[client] = roundTrip( settings, port, tile );
+                } catch ( Exception e ) {
+                    latencies[client] = 0;
+                }
+            } ) );
+        }
+
+        for ( Thread client : clients )
+            client.start();
+        for ( Thread client : clients )
+            client.join();
+
+        return Arrays.stream( latencies ).sum() / BURST_CLIENTS;
+    }
+
+    private static Config createConfig( boolean tcpNoDelay, int sendBufferSize, int receiveBufferSize, int acceptBacklog, boolean reuseAddress )
+    {
+        Config config = new Config();
+        config.setTcpNoDelay( tcpNoDelay );
+        config.setSendBufferSize( sendBufferSize );
+        config.setReceiveBufferSize( receiveBufferSize );
+        config.setAcceptBacklog( acceptBacklog );
+        config.setReuseAddress( reuseAddress );
+        return config;
+    }
+}
@@ -0,0 +1,126 @@
+package Network.Server;
+
+import Utils.Parser.Config;
+import org.junit.jupiter.api.*;
+
+import java.awt.image.BufferedImage;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorkStealerTest {
+
+    private static final int START_PORT = 1080;
+
+    private ServersHandler serversHandler;
+    private Server loaded;
+    private Server idle;
+    private Socket holder;
+
+    @BeforeEach
+    void setUp() throws Exception
+    {
+        Config config = new Config();
+        config.setStartPort( START_PORT );
+        config.setServerAmount( 2 );
+        config.setMaxServersNumber( 2 );
+        config.setTaskPoolSize( 1 );
+
+        InMemoryLoadTracker tracker = new InMemoryLoadTracker();
+        serversHandler = new ServersHandler( config, tracker, tracker );
+        serversHandler.startConfigServer();
+        List<Server> servers = serversHandler.getServers();
+        loaded = servers.get( 0 );
+        idle = servers.get( 1 );
+
+        // a client that keeps its connection open keeps the only executor of the loaded server busy
+        holder = new Socket( "localhost", START_PORT );
+        ObjectOutputStream out = new ObjectOutputStream( holder.getOutputStream() );
+        ObjectInputStream in = new ObjectInputStream( holder.getInputStream() );
+        out.writeObject( request( "holder" ) );
+        assertEquals( Response.OK, ((Response) in.readObject()).getStatus() );
+    }
+
+    @AfterEach
+    void tearDown() throws Exception
+    {
+        holder.close();
+        serversHandler.closeAllServers();
+    }
+
+    @Test
+    @DisplayName("An idle server of the handler steals the most recently queued tile")
+    void testStealInProcess() throws Exception
+    {
+        CompletableFuture<Response> first = send( START_PORT, "first" );
+        waitForWaiting( 1 );
+        CompletableFuture<Response> second = send( START_PORT, "second" );
+        waitForWaiting( 2 );
+
+        WorkStealer workStealer = new WorkStealer( serversHandler, null, new Config() );
+        assertEquals( 1, workStealer.check(), "The idle server has one executor" );
+
+        Response stolen = second.get( 5, TimeUnit.SECONDS );
+        assertEquals( Response.OK, stolen.getStatus() );
+        assertEquals( "second", stolen.getMessage() );
+        assertFalse( first.isDone(), "The oldest tile stays queued in the loaded server" );
+        assertEquals( 1, loaded.getWaitingTasks() );
+
+        holder.close();
+        assertEquals( "first", first.get( 5, TimeUnit.SECONDS ).getMessage() );
+    }
+
+    @Test
+    @DisplayName("A steal request sends the client of the most recently queued tile to the idle server")
+    void testStealRequest() throws Exception
+    {
+        CompletableFuture<Response> first = send( START_PORT, "first" );
+        waitForWaiting( 1 );
+        CompletableFuture<Response> second = send( START_PORT, "second" );
+        waitForWaiting( 2 );
+
+        assertTrue( idle.requestSteal( START_PORT ) );
+
+        Response redirect = second.get( 5, TimeUnit.SECONDS );
+        assertEquals( Response.STOLEN, redirect.getStatus() );
+        assertEquals( START_PORT + 1, redirect.getRedirectPort() );
+        assertFalse( first.isDone() );
+        assertEquals( 1, loaded.getWaitingTasks() );
+
+        assertEquals( Response.OK, send( redirect.getRedirectPort(), "second" ).get( 5, TimeUnit.SECONDS ).getStatus() );
+    }
+
+    private void waitForWaiting(int waiting) throws InterruptedException
+    {
+        for ( int i = 0; i < 100 && loaded.getWaitingTasks() < waiting; i++ )
+            Thread.sleep( 20 );
+        assertEquals( waiting, loaded.getWaitingTasks() );
+    }
+
+    private static CompletableFuture<Response> send(int port, String message)
+    {
+        return CompletableFuture.supplyAsync( () -> {
+            try ( Socket socket = new Socket( "localhost", port ) )
+            {
+                ObjectOutputStream out = new ObjectOutputStream( socket.getOutputStream() );
+                ObjectInputStream in = new ObjectInputStream( socket.getInputStream() );
+                out.writeObject( request( message ) );
+                return (Response) in.readObject();
+            }
+            catch ( Exception e )
+            {
+                throw new RuntimeException( e );
+            }
+        } );
+    }
+
+    private static Request request(String message)
+    {
+        return new Request( Request.PROCESS, message, new BufferedImage( 10, 10, BufferedImage.TYPE_INT_RGB ) );
+    }
+}
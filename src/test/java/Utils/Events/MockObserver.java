@@ -9,11 +9,14 @@ public  class MockObserver implements Observer {
     private final ArrayList<Event> events = new ArrayList<>();
 
     @Override
-    public void update(Subject subject, Event event) {
+    public synchronized void update(Subject subject, Event event) {
         events.add(event);
     }
 
-    public ArrayList<Event> getEvents() {
-        return events;
+    /**
+     * @return a copy of the received events, servers keep notifying from their own threads while a test reads them.
+     */
+    public synchronized ArrayList<Event> getEvents() {
+        return new ArrayList<>(events);
     }
 }
@@ -0,0 +1,52 @@
+package Utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EwmaTest {
+
+    @Test
+    @DisplayName("Running testFirstSampleSetsAverage")
+    public void testFirstSampleSetsAverage() {
+        Ewma ewma = new Ewma(0.5);
+        assertEquals(0, ewma.get());
+        assertEquals(10, ewma.add(10));
+        assertEquals(10, ewma.get());
+    }
+
+    @Test
+    @DisplayName("Running testRecentSamplesWeighMore")
+    public void testRecentSamplesWeighMore() {
+        Ewma ewma = new Ewma(0.5);
+        ewma.add(10);
+        assertEquals(15, ewma.add(20));
+        assertEquals(17.5, ewma.add(20));
+    }
+
+    @Test
+    @DisplayName("Running testConcurrentSamples")
+    public void testConcurrentSamples() throws InterruptedException {
+        Ewma ewma = new Ewma(0.1);
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10000; j++)
+                    ewma.add(5);
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(5, ewma.get(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Running testInvalidWeight")
+    public void testInvalidWeight() {
+        assertThrows(IllegalArgumentException.class, () -> new Ewma(0));
+        assertThrows(IllegalArgumentException.class, () -> new Ewma(1.5));
+    }
+}
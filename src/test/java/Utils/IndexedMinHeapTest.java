@@ -0,0 +1,88 @@
+package Utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndexedMinHeapTest {
+
+    @Test
+    @DisplayName("Running testPeekAndUpdate")
+    public void testPeekAndUpdate() {
+        IndexedMinHeap heap = new IndexedMinHeap();
+        assertEquals(-1, heap.peek());
+
+        heap.insert(8888, 3);
+        heap.insert(8889, 1);
+        heap.insert(8890, 2);
+        assertEquals(8889, heap.peek());
+
+        // increase-key moves the minimum down, decrease-key moves an entry up
+        heap.update(8889, 5);
+        assertEquals(8890, heap.peek());
+        heap.update(8888, 0);
+        assertEquals(8888, heap.peek());
+        assertEquals(0, heap.getKey(8888));
+
+        assertFalse(heap.update(1, 0));
+        assertEquals(3, heap.size());
+    }
+
+    @Test
+    @DisplayName("Running testRemove")
+    public void testRemove() {
+        IndexedMinHeap heap = new IndexedMinHeap();
+        heap.insert(1, 1);
+        heap.insert(2, 2);
+        heap.insert(3, 3);
+
+        assertTrue(heap.remove(1));
+        assertFalse(heap.remove(1));
+        assertFalse(heap.contains(1));
+        assertEquals(2, heap.peek());
+        assertTrue(Double.isNaN(heap.getKey(1)));
+    }
+
+    @Test
+    @DisplayName("Running testPeekExcluding")
+    public void testPeekExcluding() {
+        IndexedMinHeap heap = new IndexedMinHeap();
+        for (int i = 1; i <= 10; i++)
+            heap.insert(i, i);
+
+        assertEquals(1, heap.peekExcluding(List.of()));
+        assertEquals(4, heap.peekExcluding(List.of(1, 2, 3)));
+        assertEquals(-1, heap.peekExcluding(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10)));
+    }
+
+    @Test
+    @DisplayName("Running testMatchesSortedOrder")
+    public void testMatchesSortedOrder() {
+        IndexedMinHeap heap = new IndexedMinHeap();
+        TreeMap<Integer, Double> expected = new TreeMap<>();
+        Random random = new Random(3);
+
+        for (int i = 0; i < 5000; i++) {
+            int identifier = random.nextInt(100);
+            if (random.nextInt(4) == 0) {
+                heap.remove(identifier);
+                expected.remove(identifier);
+            } else {
+                double key = random.nextDouble();
+                heap.insert(identifier, key);
+                expected.put(identifier, key);
+            }
+
+            assertEquals(expected.size(), heap.size());
+            if (!expected.isEmpty()) {
+                double min = expected.values().stream().mapToDouble(Double::doubleValue).min().getAsDouble();
+                assertEquals(min, heap.getKey(heap.peek()));
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package Utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests for the rejection policies of a bounded TaskPool")
+public class RejectionPolicyTest {
+
+    private record Part(int priority) implements ScheduledTask {
+        @Override public void run() {}
+        @Override public int getPriority() { return this.priority; }
+        @Override public long getDeadline() { return 0; }
+    }
+
+    private final CountDownLatch release = new CountDownLatch( 1 );
+    private TaskPool pool;
+
+    @AfterEach
+    void afterEachTest() throws InterruptedException
+    {
+        this.release.countDown();
+        this.pool.shutdownNow();
+        assertTrue( this.pool.awaitTermination( 5, TimeUnit.SECONDS ) );
+    }
+
+    /**
+     * Creates a pool of one executor and a queue of 2 tasks, and fills it: the executor is held by a task and the queue
+     * holds the tasks {@code first} and {@code second}.
+     */
+    private void fill(RejectionPolicy policy, Runnable first, Runnable second) throws InterruptedException
+    {
+        this.fill( new FifoTaskQueue(), policy, first, second );
+    }
+
+    /**
+     * Like {@link #fill(RejectionPolicy, Runnable, Runnable)}, with the queue discipline {@code queue}.
+     */
+    private void fill(TaskQueue queue, RejectionPolicy policy, Runnable first, Runnable second) throws InterruptedException
+    {
+        this.pool = new TaskPool( 1, false, queue, 2, policy );
+        CountDownLatch started = new CountDownLatch( 1 );
+        this.pool.addTask( () -> {
+            started.countDown();
+            try { this.release.await(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        } );
+        this.pool.start();
+        assertTrue( started.await( 5, TimeUnit.SECONDS ) );
+
+        assertTrue( this.pool.addTask( first ) );
+        assertTrue( this.pool.addTask( second ) );
+    }
+
+    @Test
+    @DisplayName("Test the reject policy gives the task back and counts it")
+    void rejectTest() throws InterruptedException
+    {
+        this.fill( RejectionPolicy.reject(), () -> {}, () -> {} );
+
+        assertFalse( this.pool.addTask( () -> {} ) );
+        assertEquals( 2, this.pool.getNumberOfWaitingTasks() );
+        assertEquals( 1, this.pool.getNumberOfRejectedTasks() );
+        assertTrue( this.pool.submit( () -> 1 ).isCompletedExceptionally() );
+    }
+
+    @Test
+    @DisplayName("Test the caller runs policy runs the task in the thread adding it")
+    void callerRunsTest() throws InterruptedException
+    {
+        this.fill( RejectionPolicy.callerRuns(), () -> {}, () -> {} );
+        AtomicReference<Thread> ranIn = new AtomicReference<>();
+
+        assertTrue( this.pool.addTask( () -> ranIn.set( Thread.currentThread() ) ) );
+        assertSame( Thread.currentThread(), ranIn.get() );
+        assertEquals( 0, this.pool.getNumberOfRejectedTasks() );
+    }
+
+    @Test
+    @DisplayName("Test the drop oldest policy hands the oldest waiting task to the drop listener")
+    void dropOldestTest() throws InterruptedException
+    {
+        Runnable first = () -> {};
+        Runnable second = () -> {};
+        Runnable third = () -> {};
+        List<Runnable> dropped = Collections.synchronizedList( new ArrayList<>() );
+
+        this.fill( RejectionPolicy.dropOldest(), first, second );
+        this.pool.setDropListener( dropped::add );
+
+        assertTrue( this.pool.addTask( third ) );
+        assertEquals( List.of( first ), dropped );
+        assertEquals( 2, this.pool.getNumberOfWaitingTasks() );
+        assertEquals( 1, this.pool.getNumberOfRejectedTasks() );
+        assertFalse( this.pool.removeTask( first ) );
+        assertTrue( this.pool.removeTask( third ) );
+    }
+
+    @Test
+    @DisplayName("Test the drop oldest policy drops the least urgent task of a priority queue, not the next one to run")
+    void dropOldestPriorityTest() throws InterruptedException
+    {
+        Runnable interactive = new Part( ScheduledTask.PRIORITY_INTERACTIVE );
+        Runnable batch = new Part( ScheduledTask.PRIORITY_BATCH );
+        Runnable normal = new Part( ScheduledTask.PRIORITY_NORMAL );
+        List<Runnable> dropped = Collections.synchronizedList( new ArrayList<>() );
+
+        this.fill( new PriorityTaskQueue(), RejectionPolicy.dropOldest(), interactive, batch );
+        this.pool.setDropListener( dropped::add );
+
+        assertTrue( this.pool.addTask( normal ) );
+        assertEquals( List.of( batch ), dropped );
+        assertTrue( this.pool.removeTask( interactive ) );
+        assertTrue( this.pool.removeTask( normal ) );
+    }
+
+    @Test
+    @DisplayName("Test the block policy waits for room in the queue")
+    void blockTest() throws InterruptedException
+    {
+        Runnable first = () -> {};
+        this.fill( RejectionPolicy.blockWithTimeout( 5000 ), first, () -> {} );
+
+        new Thread( () -> {
+            try { Thread.sleep( 100 ); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+            this.pool.removeTask( first );
+        } ).start();
+
+        long start = System.nanoTime();
+        assertTrue( this.pool.addTask( () -> {} ) );
+        assertTrue( TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start ) < 4000, "Woken up when room was made" );
+        assertEquals( 2, this.pool.getNumberOfWaitingTasks() );
+    }
+
+    @Test
+    @DisplayName("Test the block policy rejects the task after the timeout")
+    void blockTimeoutTest() throws InterruptedException
+    {
+        this.fill( RejectionPolicy.blockWithTimeout( 100 ), () -> {}, () -> {} );
+
+        long start = System.nanoTime();
+        assertFalse( this.pool.addTask( () -> {} ) );
+        assertTrue( TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start ) >= 100 );
+        assertEquals( 1, this.pool.getNumberOfRejectedTasks() );
+    }
+
+    @Test
+    @DisplayName("Test an unknown policy is refused")
+    void unknownPolicyTest()
+    {
+        this.pool = new TaskPool( 1 );
+        assertThrows( IllegalArgumentException.class, () -> RejectionPolicy.forName( "random", 0 ) );
+    }
+}
@@ -0,0 +1,218 @@
+package Utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reports the cost of handing short tasks from several producer threads to 4 executors, for the task pool, for the
+ * fair lock queue the task pool used before and for a {@link ThreadPoolExecutor}. The producers outrun the executors,
+ * so the queue grows and the duplicate scan of the fair lock queue costs more the more tasks wait.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class TaskPoolBenchmark {
+
+    private static final int EXECUTORS = 4;
+    private static final int[] PRODUCER_COUNTS = { 1, 4, 16 };
+    private static final int WARM_UP = 10_000;
+    private static final int TASKS = 50_000;
+
+    @Test
+    @DisplayName("Task hand-off cost")
+    void benchmarkHandOff() throws InterruptedException
+    {
+        System.out.printf( "%-20s %10s %16s%n", "pool", "producers", "per task (ns)" );
+
+        for ( int producers : PRODUCER_COUNTS )
+        {
+            TaskPool taskPool = new TaskPool( EXECUTORS );
+            taskPool.start();
+            report( "TaskPool", producers, taskPool::addTask );
+            taskPool.pause();
+
+            LockedPool lockedPool = new LockedPool( EXECUTORS );
+            report( "fair lock queue", producers, lockedPool::addTask );
+            lockedPool.close();
+
+            ThreadPoolExecutor executor = new ThreadPoolExecutor( EXECUTORS, EXECUTORS, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>() );
+            report( "ThreadPoolExecutor", producers, executor::execute );
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Reports the cost of what an executor does around every task: checking it is not paused, counting the task as
+     * running and counting it as done. Before, the flag and the counter were {@link VarSync}s behind fair locks and the
+     * count was printed; now they are an atomic flag and a {@link LongAdder}.
+     */
+    @Test
+    @DisplayName("Per-task bookkeeping cost")
+    void benchmarkBookkeeping() throws InterruptedException
+    {
+        System.out.printf( "%-20s %10s %16s%n", "bookkeeping", "executors", "per task (ns)" );
+
+        for ( int executors : PRODUCER_COUNTS )
+        {
+            VarSync<Boolean> isPaused = new VarSync<>( false );
+            VarSync<Integer> lockedRunning = new VarSync<>( 0 );
+            reportBookkeeping( "fair locks", executors, () -> {
+                if ( isPaused.syncGet() )
+                    return;
+                lockedRunning.lock();
+                lockedRunning.asyncSet( lockedRunning.asyncGet() + 1 );
+                lockedRunning.unlock();
+                lockedRunning.lock();
+                lockedRunning.asyncSet( lockedRunning.asyncGet() - 1 );
+                lockedRunning.unlock();
+            } );
+
+            AtomicBoolean paused = new AtomicBoolean( false );
+            LongAdder running = new LongAdder();
+            reportBookkeeping( "atomics", executors, () -> {
+                if ( paused.get() )
+                    return;
+                running.increment();
+                running.decrement();
+            } );
+        }
+    }
+
+    private static void reportBookkeeping( String name, int executors, Runnable bookkeeping ) throws InterruptedException
+    {
+        runBookkeeping( executors, WARM_UP * 10, bookkeeping );
+        long start = System.nanoTime();
+        runBookkeeping( executors, TASKS * 10, bookkeeping );
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf( "%-20s %10d %16d%n", name, executors, elapsed / ( TASKS * 10L ) );
+    }
+
+    /**
+     * Runs the bookkeeping of the tasks split between the executor threads, all at once.
+     */
+    private static void runBookkeeping( int executors, int tasks, Runnable bookkeeping ) throws InterruptedException
+    {
+        Thread[] threads = new Thread[executors];
+        for ( int e = 0; e < executors; e++ )
+        {
+            threads[e] = new Thread( () -> {
+                for ( int i = 0; i < tasks / executors; i++ )
+                    bookkeeping.run();
+            } );
+            threads[e].start();
+        }
+        for ( Thread thread : threads )
+            thread.join();
+    }
+
+    private static void report( String name, int producers, Consumer<Runnable> submit ) throws InterruptedException
+    {
+        run( producers, WARM_UP, submit );
+        long start = System.nanoTime();
+        run( producers, TASKS, submit );
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf( "%-20s %10d %16d%n", name, producers, elapsed / TASKS );
+    }
+
+    /**
+     * Submits the tasks from the producer threads and waits until every task ran. Every task is a distinct object, so
+     * the duplicate check of the pools never finds one.
+     */
+    private static void run( int producers, int tasks, Consumer<Runnable> submit ) throws InterruptedException
+    {
+        CountDownLatch done = new CountDownLatch( tasks );
+        Thread[] threads = new Thread[producers];
+        for ( int p = 0; p < producers; p++ )
+        {
+            threads[p] = new Thread( () -> {
+                for ( int i = 0; i < tasks / producers; i++ )
+                    submit.accept( done::countDown );
+            } );
+            threads[p].start();
+        }
+        for ( Thread thread : threads )
+            thread.join();
+
+        assertTrue( done.await( 60, TimeUnit.SECONDS ) );
+    }
+
+    /**
+     * The queue of the task pool before it was made lock-free: a fair lock around a linked list, a scan for duplicates
+     * and a condition the executors wait on.
+     */
+    private static class LockedPool {
+
+        private final ReentrantLock lock = new ReentrantLock( true );
+        private final Condition awaitTasks = this.lock.newCondition();
+        private final LinkedList<Runnable> tasks = new LinkedList<>();
+        private final Thread[] executors;
+        private volatile boolean running = true;
+
+        LockedPool( int size )
+        {
+            this.executors = new Thread[size];
+            for ( int i = 0; i < size; i++ )
+            {
+                this.executors[i] = new Thread( this::work );
+                this.executors[i].start();
+            }
+        }
+
+        void addTask( Runnable task )
+        {
+            this.lock.lock();
+            if ( !this.tasks.contains( task ) )
+            {
+                this.tasks.add( task );
+                this.awaitTasks.signal();
+            }
+            this.lock.unlock();
+        }
+
+        private void work()
+        {
+            while ( this.running )
+            {
+                Runnable task = null;
+                this.lock.lock();
+                try
+                {
+                    while ( this.tasks.isEmpty() && this.running )
+                        this.awaitTasks.await( 100, TimeUnit.MILLISECONDS );
+                    task = this.tasks.poll();
+                }
+                catch ( InterruptedException e )
+                {
+                    return;
+                }
+                finally
+                {
+                    this.lock.unlock();
+                }
+
+                if ( task != null )
+                    task.run();
+            }
+        }
+
+        void close()
+        {
+            this.running = false;
+        }
+    }
+}
@@ -1,6 +1,18 @@
 package Utils;
 
 import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("Tests for TaskPool")
@@ -228,6 +240,41 @@ public class TaskPoolTest {
 
     }
 
+    @Test
+    @DisplayName( "Test awaitTermination waits for a removed executor still running a task" )
+    void awaitRemovedExecutorTest() throws InterruptedException {
+
+        TaskPool pool = new TaskPool(1);
+        pool.start();
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CountDownLatch releaseSecond = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+
+        // the first executor runs the first task, the added one the second task, and is removed while running it
+        pool.addTask(() -> { started.countDown(); awaitQuietly(releaseFirst); });
+        pool.addExecutors(1);
+        pool.addTask(() -> { started.countDown(); awaitQuietly(releaseSecond); });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(pool.removeExecutors(1));
+
+        releaseFirst.countDown();
+        pool.shutdown();
+        assertFalse(pool.awaitTermination(200, TimeUnit.MILLISECONDS), "The removed executor is still running");
+        assertFalse(pool.isTerminated());
+
+        releaseSecond.countDown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(pool.isTerminated());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     @Test
     @DisplayName( "Test is isPaused" )
     void isPausedTest(){
@@ -243,5 +290,233 @@ public class TaskPoolTest {
         assertEquals(0 , this.myTaskPool.getNumberOfRunningTasks());
     }
 
+    @Test
+    @DisplayName( "Test stealTask takes the most recent task and keeps the order of the others" )
+    void stealTaskTest(){
+
+        Task t1 = new Task(1, "t1");
+        Task t2 = new Task(1, "t2");
+        Task t3 = new Task(1, "t3");
+        this.myTaskPool.addTask( t1 );
+        this.myTaskPool.addTask( t2 );
+        this.myTaskPool.addTask( t3 );
+
+        assertSame( t3, this.myTaskPool.stealTask() );
+        assertEquals( 2, this.myTaskPool.getNumberOfWaitingTasks() );
+        assertTrue( this.myTaskPool.removeTask( t2 ) );
+        assertSame( t1, this.myTaskPool.stealTask() );
+        assertNull( this.myTaskPool.stealTask() );
+    }
+
+    @Test
+    @DisplayName( "Test work stealing runs the tasks added by an executor most recent first" )
+    void workStealingLocalOrderTest() throws InterruptedException {
+
+        TaskPool pool = new TaskPool(1, true);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(4);
+
+        pool.addTask(() -> {
+            for (String name : List.of("a", "b", "c"))
+                pool.addTask(() -> { order.add(name); done.countDown(); });
+            done.countDown();
+        });
+        pool.start();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("c", "b", "a"), order);
+        pool.pause();
+    }
+
+    @Test
+    @DisplayName( "Test work stealing keeps the FIFO order of the tasks added from outside" )
+    void workStealingExternalOrderTest() throws InterruptedException {
+
+        TaskPool pool = new TaskPool(1, true);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(3);
+
+        for (String name : List.of("t1", "t2", "t3"))
+            pool.addTask(() -> { order.add(name); done.countDown(); });
+        pool.start();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("t1", "t2", "t3"), order);
+        pool.pause();
+    }
+
+    @Test
+    @DisplayName( "Test an idle executor steals from the deque of a busy one" )
+    void workStealingStealTest() throws InterruptedException {
+
+        TaskPool pool = new TaskPool(2, true);
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(2);
+        Runnable slowPart = () -> {
+            threads.add(Thread.currentThread());
+            try { Thread.sleep(200); } catch (InterruptedException e) { e.printStackTrace(); }
+            done.countDown();
+        };
+
+        pool.start();
+        pool.addTask(() -> {
+            pool.addTask(slowPart);
+            pool.addTask(() -> slowPart.run());
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(2, threads.size(), "Both parts ran at once on the two executors");
+        assertEquals(0, pool.getNumberOfWaitingTasks());
+        pool.pause();
+    }
+
+    @Test
+    @DisplayName( "Test shutdown runs the waiting tasks, then stops the executors" )
+    void shutdownTest() throws InterruptedException {
+
+        TaskPool pool = new TaskPool(1);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        for (String name : List.of("t1", "t2", "t3"))
+            pool.addTask(() -> order.add(name));
+
+        pool.start();
+        pool.shutdown();
+        pool.addTask(() -> order.add("late"));
+
+        assertTrue(pool.isShutdown());
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(pool.isTerminated());
+        assertEquals(List.of("t1", "t2", "t3"), order);
+    }
+
+    @Test
+    @DisplayName( "Test shutdownNow hands back the waiting tasks and lets the running one finish" )
+    void shutdownNowTest() throws InterruptedException {
+
+        TaskPool pool = new TaskPool(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable running = () -> {
+            started.countDown();
+            try { release.await(); } catch (InterruptedException e) { e.printStackTrace(); }
+        };
+        Runnable t2 = () -> {};
+        Runnable t3 = () -> {};
+
+        pool.addTask(running);
+        pool.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        pool.addTask(t2);
+        pool.addTask(t3);
+
+        assertEquals(List.of(t2, t3), pool.shutdownNow());
+        assertEquals(0, pool.getNumberOfWaitingTasks());
+        assertFalse(pool.awaitTermination(100, TimeUnit.MILLISECONDS), "The running task is not interrupted");
+
+        release.countDown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName( "Test an idle executor parks until a task arrives" )
+    void idleExecutorParksTest() throws InterruptedException {
+
+        TaskPool pool = new TaskPool(1);
+        Thread[] executor = new Thread[1];
+        CountDownLatch first = new CountDownLatch(1);
+        pool.addTask(() -> { executor[0] = Thread.currentThread(); first.countDown(); });
+        pool.start();
+        assertTrue(first.await(5, TimeUnit.SECONDS));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (executor[0].getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+        assertEquals(Thread.State.WAITING, executor[0].getState(), "The executor waits without a timeout");
+
+        CountDownLatch second = new CountDownLatch(1);
+        pool.addTask(second::countDown);
+        assertTrue(second.await(5, TimeUnit.SECONDS));
+
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName( "Test submit completes the future with the result or the exception of the task" )
+    void submitTest() throws Exception {
+
+        TaskPool pool = new TaskPool(1);
+        pool.start();
+
+        assertEquals(42, pool.submit(() -> 42).get(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Integer> failed = pool.submit(() -> { throw new IllegalStateException("failed"); });
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+
+        pool.shutdown();
+        assertTrue(pool.submit(() -> 1).isCompletedExceptionally(), "A shut down pool rejects the task");
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName( "Test a task that throws is reported and the executor keeps running the next tasks" )
+    void failingTaskTest() throws InterruptedException {
 
+        TaskPool pool = new TaskPool(1);
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        pool.setFailureListener((task, failure) -> failures.add(failure));
+        CountDownLatch ran = new CountDownLatch(1);
+
+        pool.addTask(() -> { throw new IllegalStateException("failed"); });
+        pool.addTask(ran::countDown);
+        pool.start();
+
+        assertTrue(ran.await(5, TimeUnit.SECONDS), "The executor survived the failure");
+        assertEquals(1, failures.size());
+        assertInstanceOf(IllegalStateException.class, failures.get(0));
+
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(0, pool.getNumberOfRunningTasks(), "The failed task is no longer counted as running");
+    }
+
+    @Test
+    @DisplayName( "Test cancelling the future of a waiting task removes it from the queue" )
+    void submitCancelTest() throws InterruptedException {
+
+        TaskPool pool = new TaskPool(1);
+        AtomicBoolean ran = new AtomicBoolean();
+        CompletableFuture<Boolean> future = pool.submit(() -> ran.getAndSet(true));
+        assertEquals(1, pool.getNumberOfWaitingTasks());
+
+        assertTrue(future.cancel(false));
+        assertTrue(future.isCancelled());
+        assertEquals(0, pool.getNumberOfWaitingTasks());
+
+        pool.start();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        assertFalse(ran.get());
+    }
+
+    @Test
+    @DisplayName( "Test the stages chained on a future run on the executors" )
+    void submitChainTest() throws Exception {
+
+        TaskPool pool = new TaskPool(1);
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+        CompletableFuture<String> future = pool.submit(() -> { threads.add(Thread.currentThread()); return "decoded"; })
+                .thenApply(part -> { threads.add(Thread.currentThread()); return part + " transformed"; })
+                .thenApplyAsync(part -> { threads.add(Thread.currentThread()); return part + " encoded"; });
+        pool.start();
+
+        assertEquals("decoded transformed encoded", future.get(5, TimeUnit.SECONDS));
+        assertEquals(1, threads.size(), "All the stages ran on the only executor");
+        assertFalse(threads.contains(Thread.currentThread()));
+
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+    }
 }
@@ -0,0 +1,238 @@
+package Utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests for the queue disciplines of the TaskPool")
+public class TaskQueueTest {
+
+    /**
+     * A task with a name, a priority class, a deadline, a job and a cost.
+     */
+    private record Part(String name, int priority, long deadline, String jobId, long cost, Runnable body) implements ScheduledTask {
+
+        Part(String name, int priority, long deadline)
+        {
+            this( name, priority, deadline, () -> {} );
+        }
+
+        Part(String name, int priority, long deadline, Runnable body)
+        {
+            this( name, priority, deadline, null, 1, body );
+        }
+
+        Part(String jobId, String name, long cost)
+        {
+            this( name, ScheduledTask.PRIORITY_NORMAL, 0, jobId, cost, () -> {} );
+        }
+
+        @Override
+        public String getJobId()
+        {
+            return this.jobId;
+        }
+
+        @Override
+        public long getCost()
+        {
+            return this.cost;
+        }
+
+        @Override
+        public int getPriority()
+        {
+            return this.priority;
+        }
+
+        @Override
+        public long getDeadline()
+        {
+            return this.deadline;
+        }
+
+        @Override
+        public void run()
+        {
+            this.body.run();
+        }
+    }
+
+    private static List<String> drain(TaskQueue queue)
+    {
+        List<String> names = new ArrayList<>();
+        Runnable task;
+        while ( ( task = queue.poll() ) != null )
+            names.add( ( (Part) task ).name() );
+        return names;
+    }
+
+    @Test
+    @DisplayName("Test the FIFO queue runs the tasks in the order they were added")
+    void fifoTest()
+    {
+        TaskQueue queue = TaskQueue.forName( "fifo" );
+        queue.offer( new Part( "batch", ScheduledTask.PRIORITY_BATCH, 0 ) );
+        queue.offer( new Part( "interactive", ScheduledTask.PRIORITY_INTERACTIVE, 0 ) );
+        queue.offerFirst( new Part( "given back", ScheduledTask.PRIORITY_BATCH, 0 ) );
+
+        assertEquals( List.of( "given back", "batch", "interactive" ), drain( queue ) );
+    }
+
+    @Test
+    @DisplayName("Test the priority queue runs the most urgent class first and keeps the order within a class")
+    void priorityTest()
+    {
+        TaskQueue queue = TaskQueue.forName( "priority" );
+        Part b1 = new Part( "b1", ScheduledTask.PRIORITY_BATCH, 0 );
+        queue.offer( b1 );
+        queue.offer( new Part( "b2", ScheduledTask.PRIORITY_BATCH, 0 ) );
+        queue.offer( new Part( "n1", ScheduledTask.PRIORITY_NORMAL, 0 ) );
+        queue.offer( new Part( "i1", ScheduledTask.PRIORITY_INTERACTIVE, 0 ) );
+        queue.offer( new Part( "i2", ScheduledTask.PRIORITY_INTERACTIVE, 0 ) );
+
+        assertEquals( "b2", ( (Part) queue.pollLast() ).name(), "The last batch part waits the longest" );
+        assertTrue( queue.remove( b1 ) );
+        assertFalse( queue.remove( b1 ) );
+        assertEquals( List.of( "i1", "i2", "n1" ), drain( queue ) );
+    }
+
+    @Test
+    @DisplayName("Test the deadline queue runs the earliest deadline first and the tasks without one last")
+    void deadlineTest()
+    {
+        TaskQueue queue = TaskQueue.forName( "deadline" );
+        Part late = new Part( "late", ScheduledTask.PRIORITY_NORMAL, 3000 );
+        queue.offer( new Part( "none", ScheduledTask.PRIORITY_NORMAL, 0 ) );
+        queue.offer( late );
+        queue.offer( new Part( "early", ScheduledTask.PRIORITY_NORMAL, 1000 ) );
+        queue.offer( new Part( "early too", ScheduledTask.PRIORITY_NORMAL, 1000 ) );
+        queue.offerFirst( new Part( "early given back", ScheduledTask.PRIORITY_NORMAL, 1000 ) );
+
+        assertTrue( queue.remove( late ) );
+        assertEquals( List.of( "early given back", "early", "early too", "none" ), drain( queue ) );
+        assertNull( queue.pollLast() );
+    }
+
+    @Test
+    @DisplayName("Test the fair share queue takes turns between the jobs and keeps the order within a job")
+    void fairShareTest()
+    {
+        TaskQueue queue = TaskQueue.forName( "fair" );
+        for ( int i = 1; i <= 4; i++ )
+            queue.offer( new Part( "flood", "f" + i, 1 ) );
+        queue.offer( new Part( "small", "s1", 1 ) );
+        queue.offer( new Part( "small", "s2", 1 ) );
+
+        assertEquals( "f4", ( (Part) queue.pollLast() ).name(), "The job with the most waiting tasks gives one away" );
+        assertEquals( List.of( "f1", "s1", "f2", "s2", "f3" ), drain( queue ) );
+    }
+
+    @Test
+    @DisplayName("Test the fair share queue shares the work, not the number of tasks")
+    void fairShareCostTest()
+    {
+        TaskQueue queue = TaskQueue.forName( "fair" );
+        for ( int i = 1; i <= 2; i++ )
+            queue.offer( new Part( "large", "l" + i, 2 ) );
+        for ( int i = 1; i <= 4; i++ )
+            queue.offer( new Part( "small", "s" + i, 1 ) );
+
+        assertEquals( List.of( "l1", "s1", "s2", "l2", "s3", "s4" ), drain( queue ) );
+    }
+
+    @Test
+    @DisplayName("Test concurrent jobs progress at the same rate with the fair share queue")
+    void fairShareProgressTest() throws InterruptedException
+    {
+        TaskPool pool = new TaskPool( 2, false, new FairShareTaskQueue() );
+        List<String> done = Collections.synchronizedList( new ArrayList<>() );
+        CountDownLatch finished = new CountDownLatch( 400 );
+        for ( String job : List.of( "first", "second" ) )
+        {
+            for ( int i = 0; i < 200; i++ )
+                pool.addTask( new Part( job + " " + i, ScheduledTask.PRIORITY_NORMAL, 0, job, 1, () -> {
+                    done.add( job );
+                    finished.countDown();
+                } ) );
+        }
+        pool.start();
+
+        assertTrue( finished.await( 10, TimeUnit.SECONDS ) );
+        pool.shutdown();
+        assertTrue( pool.awaitTermination( 5, TimeUnit.SECONDS ) );
+
+        long second = done.subList( 0, 100 ).stream().filter( "second"::equals ).count();
+        assertTrue( second >= 40 && second <= 60, "The second job ran " + second + " of the first 100 tasks" );
+    }
+
+    @Test
+    @DisplayName("Test an unknown discipline is refused")
+    void unknownDisciplineTest()
+    {
+        assertThrows( IllegalArgumentException.class, () -> TaskQueue.forName( "random" ) );
+    }
+
+    @Test
+    @DisplayName("Test interactive tasks keep a low p99 latency under a saturating batch load with the priority queue")
+    void interactiveLatencyTest() throws InterruptedException
+    {
+        long fifo = interactiveP99( new FifoTaskQueue() );
+        long priority = interactiveP99( new PriorityTaskQueue() );
+
+        assertTrue( fifo > 100, "With FIFO the interactive tasks wait behind the batch, p99 " + fifo + " ms" );
+        assertTrue( priority < 40, "With priority classes the interactive tasks skip the batch, p99 " + priority + " ms" );
+    }
+
+    /**
+     * Queues a batch of 300 tasks of 2 ms on 2 executors, then adds an interactive task every 5 ms while the batch
+     * runs.
+     *
+     * @param queue The queue discipline of the pool.
+     * @return The 99th percentile of the time in milliseconds from adding an interactive task to its start.
+     */
+    private static long interactiveP99(TaskQueue queue) throws InterruptedException
+    {
+        TaskPool pool = new TaskPool( 2, false, queue );
+        for ( int i = 0; i < 300; i++ )
+            pool.addTask( new Part( "batch " + i, ScheduledTask.PRIORITY_BATCH, 0, () -> sleep( 2 ) ) );
+        pool.start();
+
+        int interactive = 30;
+        List<Long> latencies = Collections.synchronizedList( new ArrayList<>() );
+        CountDownLatch done = new CountDownLatch( interactive );
+        for ( int i = 0; i < interactive; i++ )
+        {
+            long added = System.nanoTime();
+            pool.addTask( new Part( "interactive " + i, ScheduledTask.PRIORITY_INTERACTIVE, 0, () -> {
+                latencies.add( TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - added ) );
+                done.countDown();
+            } ) );
+            sleep( 5 );
+        }
+
+        assertTrue( done.await( 10, TimeUnit.SECONDS ) );
+        pool.shutdownNow();
+        assertTrue( pool.awaitTermination( 5, TimeUnit.SECONDS ) );
+
+        List<Long> sorted = new ArrayList<>( latencies );
+        Collections.sort( sorted );
+        return sorted.get( Math.min( sorted.size() - 1, sorted.size() * 99 / 100 ) );
+    }
+
+    private static void sleep(long millis)
+    {
+        try {
+            Thread.sleep( millis );
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}